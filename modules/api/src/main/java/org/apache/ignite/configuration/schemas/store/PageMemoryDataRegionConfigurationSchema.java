@@ -39,6 +39,9 @@ public class PageMemoryDataRegionConfigurationSchema extends DataRegionConfigura
     /** Default max size. */
     public static final long DFLT_DATA_REGION_MAX_SIZE = 256 * 1024 * 1024;
 
+    /** Default checkpoint frequency in milliseconds. */
+    public static final long DFLT_CHECKPOINT_FREQUENCY = 180_000;
+
     /** Eviction is disabled. */
     public static final String DISABLED_EVICTION_MODE = "DISABLED";
 
@@ -90,6 +93,10 @@ public class PageMemoryDataRegionConfigurationSchema extends DataRegionConfigura
     @Value(hasDefault = true)
     public long checkpointPageBufSize = 0;
 
+    /** Checkpoint frequency in milliseconds, only used by the persistent data regions. */
+    @Value(hasDefault = true)
+    public long checkpointFrequency = DFLT_CHECKPOINT_FREQUENCY;
+
     @Value(hasDefault = true)
     public boolean lazyMemoryAllocation = true;
 }
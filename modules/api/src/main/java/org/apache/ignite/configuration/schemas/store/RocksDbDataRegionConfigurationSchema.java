@@ -56,4 +56,28 @@ public class RocksDbDataRegionConfigurationSchema extends DataRegionConfiguratio
     @Min(-1)
     @Value(hasDefault = true)
     public int numShardBits = -1;
+
+    /**
+     * Whether partition data is written bypassing the RocksDB write-ahead log. Every modification is already recorded in the Raft log,
+     * which is replayed after a crash starting from the last applied index persisted along with the data.
+     */
+    @Value(hasDefault = true)
+    public boolean disableWal = false;
+
+    /**
+     * Limit of the flush and compaction write rate, in bytes per second, shared by all the tables of the region. {@code 0} means no
+     * limit.
+     */
+    @Min(0)
+    @Value(hasDefault = true)
+    public long writeRateLimit = 0;
+
+    /**
+     * Whether every partition of a table created in the region gets a column family of its own. A partition is then dropped with its
+     * column family, and compactions never mix the data of different partitions, at the cost of a memtable per partition. Otherwise the
+     * partitions of a table share one column family, and the key range of a dropped partition is deleted and compacted away. Changing
+     * the flag only affects the partitions created afterwards.
+     */
+    @Value(hasDefault = true)
+    public boolean partitionColumnFamilies = false;
 }
@@ -49,6 +49,15 @@ public class TableConfigurationSchema {
     @Value(hasDefault = true)
     public int replicas = 1;
 
+    /**
+     * Time-to-live of the rows in milliseconds, {@code 0} if the rows never expire. A row expires when the time has passed since the
+     * commit of its last update. Expired rows are invisible to the reads and are removed by every replica on its own, without replicated
+     * deletes. Applies to the partitions started after the change.
+     */
+    @Min(0)
+    @Value(hasDefault = true)
+    public long ttl = 0;
+
     /** Data region. */
     @Value(hasDefault = true)
     public String dataRegion = DEFAULT_DATA_REGION_NAME;
@@ -64,4 +73,8 @@ public class TableConfigurationSchema {
     /** Indices configuration. */
     @NamedConfigValue
     public TableIndexConfigurationSchema indices;
+
+    /** Storage options. */
+    @ConfigValue
+    public TableStorageConfigurationSchema storage;
 }
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.configuration.schemas.table;
+
+import org.apache.ignite.configuration.annotation.Config;
+import org.apache.ignite.configuration.annotation.Value;
+import org.apache.ignite.configuration.validation.Max;
+import org.apache.ignite.configuration.validation.Min;
+import org.apache.ignite.configuration.validation.OneOf;
+
+/**
+ * Storage options of a table, used by the RocksDB storage engine for both the data and the indexes of the table. The changes take effect
+ * when the table storage is restarted and only apply to the files written afterwards.
+ */
+@Config
+public class TableStorageConfigurationSchema {
+    /** No compression. */
+    public static final String NO_COMPRESSION = "none";
+
+    /** Snappy compression. */
+    public static final String SNAPPY_COMPRESSION = "snappy";
+
+    /** LZ4 compression. */
+    public static final String LZ4_COMPRESSION = "lz4";
+
+    /** Zstandard compression. */
+    public static final String ZSTD_COMPRESSION = "zstd";
+
+    /** Compression of the data blocks of all the levels but the last one, a fast codec fits the data that is soon rewritten. */
+    @OneOf({NO_COMPRESSION, SNAPPY_COMPRESSION, LZ4_COMPRESSION, ZSTD_COMPRESSION})
+    @Value(hasDefault = true)
+    public String compression = SNAPPY_COMPRESSION;
+
+    /** Compression of the data blocks of the last level, which holds most of the data, a codec with a better ratio fits it. */
+    @OneOf({NO_COMPRESSION, SNAPPY_COMPRESSION, LZ4_COMPRESSION, ZSTD_COMPRESSION})
+    @Value(hasDefault = true)
+    public String bottommostCompression = SNAPPY_COMPRESSION;
+
+    /**
+     * Size of the Zstandard dictionary of an SST file of the last level, in bytes. The dictionary is shared by the data blocks of the
+     * file, so that the redundancy between the rows of different blocks is compressed as well. {@code 0} disables the dictionary.
+     */
+    @Min(0)
+    @Value(hasDefault = true)
+    public int zstdDictionarySize = 0;
+
+    /**
+     * Size of the samples the Zstandard dictionary is trained on, in bytes. Training produces better dictionaries than taking the
+     * samples as is, about 100 times the dictionary size is recommended. {@code 0} disables the training.
+     */
+    @Min(0)
+    @Value(hasDefault = true)
+    public int zstdTrainingSize = 0;
+
+    /** Size of the uncompressed data blocks, in bytes. Larger blocks compress better, but more data is read to get a single row. */
+    @Min(1024)
+    @Max(64 * 1024 * 1024)
+    @Value(hasDefault = true)
+    public int blockSize = 4 * 1024;
+}
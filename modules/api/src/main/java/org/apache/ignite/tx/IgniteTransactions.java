@@ -81,6 +81,24 @@ public interface IgniteTransactions {
      */
     CompletableFuture<Transaction> beginAsync();
 
+    /**
+     * Begins a read-only transaction. It reads the data committed as of its start, its reads take no locks, so they neither block nor
+     * are blocked by the other transactions. The writes within it fail, and its commit and rollback don't need any round trips.
+     *
+     * <p>The reads fail once the transaction gets older than the time the overwritten row versions are kept for.
+     *
+     * @return The started transaction.
+     */
+    Transaction beginReadOnly();
+
+    /**
+     * Begins an async read-only transaction.
+     *
+     * @return The future holding the started transaction.
+     * @see #beginReadOnly()
+     */
+    CompletableFuture<Transaction> beginReadOnlyAsync();
+
     /**
      * Executes a closure within a transaction.
      *
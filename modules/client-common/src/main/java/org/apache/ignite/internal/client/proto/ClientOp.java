@@ -119,4 +119,7 @@ public class ClientOp {
 
     /** Rollback transaction. */
     public static final int TX_ROLLBACK = 45;
+
+    /** Begin read-only transaction. */
+    public static final int TX_BEGIN_READ_ONLY = 46;
 }
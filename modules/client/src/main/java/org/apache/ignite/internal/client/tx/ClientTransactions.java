@@ -59,4 +59,16 @@ public class ClientTransactions implements IgniteTransactions {
     public CompletableFuture<Transaction> beginAsync() {
         return ch.serviceAsync(ClientOp.TX_BEGIN, w -> {},  r -> new ClientTransaction(r.clientChannel(), r.in().unpackLong()));
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public Transaction beginReadOnly() {
+        return sync(beginReadOnlyAsync());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Transaction> beginReadOnlyAsync() {
+        return ch.serviceAsync(ClientOp.TX_BEGIN_READ_ONLY, w -> {},  r -> new ClientTransaction(r.clientChannel(), r.in().unpackLong()));
+    }
 }
@@ -66,6 +66,16 @@ public class FakeIgnite implements Ignite {
             public CompletableFuture<Transaction> beginAsync() {
                 throw new UnsupportedOperationException();
             }
+
+            @Override
+            public Transaction beginReadOnly() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<Transaction> beginReadOnlyAsync() {
+                throw new UnsupportedOperationException();
+            }
         };
     }
 
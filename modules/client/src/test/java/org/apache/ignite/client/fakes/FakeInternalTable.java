@@ -267,6 +267,18 @@ public class FakeInternalTable implements InternalTable {
         throw new IgniteInternalException(new OperationNotSupportedException());
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public InternalTransaction beginReadOnly() {
+        throw new IgniteInternalException(new OperationNotSupportedException());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> syncReplica(int p, String nodeId, InternalTransaction tx) {
+        throw new IgniteInternalException(new OperationNotSupportedException());
+    }
+
     /** {@inheritDoc} */
     @Override
     public @NotNull List<String> assignments() {
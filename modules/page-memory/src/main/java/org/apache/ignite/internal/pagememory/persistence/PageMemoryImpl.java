@@ -0,0 +1,821 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.pagememory.persistence;
+
+import static org.apache.ignite.internal.util.GridUnsafe.NATIVE_BYTE_ORDER;
+import static org.apache.ignite.internal.util.GridUnsafe.bufferAddress;
+import static org.apache.ignite.internal.util.GridUnsafe.wrapPointer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionConfiguration;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionView;
+import org.apache.ignite.internal.pagememory.FullPageId;
+import org.apache.ignite.internal.pagememory.PageMemory;
+import org.apache.ignite.internal.pagememory.io.PageIo;
+import org.apache.ignite.internal.pagememory.io.PageIoRegistry;
+import org.apache.ignite.internal.pagememory.mem.DirectMemoryProvider;
+import org.apache.ignite.internal.pagememory.mem.DirectMemoryRegion;
+import org.apache.ignite.internal.pagememory.mem.IgniteOutOfMemoryException;
+import org.apache.ignite.internal.pagememory.metric.IoStatisticsHolder;
+import org.apache.ignite.internal.pagememory.metric.IoStatisticsHolderNoOp;
+import org.apache.ignite.internal.pagememory.persistence.store.FilePageStoreManager;
+import org.apache.ignite.internal.pagememory.util.PageIdUtils;
+import org.apache.ignite.internal.util.GridUnsafe;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.apache.ignite.internal.util.OffheapReadWriteLock;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+import org.apache.ignite.lang.IgniteInternalException;
+import org.apache.ignite.lang.IgniteLogger;
+import org.apache.ignite.lang.IgniteSystemProperties;
+
+/**
+ * Page memory backed by the {@link FilePageStoreManager}. Pages are loaded into memory on demand, clean pages are replaced using the CLOCK
+ * algorithm when the memory is exhausted, and dirty pages are tracked per segment to be written by a checkpoint.
+ *
+ * <p>Pages of a running checkpoint are protected by copy-on-write: the first write lock of such a page copies its content aside, so the
+ * checkpoint writes the page exactly as it was at the beginning of the checkpoint, while the page itself may be modified concurrently.
+ *
+ * <p>Page header structure:
+ * <pre>
+ * +--------+--------+--------+--------+--------+---------------------------+
+ * |8 bytes |8 bytes |4 bytes |4 bytes |8 bytes |        PAGE_SIZE          |
+ * +--------+--------+--------+--------+--------+---------------------------+
+ * | Flags  |Page ID |Group ID|Pin CNT |  Lock  |        Page data          |
+ * +--------+--------+--------+--------+--------+---------------------------+
+ * </pre>
+ */
+public class PageMemoryImpl implements PageMemory {
+    /** Logger. */
+    private static final IgniteLogger LOG = IgniteLogger.forClass(PageMemoryImpl.class);
+
+    /** Ignite page memory concurrency level. */
+    private static final String IGNITE_OFFHEAP_LOCK_CONCURRENCY_LEVEL = "IGNITE_OFFHEAP_LOCK_CONCURRENCY_LEVEL";
+
+    /** Flags offset. */
+    private static final int FLAGS_OFFSET = 0;
+
+    /** Page ID offset. */
+    private static final int PAGE_ID_OFFSET = 8;
+
+    /** Group ID offset. */
+    private static final int GROUP_ID_OFFSET = 16;
+
+    /** Pin counter offset. */
+    private static final int PIN_COUNT_OFFSET = 20;
+
+    /** Page lock offset. */
+    private static final int LOCK_OFFSET = 24;
+
+    /** Page header size. */
+    public static final int PAGE_OVERHEAD = LOCK_OFFSET + OffheapReadWriteLock.LOCK_SIZE;
+
+    /** Flag of a page that has been accessed since the CLOCK hand passed it. */
+    private static final long ACCESSED_FLAG = 1L;
+
+    /** Lock tag that locks a page regardless of its rotation. */
+    private static final int TAG_LOCK_ALWAYS = -1;
+
+    /** Maximum number of segments. */
+    private static final int MAX_SEGMENTS = 16;
+
+    /** Minimum number of pages in a segment. */
+    private static final int MIN_SEGMENT_PAGES = 256;
+
+    /** Ratio of dirty pages in a segment that triggers a checkpoint. */
+    private static final double DIRTY_PAGES_THRESHOLD = 0.75;
+
+    /** Page size with the header. */
+    private final int sysPageSize;
+
+    /** Direct memory allocator. */
+    private final DirectMemoryProvider directMemoryProvider;
+
+    /** Data region configuration view. */
+    private final PageMemoryDataRegionView dataRegionCfg;
+
+    /** Page IO registry. */
+    private final PageIoRegistry ioRegistry;
+
+    /** Page store manager. */
+    private final FilePageStoreManager storeMgr;
+
+    /** Callback that is invoked when there are too many dirty pages in a segment. */
+    private final Runnable dirtyPagesThresholdListener;
+
+    /** Offheap read write lock instance. */
+    private final OffheapReadWriteLock rwLock;
+
+    /** Total number of pages loaded into memory. */
+    private final AtomicInteger loadedPages = new AtomicInteger();
+
+    /** Segments. */
+    private volatile Segment[] segments;
+
+    /** {@code True} if a checkpoint is in progress and the pages of the checkpoint must be copied on write. */
+    private volatile boolean checkpointInProgress;
+
+    /** {@code False} if memory was not started or already stopped and is not supposed for any usage. */
+    private volatile boolean started;
+
+    /**
+     * Constructor.
+     *
+     * @param directMemoryProvider Memory allocator to use.
+     * @param dataRegionCfg Data region configuration.
+     * @param ioRegistry IO registry.
+     * @param storeMgr Page store manager.
+     * @param dirtyPagesThresholdListener Callback that is invoked when there are too many dirty pages in a segment, should schedule a
+     *      checkpoint.
+     */
+    public PageMemoryImpl(
+            DirectMemoryProvider directMemoryProvider,
+            PageMemoryDataRegionConfiguration dataRegionCfg,
+            PageIoRegistry ioRegistry,
+            FilePageStoreManager storeMgr,
+            Runnable dirtyPagesThresholdListener
+    ) {
+        this.directMemoryProvider = directMemoryProvider;
+        this.ioRegistry = ioRegistry;
+        this.storeMgr = storeMgr;
+        this.dirtyPagesThresholdListener = dirtyPagesThresholdListener;
+        this.dataRegionCfg = (PageMemoryDataRegionView) dataRegionCfg.value();
+
+        sysPageSize = this.dataRegionCfg.pageSize() + PAGE_OVERHEAD;
+
+        assert sysPageSize % 8 == 0 : sysPageSize;
+
+        rwLock = new OffheapReadWriteLock(IgniteSystemProperties.getInteger(
+                IGNITE_OFFHEAP_LOCK_CONCURRENCY_LEVEL,
+                Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4)
+        ));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void start() throws IgniteInternalException {
+        if (started) {
+            return;
+        }
+
+        long maxSize = dataRegionCfg.maxSize();
+
+        long totalPages = maxSize / sysPageSize;
+
+        int segCnt = (int) Math.max(1, Math.min(MAX_SEGMENTS, totalPages / MIN_SEGMENT_PAGES));
+
+        long[] chunks = new long[segCnt];
+
+        Arrays.fill(chunks, maxSize / segCnt);
+
+        directMemoryProvider.initialize(chunks);
+
+        Segment[] segments = new Segment[segCnt];
+
+        for (int i = 0; i < segCnt; i++) {
+            DirectMemoryRegion region = directMemoryProvider.nextRegion();
+
+            assert region != null : i;
+
+            segments[i] = new Segment(region);
+        }
+
+        this.segments = segments;
+
+        started = true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void stop(boolean deallocate) throws IgniteInternalException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Stopping page memory.");
+        }
+
+        started = false;
+
+        directMemoryProvider.shutdown(deallocate);
+
+        if (directMemoryProvider instanceof Closeable) {
+            try {
+                ((Closeable) directMemoryProvider).close();
+            } catch (IOException e) {
+                throw new IgniteInternalException(e);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ByteBuffer pageBuffer(long pageAddr) {
+        return wrapPointer(pageAddr, pageSize());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long allocatePage(int grpId, int partId, byte flags) throws IgniteInternalCheckedException {
+        assert started;
+
+        long pageId = storeMgr.allocatePage(grpId, partId, flags);
+
+        FullPageId fullId = new FullPageId(pageId, grpId);
+
+        Segment seg = segment(fullId);
+
+        seg.writeLock().lock();
+
+        try {
+            long absPtr = seg.borrowSlot();
+
+            GridUnsafe.zeroMemory(absPtr + PAGE_OVERHEAD, pageSize());
+
+            initPage(absPtr, fullId);
+
+            seg.loadPage(fullId, absPtr);
+        } finally {
+            seg.writeLock().unlock();
+        }
+
+        // New pages must be written by the next checkpoint even if they are never modified.
+        markDirty(seg, fullId);
+
+        return pageId;
+    }
+
+    /**
+     * Pages are never returned to the page store, use a reuse list to recycle them instead.
+     */
+    @Override
+    public boolean freePage(int grpId, long pageId) {
+        assert false : "Free page should be never called directly when persistence is enabled.";
+
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int pageSize() {
+        return sysPageSize - PAGE_OVERHEAD;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int systemPageSize() {
+        return sysPageSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int realPageSize(int grpId) {
+        return pageSize();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long loadedPages() {
+        return loadedPages.get();
+    }
+
+    /**
+     * Returns the total number of dirty pages.
+     */
+    public long dirtyPages() {
+        long total = 0;
+
+        for (Segment seg : segments) {
+            total += seg.dirtyPages.size();
+        }
+
+        return total;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PageIoRegistry ioRegistry() {
+        return ioRegistry;
+    }
+
+    // *** PageSupport methods ***
+
+    /** {@inheritDoc} */
+    @Override
+    public long acquirePage(int grpId, long pageId) throws IgniteInternalCheckedException {
+        return acquirePage(grpId, pageId, IoStatisticsHolderNoOp.INSTANCE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long acquirePage(int grpId, long pageId, IoStatisticsHolder statHolder) throws IgniteInternalCheckedException {
+        assert started;
+
+        FullPageId fullId = new FullPageId(pageId, grpId);
+
+        Segment seg = segment(fullId);
+
+        seg.readLock().lock();
+
+        try {
+            Long absPtr = seg.loadedPages.get(fullId);
+
+            if (absPtr != null) {
+                pin(absPtr);
+
+                statHolder.trackLogicalRead(absPtr + PAGE_OVERHEAD);
+
+                return absPtr;
+            }
+        } finally {
+            seg.readLock().unlock();
+        }
+
+        seg.writeLock().lock();
+
+        try {
+            Long absPtr = seg.loadedPages.get(fullId);
+
+            if (absPtr != null) {
+                pin(absPtr);
+
+                statHolder.trackLogicalRead(absPtr + PAGE_OVERHEAD);
+
+                return absPtr;
+            }
+
+            long newAbsPtr = seg.borrowSlot();
+
+            try {
+                storeMgr.read(grpId, pageId, wrapPointer(newAbsPtr + PAGE_OVERHEAD, pageSize()));
+            } catch (IgniteInternalCheckedException e) {
+                seg.releaseSlot(newAbsPtr);
+
+                throw e;
+            }
+
+            initPage(newAbsPtr, fullId);
+
+            seg.loadPage(fullId, newAbsPtr);
+
+            pin(newAbsPtr);
+
+            statHolder.trackPhysicalAndLogicalRead(newAbsPtr + PAGE_OVERHEAD);
+
+            return newAbsPtr;
+        } finally {
+            seg.writeLock().unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void releasePage(int grpId, long pageId, long page) {
+        assert started;
+
+        int pinCnt = GridUnsafe.decrementAndGetInt(page + PIN_COUNT_OFFSET);
+
+        assert pinCnt >= 0 : "Page is released more times than acquired: " + new FullPageId(pageId, grpId);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long readLock(int grpId, long pageId, long page) {
+        assert started;
+
+        if (rwLock.readLock(page + LOCK_OFFSET, PageIdUtils.tag(pageId))) {
+            return page + PAGE_OVERHEAD;
+        }
+
+        return 0L;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long readLockForce(int grpId, long pageId, long page) {
+        assert started;
+
+        if (rwLock.readLock(page + LOCK_OFFSET, TAG_LOCK_ALWAYS)) {
+            return page + PAGE_OVERHEAD;
+        }
+
+        return 0L;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void readUnlock(int grpId, long pageId, long page) {
+        assert started;
+
+        rwLock.readUnlock(page + LOCK_OFFSET);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long writeLock(int grpId, long pageId, long page) {
+        assert started;
+
+        if (rwLock.writeLock(page + LOCK_OFFSET, PageIdUtils.tag(pageId))) {
+            copyPageForCheckpoint(grpId, pageId, page);
+
+            return page + PAGE_OVERHEAD;
+        }
+
+        return 0L;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long tryWriteLock(int grpId, long pageId, long page) {
+        assert started;
+
+        if (rwLock.tryWriteLock(page + LOCK_OFFSET, PageIdUtils.tag(pageId))) {
+            copyPageForCheckpoint(grpId, pageId, page);
+
+            return page + PAGE_OVERHEAD;
+        }
+
+        return 0L;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void writeUnlock(int grpId, long pageId, long page, boolean dirtyFlag) {
+        assert started;
+
+        if (dirtyFlag) {
+            FullPageId fullId = new FullPageId(pageId, grpId);
+
+            markDirty(segment(fullId), fullId);
+        }
+
+        long actualId = PageIo.getPageId(page + PAGE_OVERHEAD);
+
+        rwLock.writeUnlock(page + LOCK_OFFSET, PageIdUtils.tag(actualId));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isDirty(int grpId, long pageId, long page) {
+        FullPageId fullId = new FullPageId(pageId, grpId);
+
+        return segment(fullId).dirtyPages.contains(fullId);
+    }
+
+    // *** Checkpoint support ***
+
+    /**
+     * Begins a checkpoint: the dirty pages become the pages of the checkpoint, and the pages that are dirtied from now on will be written
+     * by the next one. Must be called when no pages are being modified, under the checkpoint write lock.
+     *
+     * @return Pages of the checkpoint.
+     */
+    public Collection<FullPageId> beginCheckpoint() {
+        assert !checkpointInProgress : "Checkpoint is already in progress";
+
+        Collection<FullPageId> pages = new ArrayList<>();
+
+        for (Segment seg : segments) {
+            Set<FullPageId> dirtyPages = seg.dirtyPages;
+
+            seg.dirtyPages = ConcurrentHashMap.newKeySet();
+            seg.checkpointPages = dirtyPages;
+
+            pages.addAll(dirtyPages);
+        }
+
+        checkpointInProgress = true;
+
+        return pages;
+    }
+
+    /**
+     * Writes a page of the running checkpoint: either the copy that was made before the page was modified, or the page itself.
+     *
+     * @param fullId Page of the checkpoint.
+     * @param buf Buffer of the page size to copy the page into.
+     * @param writer Writer of the page content.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public void writeCheckpointPage(FullPageId fullId, ByteBuffer buf, CheckpointPageWriter writer) throws IgniteInternalCheckedException {
+        Segment seg = segment(fullId);
+
+        ByteBuffer copy = seg.checkpointCopies.get(fullId);
+
+        if (copy == null) {
+            long absPtr;
+
+            seg.readLock().lock();
+
+            try {
+                Long ptr = seg.loadedPages.get(fullId);
+
+                // Pages of the checkpoint are never evicted before they are written.
+                assert ptr != null : fullId;
+
+                absPtr = ptr;
+
+                pin(absPtr);
+            } finally {
+                seg.readLock().unlock();
+            }
+
+            try {
+                rwLock.readLock(absPtr + LOCK_OFFSET, TAG_LOCK_ALWAYS);
+
+                try {
+                    if (seg.checkpointPages.remove(fullId)) {
+                        buf.clear();
+
+                        GridUnsafe.copyMemory(absPtr + PAGE_OVERHEAD, bufferAddress(buf), pageSize());
+                    } else {
+                        // Page has been copied on write concurrently.
+                        copy = seg.checkpointCopies.get(fullId);
+
+                        assert copy != null : fullId;
+                    }
+                } finally {
+                    rwLock.readUnlock(absPtr + LOCK_OFFSET);
+                }
+
+                if (copy == null) {
+                    writer.write(fullId, buf);
+
+                    return;
+                }
+            } finally {
+                GridUnsafe.decrementAndGetInt(absPtr + PIN_COUNT_OFFSET);
+            }
+        }
+
+        copy.clear();
+
+        writer.write(fullId, copy);
+
+        // The copy must remain until the page is written, so that it's not evicted and read from the store in the meantime.
+        seg.checkpointCopies.remove(fullId);
+    }
+
+    /**
+     * Finishes the running checkpoint. Pages that have not been written, if the checkpoint has failed, are discarded.
+     */
+    public void finishCheckpoint() {
+        for (Segment seg : segments) {
+            seg.checkpointPages = ConcurrentHashMap.newKeySet();
+
+            seg.checkpointCopies.clear();
+        }
+
+        checkpointInProgress = false;
+    }
+
+    /**
+     * Copies a page aside if it belongs to the running checkpoint and hasn't been written yet. Must be called under the page write lock.
+     */
+    private void copyPageForCheckpoint(int grpId, long pageId, long page) {
+        if (!checkpointInProgress) {
+            return;
+        }
+
+        FullPageId fullId = new FullPageId(pageId, grpId);
+
+        Segment seg = segment(fullId);
+
+        if (seg.checkpointPages.remove(fullId)) {
+            ByteBuffer copy = ByteBuffer.allocateDirect(pageSize()).order(NATIVE_BYTE_ORDER);
+
+            GridUnsafe.copyMemory(page + PAGE_OVERHEAD, bufferAddress(copy), pageSize());
+
+            seg.checkpointCopies.put(fullId, copy);
+        }
+    }
+
+    /**
+     * Marks a page as dirty.
+     */
+    private void markDirty(Segment seg, FullPageId fullId) {
+        Set<FullPageId> dirtyPages = seg.dirtyPages;
+
+        if (dirtyPages.add(fullId) && dirtyPages.size() > seg.maxPages * DIRTY_PAGES_THRESHOLD) {
+            dirtyPagesThresholdListener.run();
+        }
+    }
+
+    /**
+     * Initializes the header of a page that has been loaded or allocated.
+     */
+    private void initPage(long absPtr, FullPageId fullId) {
+        GridUnsafe.putLong(absPtr + FLAGS_OFFSET, ACCESSED_FLAG);
+        GridUnsafe.putLong(absPtr + PAGE_ID_OFFSET, fullId.effectivePageId());
+        GridUnsafe.putInt(absPtr + GROUP_ID_OFFSET, fullId.groupId());
+        GridUnsafe.putInt(absPtr + PIN_COUNT_OFFSET, 0);
+
+        long actualId = PageIo.getPageId(absPtr + PAGE_OVERHEAD);
+
+        rwLock.init(absPtr + LOCK_OFFSET, PageIdUtils.tag(actualId == 0 ? fullId.pageId() : actualId));
+    }
+
+    /**
+     * Pins a page, so it can't be replaced. Must be called under the segment lock.
+     */
+    private static void pin(long absPtr) {
+        GridUnsafe.incrementAndGetInt(absPtr + PIN_COUNT_OFFSET);
+
+        GridUnsafe.putLong(absPtr + FLAGS_OFFSET, ACCESSED_FLAG);
+    }
+
+    /**
+     * Returns the segment that contains given page.
+     */
+    private Segment segment(FullPageId fullId) {
+        Segment[] segments = this.segments;
+
+        return segments[IgniteUtils.safeAbs(fullId.hashCode()) % segments.length];
+    }
+
+    /**
+     * Writer of the checkpoint pages.
+     */
+    @FunctionalInterface
+    public interface CheckpointPageWriter {
+        /**
+         * Writes a page.
+         *
+         * @param fullId Page ID.
+         * @param buf Page content.
+         * @throws IgniteInternalCheckedException If failed.
+         */
+        void write(FullPageId fullId, ByteBuffer buf) throws IgniteInternalCheckedException;
+    }
+
+    /**
+     * Segment of the page memory with its own page table and dirty pages.
+     */
+    private class Segment extends ReentrantReadWriteLock {
+        /** Serial version uid. */
+        private static final long serialVersionUID = 0L;
+
+        /** Base address for all pages. */
+        private final long pagesBase;
+
+        /** Segments capacity. */
+        private final int maxPages;
+
+        /** Loaded pages. */
+        private final Map<FullPageId, Long> loadedPages = new HashMap<>();
+
+        /** Pages loaded to the slots, {@code null} for free slots. */
+        private final FullPageId[] slots;
+
+        /** Number of slots that have ever been used. */
+        private int usedSlots;
+
+        /** Indexes of the free slots below {@link #usedSlots}. */
+        private int[] freeSlots = new int[0];
+
+        /** Number of the free slots. */
+        private int freeSlotsCnt;
+
+        /** Position of the CLOCK hand. */
+        private int clockHand;
+
+        /** Dirty pages. */
+        private volatile Set<FullPageId> dirtyPages = ConcurrentHashMap.newKeySet();
+
+        /** Pages of the running checkpoint that haven't been written or copied yet. */
+        private volatile Set<FullPageId> checkpointPages = ConcurrentHashMap.newKeySet();
+
+        /** Copies of the pages of the running checkpoint that have been modified before they were written. */
+        private final Map<FullPageId, ByteBuffer> checkpointCopies = new ConcurrentHashMap<>();
+
+        /**
+         * Constructor.
+         *
+         * @param region Memory region to use.
+         */
+        private Segment(DirectMemoryRegion region) {
+            // Align by 8 bytes.
+            pagesBase = (region.address() + 7) & ~0x7;
+
+            maxPages = (int) ((region.address() + region.size() - pagesBase) / sysPageSize);
+
+            slots = new FullPageId[maxPages];
+        }
+
+        /**
+         * Returns a free slot, replacing a page if there are no free slots. Must be called under the segment write lock.
+         *
+         * @return Absolute pointer to the slot.
+         * @throws IgniteOutOfMemoryException If there are no pages that can be replaced.
+         */
+        private long borrowSlot() {
+            if (freeSlotsCnt > 0) {
+                return absolute(freeSlots[--freeSlotsCnt]);
+            }
+
+            if (usedSlots < maxPages) {
+                return absolute(usedSlots++);
+            }
+
+            // CLOCK replacement: the hand clears the accessed flags until it finds a page that hasn't been accessed since the last pass.
+            for (int i = 0; i < 2 * maxPages; i++) {
+                int slot = clockHand;
+
+                clockHand = (clockHand + 1) % maxPages;
+
+                FullPageId fullId = slots[slot];
+
+                long absPtr = absolute(slot);
+
+                if (fullId == null || !canReplace(fullId, absPtr)) {
+                    continue;
+                }
+
+                long flags = GridUnsafe.getLong(absPtr + FLAGS_OFFSET);
+
+                if ((flags & ACCESSED_FLAG) != 0) {
+                    GridUnsafe.putLong(absPtr + FLAGS_OFFSET, flags & ~ACCESSED_FLAG);
+
+                    continue;
+                }
+
+                loadedPages.remove(fullId);
+
+                slots[slot] = null;
+
+                PageMemoryImpl.this.loadedPages.decrementAndGet();
+
+                return absPtr;
+            }
+
+            throw new IgniteOutOfMemoryException("Failed to find a page for replacement, all pages are dirty or in use [region="
+                    + dataRegionCfg.name() + ", segmentPages=" + maxPages + ", dirtyPages=" + dirtyPages.size()
+                    + ", maxSize=" + IgniteUtils.readableSize(dataRegionCfg.maxSize(), false) + "] Try the following:\n"
+                    + "  ^-- Increase maximum off-heap memory size (PageMemoryDataRegionConfiguration.maxSize)\n"
+                    + "  ^-- Decrease checkpoint frequency (PageMemoryDataRegionConfiguration.checkpointFrequency)"
+            );
+        }
+
+        /**
+         * Returns a slot that has not been used for a page. Must be called under the segment write lock.
+         */
+        private void releaseSlot(long absPtr) {
+            if (freeSlotsCnt == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeSlots.length * 2));
+            }
+
+            freeSlots[freeSlotsCnt++] = slot(absPtr);
+        }
+
+        /**
+         * Registers a loaded page. Must be called under the segment write lock.
+         */
+        private void loadPage(FullPageId fullId, long absPtr) {
+            loadedPages.put(fullId, absPtr);
+
+            slots[slot(absPtr)] = fullId;
+
+            PageMemoryImpl.this.loadedPages.incrementAndGet();
+        }
+
+        /**
+         * Checks if a page can be replaced: it's not in use and its content is the same as in the page store.
+         */
+        private boolean canReplace(FullPageId fullId, long absPtr) {
+            return GridUnsafe.getInt(absPtr + PIN_COUNT_OFFSET) == 0
+                    && !dirtyPages.contains(fullId)
+                    && !checkpointPages.contains(fullId)
+                    && !checkpointCopies.containsKey(fullId);
+        }
+
+        private long absolute(int slot) {
+            return pagesBase + ((long) slot) * sysPageSize;
+        }
+
+        private int slot(long absPtr) {
+            return (int) ((absPtr - pagesBase) / sysPageSize);
+        }
+    }
+}
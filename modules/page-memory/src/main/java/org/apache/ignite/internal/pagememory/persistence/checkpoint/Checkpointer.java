@@ -0,0 +1,349 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.pagememory.persistence.checkpoint;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.ignite.internal.util.GridUnsafe.NATIVE_BYTE_ORDER;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.ignite.internal.pagememory.FullPageId;
+import org.apache.ignite.internal.pagememory.persistence.PageMemoryImpl;
+import org.apache.ignite.internal.pagememory.persistence.store.FilePageStore;
+import org.apache.ignite.internal.pagememory.persistence.store.FilePageStore.DeltaFile;
+import org.apache.ignite.internal.pagememory.persistence.store.FilePageStoreManager;
+import org.apache.ignite.internal.pagememory.util.PageIdUtils;
+import org.apache.ignite.internal.thread.NamedThreadFactory;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+import org.apache.ignite.lang.IgniteInternalException;
+import org.apache.ignite.lang.IgniteLogger;
+
+/**
+ * Background writer of the dirty pages of a {@link PageMemoryImpl}.
+ *
+ * <p>A checkpoint is started under the checkpoint write lock, so it captures a consistent state of the data structures, which must be
+ * modified under the checkpoint read lock. After that the pages of the checkpoint are written in the order of their indexes to a delta
+ * file per partition, while the page memory keeps serving reads and writes and copies the pages of the checkpoint on write. All the delta
+ * files are synced at once, the checkpoint is marked as completed, and then the delta files are merged into the partition files.
+ */
+public class Checkpointer {
+    /** Logger. */
+    private static final IgniteLogger LOG = IgniteLogger.forClass(Checkpointer.class);
+
+    /** Order of the pages in the delta files: by group, then by partition, then by page index. */
+    private static final Comparator<FullPageId> PAGE_ORDER = Comparator.comparingInt(FullPageId::groupId)
+            .thenComparingInt(fullId -> PageIdUtils.partitionId(fullId.pageId()))
+            .thenComparingInt(fullId -> PageIdUtils.pageIndex(fullId.pageId()));
+
+    /** Name of the data region, for logging. */
+    private final String name;
+
+    /** Page memory. */
+    private final PageMemoryImpl pageMemory;
+
+    /** Page store manager. */
+    private final FilePageStoreManager storeMgr;
+
+    /** Checkpoint frequency in milliseconds. */
+    private final long frequency;
+
+    /** Checkpoint lock, its read lock must be held while the data structures are modified. */
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+
+    /** Checkpoint listeners. */
+    private final List<CheckpointListener> listeners = new ArrayList<>();
+
+    /** Checkpoint thread. */
+    private final ScheduledExecutorService executor;
+
+    /** {@code True} if a checkpoint has been requested and hasn't been started yet. */
+    private final AtomicBoolean checkpointScheduled = new AtomicBoolean();
+
+    /** Error of the last checkpoint, no more checkpoints are made after a failure. */
+    private volatile Throwable failure;
+
+    /** ID of the last completed checkpoint, only accessed by the checkpoint thread. */
+    private long lastCheckpointId;
+
+    /**
+     * Constructor.
+     *
+     * @param name Name of the data region.
+     * @param pageMemory Page memory.
+     * @param storeMgr Page store manager.
+     * @param frequency Checkpoint frequency in milliseconds.
+     */
+    public Checkpointer(String name, PageMemoryImpl pageMemory, FilePageStoreManager storeMgr, long frequency) {
+        this.name = name;
+        this.pageMemory = pageMemory;
+        this.storeMgr = storeMgr;
+        this.frequency = frequency;
+
+        executor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("checkpoint-" + name, true));
+    }
+
+    /**
+     * Adds a checkpoint listener, must be called before {@link #start()}.
+     *
+     * @param listener Listener.
+     */
+    public void addCheckpointListener(CheckpointListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts the periodic checkpoints.
+     */
+    public void start() {
+        lastCheckpointId = storeMgr.lastCheckpointId();
+
+        executor.scheduleWithFixedDelay(() -> checkpoint("timeout"), frequency, frequency, MILLISECONDS);
+    }
+
+    /**
+     * Stops the checkpoints, does nothing if already stopped.
+     *
+     * @param cancel {@code True} to stop right away, {@code false} to write all the dirty pages with a final checkpoint first.
+     */
+    public void stop(boolean cancel) {
+        if (executor.isShutdown()) {
+            return;
+        }
+
+        if (!cancel) {
+            try {
+                forceCheckpoint("stop").get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LOG.error("Final checkpoint failed [region=" + name + ']', e.getCause());
+            }
+        }
+
+        IgniteUtils.shutdownAndAwaitTermination(executor, 10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Acquires the checkpoint read lock, which prevents a checkpoint from starting while the data structures are being modified.
+     */
+    public void checkpointReadLock() {
+        checkpointLock.readLock().lock();
+    }
+
+    /**
+     * Releases the checkpoint read lock.
+     */
+    public void checkpointReadUnlock() {
+        checkpointLock.readLock().unlock();
+    }
+
+    /**
+     * Makes a checkpoint as soon as possible.
+     *
+     * @param reason Reason, for logging.
+     * @return Future that is completed when the checkpoint is finished.
+     */
+    public CompletableFuture<Void> forceCheckpoint(String reason) {
+        return CompletableFuture.runAsync(() -> {
+            if (!checkpoint(reason)) {
+                throw new IgniteInternalException("Checkpoint failed [region=" + name + ']', failure);
+            }
+        }, executor);
+    }
+
+    /**
+     * Schedules a checkpoint without waiting for it, if there is no scheduled one already. Never blocks, so it is safe to call from under
+     * the page locks.
+     *
+     * @param reason Reason, for logging.
+     */
+    public void scheduleCheckpoint(String reason) {
+        if (!checkpointScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> checkpoint(reason));
+        } catch (RejectedExecutionException e) {
+            // Checkpointer is stopping.
+            checkpointScheduled.set(false);
+        }
+    }
+
+    /**
+     * Makes a checkpoint, if the previous ones haven't failed.
+     *
+     * @param reason Reason, for logging.
+     * @return {@code False} if the checkpoint has failed now or before.
+     */
+    private boolean checkpoint(String reason) {
+        checkpointScheduled.set(false);
+
+        if (failure != null) {
+            return false;
+        }
+
+        try {
+            doCheckpoint(reason);
+
+            return true;
+        } catch (Throwable e) {
+            failure = e;
+
+            LOG.error("Checkpoint failed, no more checkpoints will be made until restart [region=" + name + ']', e);
+
+            return false;
+        }
+    }
+
+    /**
+     * Makes a checkpoint.
+     *
+     * @param reason Reason, for logging.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private void doCheckpoint(String reason) throws IgniteInternalCheckedException {
+        long start = System.nanoTime();
+
+        List<FullPageId> pages;
+
+        Map<FilePageStore, Integer> storePages = new HashMap<>();
+
+        checkpointLock.writeLock().lock();
+
+        try {
+            for (CheckpointListener listener : listeners) {
+                listener.onMarkCheckpointBegin();
+            }
+
+            pages = new ArrayList<>(pageMemory.beginCheckpoint());
+
+            for (FilePageStore store : storeMgr.stores()) {
+                storePages.put(store, store.pages());
+            }
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+
+        long checkpointId = lastCheckpointId + 1;
+
+        Collection<FilePageStore> stores;
+
+        try {
+            if (pages.isEmpty()) {
+                return;
+            }
+
+            pages.sort(PAGE_ORDER);
+
+            stores = writePages(checkpointId, pages, storePages);
+
+            storeMgr.markCheckpointCompleted(checkpointId);
+
+            lastCheckpointId = checkpointId;
+        } finally {
+            pageMemory.finishCheckpoint();
+        }
+
+        for (FilePageStore store : stores) {
+            store.mergeDeltaFiles(checkpointId);
+        }
+
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Checkpoint finished [region=" + name + ", id=" + checkpointId + ", pages=" + pages.size()
+                    + ", reason=" + reason + ", duration=" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms]");
+        }
+    }
+
+    /**
+     * Writes the pages of a checkpoint to the delta files and syncs them.
+     *
+     * @param checkpointId Checkpoint ID.
+     * @param pages Sorted pages of the checkpoint.
+     * @param storePages Number of allocated pages in the page stores at the beginning of the checkpoint.
+     * @return Page stores that have been written.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private Collection<FilePageStore> writePages(
+            long checkpointId,
+            List<FullPageId> pages,
+            Map<FilePageStore, Integer> storePages
+    ) throws IgniteInternalCheckedException {
+        ByteBuffer buf = ByteBuffer.allocateDirect(pageMemory.pageSize()).order(NATIVE_BYTE_ORDER);
+
+        List<FilePageStore> stores = new ArrayList<>();
+        List<DeltaFile> deltaFiles = new ArrayList<>();
+
+        int from = 0;
+
+        while (from < pages.size()) {
+            FullPageId first = pages.get(from);
+
+            int grpId = first.groupId();
+            int partId = PageIdUtils.partitionId(first.pageId());
+
+            int to = from;
+
+            while (to < pages.size() && pages.get(to).groupId() == grpId && PageIdUtils.partitionId(pages.get(to).pageId()) == partId) {
+                to++;
+            }
+
+            int[] pageIdxs = new int[to - from];
+
+            for (int i = from; i < to; i++) {
+                pageIdxs[i - from] = PageIdUtils.pageIndex(pages.get(i).pageId());
+            }
+
+            FilePageStore store = storeMgr.store(grpId, partId);
+
+            DeltaFile deltaFile = store.createDeltaFile(checkpointId, pageIdxs, storePages.getOrDefault(store, store.pages()));
+
+            for (int i = from; i < to; i++) {
+                pageMemory.writeCheckpointPage(pages.get(i), buf, (fullId, pageBuf) ->
+                        deltaFile.write(PageIdUtils.pageIndex(fullId.pageId()), pageBuf)
+                );
+            }
+
+            stores.add(store);
+            deltaFiles.add(deltaFile);
+
+            from = to;
+        }
+
+        // Sync all the delta files only after all of them have been written, the storage device can merge the writes this way.
+        for (DeltaFile deltaFile : deltaFiles) {
+            deltaFile.sync();
+        }
+
+        return stores;
+    }
+}
@@ -0,0 +1,532 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.pagememory.persistence.store;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.ignite.internal.util.GridUnsafe.NATIVE_BYTE_ORDER;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.ignite.internal.pagememory.util.PageIdUtils;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+
+/**
+ * Page store of a single partition.
+ *
+ * <p>The partition file consists of a header, padded to the page size, followed by the pages in the order of their indexes. The partition
+ * file is never written directly by a checkpoint: pages of a checkpoint are written sequentially to a delta file, which is merged into the
+ * partition file only after the whole checkpoint has been marked as completed. This way a crash in the middle of a checkpoint can never
+ * leave a partition file with a mix of pages from different checkpoints.
+ *
+ * <p>Header structure (same for the partition and the delta files):
+ * <pre>
+ * +-----------+---------+-----------+------------+----------------------------------------------+
+ * |  8 bytes  | 4 bytes |  4 bytes  |  4 bytes   |   delta files only: 4 bytes + 4 bytes * count   |
+ * +-----------+---------+-----------+------------+----------------------------------------------+
+ * | Signature | Version | Page size | Page count |   Count of pages | sorted indexes of the pages  |
+ * +-----------+---------+-----------+------------+----------------------------------------------+
+ * </pre>
+ */
+public class FilePageStore implements Closeable {
+    /** Signature of the page store files. */
+    private static final long SIGNATURE = 0xF19AC4FE60C530B8L;
+
+    /** Version of the page store files. */
+    private static final int VERSION = 1;
+
+    /** Size of the common part of the header. */
+    private static final int COMMON_HEADER_SIZE = Long.BYTES + 3 * Integer.BYTES;
+
+    /** Partition file. */
+    private final Path filePath;
+
+    /** Page size. */
+    private final int pageSize;
+
+    /** Partition file channel. */
+    private final FileChannel fileChannel;
+
+    /** Number of allocated pages. */
+    private final AtomicInteger pages;
+
+    /** Delta files that haven't been merged into the partition file yet, from the oldest to the newest. */
+    private final List<DeltaFile> deltaFiles = new CopyOnWriteArrayList<>();
+
+    /** Lock that guards the delta files from being closed while they are read. */
+    private final ReadWriteLock deltaFilesLock = new ReentrantReadWriteLock();
+
+    /**
+     * Opens a page store, creating the partition file if it doesn't exist.
+     *
+     * @param filePath Partition file path.
+     * @param pageSize Page size.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public FilePageStore(Path filePath, int pageSize) throws IgniteInternalCheckedException {
+        this.filePath = filePath;
+        this.pageSize = pageSize;
+
+        try {
+            fileChannel = FileChannel.open(filePath, CREATE, READ, WRITE);
+
+            if (fileChannel.size() == 0) {
+                writeHeader(fileChannel, 0, new int[0]);
+
+                fileChannel.force(true);
+
+                pages = new AtomicInteger();
+            } else {
+                pages = new AtomicInteger(readHeader(fileChannel, filePath).pages);
+            }
+        } catch (IOException e) {
+            throw new IgniteInternalCheckedException("Failed to open a page store: " + filePath, e);
+        }
+    }
+
+    /**
+     * Returns the partition file path.
+     */
+    public Path filePath() {
+        return filePath;
+    }
+
+    /**
+     * Returns the number of allocated pages.
+     */
+    public int pages() {
+        return pages.get();
+    }
+
+    /**
+     * Allocates a new page index.
+     *
+     * @return Index of the allocated page.
+     */
+    public int allocatePage() {
+        return pages.getAndIncrement();
+    }
+
+    /**
+     * Reads a page. Pages that have never been written are read as zeroes.
+     *
+     * @param pageId Page ID.
+     * @param buf Buffer to read the page into, its remaining size must be equal to the page size.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public void read(long pageId, ByteBuffer buf) throws IgniteInternalCheckedException {
+        assert buf.remaining() == pageSize : buf.remaining();
+
+        int pageIdx = PageIdUtils.pageIndex(pageId);
+
+        deltaFilesLock.readLock().lock();
+
+        try {
+            for (int i = deltaFiles.size() - 1; i >= 0; i--) {
+                DeltaFile deltaFile = deltaFiles.get(i);
+
+                long off = deltaFile.pageOffset(pageIdx);
+
+                if (off >= 0) {
+                    readFully(deltaFile.channel, buf, off);
+
+                    return;
+                }
+            }
+
+            long off = pageOffset(pageIdx);
+
+            if (off + pageSize <= fileChannel.size()) {
+                readFully(fileChannel, buf, off);
+            } else {
+                while (buf.hasRemaining()) {
+                    buf.put((byte) 0);
+                }
+            }
+        } catch (IOException e) {
+            throw new IgniteInternalCheckedException("Failed to read a page [file=" + filePath + ", pageIdx=" + pageIdx + ']', e);
+        } finally {
+            deltaFilesLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Creates a delta file for a checkpoint. Pages of the delta file become visible to {@link #read} right away, so they must be written
+     * before the pages may be evicted from the page memory.
+     *
+     * @param checkpointId Checkpoint ID.
+     * @param pageIdxs Sorted indexes of the pages to write.
+     * @param pages Number of allocated pages at the beginning of the checkpoint.
+     * @return Delta file.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public DeltaFile createDeltaFile(long checkpointId, int[] pageIdxs, int pages) throws IgniteInternalCheckedException {
+        Path deltaPath = deltaFilePath(filePath, checkpointId);
+
+        try {
+            FileChannel channel = FileChannel.open(deltaPath, CREATE_NEW, READ, WRITE);
+
+            writeHeader(channel, pages, pageIdxs);
+
+            DeltaFile deltaFile = new DeltaFile(deltaPath, channel, checkpointId, pageIdxs, pages);
+
+            deltaFiles.add(deltaFile);
+
+            return deltaFile;
+        } catch (IOException e) {
+            throw new IgniteInternalCheckedException("Failed to create a delta file: " + deltaPath, e);
+        }
+    }
+
+    /**
+     * Registers an existing delta file of a completed checkpoint, to be merged into the partition file.
+     *
+     * @param deltaPath Delta file path.
+     * @param checkpointId Checkpoint ID.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    void addDeltaFile(Path deltaPath, long checkpointId) throws IgniteInternalCheckedException {
+        try {
+            FileChannel channel = FileChannel.open(deltaPath, READ, WRITE);
+
+            Header header = readHeader(channel, deltaPath);
+
+            DeltaFile deltaFile = new DeltaFile(deltaPath, channel, checkpointId, header.pageIdxs, header.pages);
+
+            int pos = 0;
+
+            while (pos < deltaFiles.size() && deltaFiles.get(pos).checkpointId < checkpointId) {
+                pos++;
+            }
+
+            deltaFiles.add(pos, deltaFile);
+
+            pages.accumulateAndGet(header.pages, Math::max);
+        } catch (IOException e) {
+            throw new IgniteInternalCheckedException("Failed to open a delta file: " + deltaPath, e);
+        }
+    }
+
+    /**
+     * Merges the delta files of the completed checkpoints into the partition file and removes them.
+     *
+     * @param lastCheckpointId ID of the last completed checkpoint, newer delta files are left intact.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public void mergeDeltaFiles(long lastCheckpointId) throws IgniteInternalCheckedException {
+        ByteBuffer buf = ByteBuffer.allocateDirect(pageSize).order(NATIVE_BYTE_ORDER);
+
+        for (DeltaFile deltaFile : deltaFiles) {
+            if (deltaFile.checkpointId > lastCheckpointId) {
+                break;
+            }
+
+            try {
+                for (int i = 0; i < deltaFile.pageIdxs.length; i++) {
+                    buf.clear();
+
+                    readFully(deltaFile.channel, buf, deltaFile.pageOffsetByPosition(i));
+
+                    buf.flip();
+
+                    writeFully(fileChannel, buf, pageOffset(deltaFile.pageIdxs[i]));
+                }
+
+                int filePages = readHeader(fileChannel, filePath).pages;
+
+                if (deltaFile.pages > filePages) {
+                    writeHeader(fileChannel, deltaFile.pages, new int[0]);
+                }
+
+                fileChannel.force(true);
+            } catch (IOException e) {
+                throw new IgniteInternalCheckedException("Failed to merge a delta file: " + deltaFile.path, e);
+            }
+
+            deltaFilesLock.writeLock().lock();
+
+            try {
+                deltaFiles.remove(deltaFile);
+            } finally {
+                deltaFilesLock.writeLock().unlock();
+            }
+
+            deltaFile.delete();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws IOException {
+        deltaFilesLock.writeLock().lock();
+
+        try {
+            for (DeltaFile deltaFile : deltaFiles) {
+                deltaFile.channel.close();
+            }
+
+            deltaFiles.clear();
+
+            fileChannel.close();
+        } finally {
+            deltaFilesLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the offset of the page in the partition file.
+     *
+     * @param pageIdx Page index.
+     */
+    private long pageOffset(int pageIdx) {
+        return (pageIdx + 1L) * pageSize;
+    }
+
+    /**
+     * Returns the size of the header padded to the page size.
+     *
+     * @param pageIdxsCnt Number of page indexes in the header.
+     */
+    private int headerSize(int pageIdxsCnt) {
+        int size = COMMON_HEADER_SIZE + Integer.BYTES + pageIdxsCnt * Integer.BYTES;
+
+        return (size + pageSize - 1) / pageSize * pageSize;
+    }
+
+    /**
+     * Writes a header of a partition file or a delta file.
+     *
+     * @param channel File channel.
+     * @param pages Number of allocated pages.
+     * @param pageIdxs Sorted indexes of the pages of a delta file.
+     * @throws IOException If failed.
+     */
+    private void writeHeader(FileChannel channel, int pages, int[] pageIdxs) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(headerSize(pageIdxs.length)).order(NATIVE_BYTE_ORDER);
+
+        buf.putLong(SIGNATURE);
+        buf.putInt(VERSION);
+        buf.putInt(pageSize);
+        buf.putInt(pages);
+        buf.putInt(pageIdxs.length);
+
+        for (int pageIdx : pageIdxs) {
+            buf.putInt(pageIdx);
+        }
+
+        buf.rewind();
+
+        writeFully(channel, buf, 0);
+    }
+
+    /**
+     * Reads a header of a partition file or a delta file.
+     *
+     * @param channel File channel.
+     * @param path File path, for error messages.
+     * @return Header.
+     * @throws IOException If failed.
+     * @throws IgniteInternalCheckedException If the header is not valid.
+     */
+    private Header readHeader(FileChannel channel, Path path) throws IOException, IgniteInternalCheckedException {
+        ByteBuffer buf = ByteBuffer.allocate(COMMON_HEADER_SIZE + Integer.BYTES).order(NATIVE_BYTE_ORDER);
+
+        readFully(channel, buf, 0);
+
+        buf.flip();
+
+        long signature = buf.getLong();
+        int version = buf.getInt();
+        int filePageSize = buf.getInt();
+
+        if (signature != SIGNATURE || version != VERSION || filePageSize != pageSize) {
+            throw new IgniteInternalCheckedException("Invalid page store file header [file=" + path
+                    + ", signature=" + IgniteUtils.hexLong(signature) + ", version=" + version + ", pageSize=" + filePageSize + ']');
+        }
+
+        int pages = buf.getInt();
+        int cnt = buf.getInt();
+
+        ByteBuffer idxsBuf = ByteBuffer.allocate(cnt * Integer.BYTES).order(NATIVE_BYTE_ORDER);
+
+        readFully(channel, idxsBuf, buf.capacity());
+
+        idxsBuf.flip();
+
+        int[] pageIdxs = new int[cnt];
+
+        idxsBuf.asIntBuffer().get(pageIdxs);
+
+        return new Header(pages, pageIdxs);
+    }
+
+    /**
+     * Returns the path of a delta file.
+     *
+     * @param filePath Partition file path.
+     * @param checkpointId Checkpoint ID.
+     */
+    static Path deltaFilePath(Path filePath, long checkpointId) {
+        String fileName = filePath.getFileName().toString();
+
+        String baseName = fileName.substring(0, fileName.lastIndexOf('.'));
+
+        return filePath.resolveSibling(baseName + "-" + checkpointId + FilePageStoreManager.DELTA_FILE_EXT);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long off) throws IOException {
+        long pos = off;
+
+        while (buf.hasRemaining()) {
+            int read = channel.read(buf, pos);
+
+            if (read < 0) {
+                throw new IOException("Unexpected end of file [pos=" + pos + ", size=" + channel.size() + ']');
+            }
+
+            pos += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf, long off) throws IOException {
+        long pos = off;
+
+        while (buf.hasRemaining()) {
+            pos += channel.write(buf, pos);
+        }
+    }
+
+    /**
+     * Header of a partition file or a delta file.
+     */
+    private static class Header {
+        /** Number of allocated pages. */
+        final int pages;
+
+        /** Sorted indexes of the pages of a delta file. */
+        final int[] pageIdxs;
+
+        Header(int pages, int[] pageIdxs) {
+            this.pages = pages;
+            this.pageIdxs = pageIdxs;
+        }
+    }
+
+    /**
+     * Delta file with the pages of a single checkpoint.
+     */
+    public class DeltaFile {
+        /** File path. */
+        private final Path path;
+
+        /** File channel. */
+        private final FileChannel channel;
+
+        /** Checkpoint ID. */
+        private final long checkpointId;
+
+        /** Sorted indexes of the pages. */
+        private final int[] pageIdxs;
+
+        /** Number of allocated pages at the beginning of the checkpoint. */
+        private final int pages;
+
+        /** Size of the header. */
+        private final int headerSize;
+
+        private DeltaFile(Path path, FileChannel channel, long checkpointId, int[] pageIdxs, int pages) {
+            this.path = path;
+            this.channel = channel;
+            this.checkpointId = checkpointId;
+            this.pageIdxs = pageIdxs;
+            this.pages = pages;
+
+            headerSize = headerSize(pageIdxs.length);
+        }
+
+        /**
+         * Writes a page.
+         *
+         * @param pageIdx Page index, one of the indexes the delta file was created with.
+         * @param buf Page content.
+         * @throws IgniteInternalCheckedException If failed.
+         */
+        public void write(int pageIdx, ByteBuffer buf) throws IgniteInternalCheckedException {
+            long off = pageOffset(pageIdx);
+
+            assert off >= 0 : "Page is not a part of the delta file [file=" + path + ", pageIdx=" + pageIdx + ']';
+
+            try {
+                writeFully(channel, buf, off);
+            } catch (IOException e) {
+                throw new IgniteInternalCheckedException("Failed to write a page [file=" + path + ", pageIdx=" + pageIdx + ']', e);
+            }
+        }
+
+        /**
+         * Forces all the written pages to the storage device.
+         *
+         * @throws IgniteInternalCheckedException If failed.
+         */
+        public void sync() throws IgniteInternalCheckedException {
+            try {
+                channel.force(true);
+            } catch (IOException e) {
+                throw new IgniteInternalCheckedException("Failed to sync a delta file: " + path, e);
+            }
+        }
+
+        /**
+         * Returns the offset of the page in the delta file, {@code -1} if the delta file doesn't contain the page.
+         *
+         * @param pageIdx Page index.
+         */
+        private long pageOffset(int pageIdx) {
+            int pos = Arrays.binarySearch(pageIdxs, pageIdx);
+
+            return pos < 0 ? -1 : pageOffsetByPosition(pos);
+        }
+
+        private long pageOffsetByPosition(int pos) {
+            return headerSize + (long) pos * pageSize;
+        }
+
+        private void delete() throws IgniteInternalCheckedException {
+            try {
+                channel.close();
+
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new IgniteInternalCheckedException("Failed to delete a delta file: " + path, e);
+            }
+        }
+    }
+}
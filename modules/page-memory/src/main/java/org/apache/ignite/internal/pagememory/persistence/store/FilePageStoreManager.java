@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.pagememory.persistence.store;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.ignite.internal.pagememory.util.PageIdUtils;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+import org.apache.ignite.lang.IgniteLogger;
+
+/**
+ * Manages the {@link FilePageStore}s of the partitions of a persistent data region.
+ *
+ * <p>Directory layout:
+ * <pre>
+ * region-dir
+ * ├── checkpoint.marker           ID of the last completed checkpoint
+ * └── grp-{groupId}
+ *     ├── part-{partId}.bin       partition file
+ *     └── part-{partId}-{cpId}.delta   pages of a checkpoint, not merged into the partition file yet
+ * </pre>
+ */
+public class FilePageStoreManager {
+    /** Logger. */
+    private static final IgniteLogger LOG = IgniteLogger.forClass(FilePageStoreManager.class);
+
+    /** Partition file extension. */
+    static final String PART_FILE_EXT = ".bin";
+
+    /** Delta file extension. */
+    static final String DELTA_FILE_EXT = ".delta";
+
+    /** Name of the file with the ID of the last completed checkpoint. */
+    private static final String CHECKPOINT_MARKER_FILE_NAME = "checkpoint.marker";
+
+    /** Group directory name prefix. */
+    private static final String GROUP_DIR_PREFIX = "grp-";
+
+    /** Partition file name prefix. */
+    private static final String PART_FILE_PREFIX = "part-";
+
+    /** Pattern of a delta file name. */
+    private static final Pattern DELTA_FILE_PATTERN = Pattern.compile("part-(\\d+)-(\\d+)\\" + DELTA_FILE_EXT);
+
+    /** Region directory. */
+    private final Path dir;
+
+    /** Page size. */
+    private final int pageSize;
+
+    /** Page stores by group ID and partition ID. */
+    private final Map<Long, FilePageStore> stores = new ConcurrentHashMap<>();
+
+    /** ID of the last completed checkpoint. */
+    private volatile long lastCheckpointId;
+
+    /**
+     * Constructor.
+     *
+     * @param dir Region directory.
+     * @param pageSize Page size.
+     */
+    public FilePageStoreManager(Path dir, int pageSize) {
+        this.dir = dir;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Opens the existing page stores, completing the merge of the delta files of the last completed checkpoint and removing the delta
+     * files of an incomplete one.
+     *
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public void start() throws IgniteInternalCheckedException {
+        try {
+            Files.createDirectories(dir);
+
+            Path markerFile = dir.resolve(CHECKPOINT_MARKER_FILE_NAME);
+
+            lastCheckpointId = Files.exists(markerFile) ? ByteBuffer.wrap(Files.readAllBytes(markerFile)).getLong() : 0;
+
+            try (DirectoryStream<Path> grpDirs = Files.newDirectoryStream(dir, GROUP_DIR_PREFIX + "*")) {
+                for (Path grpDir : grpDirs) {
+                    int grpId = Integer.parseInt(grpDir.getFileName().toString().substring(GROUP_DIR_PREFIX.length()));
+
+                    recoverGroup(grpId, grpDir);
+                }
+            }
+
+            for (FilePageStore store : stores.values()) {
+                store.mergeDeltaFiles(lastCheckpointId);
+            }
+        } catch (IOException e) {
+            throw new IgniteInternalCheckedException("Failed to start a page store manager: " + dir, e);
+        }
+    }
+
+    /**
+     * Closes all the page stores.
+     */
+    public void stop() {
+        try {
+            IgniteUtils.closeAll(stores.values());
+        } catch (Exception e) {
+            LOG.error("Failed to close page stores: " + dir, e);
+        }
+
+        stores.clear();
+    }
+
+    /**
+     * Returns the ID of the last completed checkpoint, {@code 0} if there were no checkpoints.
+     */
+    public long lastCheckpointId() {
+        return lastCheckpointId;
+    }
+
+    /**
+     * Marks a checkpoint as completed, after all of its delta files have been synced.
+     *
+     * @param checkpointId Checkpoint ID.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public void markCheckpointCompleted(long checkpointId) throws IgniteInternalCheckedException {
+        Path markerFile = dir.resolve(CHECKPOINT_MARKER_FILE_NAME);
+        Path tmpFile = dir.resolve(CHECKPOINT_MARKER_FILE_NAME + ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(tmpFile, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.allocate(Long.BYTES).putLong(checkpointId);
+
+                buf.flip();
+
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+
+                channel.force(true);
+            }
+
+            Files.move(tmpFile, markerFile, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IgniteInternalCheckedException("Failed to write a checkpoint marker: " + markerFile, e);
+        }
+
+        lastCheckpointId = checkpointId;
+    }
+
+    /**
+     * Returns a page store, creating it if it doesn't exist.
+     *
+     * @param grpId Group ID.
+     * @param partId Partition ID.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public FilePageStore store(int grpId, int partId) throws IgniteInternalCheckedException {
+        FilePageStore store = stores.get(storeKey(grpId, partId));
+
+        if (store != null) {
+            return store;
+        }
+
+        synchronized (stores) {
+            store = stores.get(storeKey(grpId, partId));
+
+            if (store == null) {
+                Path grpDir = dir.resolve(GROUP_DIR_PREFIX + grpId);
+
+                try {
+                    Files.createDirectories(grpDir);
+                } catch (IOException e) {
+                    throw new IgniteInternalCheckedException("Failed to create a group directory: " + grpDir, e);
+                }
+
+                store = new FilePageStore(grpDir.resolve(PART_FILE_PREFIX + partId + PART_FILE_EXT), pageSize);
+
+                stores.put(storeKey(grpId, partId), store);
+            }
+
+            return store;
+        }
+    }
+
+    /**
+     * Returns all the opened page stores.
+     */
+    public Collection<FilePageStore> stores() {
+        return stores.values();
+    }
+
+    /**
+     * Allocates a page in the page store of a partition.
+     *
+     * @param grpId Group ID.
+     * @param partId Partition ID.
+     * @param flags Page flags.
+     * @return Page ID.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public long allocatePage(int grpId, int partId, byte flags) throws IgniteInternalCheckedException {
+        int pageIdx = store(grpId, partId).allocatePage();
+
+        return PageIdUtils.pageId(partId, flags, pageIdx);
+    }
+
+    /**
+     * Reads a page.
+     *
+     * @param grpId Group ID.
+     * @param pageId Page ID.
+     * @param buf Buffer to read the page into.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public void read(int grpId, long pageId, ByteBuffer buf) throws IgniteInternalCheckedException {
+        store(grpId, PageIdUtils.partitionId(pageId)).read(pageId, buf);
+    }
+
+    /**
+     * Returns the number of allocated pages of a partition.
+     *
+     * @param grpId Group ID.
+     * @param partId Partition ID.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public int pages(int grpId, int partId) throws IgniteInternalCheckedException {
+        return store(grpId, partId).pages();
+    }
+
+    /**
+     * Opens the page stores of a group, registering the delta files of the completed checkpoints and removing the other ones.
+     */
+    private void recoverGroup(int grpId, Path grpDir) throws IOException, IgniteInternalCheckedException {
+        List<Path> deltaFiles = new ArrayList<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(grpDir)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+
+                if (fileName.endsWith(PART_FILE_EXT)) {
+                    String partId = fileName.substring(PART_FILE_PREFIX.length(), fileName.length() - PART_FILE_EXT.length());
+
+                    store(grpId, Integer.parseInt(partId));
+                } else if (fileName.endsWith(DELTA_FILE_EXT)) {
+                    deltaFiles.add(file);
+                }
+            }
+        }
+
+        for (Path deltaFile : deltaFiles) {
+            Matcher matcher = DELTA_FILE_PATTERN.matcher(deltaFile.getFileName().toString());
+
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            int partId = Integer.parseInt(matcher.group(1));
+            long checkpointId = Long.parseLong(matcher.group(2));
+
+            if (checkpointId > lastCheckpointId) {
+                // Checkpoint has not been completed, its pages are discarded.
+                Files.delete(deltaFile);
+            } else {
+                store(grpId, partId).addDeltaFile(deltaFile, checkpointId);
+            }
+        }
+    }
+
+    private static long storeKey(int grpId, int partId) {
+        return ((long) grpId << 32) | (partId & 0xFFFFFFFFL);
+    }
+}
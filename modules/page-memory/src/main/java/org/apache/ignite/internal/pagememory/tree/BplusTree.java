@@ -0,0 +1,954 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.pagememory.tree;
+
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.FLAG_AUX;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.apache.ignite.internal.pagememory.PageMemory;
+import org.apache.ignite.internal.pagememory.datastructure.DataStructure;
+import org.apache.ignite.internal.pagememory.io.IoVersions;
+import org.apache.ignite.internal.pagememory.metric.IoStatisticsHolderNoOp;
+import org.apache.ignite.internal.pagememory.reuse.LongListReuseBag;
+import org.apache.ignite.internal.pagememory.reuse.ReuseBag;
+import org.apache.ignite.internal.pagememory.reuse.ReuseList;
+import org.apache.ignite.internal.pagememory.tree.io.BplusInnerIo;
+import org.apache.ignite.internal.pagememory.tree.io.BplusIo;
+import org.apache.ignite.internal.pagememory.tree.io.BplusLeafIo;
+import org.apache.ignite.internal.pagememory.tree.io.BplusMetaIo;
+import org.apache.ignite.internal.pagememory.util.PageLockListener;
+import org.apache.ignite.internal.util.Cursor;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+import org.apache.ignite.lang.IgniteInternalException;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * B+Tree over page memory with fixed size items.
+ *
+ * <p>Leaf pages of the same level are linked with forward links, which allows range scans without going back to the root. Inner pages
+ * contain separators, i.e. copies of leaf items (see {@link #separator(byte[])}), and links to the child pages.
+ *
+ * <p>Concurrency: pages are latched with their page locks, top-down with lock coupling: the latch of a child page is acquired before the
+ * latch of its parent is released, starting from the meta page. Lookups and cursors read latch the path to the leaf. A modification read
+ * latches the inner pages and write latches the leaf only, unless the leaf may split: then the descent is repeated with write latches,
+ * and the latches of the ancestors are released as soon as a page that doesn't split on insertion is latched, so only the pages that
+ * change are kept latched. Splits move the items to the right, to a new forward page, and pages are never merged on removal, so an
+ * empty leaf stays in the forward chain until the tree is destroyed. {@link #destroy} must not run concurrently with other operations.
+ *
+ * @param <L> Type of the search row.
+ * @param <T> Type of the full row.
+ */
+public abstract class BplusTree<L, T extends L> extends DataStructure {
+    /** Meta page ID. */
+    private final long metaPageId;
+
+    /** Inner page IO versions. */
+    private final IoVersions<? extends BplusInnerIo<L>> innerIos;
+
+    /** Leaf page IO versions. */
+    private final IoVersions<? extends BplusLeafIo<L>> leafIos;
+
+    /**
+     * Constructor.
+     *
+     * @param name Tree name (for debugging purposes).
+     * @param grpId Group ID.
+     * @param grpName Group name.
+     * @param pageMem Page memory.
+     * @param lockLsnr Page lock listener.
+     * @param metaPageId Meta page ID.
+     * @param reuseList Reuse list to take pages from and to return destroyed pages to, {@code null} if pages should not be reused.
+     * @param innerIos Inner page IO versions.
+     * @param leafIos Leaf page IO versions.
+     */
+    protected BplusTree(
+            String name,
+            int grpId,
+            @Nullable String grpName,
+            PageMemory pageMem,
+            PageLockListener lockLsnr,
+            long metaPageId,
+            @Nullable ReuseList reuseList,
+            IoVersions<? extends BplusInnerIo<L>> innerIos,
+            IoVersions<? extends BplusLeafIo<L>> leafIos
+    ) {
+        super(name, grpId, grpName, pageMem, lockLsnr, FLAG_AUX);
+
+        assert innerIos.latest().getItemSize() == leafIos.latest().getItemSize();
+
+        this.metaPageId = metaPageId;
+        this.reuseList = reuseList;
+        this.innerIos = innerIos;
+        this.leafIos = leafIos;
+    }
+
+    /**
+     * Initializes the tree.
+     *
+     * @param initNew {@code True} if a new tree should be created in the meta page, {@code false} if the meta page already contains one.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    protected final void initTree(boolean initNew) throws IgniteInternalCheckedException {
+        if (initNew) {
+            init(metaPageId, BplusMetaIo.VERSIONS.latest());
+
+            long rootId = allocatePage(null);
+
+            init(rootId, leafIos.latest());
+
+            writeRoot(rootId, 0);
+        }
+    }
+
+    /**
+     * Compares the item with the given index with the search row.
+     *
+     * @param io Page IO.
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     * @param row Search row.
+     * @return Comparison result, in the sense of {@link Comparable#compareTo}.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    protected abstract int compare(BplusIo<L> io, long pageAddr, int idx, L row) throws IgniteInternalCheckedException;
+
+    /**
+     * Materializes the full row referenced by the leaf item with the given index.
+     *
+     * @param io Leaf page IO.
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     * @return Full row.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    protected abstract T getRow(BplusIo<L> io, long pageAddr, int idx) throws IgniteInternalCheckedException;
+
+    /**
+     * Creates a separator for the inner pages out of a leaf item. Inner pages outlive the leaf items they have been copied from, so an
+     * implementation that references external data from its items must make the separator independent of the leaf item.
+     *
+     * @param leafItem Leaf item bytes.
+     * @return Separator item bytes.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    protected byte[] separator(byte[] leafItem) throws IgniteInternalCheckedException {
+        return leafItem;
+    }
+
+    /**
+     * Callback invoked for every leaf and inner item when the tree is destroyed.
+     *
+     * @param io Page IO.
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    protected void releaseItem(BplusIo<L> io, long pageAddr, int idx) throws IgniteInternalCheckedException {
+        // No-op.
+    }
+
+    /**
+     * Looks up the row equal to the search row.
+     *
+     * @param row Search row.
+     * @return Found row or {@code null} if there is none.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public final @Nullable T findOne(L row) throws IgniteInternalCheckedException {
+        PageLatch leaf = latchLeaf(row, false);
+
+        try {
+            BplusLeafIo<L> io = leafIos.forPage(leaf.pageAddr);
+
+            int idx = findInsertionPoint(io, leaf.pageAddr, io.getCount(leaf.pageAddr), row);
+
+            return idx >= 0 ? getRow(io, leaf.pageAddr, idx) : null;
+        } finally {
+            leaf.release();
+        }
+    }
+
+    /**
+     * Returns a cursor over the rows in the given range. Rows are read one leaf page at a time, so the cursor neither blocks modifications
+     * of the tree nor does it provide a point-in-time view of it.
+     *
+     * @param lower Lower bound (inclusive) or {@code null} if unbounded.
+     * @param upper Upper bound (inclusive) or {@code null} if unbounded.
+     * @return Cursor.
+     */
+    public final Cursor<T> find(@Nullable L lower, @Nullable L upper) {
+        return new ForwardCursor(lower, upper);
+    }
+
+    /**
+     * Inserts the row or replaces the existing equal one.
+     *
+     * @param row Row.
+     * @return Replaced row or {@code null} if there was none.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public final @Nullable T put(T row) throws IgniteInternalCheckedException {
+        Put put = new Put(row);
+
+        PageLatch leaf = latchLeaf(row, true);
+
+        try {
+            BplusLeafIo<L> io = leafIos.forPage(leaf.pageAddr);
+
+            int cnt = io.getCount(leaf.pageAddr);
+
+            // The leaf doesn't split, so no other page changes.
+            if (cnt < io.getMaxCount(pageSize()) || findInsertionPoint(io, leaf.pageAddr, cnt, row) >= 0) {
+                putIntoLeaf(leaf.pageId, leaf.pageAddr, put);
+
+                return put.oldRow;
+            }
+        } finally {
+            leaf.release();
+        }
+
+        return putSplitting(put);
+    }
+
+    /**
+     * Inserts the row into a leaf that may split: write latches the path from the highest page that may change down to the leaf, and
+     * propagates the splits up.
+     *
+     * @param put Put operation state.
+     * @return Replaced row or {@code null} if there was none.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private @Nullable T putSplitting(Put put) throws IgniteInternalCheckedException {
+        Deque<PageLatch> path = new ArrayDeque<>();
+
+        try {
+            PageLatch meta = new PageLatch(metaPageId, true);
+
+            path.addLast(meta);
+
+            BplusMetaIo metaIo = BplusMetaIo.VERSIONS.forPage(meta.pageAddr);
+
+            long pageId = metaIo.getRootPageId(meta.pageAddr);
+            int lvl = metaIo.getRootLevel(meta.pageAddr);
+
+            for (; ; lvl--) {
+                PageLatch latch = new PageLatch(pageId, true);
+
+                BplusIo<L> io = lvl == 0 ? leafIos.forPage(latch.pageAddr) : innerIos.forPage(latch.pageAddr);
+
+                // The page doesn't split on insertion, so its ancestors don't change.
+                if (io.getCount(latch.pageAddr) < io.getMaxCount(pageSize())) {
+                    releaseAll(path);
+                }
+
+                path.addLast(latch);
+
+                if (lvl == 0) {
+                    break;
+                }
+
+                BplusInnerIo<L> innerIo = (BplusInnerIo<L>) io;
+
+                pageId = innerIo.getChild(latch.pageAddr, childIndex(innerIo, latch.pageAddr, put.row));
+            }
+
+            PageLatch leaf = path.pollLast();
+
+            try {
+                putIntoLeaf(leaf.pageId, leaf.pageAddr, put);
+            } finally {
+                leaf.release();
+            }
+
+            if (put.splitItem != null) {
+                put.splitItem = separator(put.splitItem);
+            }
+
+            while (put.splitItem != null && !path.isEmpty()) {
+                PageLatch latch = path.pollLast();
+
+                try {
+                    if (latch.pageId == metaPageId) {
+                        splitRoot(latch.pageAddr, put);
+                    } else {
+                        insertIntoInner(latch.pageAddr, put);
+                    }
+                } finally {
+                    latch.release();
+                }
+            }
+
+            assert put.splitItem == null : "Split of a page whose parent is not latched";
+
+            return put.oldRow;
+        } finally {
+            releaseAll(path);
+        }
+    }
+
+    /**
+     * Creates a new root over the split one.
+     *
+     * @param metaAddr Meta page address, write latched.
+     * @param put Put operation state.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private void splitRoot(long metaAddr, Put put) throws IgniteInternalCheckedException {
+        BplusMetaIo metaIo = BplusMetaIo.VERSIONS.forPage(metaAddr);
+
+        long rootId = metaIo.getRootPageId(metaAddr);
+        int rootLvl = metaIo.getRootLevel(metaAddr);
+
+        long newRootId = allocatePage(null);
+
+        init(newRootId, innerIos.latest());
+
+        writePage(newRootId, pageAddr -> {
+            innerIos.forPage(pageAddr).initRoot(pageAddr, rootId, put.splitItem, put.splitRightId);
+
+            return null;
+        });
+
+        metaIo.setRoot(metaAddr, newRootId, rootLvl + 1);
+
+        put.splitItem = null;
+        put.splitRightId = 0L;
+    }
+
+    /**
+     * Removes the row equal to the search row.
+     *
+     * @param row Search row.
+     * @return Removed row or {@code null} if there was none.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public final @Nullable T remove(L row) throws IgniteInternalCheckedException {
+        // Pages are not merged, so only the leaf changes.
+        PageLatch leaf = latchLeaf(row, true);
+
+        try {
+            BplusLeafIo<L> io = leafIos.forPage(leaf.pageAddr);
+
+            int idx = findInsertionPoint(io, leaf.pageAddr, io.getCount(leaf.pageAddr), row);
+
+            if (idx < 0) {
+                return null;
+            }
+
+            T oldRow = getRow(io, leaf.pageAddr, idx);
+
+            io.remove(leaf.pageAddr, idx);
+
+            return oldRow;
+        } finally {
+            leaf.release();
+        }
+    }
+
+    /**
+     * Destroys the tree: invokes {@link #releaseItem} for every item and returns all the pages, including the meta page, to the reuse list
+     * (or frees them if there is no reuse list). The tree must not be used concurrently and afterwards.
+     *
+     * @return Number of released pages.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public final long destroy() throws IgniteInternalCheckedException {
+        LongListReuseBag bag = new LongListReuseBag();
+
+        long firstPageId = readPage(metaPageId, metaAddr -> BplusMetaIo.VERSIONS.forPage(metaAddr).getRootPageId(metaAddr));
+        int lvl = readPage(metaPageId, metaAddr -> BplusMetaIo.VERSIONS.forPage(metaAddr).getRootLevel(metaAddr));
+
+        for (; lvl >= 0; lvl--) {
+            firstPageId = destroyLevel(firstPageId, lvl, bag);
+        }
+
+        bag.addFreePage(writePage(metaPageId, metaAddr -> recyclePage(metaPageId, metaAddr)));
+
+        long pagesCnt = bag.size();
+
+        if (reuseList != null) {
+            reuseList.addForRecycle(bag);
+        } else {
+            for (long pageId; (pageId = bag.pollFreePage()) != 0L; ) {
+                pageMem.freePage(grpId, pageId);
+            }
+        }
+
+        return pagesCnt;
+    }
+
+    /**
+     * Releases all the pages of a single tree level.
+     *
+     * @param firstPageId ID of the leftmost page of the level.
+     * @param lvl Level.
+     * @param bag Bag to put recycled pages to.
+     * @return ID of the leftmost page of the level below, {@code 0} for the leaf level.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private long destroyLevel(long firstPageId, int lvl, ReuseBag bag) throws IgniteInternalCheckedException {
+        long nextLvlFirstPageId = lvl == 0 ? 0L : readPage(firstPageId, pageAddr -> innerIos.forPage(pageAddr).getChild(pageAddr, 0));
+
+        for (long pageId = firstPageId; pageId != 0L; ) {
+            long curPageId = pageId;
+
+            pageId = writePage(curPageId, pageAddr -> {
+                BplusIo<L> io = lvl == 0 ? leafIos.forPage(pageAddr) : innerIos.forPage(pageAddr);
+
+                for (int i = 0, cnt = io.getCount(pageAddr); i < cnt; i++) {
+                    releaseItem(io, pageAddr, i);
+                }
+
+                long fwdId = io.getForward(pageAddr);
+
+                bag.addFreePage(recyclePage(curPageId, pageAddr));
+
+                return fwdId;
+            });
+        }
+
+        return nextLvlFirstPageId;
+    }
+
+    /**
+     * Inserts the row into the leaf page or replaces the existing one.
+     *
+     * @param pageId Page ID.
+     * @param pageAddr Page address, write locked.
+     * @param put Put operation state.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private void putIntoLeaf(long pageId, long pageAddr, Put put) throws IgniteInternalCheckedException {
+        BplusLeafIo<L> io = leafIos.forPage(pageAddr);
+
+        int cnt = io.getCount(pageAddr);
+
+        int idx = findInsertionPoint(io, pageAddr, cnt, put.row);
+
+        if (idx >= 0) {
+            put.oldRow = getRow(io, pageAddr, idx);
+
+            io.storeByOffset(pageAddr, io.offset(idx), put.row);
+
+            return;
+        }
+
+        int insIdx = -idx - 1;
+
+        if (cnt < io.getMaxCount(pageSize())) {
+            io.insert(pageAddr, insIdx, put.row);
+
+            return;
+        }
+
+        long fwdId = allocatePage(null);
+
+        BplusLeafIo<L> fwdIo = leafIos.latest();
+
+        init(fwdId, fwdIo);
+
+        writePage(fwdId, fwdPageAddr -> {
+            int mid = cnt >>> 1;
+
+            io.moveTail(pageAddr, mid, fwdPageAddr);
+
+            fwdIo.setForward(fwdPageAddr, io.getForward(pageAddr));
+            io.setForward(pageAddr, fwdId);
+
+            if (insIdx <= mid) {
+                io.insert(pageAddr, insIdx, put.row);
+            } else {
+                fwdIo.insert(fwdPageAddr, insIdx - mid, put.row);
+            }
+
+            put.splitItem = fwdIo.getItem(fwdPageAddr, 0);
+            put.splitRightId = fwdId;
+
+            return null;
+        });
+    }
+
+    /**
+     * Inserts the separator produced by a child split into the inner page, splitting the page itself if it overflows.
+     *
+     * @param pageAddr Page address, write locked.
+     * @param put Put operation state.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private void insertIntoInner(long pageAddr, Put put) throws IgniteInternalCheckedException {
+        BplusInnerIo<L> io = innerIos.forPage(pageAddr);
+
+        byte[] item = put.splitItem;
+        long rightId = put.splitRightId;
+
+        put.splitItem = null;
+        put.splitRightId = 0L;
+
+        int cnt = io.getCount(pageAddr);
+
+        // The page has been write latched since the descent, so the search yields the same child that has just been split.
+        int idx = childIndex(io, pageAddr, put.row);
+
+        if (cnt < io.getMaxCount(pageSize())) {
+            io.insert(pageAddr, idx, item, rightId);
+
+            return;
+        }
+
+        long fwdId = allocatePage(null);
+
+        BplusInnerIo<L> fwdIo = innerIos.latest();
+
+        init(fwdId, fwdIo);
+
+        writePage(fwdId, fwdPageAddr -> {
+            int mid = cnt >>> 1;
+
+            byte[] promoted = io.getItem(pageAddr, mid);
+
+            io.moveTail(pageAddr, mid, fwdPageAddr);
+
+            fwdIo.setForward(fwdPageAddr, io.getForward(pageAddr));
+            io.setForward(pageAddr, fwdId);
+
+            if (idx <= mid) {
+                io.insert(pageAddr, idx, item, rightId);
+            } else {
+                fwdIo.insert(fwdPageAddr, idx - mid - 1, item, rightId);
+            }
+
+            put.splitItem = promoted;
+            put.splitRightId = fwdId;
+
+            return null;
+        });
+    }
+
+    /**
+     * Latches the leaf page that may contain the search row: descends from the meta page with lock coupling, read latching the inner
+     * pages.
+     *
+     * @param row Search row or {@code null} to find the leftmost leaf.
+     * @param write {@code True} to write latch the leaf, {@code false} to read latch it.
+     * @return Latched leaf page, to be released by the caller.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private PageLatch latchLeaf(@Nullable L row, boolean write) throws IgniteInternalCheckedException {
+        PageLatch latch = new PageLatch(metaPageId, false);
+
+        try {
+            BplusMetaIo metaIo = BplusMetaIo.VERSIONS.forPage(latch.pageAddr);
+
+            long pageId = metaIo.getRootPageId(latch.pageAddr);
+            int lvl = metaIo.getRootLevel(latch.pageAddr);
+
+            for (; ; lvl--) {
+                PageLatch child = new PageLatch(pageId, write && lvl == 0);
+
+                latch.release();
+
+                latch = child;
+
+                if (lvl == 0) {
+                    PageLatch leaf = latch;
+
+                    latch = null;
+
+                    return leaf;
+                }
+
+                BplusInnerIo<L> io = innerIos.forPage(latch.pageAddr);
+
+                pageId = io.getChild(latch.pageAddr, row == null ? 0 : childIndex(io, latch.pageAddr, row));
+            }
+        } finally {
+            if (latch != null) {
+                latch.release();
+            }
+        }
+    }
+
+    /**
+     * Releases the latches, the lowest first.
+     *
+     * @param path Latched pages, top-down.
+     */
+    private void releaseAll(Deque<PageLatch> path) {
+        for (PageLatch latch; (latch = path.pollLast()) != null; ) {
+            latch.release();
+        }
+    }
+
+    /**
+     * Returns index of the child of the inner page whose subtree may contain the search row.
+     *
+     * @param io Inner page IO.
+     * @param pageAddr Page address.
+     * @param row Search row.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private int childIndex(BplusInnerIo<L> io, long pageAddr, L row) throws IgniteInternalCheckedException {
+        int idx = findInsertionPoint(io, pageAddr, io.getCount(pageAddr), row);
+
+        // Rows equal to a separator belong to its right subtree.
+        return idx >= 0 ? idx + 1 : -idx - 1;
+    }
+
+    /**
+     * Binary search of the row among the page items.
+     *
+     * @param io Page IO.
+     * @param pageAddr Page address.
+     * @param cnt Items count.
+     * @param row Search row.
+     * @return Index of the equal item, or {@code -(insertion point) - 1} if there is none.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private int findInsertionPoint(BplusIo<L> io, long pageAddr, int cnt, L row) throws IgniteInternalCheckedException {
+        int low = 0;
+        int high = cnt - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+
+            int cmp = compare(io, pageAddr, mid, row);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    /**
+     * Writes the root page ID and level to the meta page.
+     *
+     * @param rootId Root page ID.
+     * @param rootLvl Root level.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private void writeRoot(long rootId, int rootLvl) throws IgniteInternalCheckedException {
+        writePage(metaPageId, metaAddr -> {
+            BplusMetaIo.VERSIONS.forPage(metaAddr).setRoot(metaAddr, rootId, rootLvl);
+
+            return null;
+        });
+    }
+
+    /**
+     * Executes the closure under the read lock of the page.
+     *
+     * @param pageId Page ID.
+     * @param c Closure.
+     * @return Closure result.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private <R> R readPage(long pageId, PageClosure<R> c) throws IgniteInternalCheckedException {
+        long page = acquirePage(pageId, IoStatisticsHolderNoOp.INSTANCE);
+
+        try {
+            long pageAddr = readLock(pageId, page);
+
+            assert pageAddr != 0L : IgniteUtils.hexLong(pageId);
+
+            try {
+                return c.apply(pageAddr);
+            } finally {
+                readUnlock(pageId, page, pageAddr);
+            }
+        } finally {
+            releasePage(pageId, page);
+        }
+    }
+
+    /**
+     * Executes the closure under the write lock of the page.
+     *
+     * @param pageId Page ID.
+     * @param c Closure.
+     * @return Closure result.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private <R> R writePage(long pageId, PageClosure<R> c) throws IgniteInternalCheckedException {
+        long page = acquirePage(pageId, IoStatisticsHolderNoOp.INSTANCE);
+
+        try {
+            long pageAddr = writeLock(pageId, page);
+
+            assert pageAddr != 0L : IgniteUtils.hexLong(pageId);
+
+            try {
+                return c.apply(pageAddr);
+            } finally {
+                writeUnlock(pageId, page, pageAddr, true);
+            }
+        } finally {
+            releasePage(pageId, page);
+        }
+    }
+
+    /**
+     * Page held under its page lock.
+     */
+    private final class PageLatch {
+        /** Page ID. */
+        final long pageId;
+
+        /** Page pointer. */
+        final long page;
+
+        /** Page address. */
+        final long pageAddr;
+
+        /** {@code True} if the page is write locked. */
+        final boolean write;
+
+        /**
+         * Acquires and locks the page.
+         *
+         * @param pageId Page ID.
+         * @param write {@code True} to write lock the page, {@code false} to read lock it.
+         * @throws IgniteInternalCheckedException If failed.
+         */
+        PageLatch(long pageId, boolean write) throws IgniteInternalCheckedException {
+            this.pageId = pageId;
+            this.write = write;
+
+            page = acquirePage(pageId, IoStatisticsHolderNoOp.INSTANCE);
+
+            pageAddr = write ? writeLock(pageId, page) : readLock(pageId, page);
+
+            assert pageAddr != 0L : IgniteUtils.hexLong(pageId);
+        }
+
+        /**
+         * Unlocks and releases the page.
+         */
+        void release() {
+            try {
+                if (write) {
+                    writeUnlock(pageId, page, pageAddr, true);
+                } else {
+                    readUnlock(pageId, page, pageAddr);
+                }
+            } finally {
+                releasePage(pageId, page);
+            }
+        }
+    }
+
+    /**
+     * Closure over a locked page.
+     */
+    @FunctionalInterface
+    private interface PageClosure<R> {
+        /**
+         * Processes the locked page.
+         *
+         * @param pageAddr Page address.
+         * @return Result.
+         * @throws IgniteInternalCheckedException If failed.
+         */
+        R apply(long pageAddr) throws IgniteInternalCheckedException;
+    }
+
+    /**
+     * State of a put operation.
+     */
+    private final class Put {
+        /** Row to insert. */
+        final T row;
+
+        /** Replaced row. */
+        @Nullable T oldRow;
+
+        /** Separator to insert into the parent page after a split of the child page. */
+        @Nullable byte[] splitItem;
+
+        /** ID of the page created by a split of the child page. */
+        long splitRightId;
+
+        /**
+         * Constructor.
+         *
+         * @param row Row to insert.
+         */
+        Put(T row) {
+            this.row = row;
+        }
+    }
+
+    /**
+     * Cursor that reads the rows one leaf page at a time. Every page is looked up from the root by the last returned row, so the cursor
+     * tolerates concurrent splits and holds no latches between the pages.
+     */
+    private final class ForwardCursor implements Cursor<T> {
+        /** Rows of the current page. */
+        private final List<T> rows = new ArrayList<>();
+
+        /** Upper bound (inclusive). */
+        @Nullable
+        private final L upper;
+
+        /** Lower bound. */
+        @Nullable
+        private L lower;
+
+        /** {@code True} if the lower bound is inclusive. */
+        private boolean lowerInclusive = true;
+
+        /** Position of the next row in {@link #rows}. */
+        private int pos;
+
+        /** {@code True} if there are no more pages to read. */
+        private boolean finished;
+
+        /**
+         * Constructor.
+         *
+         * @param lower Lower bound (inclusive) or {@code null} if unbounded.
+         * @param upper Upper bound (inclusive) or {@code null} if unbounded.
+         */
+        ForwardCursor(@Nullable L lower, @Nullable L upper) {
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            while (pos == rows.size()) {
+                if (finished) {
+                    return false;
+                }
+
+                try {
+                    fetchNextPage();
+                } catch (IgniteInternalCheckedException e) {
+                    throw new IgniteInternalException("Failed to read the next page of the tree: " + name(), e);
+                }
+            }
+
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return rows.get(pos++);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Iterator<T> iterator() {
+            return this;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            finished = true;
+
+            rows.clear();
+            pos = 0;
+        }
+
+        /**
+         * Reads the rows that follow the lower bound, up to the end of the first leaf page that has any.
+         *
+         * @throws IgniteInternalCheckedException If failed.
+         */
+        private void fetchNextPage() throws IgniteInternalCheckedException {
+            rows.clear();
+            pos = 0;
+
+            PageLatch leaf = latchLeaf(lower, false);
+
+            long pageId;
+
+            try {
+                pageId = readLeaf(leaf.pageAddr, true);
+            } finally {
+                leaf.release();
+            }
+
+            // Splits move the rows to the forward pages only, so the empty pages are skipped by the forward links.
+            while (pageId != 0L && rows.isEmpty() && !finished) {
+                pageId = readPage(pageId, pageAddr -> readLeaf(pageAddr, false));
+            }
+
+            if (pageId == 0L) {
+                finished = true;
+            }
+
+            if (!rows.isEmpty()) {
+                lower = rows.get(rows.size() - 1);
+                lowerInclusive = false;
+            }
+        }
+
+        /**
+         * Reads the rows of the leaf page within the bounds.
+         *
+         * @param pageAddr Page address.
+         * @param skipLower {@code True} if the rows below the lower bound must be skipped.
+         * @return Forward page ID.
+         * @throws IgniteInternalCheckedException If failed.
+         */
+        private long readLeaf(long pageAddr, boolean skipLower) throws IgniteInternalCheckedException {
+            BplusLeafIo<L> io = leafIos.forPage(pageAddr);
+
+            int cnt = io.getCount(pageAddr);
+
+            int idx = 0;
+
+            if (skipLower && lower != null) {
+                idx = findInsertionPoint(io, pageAddr, cnt, lower);
+
+                idx = idx >= 0 ? (lowerInclusive ? idx : idx + 1) : -idx - 1;
+            }
+
+            for (; idx < cnt; idx++) {
+                if (upper != null && compare(io, pageAddr, idx, upper) > 0) {
+                    finished = true;
+
+                    break;
+                }
+
+                rows.add(getRow(io, pageAddr, idx));
+            }
+
+            return io.getForward(pageAddr);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.pagememory.tree.io;
+
+import static org.apache.ignite.internal.pagememory.util.PageUtils.copyMemory;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.getLong;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.putBytes;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.putLong;
+
+/**
+ * Base IO for the inner pages of a {@link org.apache.ignite.internal.pagememory.tree.BplusTree}.
+ *
+ * <p>Page layout: {@code [header][child 0][item 0][child 1][item 1]...[item n-1][child n]}. All the rows of the subtree referenced by
+ * {@code child i} are less than {@code item i}, and all the rows of the subtree referenced by {@code child i + 1} are greater than or equal
+ * to it.
+ *
+ * @param <L> Type of the search row.
+ */
+public abstract class BplusInnerIo<L> extends BplusIo<L> {
+    /** Size of a child page link. */
+    private static final int CHILD_SIZE = 8;
+
+    /**
+     * Constructor.
+     *
+     * @param type Page type.
+     * @param ver Page format version.
+     * @param itemSize Size of a single item in bytes.
+     */
+    protected BplusInnerIo(int type, int ver, int itemSize) {
+        super(type, ver, false, itemSize);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final int getMaxCount(int pageSize) {
+        return (pageSize - ITEMS_OFF - CHILD_SIZE) / (itemSize + CHILD_SIZE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final int offset(int idx) {
+        assert idx >= 0 : idx;
+
+        return ITEMS_OFF + CHILD_SIZE + idx * (itemSize + CHILD_SIZE);
+    }
+
+    /**
+     * Returns ID of the child page with the given index, from {@code 0} to {@code count} inclusive.
+     *
+     * @param pageAddr Page address.
+     * @param idx Child index.
+     */
+    public final long getChild(long pageAddr, int idx) {
+        return getLong(pageAddr, offset(idx) - CHILD_SIZE);
+    }
+
+    /**
+     * Writes ID of the child page with the given index.
+     *
+     * @param pageAddr Page address.
+     * @param idx Child index.
+     * @param pageId Child page ID.
+     */
+    public final void setChild(long pageAddr, int idx, long pageId) {
+        assertPageType(pageAddr);
+
+        putLong(pageAddr, offset(idx) - CHILD_SIZE, pageId);
+    }
+
+    /**
+     * Initializes a new root page with a single separator.
+     *
+     * @param pageAddr Page address.
+     * @param leftId Left child page ID.
+     * @param item Separator item.
+     * @param rightId Right child page ID.
+     */
+    public final void initRoot(long pageAddr, long leftId, byte[] item, long rightId) {
+        assert getCount(pageAddr) == 0;
+
+        setChild(pageAddr, 0, leftId);
+        putItem(pageAddr, 0, item);
+        setChild(pageAddr, 1, rightId);
+
+        setCount(pageAddr, 1);
+    }
+
+    /**
+     * Inserts a separator item at the given index together with the child page on its right side, shifting the following items to the
+     * right. The caller must make sure that the page is not full.
+     *
+     * @param pageAddr Page address.
+     * @param idx Insertion index.
+     * @param item Separator item.
+     * @param rightId Right child page ID.
+     */
+    public final void insert(long pageAddr, int idx, byte[] item, long rightId) {
+        int cnt = getCount(pageAddr);
+
+        assert idx >= 0 && idx <= cnt : "idx=" + idx + ", cnt=" + cnt;
+        assert item.length == itemSize : item.length;
+
+        if (idx < cnt) {
+            copyMemory(pageAddr, offset(idx), pageAddr, offset(idx + 1), (long) (cnt - idx) * (itemSize + CHILD_SIZE));
+        }
+
+        putBytes(pageAddr, offset(idx), item);
+        setChild(pageAddr, idx + 1, rightId);
+
+        setCount(pageAddr, cnt + 1);
+    }
+
+    /**
+     * Splits the page: the item with the given index is dropped from the page, the items and children to the right of it are moved to the
+     * beginning of an empty destination page.
+     *
+     * @param srcPageAddr Source page address.
+     * @param mid Index of the item that is promoted to the parent page.
+     * @param dstPageAddr Destination page address.
+     */
+    public final void moveTail(long srcPageAddr, int mid, long dstPageAddr) {
+        int cnt = getCount(srcPageAddr);
+
+        assert mid >= 0 && mid < cnt : "mid=" + mid + ", cnt=" + cnt;
+        assert getCount(dstPageAddr) == 0;
+
+        int from = mid + 1;
+
+        copyMemory(
+                srcPageAddr,
+                offset(from) - CHILD_SIZE,
+                dstPageAddr,
+                offset(0) - CHILD_SIZE,
+                (long) (cnt - from) * (itemSize + CHILD_SIZE) + CHILD_SIZE
+        );
+
+        setCount(dstPageAddr, cnt - from);
+        setCount(srcPageAddr, mid);
+    }
+}
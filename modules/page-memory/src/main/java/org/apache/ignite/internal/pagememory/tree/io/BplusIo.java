@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.pagememory.tree.io;
+
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.FLAG_AUX;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.getBytes;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.getLong;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.getShort;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.putBytes;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.putLong;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.putShort;
+
+import org.apache.ignite.internal.pagememory.io.PageIo;
+import org.apache.ignite.lang.IgniteStringBuilder;
+
+/**
+ * Base IO for the pages of a {@link org.apache.ignite.internal.pagememory.tree.BplusTree}.
+ *
+ * <p>Every page contains a count of stored items and a link to the forward page of the same level, followed by fixed size items. The
+ * tree itself never interprets the content of an item, it only compares items against search rows and moves them around as raw bytes.
+ *
+ * @param <L> Type of the search row.
+ */
+public abstract class BplusIo<L> extends PageIo {
+    private static final int CNT_OFF = COMMON_HEADER_END;
+
+    private static final int FORWARD_OFF = CNT_OFF + 2;
+
+    /** Offset of the first item, or the first child link for inner pages. */
+    protected static final int ITEMS_OFF = FORWARD_OFF + 8;
+
+    /** {@code True} if this is a leaf page IO. */
+    private final boolean leaf;
+
+    /** Size of a single item in bytes. */
+    protected final int itemSize;
+
+    /**
+     * Constructor.
+     *
+     * @param type Page type.
+     * @param ver Page format version.
+     * @param leaf {@code True} if this is a leaf page IO.
+     * @param itemSize Size of a single item in bytes.
+     */
+    protected BplusIo(int type, int ver, boolean leaf, int itemSize) {
+        super(type, ver, FLAG_AUX);
+
+        assert itemSize > 0 : itemSize;
+
+        this.leaf = leaf;
+        this.itemSize = itemSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void initNewPage(long pageAddr, long pageId, int pageSize) {
+        super.initNewPage(pageAddr, pageId, pageSize);
+
+        setCount(pageAddr, 0);
+        setForward(pageAddr, 0L);
+    }
+
+    /**
+     * Returns {@code true} if this is a leaf page IO.
+     */
+    public final boolean isLeaf() {
+        return leaf;
+    }
+
+    /**
+     * Returns size of a single item in bytes.
+     */
+    public final int getItemSize() {
+        return itemSize;
+    }
+
+    /**
+     * Returns stored items count.
+     *
+     * @param pageAddr Page address.
+     */
+    public final int getCount(long pageAddr) {
+        return getShort(pageAddr, CNT_OFF) & 0xFFFF;
+    }
+
+    /**
+     * Writes stored items count.
+     *
+     * @param pageAddr Page address.
+     * @param cnt Stored items count.
+     */
+    public final void setCount(long pageAddr, int cnt) {
+        assert cnt >= 0 && cnt <= 0xFFFF : cnt;
+        assertPageType(pageAddr);
+
+        putShort(pageAddr, CNT_OFF, (short) cnt);
+    }
+
+    /**
+     * Returns forward page ID, {@code 0} if this is the rightmost page of its level.
+     *
+     * @param pageAddr Page address.
+     */
+    public final long getForward(long pageAddr) {
+        return getLong(pageAddr, FORWARD_OFF);
+    }
+
+    /**
+     * Writes forward page ID.
+     *
+     * @param pageAddr Page address.
+     * @param pageId Forward page ID.
+     */
+    public final void setForward(long pageAddr, long pageId) {
+        assertPageType(pageAddr);
+
+        putLong(pageAddr, FORWARD_OFF, pageId);
+    }
+
+    /**
+     * Returns maximum number of items that fit into a page.
+     *
+     * @param pageSize Page size.
+     */
+    public abstract int getMaxCount(int pageSize);
+
+    /**
+     * Returns offset of the item with the given index.
+     *
+     * @param idx Item index.
+     */
+    public abstract int offset(int idx);
+
+    /**
+     * Returns a copy of the item with the given index.
+     *
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     */
+    public final byte[] getItem(long pageAddr, int idx) {
+        return getBytes(pageAddr, offset(idx), itemSize);
+    }
+
+    /**
+     * Overwrites the item with the given index.
+     *
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     * @param item Item bytes.
+     */
+    public final void putItem(long pageAddr, int idx, byte[] item) {
+        assert item.length == itemSize : item.length;
+        assertPageType(pageAddr);
+
+        putBytes(pageAddr, offset(idx), item);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void printPage(long addr, int pageSize, IgniteStringBuilder sb) {
+        sb.app(leaf ? "BplusLeaf [" : "BplusInner [")
+                .app("\n\tcount=").app(getCount(addr))
+                .app(",\n\tforward=").appendHex(getForward(addr))
+                .app("\n]");
+    }
+}
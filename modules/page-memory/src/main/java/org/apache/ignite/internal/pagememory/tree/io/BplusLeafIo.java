@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.pagememory.tree.io;
+
+import static org.apache.ignite.internal.pagememory.util.PageUtils.copyMemory;
+
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+
+/**
+ * Base IO for the leaf pages of a {@link org.apache.ignite.internal.pagememory.tree.BplusTree}.
+ *
+ * <p>Page layout: {@code [header][item 0]...[item n-1]}.
+ *
+ * @param <L> Type of the search row.
+ */
+public abstract class BplusLeafIo<L> extends BplusIo<L> {
+    /**
+     * Constructor.
+     *
+     * @param type Page type.
+     * @param ver Page format version.
+     * @param itemSize Size of a single item in bytes.
+     */
+    protected BplusLeafIo(int type, int ver, int itemSize) {
+        super(type, ver, true, itemSize);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final int getMaxCount(int pageSize) {
+        return (pageSize - ITEMS_OFF) / itemSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public final int offset(int idx) {
+        assert idx >= 0 : idx;
+
+        return ITEMS_OFF + idx * itemSize;
+    }
+
+    /**
+     * Stores the row into the item at the given offset.
+     *
+     * @param pageAddr Page address.
+     * @param off Item offset.
+     * @param row Row to store.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public abstract void storeByOffset(long pageAddr, int off, L row) throws IgniteInternalCheckedException;
+
+    /**
+     * Inserts the row at the given index, shifting the following items to the right. The caller must make sure that the page is not full.
+     *
+     * @param pageAddr Page address.
+     * @param idx Insertion index.
+     * @param row Row to insert.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public final void insert(long pageAddr, int idx, L row) throws IgniteInternalCheckedException {
+        int cnt = getCount(pageAddr);
+
+        assert idx >= 0 && idx <= cnt : "idx=" + idx + ", cnt=" + cnt;
+
+        if (idx < cnt) {
+            copyMemory(pageAddr, offset(idx), pageAddr, offset(idx + 1), (long) (cnt - idx) * itemSize);
+        }
+
+        storeByOffset(pageAddr, offset(idx), row);
+
+        setCount(pageAddr, cnt + 1);
+    }
+
+    /**
+     * Removes the item with the given index, shifting the following items to the left.
+     *
+     * @param pageAddr Page address.
+     * @param idx Item index.
+     */
+    public final void remove(long pageAddr, int idx) {
+        int cnt = getCount(pageAddr);
+
+        assert idx >= 0 && idx < cnt : "idx=" + idx + ", cnt=" + cnt;
+
+        if (idx < cnt - 1) {
+            copyMemory(pageAddr, offset(idx + 1), pageAddr, offset(idx), (long) (cnt - idx - 1) * itemSize);
+        }
+
+        setCount(pageAddr, cnt - 1);
+    }
+
+    /**
+     * Moves the items starting from the given index to the beginning of an empty destination page.
+     *
+     * @param srcPageAddr Source page address.
+     * @param from Index of the first item to move.
+     * @param dstPageAddr Destination page address.
+     */
+    public final void moveTail(long srcPageAddr, int from, long dstPageAddr) {
+        int cnt = getCount(srcPageAddr);
+
+        assert from >= 0 && from <= cnt : "from=" + from + ", cnt=" + cnt;
+        assert getCount(dstPageAddr) == 0;
+
+        copyMemory(srcPageAddr, offset(from), dstPageAddr, offset(0), (long) (cnt - from) * itemSize);
+
+        setCount(dstPageAddr, cnt - from);
+        setCount(srcPageAddr, from);
+    }
+}
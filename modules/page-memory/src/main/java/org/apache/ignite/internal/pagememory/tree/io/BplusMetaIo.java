@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.pagememory.tree.io;
+
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.FLAG_AUX;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.getInt;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.getLong;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.putInt;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.putLong;
+
+import org.apache.ignite.internal.pagememory.io.IoVersions;
+import org.apache.ignite.internal.pagememory.io.PageIo;
+import org.apache.ignite.lang.IgniteStringBuilder;
+
+/**
+ * IO for the meta page of a {@link org.apache.ignite.internal.pagememory.tree.BplusTree}: stores the ID and the level of the root page.
+ */
+public class BplusMetaIo extends PageIo {
+    /** Page IO type. */
+    public static final int T_BPLUS_META = 3;
+
+    /** I/O versions. */
+    public static final IoVersions<BplusMetaIo> VERSIONS = new IoVersions<>(new BplusMetaIo(1));
+
+    private static final int ROOT_PAGE_ID_OFF = COMMON_HEADER_END;
+
+    private static final int ROOT_LEVEL_OFF = ROOT_PAGE_ID_OFF + 8;
+
+    /**
+     * Constructor.
+     *
+     * @param ver Page format version.
+     */
+    private BplusMetaIo(int ver) {
+        super(T_BPLUS_META, ver, FLAG_AUX);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void initNewPage(long pageAddr, long pageId, int pageSize) {
+        super.initNewPage(pageAddr, pageId, pageSize);
+
+        setRoot(pageAddr, 0L, 0);
+    }
+
+    /**
+     * Returns root page ID.
+     *
+     * @param pageAddr Page address.
+     */
+    public long getRootPageId(long pageAddr) {
+        return getLong(pageAddr, ROOT_PAGE_ID_OFF);
+    }
+
+    /**
+     * Returns root level, {@code 0} means that the root is a leaf.
+     *
+     * @param pageAddr Page address.
+     */
+    public int getRootLevel(long pageAddr) {
+        return getInt(pageAddr, ROOT_LEVEL_OFF);
+    }
+
+    /**
+     * Writes root page ID and level.
+     *
+     * @param pageAddr Page address.
+     * @param rootPageId Root page ID.
+     * @param rootLvl Root level.
+     */
+    public void setRoot(long pageAddr, long rootPageId, int rootLvl) {
+        assert rootLvl >= 0 : rootLvl;
+        assertPageType(pageAddr);
+
+        putLong(pageAddr, ROOT_PAGE_ID_OFF, rootPageId);
+        putInt(pageAddr, ROOT_LEVEL_OFF, rootLvl);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void printPage(long addr, int pageSize, IgniteStringBuilder sb) {
+        sb.app("BplusMeta [\n\trootPageId=").appendHex(getRootPageId(addr))
+                .app(",\n\trootLevel=").app(getRootLevel(addr))
+                .app("\n]");
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.pagememory.persistence.store;
+
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.FLAG_DATA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import org.apache.ignite.internal.pagememory.util.PageIdUtils;
+import org.apache.ignite.internal.testframework.WorkDirectory;
+import org.apache.ignite.internal.testframework.WorkDirectoryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Tests for {@link FilePageStoreManager} and {@link FilePageStore}.
+ */
+@ExtendWith(WorkDirectoryExtension.class)
+public class FilePageStoreManagerTest {
+    private static final int PAGE_SIZE = 1024;
+
+    private static final int GRP_ID = 0;
+
+    private static final int PART_ID = 1;
+
+    @WorkDirectory
+    private Path workDir;
+
+    /**
+     * Tests that the pages of a completed checkpoint are readable after the restart, and the pages of an incomplete one are discarded.
+     */
+    @Test
+    void testRecovery() throws Exception {
+        FilePageStoreManager storeMgr = new FilePageStoreManager(workDir, PAGE_SIZE);
+
+        storeMgr.start();
+
+        long pageId0 = storeMgr.allocatePage(GRP_ID, PART_ID, FLAG_DATA);
+        long pageId1 = storeMgr.allocatePage(GRP_ID, PART_ID, FLAG_DATA);
+
+        FilePageStore store = storeMgr.store(GRP_ID, PART_ID);
+
+        writeCheckpoint(storeMgr, store, 1, pageId0, pageId1, (byte) 1);
+
+        storeMgr.markCheckpointCompleted(1);
+
+        // Visible right away.
+        assertPage(storeMgr, pageId1, (byte) 1);
+
+        // Never marked as completed.
+        writeCheckpoint(storeMgr, store, 2, pageId0, pageId1, (byte) 2);
+
+        assertPage(storeMgr, pageId1, (byte) 2);
+
+        storeMgr.stop();
+
+        storeMgr = new FilePageStoreManager(workDir, PAGE_SIZE);
+
+        storeMgr.start();
+
+        try {
+            assertEquals(1, storeMgr.lastCheckpointId());
+            assertEquals(2, storeMgr.pages(GRP_ID, PART_ID));
+
+            assertPage(storeMgr, pageId0, (byte) 1);
+            assertPage(storeMgr, pageId1, (byte) 1);
+
+            // Page beyond the end of the file reads as zeroes.
+            assertPage(storeMgr, PageIdUtils.pageId(PART_ID, FLAG_DATA, 10), (byte) 0);
+        } finally {
+            storeMgr.stop();
+        }
+    }
+
+    private static void writeCheckpoint(
+            FilePageStoreManager storeMgr,
+            FilePageStore store,
+            long checkpointId,
+            long pageId0,
+            long pageId1,
+            byte val
+    ) throws Exception {
+        FilePageStore.DeltaFile deltaFile = store.createDeltaFile(
+                checkpointId,
+                new int[]{PageIdUtils.pageIndex(pageId0), PageIdUtils.pageIndex(pageId1)},
+                storeMgr.pages(GRP_ID, PART_ID)
+        );
+
+        deltaFile.write(PageIdUtils.pageIndex(pageId0), page(val));
+        deltaFile.write(PageIdUtils.pageIndex(pageId1), page(val));
+
+        deltaFile.sync();
+    }
+
+    private static ByteBuffer page(byte val) {
+        ByteBuffer buf = ByteBuffer.allocate(PAGE_SIZE);
+
+        while (buf.hasRemaining()) {
+            buf.put(val);
+        }
+
+        return buf.flip();
+    }
+
+    private static void assertPage(FilePageStoreManager storeMgr, long pageId, byte val) throws Exception {
+        ByteBuffer buf = ByteBuffer.allocate(PAGE_SIZE);
+
+        storeMgr.read(GRP_ID, pageId, buf);
+
+        assertEquals(page(val), buf.flip());
+    }
+}
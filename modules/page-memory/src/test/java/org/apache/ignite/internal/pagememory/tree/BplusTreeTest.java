@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.pagememory.tree;
+
+import static org.apache.ignite.internal.configuration.ConfigurationTestUtils.fixConfiguration;
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.FLAG_AUX;
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.INDEX_PARTITION;
+import static org.apache.ignite.internal.testframework.IgniteTestUtils.runMultiThreadedAsync;
+import static org.apache.ignite.internal.util.Constants.MiB;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ignite.configuration.schemas.store.DataRegionConfiguration;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionChange;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionConfiguration;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionConfigurationSchema;
+import org.apache.ignite.configuration.schemas.store.UnsafeMemoryAllocatorConfigurationSchema;
+import org.apache.ignite.internal.configuration.testframework.ConfigurationExtension;
+import org.apache.ignite.internal.configuration.testframework.InjectConfiguration;
+import org.apache.ignite.internal.pagememory.PageMemory;
+import org.apache.ignite.internal.pagememory.TestPageIoRegistry;
+import org.apache.ignite.internal.pagememory.impl.PageMemoryNoStoreImpl;
+import org.apache.ignite.internal.pagememory.io.IoVersions;
+import org.apache.ignite.internal.pagememory.mem.unsafe.UnsafeMemoryProvider;
+import org.apache.ignite.internal.pagememory.tree.io.BplusInnerIo;
+import org.apache.ignite.internal.pagememory.tree.io.BplusIo;
+import org.apache.ignite.internal.pagememory.tree.io.BplusLeafIo;
+import org.apache.ignite.internal.pagememory.util.PageLockListenerNoOp;
+import org.apache.ignite.internal.pagememory.util.PageUtils;
+import org.apache.ignite.internal.testframework.BaseIgniteAbstractTest;
+import org.apache.ignite.internal.util.Cursor;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Class to test the {@link BplusTree}.
+ */
+@ExtendWith(ConfigurationExtension.class)
+public class BplusTreeTest extends BaseIgniteAbstractTest {
+    private static final long MAX_SIZE = 64 * MiB;
+
+    /** Small page size to get a deep tree with a moderate number of rows. */
+    private static final int PAGE_SIZE = 1024;
+
+    @InjectConfiguration(
+            value = "mock.type = pagemem",
+            polymorphicExtensions = {
+                    PageMemoryDataRegionConfigurationSchema.class,
+                    UnsafeMemoryAllocatorConfigurationSchema.class
+            })
+    private DataRegionConfiguration dataRegionCfg;
+
+    @Nullable
+    private PageMemory pageMemory;
+
+    @AfterEach
+    void afterEach() {
+        if (pageMemory != null) {
+            pageMemory.stop(true);
+        }
+    }
+
+    @Test
+    void testPutFindRemove() throws Exception {
+        TestTree tree = createTree();
+
+        TreeMap<Long, Long> expected = new TreeMap<>();
+
+        Random rnd = new Random(0);
+
+        for (int i = 0; i < 20_000; i++) {
+            long key = rnd.nextInt(5_000);
+
+            if (rnd.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), tree.remove(key));
+            } else {
+                assertEquals(expected.put(key, key), tree.put(key));
+            }
+        }
+
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.get(key), tree.findOne(key));
+        }
+
+        assertEquals(new ArrayList<>(expected.keySet()), toList(tree.find(null, null)));
+    }
+
+    @Test
+    void testFindRange() throws Exception {
+        TestTree tree = createTree();
+
+        for (long key = 0; key < 10_000; key += 2) {
+            tree.put(key);
+        }
+
+        TreeMap<Long, Long> expected = new TreeMap<>();
+
+        for (long key = 0; key < 10_000; key += 2) {
+            expected.put(key, key);
+        }
+
+        assertEquals(new ArrayList<>(expected.subMap(101L, true, 7_777L, true).keySet()), toList(tree.find(101L, 7_777L)));
+        assertEquals(new ArrayList<>(expected.subMap(100L, true, 7_778L, true).keySet()), toList(tree.find(100L, 7_778L)));
+        assertEquals(new ArrayList<>(expected.headMap(500L, true).keySet()), toList(tree.find(null, 500L)));
+        assertEquals(new ArrayList<>(expected.tailMap(9_000L, true).keySet()), toList(tree.find(9_000L, null)));
+
+        assertFalse(tree.find(20_000L, null).hasNext());
+
+        // Empty leaves are left in place after removals and must be skipped by the cursor.
+        for (long key = 1_000; key < 9_000; key += 2) {
+            tree.remove(key);
+        }
+
+        assertEquals(
+                new ArrayList<>(expected.headMap(1_000L).keySet()),
+                toList(tree.find(null, 8_999L))
+        );
+
+        assertEquals(List.of(9_000L), toList(tree.find(1_000L, 9_000L)));
+    }
+
+    @Test
+    void testCursorSeesConcurrentSplits() throws Exception {
+        TestTree tree = createTree();
+
+        for (long key = 0; key < 1_000; key += 10) {
+            tree.put(key);
+        }
+
+        Cursor<Long> cursor = tree.find(null, null);
+
+        List<Long> res = new ArrayList<>();
+
+        res.add(cursor.next());
+
+        // Overflow the leaf the cursor is positioned at.
+        for (long key = 1; key < 10; key++) {
+            tree.put(key);
+        }
+
+        cursor.forEachRemaining(res::add);
+
+        for (int i = 1; i < res.size(); i++) {
+            assertEquals(-1, Long.compare(res.get(i - 1), res.get(i)), res.toString());
+        }
+    }
+
+    @Test
+    void testConcurrentPutFindRemove() throws Exception {
+        TestTree tree = createTree();
+
+        int threads = 4;
+
+        int keysPerThread = 5_000;
+
+        AtomicInteger threadIdx = new AtomicInteger();
+
+        runMultiThreadedAsync(() -> {
+            int idx = threadIdx.getAndIncrement();
+
+            // The keys of the threads are interleaved, so the threads split the same pages.
+            for (long i = 0; i < keysPerThread; i++) {
+                long key = i * threads + idx;
+
+                assertNull(tree.put(key));
+                assertEquals(key, tree.findOne(key));
+
+                if (i % 2 == 1) {
+                    assertEquals(key, tree.remove(key));
+                    assertNull(tree.findOne(key));
+                }
+            }
+
+            return null;
+        }, threads, "bplus-tree-worker").get(1, TimeUnit.MINUTES);
+
+        List<Long> expected = new ArrayList<>();
+
+        for (long i = 0; i < keysPerThread; i += 2) {
+            for (long idx = 0; idx < threads; idx++) {
+                expected.add(i * threads + idx);
+            }
+        }
+
+        assertEquals(expected, toList(tree.find(null, null)));
+    }
+
+    @Test
+    void testDestroy() throws Exception {
+        TestTree tree = createTree();
+
+        for (long key = 0; key < 10_000; key++) {
+            tree.put(key);
+        }
+
+        PageMemoryNoStoreImpl pageMem = (PageMemoryNoStoreImpl) pageMemory;
+
+        long loadedPages = pageMem.loadedPages();
+
+        long released = tree.destroy();
+
+        assertEquals(loadedPages, released);
+        assertEquals(0, pageMem.loadedPages());
+    }
+
+    private static List<Long> toList(Cursor<Long> cursor) {
+        List<Long> res = new ArrayList<>();
+
+        cursor.forEachRemaining(res::add);
+
+        return res;
+    }
+
+    private TestTree createTree() throws Exception {
+        dataRegionCfg.change(c ->
+                c.convert(PageMemoryDataRegionChange.class)
+                        .changePageSize(PAGE_SIZE)
+                        .changeInitSize(MAX_SIZE)
+                        .changeMaxSize(MAX_SIZE)
+        ).get(1, TimeUnit.SECONDS);
+
+        TestPageIoRegistry ioRegistry = new TestPageIoRegistry();
+
+        ioRegistry.loadFromServiceLoader();
+
+        ioRegistry.load(TestInnerIo.VERSIONS, TestLeafIo.VERSIONS);
+
+        pageMemory = new PageMemoryNoStoreImpl(
+                new UnsafeMemoryProvider(null),
+                (PageMemoryDataRegionConfiguration) fixConfiguration(dataRegionCfg),
+                ioRegistry
+        );
+
+        pageMemory.start();
+
+        return new TestTree(pageMemory, pageMemory.allocatePage(0, INDEX_PARTITION, FLAG_AUX));
+    }
+
+    /**
+     * Tree of {@code long} values.
+     */
+    private static class TestTree extends BplusTree<Long, Long> {
+        TestTree(PageMemory pageMem, long metaPageId) throws IgniteInternalCheckedException {
+            super("test", 0, null, pageMem, PageLockListenerNoOp.INSTANCE, metaPageId, null, TestInnerIo.VERSIONS, TestLeafIo.VERSIONS);
+
+            initTree(true);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected int compare(BplusIo<Long> io, long pageAddr, int idx, Long row) {
+            return Long.compare(PageUtils.getLong(pageAddr, io.offset(idx)), row);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected Long getRow(BplusIo<Long> io, long pageAddr, int idx) {
+            return PageUtils.getLong(pageAddr, io.offset(idx));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected long allocatePageNoReuse() throws IgniteInternalCheckedException {
+            return pageMem.allocatePage(grpId, INDEX_PARTITION, FLAG_AUX);
+        }
+    }
+
+    /**
+     * Inner IO for {@link TestTree}.
+     */
+    private static class TestInnerIo extends BplusInnerIo<Long> {
+        static final IoVersions<TestInnerIo> VERSIONS = new IoVersions<>(new TestInnerIo());
+
+        private TestInnerIo() {
+            super(Short.MAX_VALUE - 1, 1, Long.BYTES);
+        }
+    }
+
+    /**
+     * Leaf IO for {@link TestTree}.
+     */
+    private static class TestLeafIo extends BplusLeafIo<Long> {
+        static final IoVersions<TestLeafIo> VERSIONS = new IoVersions<>(new TestLeafIo());
+
+        private TestLeafIo() {
+            super(Short.MAX_VALUE, 1, Long.BYTES);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void storeByOffset(long pageAddr, int off, Long row) {
+            PageUtils.putLong(pageAddr, off, row);
+        }
+    }
+}
@@ -33,6 +33,13 @@ public interface CommandClosure<R extends Command> {
      */
     R command();
 
+    /**
+     * Returns the index of the command in the Raft log, {@code 0} if the command is not a part of the log.
+     */
+    default long index() {
+        return 0;
+    }
+
     /**
      * Must be called after a command has been processed normally.
      *
@@ -81,4 +81,26 @@ public interface RaftGroupListener {
      * @return The future or null if no-op.
      */
     @Nullable CompletableFuture<Void> onBeforeApply(Command command);
+
+    /**
+     * Invoked when a command submitted after {@link #onBeforeApply} is never applied: a write has failed before it was appended to the
+     * log of the leader, e.g. the node is not a leader or is overloaded, or a read has failed.
+     *
+     * @param command The command.
+     */
+    default void onApplyFailure(Command command) {
+        // No-op.
+    }
+
+    /**
+     * Invoked when a write command submitted after {@link #onBeforeApply} has been appended to the log of the leader, but its outcome
+     * can't be reported on behalf of the request, e.g. the leadership has been lost before the command was committed. The command is
+     * applied later with the given index if it has reached the log of the new leader, otherwise another command takes that index.
+     *
+     * @param command The command.
+     * @param index Index of the log entry of the command.
+     */
+    default void onApplyUnknown(Command command, long index) {
+        // No-op.
+    }
 }
@@ -223,6 +223,21 @@ public interface RaftGroupService {
      */
     <R> CompletableFuture<R> run(Peer peer, ReadCommand cmd);
 
+    /**
+     * Runs a read command on a given peer.
+     *
+     * <p>If {@code readOnlySafe} is {@code true}, the command is executed only after the peer has applied all the entries committed
+     * by the group at the moment of the call (read index), so it sees up to date data even if the peer is not a leader anymore.
+     * Otherwise the command can see stale data (in the past).
+     *
+     * @param peer Peer id.
+     * @param cmd  The command.
+     * @param readOnlySafe Whether to execute the command after the read index is applied on the peer.
+     * @param <R>  Execution result type.
+     * @return A future with the execution result.
+     */
+    <R> CompletableFuture<R> run(Peer peer, ReadCommand cmd, boolean readOnlySafe);
+
     /**
      * Shutdown and cleanup resources for this instance.
      */
@@ -25,6 +25,7 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -411,6 +412,10 @@ public class JraftServerImpl implements RaftServer {
         /** {@inheritDoc} */
         @Override
         public void onApply(Iterator iter) {
+            // Closures of the commands that have been taken from the iterator, but whose results haven't been reported yet, in the order of
+            // the commands. A set, so that a reported result is removed in constant time however large the batch is.
+            Set<WriteCommandClosure> unreported = new LinkedHashSet<>();
+
             try {
                 listener.onWrite(new java.util.Iterator<>() {
                     @Override
@@ -420,34 +425,30 @@ public class JraftServerImpl implements RaftServer {
 
                     @Override
                     public CommandClosure<WriteCommand> next() {
-                        @Nullable CommandClosure<WriteCommand> done = (CommandClosure<WriteCommand>) iter.done();
-                        ByteBuffer data = iter.getData();
+                        var clo = new WriteCommandClosure(iter.getData(), iter.getIndex(), iter.done(), unreported);
 
-                        return new CommandClosure<>() {
-                            @Override
-                            public WriteCommand command() {
-                                return JDKMarshaller.DEFAULT.unmarshall(data.array());
-                            }
+                        unreported.add(clo);
 
-                            @Override
-                            public void result(Serializable res) {
-                                if (done != null) {
-                                    done.result(res);
-                                }
+                        // The iterator is moved right away, so that the listener can take the whole batch of commands before reporting the
+                        // results.
+                        iter.next();
 
-                                iter.next();
-                            }
-                        };
+                        return clo;
                     }
                 });
             } catch (Exception err) {
                 Status st = new Status(RaftError.ESTATEMACHINE, err.getMessage());
 
-                if (iter.done() != null) {
-                    iter.done().run(st);
+                for (WriteCommandClosure clo : unreported) {
+                    if (clo.done != null) {
+                        clo.done.run(st);
+                    }
                 }
 
-                iter.setErrorAndRollback(1, st);
+                // Commands without results are rolled back. The iterator counts its current entry as rolled back too, if it's a command.
+                long ntail = unreported.size() + (iter.hasNext() ? 1 : 0);
+
+                iter.setErrorAndRollback(Math.max(ntail, 1), st);
             }
         }
 
@@ -488,4 +489,64 @@ public class JraftServerImpl implements RaftServer {
             listener.onShutdown();
         }
     }
+
+    /**
+     * Closure of a write command taken from the Raft iterator.
+     */
+    private static class WriteCommandClosure implements CommandClosure<WriteCommand> {
+        /** Serialized command. */
+        private final ByteBuffer data;
+
+        /** Index of the command in the Raft log. */
+        private final long index;
+
+        /** Closure of the client request, {@code null} if the command is not proposed by this node. */
+        @Nullable
+        private final Closure done;
+
+        /** Closures whose results haven't been reported yet. */
+        private final Set<WriteCommandClosure> unreported;
+
+        /** Command, unmarshalled on the first access by the thread applying the commands. */
+        @Nullable
+        private WriteCommand command;
+
+        private WriteCommandClosure(
+                ByteBuffer data,
+                long index,
+                @Nullable Closure done,
+                Set<WriteCommandClosure> unreported
+        ) {
+            this.data = data;
+            this.index = index;
+            this.done = done;
+            this.unreported = unreported;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public WriteCommand command() {
+            if (command == null) {
+                command = JDKMarshaller.DEFAULT.unmarshall(data.array());
+            }
+
+            return command;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long index() {
+            return index;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void result(Serializable res) {
+            unreported.remove(this);
+
+            if (done != null) {
+                ((CommandClosure<WriteCommand>) done).result(res);
+            }
+        }
+    }
 }
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.raft.jraft.closure;
+
+import org.apache.ignite.raft.jraft.Closure;
+
+/**
+ * Closure of a task that is notified when the task is appended to the log of the leader.
+ */
+public interface AppendTaskClosure extends Closure {
+
+    /**
+     * Called when the task is appended to the log of the leader, before it is replicated. Since then the task may be committed, even if
+     * the closure is run with an error later: the entry is either applied with the given index, or replaced by the entry of another
+     * leader.
+     *
+     * <strong>Note: user implementation should not block
+     * this method and throw any exceptions.</strong>
+     *
+     * @param index Index of the log entry of the task.
+     */
+    void onAppended(long index);
+}
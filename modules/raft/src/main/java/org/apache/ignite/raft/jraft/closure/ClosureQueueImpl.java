@@ -99,6 +99,10 @@ public class ClosureQueueImpl implements ClosureQueue {
         this.lock.lock();
         try {
             this.queue.add(closure);
+
+            if (closure instanceof AppendTaskClosure) {
+                ((AppendTaskClosure) closure).onAppended(this.firstIndex + this.queue.size() - 1);
+            }
         }
         finally {
             this.lock.unlock();
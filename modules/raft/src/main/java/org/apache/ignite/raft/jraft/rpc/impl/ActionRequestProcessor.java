@@ -33,9 +33,11 @@ import org.apache.ignite.raft.jraft.rpc.Message;
 import org.apache.ignite.raft.jraft.rpc.RaftRpcFactory;
 import org.apache.ignite.raft.jraft.rpc.RpcRequests;
 import org.apache.ignite.raft.client.service.CommandClosure;
+import org.apache.ignite.raft.client.service.RaftGroupListener;
 import org.apache.ignite.raft.jraft.Closure;
 import org.apache.ignite.raft.jraft.Node;
 import org.apache.ignite.raft.jraft.Status;
+import org.apache.ignite.raft.jraft.closure.AppendTaskClosure;
 import org.apache.ignite.raft.jraft.closure.ReadIndexClosure;
 import org.apache.ignite.raft.jraft.entity.PeerId;
 import org.apache.ignite.raft.jraft.entity.Task;
@@ -110,7 +112,7 @@ public class ActionRequestProcessor implements RpcProcessor<ActionRequest> {
     private void applyWrite(Node node, ActionRequest request, RpcContext rpcCtx) {
         // TODO asch get rid of JDK marshaller IGNITE-14832
         node.apply(new Task(ByteBuffer.wrap(JDKMarshaller.DEFAULT.marshall(request.command())),
-                new CommandClosureImpl<>(request.command()) {
+                new WriteCommandClosureImpl<>(request.command()) {
                     @Override
                     public void result(Serializable res) {
                         if (res instanceof Throwable) {
@@ -126,6 +128,15 @@ public class ActionRequestProcessor implements RpcProcessor<ActionRequest> {
                     public void run(Status status) {
                         assert !status.isOk() : status;
 
+                        long idx = appendedIndex();
+
+                        // A command that has reached the log may still be committed, its outcome is known only once the index is applied.
+                        if (idx == 0) {
+                            listener(node).onApplyFailure(request.command());
+                        } else {
+                            listener(node).onApplyUnknown(request.command(), idx);
+                        }
+
                         sendRaftError(rpcCtx, status, node);
                     }
                 }));
@@ -162,11 +173,16 @@ public class ActionRequestProcessor implements RpcProcessor<ActionRequest> {
                             }).iterator());
                         }
                         catch (Exception e) {
+                            listener(node).onApplyFailure(request.command());
+
                             sendRaftError(rpcCtx, RaftError.ESTATEMACHINE, e.getMessage());
                         }
                     }
-                    else
+                    else {
+                        listener(node).onApplyFailure(request.command());
+
                         sendRaftError(rpcCtx, status, node);
+                    }
                 }
             });
         } else {
@@ -191,11 +207,21 @@ public class ActionRequestProcessor implements RpcProcessor<ActionRequest> {
                 }).iterator());
             }
             catch (Exception e) {
+                fsm.getListener().onApplyFailure(request.command());
+
                 sendRaftError(rpcCtx, RaftError.ESTATEMACHINE, e.getMessage());
             }
         }
     }
 
+    /**
+     * @param node The node.
+     * @return Listener of the state machine of the node.
+     */
+    private static RaftGroupListener listener(Node node) {
+        return ((JraftServerImpl.DelegatingStateMachine) node.getOptions().getFsm()).getListener();
+    }
+
     /** {@inheritDoc} */
     @Override public String interest() {
         return ActionRequest.class.getName();
@@ -276,4 +302,31 @@ public class ActionRequestProcessor implements RpcProcessor<ActionRequest> {
             return command;
         }
     }
+
+    /**
+     * Write command closure that remembers the index of the log entry of the command once it is appended to the log of the leader.
+     */
+    private abstract static class WriteCommandClosureImpl<T extends Command> extends CommandClosureImpl<T> implements AppendTaskClosure {
+        /** Index of the log entry of the command, {@code 0} if the command has not been appended to the log. */
+        private volatile long appendedIdx;
+
+        /**
+         * @param command The command.
+         */
+        public WriteCommandClosureImpl(T command) {
+            super(command);
+        }
+
+        /** {@inheritDoc} */
+        @Override public void onAppended(long index) {
+            appendedIdx = index;
+        }
+
+        /**
+         * @return Index of the log entry of the command, {@code 0} if the command has not been appended to the log.
+         */
+        long appendedIndex() {
+            return appendedIdx;
+        }
+    }
 }
@@ -464,7 +464,14 @@ public class RaftGroupServiceImpl implements RaftGroupService {
      * {@inheritDoc}
      */
     @Override public <R> CompletableFuture<R> run(Peer peer, ReadCommand cmd) {
-        ActionRequest req = factory.actionRequest().command(cmd).groupId(groupId).readOnlySafe(false).build();
+        return run(peer, cmd, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public <R> CompletableFuture<R> run(Peer peer, ReadCommand cmd, boolean readOnlySafe) {
+        ActionRequest req = factory.actionRequest().command(cmd).groupId(groupId).readOnlySafe(readOnlySafe).build();
 
         return cluster.messagingService().invoke(peer.address(), req, rpcTimeout)
                 .thenApply(resp -> (R) ((ActionResponse) resp).result());
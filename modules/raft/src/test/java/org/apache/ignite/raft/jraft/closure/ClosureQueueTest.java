@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import org.apache.ignite.raft.jraft.Closure;
+import org.apache.ignite.raft.jraft.Status;
 import org.apache.ignite.raft.jraft.option.NodeOptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -112,4 +113,30 @@ public class ClosureQueueTest {
         assertEquals(21, this.queue.popClosureUntil(20, closures));
         assertTrue(closures.isEmpty());
     }
+
+    @Test
+    public void testAppendTaskClosureIndex() {
+        this.queue.resetFirstIndex(10);
+        this.queue.appendPendingClosure(mockClosure(null));
+
+        long[] index = new long[1];
+
+        this.queue.appendPendingClosure(new AppendTaskClosure() {
+            @Override
+            public void onAppended(long idx) {
+                index[0] = idx;
+            }
+
+            @Override
+            public void run(Status status) {
+            }
+        });
+
+        assertEquals(11, index[0]);
+
+        List<Closure> closures = new ArrayList<>();
+        assertEquals(10, this.queue.popClosureUntil(11, closures));
+        assertEquals(2, closures.size());
+        assertTrue(closures.get(1) instanceof AppendTaskClosure);
+    }
 }
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.raft.jraft.rpc.impl;
+
+import java.util.concurrent.CompletableFuture;
+import org.apache.ignite.internal.raft.server.impl.JraftServerImpl;
+import org.apache.ignite.raft.client.WriteCommand;
+import org.apache.ignite.raft.client.service.RaftGroupListener;
+import org.apache.ignite.raft.jraft.Node;
+import org.apache.ignite.raft.jraft.RaftMessagesFactory;
+import org.apache.ignite.raft.jraft.Status;
+import org.apache.ignite.raft.jraft.closure.AppendTaskClosure;
+import org.apache.ignite.raft.jraft.entity.NodeId;
+import org.apache.ignite.raft.jraft.entity.PeerId;
+import org.apache.ignite.raft.jraft.entity.Task;
+import org.apache.ignite.raft.jraft.error.RaftError;
+import org.apache.ignite.raft.jraft.option.NodeOptions;
+import org.apache.ignite.raft.jraft.rpc.ActionRequest;
+import org.apache.ignite.raft.jraft.rpc.RpcRequests.ErrorResponse;
+import org.apache.ignite.raft.jraft.test.MockAsyncContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ActionRequestProcessorTest {
+    /** Checks that the listener is notified about a write command that has failed to be replicated. */
+    @Test
+    public void testApplyFailureNotified() {
+        MockAsyncContext ctx = new MockAsyncContext();
+
+        RaftGroupListener listener = mock(RaftGroupListener.class);
+
+        when(listener.onBeforeApply(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        JraftServerImpl.DelegatingStateMachine fsm = mock(JraftServerImpl.DelegatingStateMachine.class);
+
+        when(fsm.getListener()).thenReturn(listener);
+
+        NodeOptions opts = new NodeOptions();
+
+        opts.setFsm(fsm);
+
+        Node node = mock(Node.class);
+
+        when(node.getNodeId()).thenReturn(new NodeId("grp", new PeerId(ctx.getLocalAddress())));
+        when(node.getGroupId()).thenReturn("grp");
+        when(node.getOptions()).thenReturn(opts);
+
+        // The leadership is lost before the command is replicated.
+        doAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+
+            task.getDone().run(new Status(RaftError.EPERM, "Not a leader"));
+
+            return null;
+        }).when(node).apply(any());
+
+        ctx.getNodeManager().add(node);
+
+        TestWriteCommand cmd = new TestWriteCommand();
+
+        ActionRequest req = new RaftMessagesFactory().actionRequest().groupId("grp").command(cmd).build();
+
+        new ActionRequestProcessor(null, new RaftMessagesFactory()).handleRequest(ctx, req);
+
+        verify(listener).onApplyFailure(cmd);
+
+        assertEquals(RaftError.EPERM.getNumber(), ((ErrorResponse) ctx.getResponseObject()).errorCode());
+    }
+
+    /** Checks that the listener is notified about a write command that has been appended to the log but may not be applied. */
+    @Test
+    public void testApplyUnknownNotified() {
+        MockAsyncContext ctx = new MockAsyncContext();
+
+        RaftGroupListener listener = mock(RaftGroupListener.class);
+
+        when(listener.onBeforeApply(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        JraftServerImpl.DelegatingStateMachine fsm = mock(JraftServerImpl.DelegatingStateMachine.class);
+
+        when(fsm.getListener()).thenReturn(listener);
+
+        NodeOptions opts = new NodeOptions();
+
+        opts.setFsm(fsm);
+
+        Node node = mock(Node.class);
+
+        when(node.getNodeId()).thenReturn(new NodeId("grp", new PeerId(ctx.getLocalAddress())));
+        when(node.getGroupId()).thenReturn("grp");
+        when(node.getOptions()).thenReturn(opts);
+
+        // The leadership is lost after the command is appended to the log.
+        doAnswer(invocation -> {
+            Task task = invocation.getArgument(0);
+
+            ((AppendTaskClosure) task.getDone()).onAppended(5);
+
+            task.getDone().run(new Status(RaftError.EPERM, "Leader stepped down"));
+
+            return null;
+        }).when(node).apply(any());
+
+        ctx.getNodeManager().add(node);
+
+        TestWriteCommand cmd = new TestWriteCommand();
+
+        ActionRequest req = new RaftMessagesFactory().actionRequest().groupId("grp").command(cmd).build();
+
+        new ActionRequestProcessor(null, new RaftMessagesFactory()).handleRequest(ctx, req);
+
+        verify(listener).onApplyUnknown(cmd, 5);
+        verify(listener, never()).onApplyFailure(any());
+
+        assertEquals(RaftError.EPERM.getNumber(), ((ErrorResponse) ctx.getResponseObject()).errorCode());
+    }
+
+    /** Write command. */
+    private static class TestWriteCommand implements WriteCommand {
+    }
+}
@@ -164,6 +164,23 @@ public class ColumnFamily implements AutoCloseable {
         db.deleteRange(cfHandle, start, end);
     }
 
+    /**
+     * Removes all data between {@code start} (inclusive) and {@code end} (exclusive) keys and reclaims the disk space right away: the SST
+     * files that lie within the range are deleted as a whole, and the files that overlap its bounds are compacted. Unlike a plain range
+     * deletion, this leaves no range tombstone for the reads and the background compactions to process later.
+     *
+     * @param start start of the range (inclusive)
+     * @param end end of the range (exclusive)
+     * @throws RocksDBException if RocksDB fails to perform the operation
+     */
+    public void deleteRangeAndCompact(byte[] start, byte[] end) throws RocksDBException {
+        db.deleteRange(cfHandle, start, end);
+
+        db.deleteFilesInRanges(cfHandle, List.of(start, end), false);
+
+        db.compactRange(cfHandle, start, end);
+    }
+
     /**
      * Creates a new iterator over this column family.
      *
@@ -149,6 +149,12 @@ public interface BinaryRow {
      */
     byte[] bytes();
 
+    /**
+     * Get the row as a read-only little-endian byte buffer that shares the data of the row, without copying it. The buffer spans the
+     * whole row, from its position to its limit.
+     */
+    ByteBuffer byteBuffer();
+
     /**
      * Row flags.
      */
@@ -44,7 +44,7 @@ public class ByteBufferRow implements BinaryRow {
     /**
      * Constructor.
      *
-     * @param buf Buffer representing the row.
+     * @param buf Buffer representing the row, may be a slice of a larger buffer.
      */
     public ByteBufferRow(ByteBuffer buf) {
         assert buf.order() == ByteOrder.LITTLE_ENDIAN;
@@ -138,7 +138,7 @@ public class ByteBufferRow implements BinaryRow {
     @Override
     public String readString(int off, int len) {
         if (buf.hasArray()) {
-            return new String(buf.array(), off, len, StandardCharsets.UTF_8);
+            return new String(buf.array(), buf.arrayOffset() + off, len, StandardCharsets.UTF_8);
         } else {
             return new String(readBytes(off, len), StandardCharsets.UTF_8);
         }
@@ -182,4 +182,10 @@ public class ByteBufferRow implements BinaryRow {
 
         return tmp;
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public ByteBuffer byteBuffer() {
+        return buf.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
 }
@@ -893,4 +893,10 @@ public class Row implements BinaryRow, SchemaAware {
     public byte[] bytes() {
         return row.bytes();
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public ByteBuffer byteBuffer() {
+        return row.byteBuffer();
+    }
 }
@@ -37,6 +37,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -699,7 +701,31 @@ public class RowTest {
 
         byte[] data = asm.toBytes();
 
-        Row row = new Row(schema, new ByteBufferRow(data));
+        checkRow(schema, new ByteBufferRow(data), vals);
+
+        // The same row as a slice in the middle of a larger buffer.
+        ByteBuffer buf = ByteBuffer.allocate(data.length + 16);
+
+        buf.position(8);
+        buf.put(data);
+
+        ByteBufferRow slicedRow = new ByteBufferRow(buf.position(8).limit(8 + data.length).slice().order(ByteOrder.LITTLE_ENDIAN));
+
+        assertArrayEquals(data, slicedRow.bytes());
+        assertEquals(ByteBuffer.wrap(data), slicedRow.byteBuffer());
+
+        checkRow(schema, slicedRow, vals);
+    }
+
+    /**
+     * Validates row values.
+     *
+     * @param schema Row schema.
+     * @param binRow Binary row.
+     * @param vals   Expected row values.
+     */
+    private void checkRow(SchemaDescriptor schema, BinaryRow binRow, Object... vals) {
+        Row row = new Row(schema, binRow);
 
         for (int i = 0; i < vals.length; i++) {
             Column col = schema.column(i);
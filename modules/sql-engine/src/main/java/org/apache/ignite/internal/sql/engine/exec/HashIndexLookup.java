@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.sql.engine.exec;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.ignite.internal.schema.BinaryRow;
+import org.apache.ignite.internal.schema.ByteBufferRow;
+import org.apache.ignite.internal.sql.engine.schema.InternalIgniteTable;
+import org.apache.ignite.internal.sql.engine.util.Commons;
+import org.apache.ignite.internal.storage.SearchRow;
+import org.apache.ignite.internal.storage.index.HashIndexStorage;
+import org.apache.ignite.internal.util.Cursor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Lookup over the local storage of a hash index of a table.
+ *
+ * <p>The entries of the search values are the key rows of all the versions of the rows that have ever had these values, so the rows are
+ * looked up in the table by their keys at once, and a row is returned only if it still has the search values. The search row is evaluated
+ * on every iteration, so the lookup may be rewound with the new values of the correlated variables.
+ */
+public class HashIndexLookup<RowT> implements Iterable<RowT> {
+    private final ExecutionContext<RowT> ectx;
+
+    private final InternalIgniteTable tbl;
+
+    private final HashIndexStorage storage;
+
+    /** Indexes of the table columns of the index, in the order of the index columns. */
+    private final int[] columns;
+
+    /** Partitions to look up. */
+    private final BitSet parts = new BitSet();
+
+    /** Values of the index columns. */
+    private final Supplier<RowT> searchRow;
+
+    /** Additional filters. */
+    private final @Nullable Predicate<RowT> filters;
+
+    /** Row transformer. */
+    private final @Nullable Function<RowT, RowT> rowTransformer;
+
+    /** Participating columns. */
+    private final @Nullable ImmutableBitSet requiredColumns;
+
+    /** Factory of the full rows of the table. */
+    private final RowHandler.RowFactory<RowT> factory;
+
+    /** Factory of the rows of the participating columns. */
+    private final RowHandler.RowFactory<RowT> requiredFactory;
+
+    /**
+     * Constructor.
+     *
+     * @param ectx Execution context.
+     * @param tbl Table of the index.
+     * @param storage Local storage of the index.
+     * @param columns Indexes of the table columns of the index, in the order of the index columns.
+     * @param parts Partitions to look up.
+     * @param searchRow Values of the index columns, in the order of the index columns.
+     * @param filters Additional filters.
+     * @param rowTransformer Row transformer.
+     * @param requiredColumns Participating columns.
+     */
+    public HashIndexLookup(
+            ExecutionContext<RowT> ectx,
+            InternalIgniteTable tbl,
+            HashIndexStorage storage,
+            List<Integer> columns,
+            int[] parts,
+            Supplier<RowT> searchRow,
+            @Nullable Predicate<RowT> filters,
+            @Nullable Function<RowT, RowT> rowTransformer,
+            @Nullable ImmutableBitSet requiredColumns
+    ) {
+        this.ectx = ectx;
+        this.tbl = tbl;
+        this.storage = storage;
+        this.columns = columns.stream().mapToInt(Integer::intValue).toArray();
+        this.searchRow = searchRow;
+        this.filters = filters;
+        this.rowTransformer = rowTransformer;
+        this.requiredColumns = requiredColumns;
+
+        for (int part : parts) {
+            this.parts.set(part);
+        }
+
+        factory = ectx.rowHandler().factory(ectx.getTypeFactory(), tbl.getRowType(ectx.getTypeFactory(), null));
+        requiredFactory = ectx.rowHandler().factory(ectx.getTypeFactory(), tbl.getRowType(ectx.getTypeFactory(), requiredColumns));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Iterator<RowT> iterator() {
+        RowHandler<RowT> hnd = ectx.rowHandler();
+
+        RowT search = searchRow.get();
+
+        Object[] values = new Object[columns.length];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = hnd.get(i, search);
+
+            // NULL is never equal to anything.
+            if (values[i] == null) {
+                return Collections.emptyIterator();
+            }
+        }
+
+        List<BinaryRow> keys = new ArrayList<>();
+
+        Cursor<SearchRow> entries = storage.get(values);
+
+        try {
+            while (entries.hasNext()) {
+                BinaryRow keyRow = new ByteBufferRow(entries.next().keyBytes());
+
+                if (parts.get(tbl.table().partition(keyRow))) {
+                    keys.add(keyRow);
+                }
+            }
+        } finally {
+            Commons.closeQuiet(entries);
+        }
+
+        if (keys.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+
+        List<RowT> rows = new ArrayList<>(keys.size());
+
+        for (BinaryRow binRow : tbl.table().getAll(keys, null).join()) {
+            if (binRow == null) {
+                continue;
+            }
+
+            RowT row = tbl.toRow(ectx, binRow, factory, null);
+
+            if (!matches(hnd, row, values)) {
+                continue;
+            }
+
+            row = trim(hnd, row);
+
+            if (filters != null && !filters.test(row)) {
+                continue;
+            }
+
+            rows.add(rowTransformer == null ? row : rowTransformer.apply(row));
+        }
+
+        return rows.iterator();
+    }
+
+    /**
+     * Checks that a row has the search values, otherwise the entry is of another version of the row.
+     */
+    private boolean matches(RowHandler<RowT> hnd, RowT row, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (!Objects.deepEquals(values[i], hnd.get(columns[i], row))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Leaves the participating columns of a full row of the table only.
+     */
+    private RowT trim(RowHandler<RowT> hnd, RowT row) {
+        if (requiredColumns == null) {
+            return row;
+        }
+
+        RowT res = requiredFactory.create();
+
+        for (int i = 0, j = requiredColumns.nextSetBit(0); j != -1; j = requiredColumns.nextSetBit(j + 1), i++) {
+            hnd.set(i, res, hnd.get(j, row));
+        }
+
+        return res;
+    }
+}
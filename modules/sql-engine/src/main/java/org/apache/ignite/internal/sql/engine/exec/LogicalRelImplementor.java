@@ -71,6 +71,7 @@ import org.apache.ignite.internal.sql.engine.rel.IgniteCorrelatedNestedLoopJoin;
 import org.apache.ignite.internal.sql.engine.rel.IgniteExchange;
 import org.apache.ignite.internal.sql.engine.rel.IgniteFilter;
 import org.apache.ignite.internal.sql.engine.rel.IgniteGateway;
+import org.apache.ignite.internal.sql.engine.rel.IgniteHashIndexLookup;
 import org.apache.ignite.internal.sql.engine.rel.IgniteHashIndexSpool;
 import org.apache.ignite.internal.sql.engine.rel.IgniteIndexScan;
 import org.apache.ignite.internal.sql.engine.rel.IgniteLimit;
@@ -97,6 +98,8 @@ import org.apache.ignite.internal.sql.engine.rel.agg.IgniteReduceSortAggregate;
 import org.apache.ignite.internal.sql.engine.rel.agg.IgniteSingleHashAggregate;
 import org.apache.ignite.internal.sql.engine.rel.agg.IgniteSingleSortAggregate;
 import org.apache.ignite.internal.sql.engine.rel.set.IgniteSetOp;
+import org.apache.ignite.internal.sql.engine.schema.IgniteHashIndex;
+import org.apache.ignite.internal.sql.engine.schema.IgniteIndex;
 import org.apache.ignite.internal.sql.engine.schema.InternalIgniteTable;
 import org.apache.ignite.internal.sql.engine.trait.Destination;
 import org.apache.ignite.internal.sql.engine.trait.IgniteDistribution;
@@ -284,30 +287,64 @@ public class LogicalRelImplementor<RowT> implements IgniteRelVisitor<Node<RowT>>
     /** {@inheritDoc} */
     @Override
     public Node<RowT> visit(IgniteIndexScan rel) {
-        // TODO: fix this
-        //        RexNode condition = rel.condition();
-        //        List<RexNode> projects = rel.projects();
+        RexNode condition = rel.condition();
+        List<RexNode> projects = rel.projects();
+        ImmutableBitSet requiredColumns = rel.requiredColumns();
+        List<RexNode> lowerCond = rel.lowerBound();
+        List<RexNode> upperCond = rel.upperBound();
 
         InternalIgniteTable tbl = rel.getTable().unwrap(InternalIgniteTable.class);
+
+        assert tbl != null;
+
         IgniteTypeFactory typeFactory = ctx.getTypeFactory();
 
+        RelDataType rowType = tbl.getRowType(typeFactory, requiredColumns);
+
+        Predicate<RowT> filters = condition == null ? null : expressionFactory.predicate(condition, rowType);
+        Supplier<RowT> lower = lowerCond == null ? null : expressionFactory.rowSource(lowerCond);
+        Supplier<RowT> upper = upperCond == null ? null : expressionFactory.rowSource(upperCond);
+        Function<RowT, RowT> prj = projects == null ? null : expressionFactory.project(projects, rowType);
+
+        IgniteIndex idx = tbl.getIndex(rel.indexName());
+
+        ColocationGroup group = ctx.group(rel.sourceId());
+
+        if (!group.nodeIds().contains(ctx.localNodeId())) {
+            return new ScanNode<>(ctx, rowType, Collections.emptyList());
+        }
+
+        return idx.scan(ctx, group, filters, lower, upper, prj, requiredColumns);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Node<RowT> visit(IgniteHashIndexLookup rel) {
+        RexNode condition = rel.condition();
+        List<RexNode> projects = rel.projects();
         ImmutableBitSet requiredColumns = rel.requiredColumns();
-        //        List<RexNode> lowerCond = rel.lowerBound();
-        //        List<RexNode> upperCond = rel.upperBound();
+
+        InternalIgniteTable tbl = rel.getTable().unwrap(InternalIgniteTable.class);
+
+        assert tbl != null;
+
+        IgniteTypeFactory typeFactory = ctx.getTypeFactory();
 
         RelDataType rowType = tbl.getRowType(typeFactory, requiredColumns);
 
-        //        Predicate<Row> filters = condition == null ? null : expressionFactory.predicate(condition, rowType);
-        //        Supplier<Row> lower = lowerCond == null ? null : expressionFactory.rowSource(lowerCond);
-        //        Supplier<Row> upper = upperCond == null ? null : expressionFactory.rowSource(upperCond);
-        //        Function<Row, Row> prj = projects == null ? null : expressionFactory.project(projects, rowType);
-        //
-        //        IgniteIndex idx = tbl.getIndex(rel.indexName());
-        //
-        //        ColocationGroup group = ctx.group(rel.sourceId());
-
-        Iterable<RowT> rowsIter = (Iterable<RowT>) List.of(new Object[]{0, 0},
-                new Object[]{1, 1}); //idx.scan(ctx, group, filters, lower, upper, prj, requiredColumns);
+        Predicate<RowT> filters = condition == null ? null : expressionFactory.predicate(condition, rowType);
+        Supplier<RowT> searchRow = expressionFactory.rowSource(rel.searchRow());
+        Function<RowT, RowT> prj = projects == null ? null : expressionFactory.project(projects, rowType);
+
+        IgniteHashIndex idx = tbl.getHashIndex(rel.indexName());
+
+        ColocationGroup group = ctx.group(rel.sourceId());
+
+        if (!group.nodeIds().contains(ctx.localNodeId())) {
+            return new ScanNode<>(ctx, rowType, Collections.emptyList());
+        }
+
+        Iterable<RowT> rowsIter = idx.lookup(ctx, group, searchRow, filters, prj, requiredColumns);
 
         return new ScanNode<>(ctx, rowType, rowsIter);
     }
@@ -0,0 +1,502 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.sql.engine.exec.rel;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.apache.calcite.rel.RelCollation;
+import org.apache.calcite.rel.core.TableModify;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.ignite.internal.schema.BinaryRow;
+import org.apache.ignite.internal.sql.engine.exec.ExecutionContext;
+import org.apache.ignite.internal.sql.engine.exec.RowHandler;
+import org.apache.ignite.internal.sql.engine.schema.ColumnDescriptor;
+import org.apache.ignite.internal.sql.engine.schema.InternalIgniteTable;
+import org.apache.ignite.internal.sql.engine.schema.TableDescriptor;
+import org.apache.ignite.internal.sql.engine.util.Commons;
+import org.apache.ignite.internal.storage.index.IndexRow;
+import org.apache.ignite.internal.storage.index.IndexRowFactory;
+import org.apache.ignite.internal.storage.index.SortedIndexDescriptor;
+import org.apache.ignite.internal.storage.index.SortedIndexStorage;
+import org.apache.ignite.internal.tx.InternalTransaction;
+import org.apache.ignite.internal.util.Cursor;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Scan over the local storage of a sorted index of a table.
+ *
+ * <p>The index has the entries of all the versions of the rows, some of which may be no longer visible. So the rows of the entries found
+ * within the bounds are looked up in the table by their keys, in batches, and a row is returned only if it still has the values of the
+ * entry. The rows are returned in the order of the index.
+ *
+ * <p>The lookups are asynchronous, the next batch is looked up once the rows of the previous one are requested. All the lookups of the
+ * node are made by a single read-only transaction, so the rows are read as of the same time and no locks are taken.
+ *
+ * <p>The entries are read from the local index, while the rows are read as of the read timestamp of the transaction. So before the
+ * entries are read for the first time, the local replicas of the scanned partitions are synced with their groups at the read timestamp,
+ * otherwise the local index could miss the entries of the rows committed before the read timestamp.
+ */
+public class IndexScanNode<RowT> extends AbstractNode<RowT> {
+    /** Number of the index entries whose rows are looked up at once. */
+    private static final int LOOKUP_BATCH_SIZE = Commons.IN_BUFFER_SIZE;
+
+    /** Table of the index. */
+    private final InternalIgniteTable tbl;
+
+    /** Local storage of the index. */
+    private final SortedIndexStorage storage;
+
+    /** Index collation, in terms of the table columns. */
+    private final RelCollation collation;
+
+    /** Partitions to scan. */
+    private final BitSet parts = new BitSet();
+
+    private final @Nullable Predicate<RowT> filters;
+
+    private final @Nullable Supplier<RowT> lowerBound;
+
+    private final @Nullable Supplier<RowT> upperBound;
+
+    private final @Nullable Function<RowT, RowT> rowTransformer;
+
+    /** Participating columns. */
+    private final @Nullable ImmutableBitSet requiredColumns;
+
+    /** Factory of the full rows of the table. */
+    private final RowHandler.RowFactory<RowT> tableRowFactory;
+
+    /** Factory of the rows of the participating columns. */
+    private final RowHandler.RowFactory<RowT> factory;
+
+    /** Indexes of the table columns of the index row columns. */
+    private final int[] columns;
+
+    /** Flags of the index row columns that are the key columns of the table. */
+    private final boolean[] keyColumns;
+
+    private final Queue<RowT> inBuff = new ArrayDeque<>(inBufSize);
+
+    /** Entries within the bounds, {@code null} until the first request and after a rewind. */
+    private @Nullable Cursor<IndexRow> entries;
+
+    /** Transaction of the lookups, begun on the first request. */
+    private @Nullable InternalTransaction tx;
+
+    /** Sync of the local replicas at the read timestamp of the transaction, {@code null} until the first request. */
+    private @Nullable CompletableFuture<Void> sync;
+
+    /** {@code True} if the local replicas have been synced at the read timestamp of the transaction. */
+    private boolean synced;
+
+    private int requested;
+
+    /** {@code True} if a batch is being looked up. */
+    private boolean waiting;
+
+    private boolean inLoop;
+
+    /**
+     * Constructor.
+     *
+     * @param ctx Execution context.
+     * @param tbl Table of the index.
+     * @param storage Local storage of the index.
+     * @param collation Index collation, in terms of the table columns.
+     * @param parts Partitions to scan.
+     * @param filters Additional filters.
+     * @param lowerBound Lower index scan bound.
+     * @param upperBound Upper index scan bound.
+     * @param rowTransformer Row transformer.
+     * @param requiredColumns Participating columns.
+     */
+    public IndexScanNode(
+            ExecutionContext<RowT> ctx,
+            InternalIgniteTable tbl,
+            SortedIndexStorage storage,
+            RelCollation collation,
+            int[] parts,
+            @Nullable Predicate<RowT> filters,
+            @Nullable Supplier<RowT> lowerBound,
+            @Nullable Supplier<RowT> upperBound,
+            @Nullable Function<RowT, RowT> rowTransformer,
+            @Nullable ImmutableBitSet requiredColumns
+    ) {
+        super(ctx, tbl.getRowType(ctx.getTypeFactory(), requiredColumns));
+
+        this.tbl = tbl;
+        this.storage = storage;
+        this.collation = collation;
+        this.filters = filters;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.rowTransformer = rowTransformer;
+        this.requiredColumns = requiredColumns;
+
+        for (int part : parts) {
+            this.parts.set(part);
+        }
+
+        tableRowFactory = ctx.rowHandler().factory(ctx.getTypeFactory(), tbl.getRowType(ctx.getTypeFactory(), null));
+        factory = ctx.rowHandler().factory(ctx.getTypeFactory(), rowType());
+
+        TableDescriptor desc = tbl.descriptor();
+
+        List<SortedIndexDescriptor.ColumnDescriptor> idxColumns = storage.indexDescriptor().indexRowColumns();
+
+        columns = new int[idxColumns.size()];
+        keyColumns = new boolean[idxColumns.size()];
+
+        for (int i = 0; i < columns.length; i++) {
+            ColumnDescriptor colDesc = desc.columnDescriptor(idxColumns.get(i).column().name());
+
+            columns[i] = colDesc.logicalIndex();
+            keyColumns[i] = colDesc.key();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void request(int rowsCnt) throws Exception {
+        assert rowsCnt > 0 && requested == 0 : "rowsCnt=" + rowsCnt + ", requested=" + requested;
+
+        checkState();
+
+        requested = rowsCnt;
+
+        if (!inLoop) {
+            context().execute(this::push, this::onError);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void closeInternal() {
+        super.closeInternal();
+
+        closeEntries();
+
+        sync = null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void rewindInternal() {
+        closeEntries();
+
+        inBuff.clear();
+
+        requested = 0;
+        waiting = false;
+
+        // The replicas stay synced at the read timestamp, the transaction is the same after a rewind.
+        if (!synced) {
+            sync = null;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void register(List<Node<RowT>> sources) {
+        throw new UnsupportedOperationException();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Downstream<RowT> requestDownstream(int idx) {
+        throw new UnsupportedOperationException();
+    }
+
+    private void push() throws Exception {
+        if (isClosed()) {
+            return;
+        }
+
+        checkState();
+
+        inLoop = true;
+        try {
+            while (requested > 0 && !inBuff.isEmpty()) {
+                checkState();
+
+                requested--;
+                downstream().push(inBuff.poll());
+            }
+        } finally {
+            inLoop = false;
+        }
+
+        if (requested == 0 || waiting) {
+            return;
+        }
+
+        if (entries == null) {
+            if (!synced) {
+                syncReplicas();
+
+                return;
+            }
+
+            entries = openEntries();
+        }
+
+        if (!lookupNextBatch(entries)) {
+            requested = 0;
+            downstream().end();
+        }
+    }
+
+    /**
+     * Starts the sync of the local replicas of the scanned partitions at the read timestamp of the transaction.
+     */
+    private void syncReplicas() {
+        if (tx == null) {
+            tx = tbl.table().beginReadOnly();
+        }
+
+        String nodeId = context().localNodeId();
+
+        CompletableFuture<?>[] futs = parts.stream()
+                .mapToObj(part -> tbl.table().syncReplica(part, nodeId, tx))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture<Void> fut = CompletableFuture.allOf(futs);
+
+        sync = fut;
+        waiting = true;
+
+        fut.whenComplete((res, err) -> context().execute(() -> {
+            // The node has been rewound or closed meanwhile.
+            if (sync != fut) {
+                return;
+            }
+
+            if (err != null) {
+                throw err;
+            }
+
+            synced = true;
+            waiting = false;
+
+            push();
+        }, this::onError));
+    }
+
+    /**
+     * Opens the cursor over the index entries within the bounds.
+     */
+    private Cursor<IndexRow> openEntries() {
+        IndexRowFactory rowFactory = storage.indexRowFactory();
+
+        return storage.range(
+                rowFactory.createIndexRowPrefix(prefix(lowerBound == null ? null : lowerBound.get())),
+                rowFactory.createIndexRowPrefix(prefix(upperBound == null ? null : upperBound.get()))
+        );
+    }
+
+    private void closeEntries() {
+        if (entries != null) {
+            Commons.closeQuiet(entries);
+
+            entries = null;
+        }
+    }
+
+    /**
+     * Starts the lookup of the rows of the next batch of the index entries of the scanned partitions.
+     *
+     * @param cursor Cursor over the index entries.
+     * @return {@code False} if there are no more entries.
+     */
+    private boolean lookupNextBatch(Cursor<IndexRow> cursor) {
+        List<Object[]> batch = new ArrayList<>(LOOKUP_BATCH_SIZE);
+        List<BinaryRow> keys = new ArrayList<>(LOOKUP_BATCH_SIZE);
+
+        while (keys.size() < LOOKUP_BATCH_SIZE && cursor.hasNext()) {
+            Object[] values = storage.indexRowDeserializer().indexRowColumnValues(cursor.next());
+
+            BinaryRow keyRow = keyRow(values);
+
+            if (parts.get(tbl.table().partition(keyRow))) {
+                batch.add(values);
+                keys.add(keyRow);
+            }
+        }
+
+        if (keys.isEmpty()) {
+            return false;
+        }
+
+        waiting = true;
+
+        tbl.table().getAll(keys, tx).whenComplete((found, err) -> context().execute(() -> {
+            // The node has been rewound or closed meanwhile.
+            if (entries != cursor) {
+                return;
+            }
+
+            if (err != null) {
+                throw err;
+            }
+
+            waiting = false;
+
+            onLookup(batch, keys, found);
+
+            push();
+        }, this::onError));
+
+        return true;
+    }
+
+    /**
+     * Adds the looked up rows that still have the values of their index entries to the buffer.
+     *
+     * @param batch Values of the index entries.
+     * @param keys Key rows of the entries.
+     * @param found Rows found in the table.
+     */
+    private void onLookup(List<Object[]> batch, List<BinaryRow> keys, Collection<BinaryRow> found) {
+        Map<ByteBuffer, BinaryRow> rowsByKey = new HashMap<>();
+
+        for (BinaryRow row : found) {
+            if (row != null) {
+                rowsByKey.put(row.keySlice(), row);
+            }
+        }
+
+        RowHandler<RowT> hnd = context().rowHandler();
+
+        for (int i = 0; i < keys.size(); i++) {
+            BinaryRow binRow = rowsByKey.get(keys.get(i).keySlice());
+
+            if (binRow == null) {
+                continue;
+            }
+
+            RowT row = tbl.toRow(context(), binRow, tableRowFactory, null);
+
+            if (!matches(hnd, row, batch.get(i))) {
+                continue;
+            }
+
+            row = project(hnd, row);
+
+            if (filters != null && !filters.test(row)) {
+                continue;
+            }
+
+            if (rowTransformer != null) {
+                row = rowTransformer.apply(row);
+            }
+
+            inBuff.add(row);
+        }
+    }
+
+    /**
+     * Returns the values of the bound row that make a prefix of the index row columns.
+     *
+     * @param bound Bound row, {@code null} if there is no bound.
+     * @return Prefix values.
+     */
+    private Object[] prefix(@Nullable RowT bound) {
+        if (bound == null) {
+            return new Object[0];
+        }
+
+        RowHandler<RowT> hnd = context().rowHandler();
+
+        List<Object> prefix = new ArrayList<>();
+
+        for (int field : collation.getKeys()) {
+            Object val = hnd.get(field, bound);
+
+            if (val == null) {
+                break;
+            }
+
+            prefix.add(val);
+        }
+
+        return prefix.toArray();
+    }
+
+    /**
+     * Creates a key row of the table from the values of an index row.
+     *
+     * @param values Values of the index row columns.
+     * @return Key row.
+     */
+    private BinaryRow keyRow(Object[] values) {
+        RowHandler<RowT> hnd = context().rowHandler();
+
+        RowT row = tableRowFactory.create();
+
+        for (int i = 0; i < values.length; i++) {
+            if (keyColumns[i]) {
+                hnd.set(columns[i], row, values[i]);
+            }
+        }
+
+        // A row to delete consists of the key columns only.
+        return tbl.toBinaryRow(context(), row, TableModify.Operation.DELETE, null);
+    }
+
+    /**
+     * Checks that a row has the values of an index entry, otherwise the entry is of another version of the row.
+     */
+    private boolean matches(RowHandler<RowT> hnd, RowT row, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (!Objects.deepEquals(values[i], hnd.get(columns[i], row))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Leaves the participating columns of a full row of the table.
+     */
+    private RowT project(RowHandler<RowT> hnd, RowT row) {
+        if (requiredColumns == null) {
+            return row;
+        }
+
+        RowT res = factory.create();
+
+        for (int i = 0, j = requiredColumns.nextSetBit(0); j != -1; j = requiredColumns.nextSetBit(j + 1), i++) {
+            hnd.set(i, res, hnd.get(j, row));
+        }
+
+        return res;
+    }
+}
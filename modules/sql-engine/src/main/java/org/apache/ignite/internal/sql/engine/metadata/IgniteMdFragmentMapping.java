@@ -34,6 +34,7 @@ import org.apache.ignite.internal.sql.engine.prepare.MappingQueryContext;
 import org.apache.ignite.internal.sql.engine.rel.IgniteExchange;
 import org.apache.ignite.internal.sql.engine.rel.IgniteFilter;
 import org.apache.ignite.internal.sql.engine.rel.IgniteGateway;
+import org.apache.ignite.internal.sql.engine.rel.IgniteHashIndexLookup;
 import org.apache.ignite.internal.sql.engine.rel.IgniteIndexScan;
 import org.apache.ignite.internal.sql.engine.rel.IgniteReceiver;
 import org.apache.ignite.internal.sql.engine.rel.IgniteRel;
@@ -205,6 +206,14 @@ public class IgniteMdFragmentMapping implements MetadataHandler<FragmentMappingM
                 rel.getTable().unwrap(InternalIgniteTable.class).colocationGroup(ctx));
     }
 
+    /**
+     * See {@link IgniteMdFragmentMapping#fragmentMapping(RelNode, RelMetadataQuery, MappingQueryContext)}.
+     */
+    public FragmentMapping fragmentMapping(IgniteHashIndexLookup rel, RelMetadataQuery mq, MappingQueryContext ctx) {
+        return FragmentMapping.create(rel.sourceId(),
+                rel.getTable().unwrap(InternalIgniteTable.class).colocationGroup(ctx));
+    }
+
     /**
      * See {@link IgniteMdFragmentMapping#fragmentMapping(RelNode, RelMetadataQuery, MappingQueryContext)}.
      */
@@ -34,6 +34,7 @@ import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.util.Pair;
 import org.apache.ignite.internal.sql.engine.rel.AbstractIndexScan;
 import org.apache.ignite.internal.sql.engine.rel.IgniteConvention;
+import org.apache.ignite.internal.sql.engine.rel.IgniteHashIndexLookup;
 import org.apache.ignite.internal.sql.engine.rel.IgniteIndexScan;
 import org.apache.ignite.internal.sql.engine.rel.IgniteProject;
 import org.apache.ignite.internal.sql.engine.rel.IgniteRel;
@@ -188,6 +189,12 @@ public class PlannerHelper {
             return processScan(rel);
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public IgniteRel visit(IgniteHashIndexLookup rel) {
+            return processScan(rel);
+        }
+
         /** {@inheritDoc} */
         @Override
         protected IgniteRel processNode(IgniteRel rel) {
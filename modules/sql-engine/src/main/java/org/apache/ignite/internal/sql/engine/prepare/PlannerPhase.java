@@ -61,6 +61,7 @@ import org.apache.ignite.internal.sql.engine.rule.SortAggregateConverterRule;
 import org.apache.ignite.internal.sql.engine.rule.SortConverterRule;
 import org.apache.ignite.internal.sql.engine.rule.TableFunctionScanConverterRule;
 import org.apache.ignite.internal.sql.engine.rule.TableModifyConverterRule;
+import org.apache.ignite.internal.sql.engine.rule.TableScanToHashIndexLookupRule;
 import org.apache.ignite.internal.sql.engine.rule.UnionConverterRule;
 import org.apache.ignite.internal.sql.engine.rule.ValuesConverterRule;
 import org.apache.ignite.internal.sql.engine.rule.logical.ExposeIndexRule;
@@ -206,6 +207,7 @@ public enum PlannerPhase {
             ValuesConverterRule.INSTANCE,
             LogicalScanConverterRule.INDEX_SCAN,
             LogicalScanConverterRule.TABLE_SCAN,
+            TableScanToHashIndexLookupRule.INSTANCE,
             HashAggregateConverterRule.SINGLE,
             HashAggregateConverterRule.MAP_REDUCE,
             SortAggregateConverterRule.SINGLE,
@@ -24,6 +24,7 @@ import java.util.List;
 import org.apache.calcite.plan.RelOptCluster;
 import org.apache.ignite.internal.sql.engine.rel.IgniteExchange;
 import org.apache.ignite.internal.sql.engine.rel.IgniteGateway;
+import org.apache.ignite.internal.sql.engine.rel.IgniteHashIndexLookup;
 import org.apache.ignite.internal.sql.engine.rel.IgniteIndexScan;
 import org.apache.ignite.internal.sql.engine.rel.IgniteReceiver;
 import org.apache.ignite.internal.sql.engine.rel.IgniteRel;
@@ -99,6 +100,12 @@ public class Splitter extends IgniteRelShuttle {
         return rel.clone(IdGenerator.nextId());
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public IgniteRel visit(IgniteHashIndexLookup rel) {
+        return rel.clone(IdGenerator.nextId());
+    }
+
     /** {@inheritDoc} */
     @Override
     public IgniteRel visit(IgniteTableScan rel) {
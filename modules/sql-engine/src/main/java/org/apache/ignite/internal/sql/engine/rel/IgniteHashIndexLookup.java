@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.sql.engine.rel;
+
+import static org.apache.ignite.internal.sql.engine.trait.TraitUtils.changeTraits;
+
+import java.util.List;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptCost;
+import org.apache.calcite.plan.RelOptPlanner;
+import org.apache.calcite.plan.RelOptTable;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelInput;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.ignite.internal.sql.engine.metadata.cost.IgniteCost;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Relational operator that returns the rows of a table that have the given values of the columns of a hash index.
+ */
+public class IgniteHashIndexLookup extends ProjectableFilterableTableScan implements SourceAwareIgniteRel {
+    private final long sourceId;
+
+    private final String idxName;
+
+    /** Values of the index columns, in the order of the index columns. */
+    private final List<RexNode> searchRow;
+
+    /**
+     * Constructor used for deserialization.
+     *
+     * @param input Serialized representation.
+     */
+    public IgniteHashIndexLookup(RelInput input) {
+        super(changeTraits(input, IgniteConvention.INSTANCE));
+
+        idxName = input.getString("index");
+        searchRow = input.getExpressionList("searchRow");
+
+        Object srcIdObj = input.get("sourceId");
+        if (srcIdObj != null) {
+            sourceId = ((Number) srcIdObj).longValue();
+        } else {
+            sourceId = -1;
+        }
+    }
+
+    /**
+     * Creates a HashIndexLookup.
+     *
+     * @param cluster      Cluster that this relational expression belongs to
+     * @param traits       Traits of this relational expression
+     * @param tbl          Table definition.
+     * @param idxName      Index name.
+     * @param searchRow    Values of the index columns, in the order of the index columns.
+     * @param proj         Projects.
+     * @param cond         Filters.
+     * @param requiredCols Participating columns.
+     */
+    public IgniteHashIndexLookup(
+            RelOptCluster cluster,
+            RelTraitSet traits,
+            RelOptTable tbl,
+            String idxName,
+            List<RexNode> searchRow,
+            @Nullable List<RexNode> proj,
+            @Nullable RexNode cond,
+            @Nullable ImmutableBitSet requiredCols
+    ) {
+        this(-1L, cluster, traits, tbl, idxName, searchRow, proj, cond, requiredCols);
+    }
+
+    private IgniteHashIndexLookup(
+            long sourceId,
+            RelOptCluster cluster,
+            RelTraitSet traits,
+            RelOptTable tbl,
+            String idxName,
+            List<RexNode> searchRow,
+            @Nullable List<RexNode> proj,
+            @Nullable RexNode cond,
+            @Nullable ImmutableBitSet requiredCols
+    ) {
+        super(cluster, traits, List.of(), tbl, proj, cond, requiredCols);
+
+        this.sourceId = sourceId;
+        this.idxName = idxName;
+        this.searchRow = searchRow;
+    }
+
+    /**
+     * Get index name.
+     */
+    public String indexName() {
+        return idxName;
+    }
+
+    /**
+     * Get values of the index columns, in the order of the index columns.
+     */
+    public List<RexNode> searchRow() {
+        return searchRow;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long sourceId() {
+        return sourceId;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected RelWriter explainTerms0(RelWriter pw) {
+        return super.explainTerms0(pw
+                .item("index", idxName)
+                .item("searchRow", searchRow))
+                .itemIf("sourceId", sourceId, sourceId != -1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RelOptCost computeSelfCost(RelOptPlanner planner, RelMetadataQuery mq) {
+        double rows = Math.max(estimateRowCount(mq), 1);
+
+        double cost = IgniteCost.HASH_LOOKUP_COST + rows * (IgniteCost.ROW_COMPARISON_COST + IgniteCost.ROW_PASS_THROUGH_COST);
+
+        return planner.getCostFactory().makeCost(rows, cost, 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T> T accept(IgniteRelVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public IgniteRel clone(long sourceId) {
+        return new IgniteHashIndexLookup(sourceId, getCluster(), getTraitSet(), getTable(),
+                idxName, searchRow, projects, condition, requiredColumns);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public IgniteRel clone(RelOptCluster cluster, List<IgniteRel> inputs) {
+        return new IgniteHashIndexLookup(sourceId, cluster, getTraitSet(), getTable(),
+                idxName, searchRow, projects, condition, requiredColumns);
+    }
+}
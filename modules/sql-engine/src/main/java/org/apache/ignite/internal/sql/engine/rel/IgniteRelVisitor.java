@@ -69,6 +69,11 @@ public interface IgniteRelVisitor<T> {
      */
     T visit(IgniteIndexScan rel);
 
+    /**
+     * See {@link IgniteRelVisitor#visit(IgniteRel)}.
+     */
+    T visit(IgniteHashIndexLookup rel);
+
     /**
      * See {@link IgniteRelVisitor#visit(IgniteRel)}.
      */
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.sql.engine.rule;
+
+import static org.apache.ignite.internal.util.CollectionUtils.nullOrEmpty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.RelRule;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexUtil;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.ignite.internal.sql.engine.rel.IgniteHashIndexLookup;
+import org.apache.ignite.internal.sql.engine.rel.IgniteTableScan;
+import org.apache.ignite.internal.sql.engine.schema.IgniteHashIndex;
+import org.apache.ignite.internal.sql.engine.schema.InternalIgniteTable;
+import org.apache.ignite.internal.sql.engine.util.Commons;
+import org.apache.ignite.internal.sql.engine.util.RexUtils;
+import org.immutables.value.Value;
+
+/**
+ * Rule that turns a filtered table scan into a lookup of a hash index, if the filter has equality conditions on all the columns of the
+ * index.
+ */
+@Value.Enclosing
+public class TableScanToHashIndexLookupRule extends RelRule<TableScanToHashIndexLookupRule.Config> {
+    /** Instance. */
+    public static final RelOptRule INSTANCE = Config.DEFAULT.toRule();
+
+    private TableScanToHashIndexLookupRule(Config cfg) {
+        super(cfg);
+    }
+
+    private static boolean preMatch(IgniteTableScan scan) {
+        return scan.condition() != null && !scan.getTable().unwrap(InternalIgniteTable.class).hashIndexes().isEmpty();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onMatch(RelOptRuleCall call) {
+        IgniteTableScan scan = call.rel(0);
+        RelOptCluster cluster = scan.getCluster();
+
+        InternalIgniteTable table = scan.getTable().unwrap(InternalIgniteTable.class);
+        ImmutableBitSet requiredColumns = scan.requiredColumns();
+        RelDataType rowType = table.getRowType(Commons.typeFactory(cluster), requiredColumns);
+
+        RexNode condition = RexUtil.expandSearch(RexUtils.builder(cluster), null, scan.condition());
+
+        List<RexNode> searchRow = RexUtils.buildHashSearchRow(cluster, condition, rowType);
+
+        if (nullOrEmpty(searchRow)) {
+            return;
+        }
+
+        List<IgniteHashIndexLookup> lookups = new ArrayList<>();
+
+        for (IgniteHashIndex idx : table.hashIndexes().values()) {
+            List<RexNode> idxSearchRow = indexSearchRow(idx, searchRow, requiredColumns);
+
+            if (idxSearchRow != null) {
+                lookups.add(new IgniteHashIndexLookup(cluster, scan.getTraitSet(), scan.getTable(), idx.name(), idxSearchRow,
+                        scan.projects(), scan.condition(), requiredColumns));
+            }
+        }
+
+        if (lookups.isEmpty()) {
+            return;
+        }
+
+        Map<RelNode, RelNode> equivMap = new HashMap<>(lookups.size());
+        for (int i = 1; i < lookups.size(); i++) {
+            equivMap.put(lookups.get(i), scan);
+        }
+
+        call.transformTo(lookups.get(0), equivMap);
+    }
+
+    /**
+     * Picks the values of the index columns from the search row of the scan.
+     *
+     * @param idx Hash index.
+     * @param searchRow Search row, in terms of the participating columns.
+     * @param requiredColumns Participating columns.
+     * @return Values of the index columns, {@code null} if some of them are not set.
+     */
+    private static List<RexNode> indexSearchRow(IgniteHashIndex idx, List<RexNode> searchRow, ImmutableBitSet requiredColumns) {
+        List<RexNode> res = new ArrayList<>(idx.columns().size());
+
+        for (int col : idx.columns()) {
+            int field = requiredColumns == null ? col : requiredColumns.indexOf(col);
+
+            if (field == -1 || !RexUtils.isNotNull(searchRow.get(field))) {
+                return null;
+            }
+
+            res.add(searchRow.get(field));
+        }
+
+        return res;
+    }
+
+    /**
+     * Rule's configuration.
+     */
+    @SuppressWarnings("ClassNameSameAsAncestorName")
+    @Value.Immutable
+    public interface Config extends RelRule.Config {
+        Config DEFAULT = ImmutableTableScanToHashIndexLookupRule.Config.of()
+                .withDescription("TableScanToHashIndexLookupRule")
+                .withOperandSupplier(b ->
+                        b.operand(IgniteTableScan.class)
+                                .predicate(TableScanToHashIndexLookupRule::preMatch)
+                                .noInputs());
+
+        /** {@inheritDoc} */
+        @Override
+        default TableScanToHashIndexLookupRule toRule() {
+            return new TableScanToHashIndexLookupRule(this);
+        }
+    }
+}
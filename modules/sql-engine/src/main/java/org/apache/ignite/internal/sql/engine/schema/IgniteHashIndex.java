@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.sql.engine.schema;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.ignite.internal.sql.engine.exec.ExecutionContext;
+import org.apache.ignite.internal.sql.engine.exec.HashIndexLookup;
+import org.apache.ignite.internal.sql.engine.metadata.ColocationGroup;
+import org.apache.ignite.internal.storage.index.HashIndexStorage;
+import org.apache.ignite.lang.IgniteInternalException;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Ignite hash index, the rows may only be looked up by the values of all the index columns.
+ */
+public class IgniteHashIndex {
+    private final String idxName;
+
+    /** Indexes of the table columns of the index, in the order of the index columns. */
+    private final List<Integer> columns;
+
+    private final InternalIgniteTable tbl;
+
+    /** Local storage of the index, {@code null} if the index can't be looked up. */
+    private final @Nullable HashIndexStorage storage;
+
+    /**
+     * Constructor.
+     *
+     * @param name Index name.
+     * @param columns Indexes of the table columns of the index, in the order of the index columns.
+     * @param tbl Table of the index.
+     * @param storage Local storage of the index.
+     */
+    public IgniteHashIndex(String name, List<Integer> columns, InternalIgniteTable tbl, @Nullable HashIndexStorage storage) {
+        idxName = name;
+        this.columns = List.copyOf(columns);
+        this.tbl = tbl;
+        this.storage = storage;
+    }
+
+    public String name() {
+        return idxName;
+    }
+
+    public List<Integer> columns() {
+        return columns;
+    }
+
+    public InternalIgniteTable table() {
+        return tbl;
+    }
+
+    /**
+     * Looks up the rows by the values of the index columns over the partitions of the group that belong to the local node.
+     *
+     * @param ectx Execution context.
+     * @param grp Colocation group of the lookup.
+     * @param searchRow Values of the index columns, in the order of the index columns.
+     * @param filters Additional filters.
+     * @param rowTransformer Row transformer.
+     * @param requiredColumns Participating columns.
+     * @return Found rows.
+     */
+    public <RowT> Iterable<RowT> lookup(
+            ExecutionContext<RowT> ectx,
+            ColocationGroup grp,
+            Supplier<RowT> searchRow,
+            @Nullable Predicate<RowT> filters,
+            @Nullable Function<RowT, RowT> rowTransformer,
+            @Nullable ImmutableBitSet requiredColumns
+    ) {
+        if (storage == null) {
+            throw new IgniteInternalException("Index storage is not available [index=" + idxName + ']');
+        }
+
+        return new HashIndexLookup<>(ectx, tbl, storage, columns, grp.partitions(ectx.localNodeId()), searchRow, filters,
+                rowTransformer, requiredColumns);
+    }
+}
@@ -17,7 +17,18 @@
 
 package org.apache.ignite.internal.sql.engine.schema;
 
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import org.apache.calcite.rel.RelCollation;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.ignite.internal.sql.engine.exec.ExecutionContext;
+import org.apache.ignite.internal.sql.engine.exec.rel.IndexScanNode;
+import org.apache.ignite.internal.sql.engine.exec.rel.Node;
+import org.apache.ignite.internal.sql.engine.metadata.ColocationGroup;
+import org.apache.ignite.internal.storage.index.SortedIndexStorage;
+import org.apache.ignite.lang.IgniteInternalException;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Ignite scannable index.
@@ -27,17 +38,32 @@ public class IgniteIndex {
 
     private final String idxName;
 
-    //    private final GridIndex<H2Row> idx;
     private final InternalIgniteTable tbl;
 
+    /** Local storage of the index, {@code null} if the index can't be scanned. */
+    private final @Nullable SortedIndexStorage storage;
+
     /**
      * Constructor.
      * TODO Documentation https://issues.apache.org/jira/browse/IGNITE-15859
      */
     public IgniteIndex(RelCollation collation, String name, InternalIgniteTable tbl) {
+        this(collation, name, tbl, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param collation Index collation, in terms of the table columns.
+     * @param name Index name.
+     * @param tbl Table of the index.
+     * @param storage Local storage of the index.
+     */
+    public IgniteIndex(RelCollation collation, String name, InternalIgniteTable tbl, @Nullable SortedIndexStorage storage) {
         this.collation = collation;
         idxName = name;
         this.tbl = tbl;
+        this.storage = storage;
     }
 
     public RelCollation collation() {
@@ -51,4 +77,33 @@ public class IgniteIndex {
     public InternalIgniteTable table() {
         return tbl;
     }
+
+    /**
+     * Scans the index within the bounds over the partitions of the group that belong to the local node.
+     *
+     * @param ectx Execution context.
+     * @param grp Colocation group of the scan.
+     * @param filters Additional filters.
+     * @param lowerBound Lower index scan bound.
+     * @param upperBound Upper index scan bound.
+     * @param rowTransformer Row transformer.
+     * @param requiredColumns Participating columns.
+     * @return Node that returns the rows in the order of the index.
+     */
+    public <RowT> Node<RowT> scan(
+            ExecutionContext<RowT> ectx,
+            ColocationGroup grp,
+            @Nullable Predicate<RowT> filters,
+            @Nullable Supplier<RowT> lowerBound,
+            @Nullable Supplier<RowT> upperBound,
+            @Nullable Function<RowT, RowT> rowTransformer,
+            @Nullable ImmutableBitSet requiredColumns
+    ) {
+        if (storage == null) {
+            throw new IgniteInternalException("Index storage is not available [index=" + idxName + ']');
+        }
+
+        return new IndexScanNode<>(ectx, tbl, storage, collation, grp.partitions(ectx.localNodeId()), filters, lowerBound, upperBound,
+                rowTransformer, requiredColumns);
+    }
 }
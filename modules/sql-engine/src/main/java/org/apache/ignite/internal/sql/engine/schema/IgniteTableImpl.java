@@ -74,6 +74,8 @@ public class IgniteTableImpl extends AbstractTable implements InternalIgniteTabl
 
     private final Map<String, IgniteIndex> indexes = new ConcurrentHashMap<>();
 
+    private final Map<String, IgniteHashIndex> hashIndexes = new ConcurrentHashMap<>();
+
     private final List<ColumnDescriptor> columnsOrderedByPhysSchema;
 
     /**
@@ -205,6 +207,24 @@ public class IgniteTableImpl extends AbstractTable implements InternalIgniteTabl
         indexes.remove(idxName);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, IgniteHashIndex> hashIndexes() {
+        return Collections.unmodifiableMap(hashIndexes);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void addHashIndex(IgniteHashIndex idx) {
+        hashIndexes.put(idx.name(), idx);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public IgniteHashIndex getHashIndex(String idxName) {
+        return hashIndexes.get(idxName);
+    }
+
     /** {@inheritDoc} */
     @Override
     public <C> C unwrap(Class<C> cls) {
@@ -149,4 +149,26 @@ public interface InternalIgniteTable extends IgniteTable {
      * @param idxName Index name.
      */
     void removeIndex(String idxName);
+
+    /**
+     * Returns all hash indexes of the table.
+     *
+     * @return Hash indexes for the current table.
+     */
+    Map<String, IgniteHashIndex> hashIndexes();
+
+    /**
+     * Adds hash index to table.
+     *
+     * @param idx Hash index.
+     */
+    void addHashIndex(IgniteHashIndex idx);
+
+    /**
+     * Returns hash index by its name.
+     *
+     * @param idxName Index name.
+     * @return Hash index.
+     */
+    IgniteHashIndex getHashIndex(String idxName);
 }
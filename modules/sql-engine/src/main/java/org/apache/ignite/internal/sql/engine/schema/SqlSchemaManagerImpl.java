@@ -24,6 +24,11 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import org.apache.calcite.rel.RelCollation;
+import org.apache.calcite.rel.RelCollations;
+import org.apache.calcite.rel.RelFieldCollation;
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.calcite.rel.RelFieldCollation.NullDirection;
 import org.apache.calcite.schema.Schema;
 import org.apache.calcite.schema.SchemaPlus;
 import org.apache.calcite.schema.Table;
@@ -33,6 +38,8 @@ import org.apache.ignite.internal.schema.Column;
 import org.apache.ignite.internal.schema.SchemaDescriptor;
 import org.apache.ignite.internal.sql.engine.extension.SqlExtension.ExternalCatalog;
 import org.apache.ignite.internal.sql.engine.extension.SqlExtension.ExternalSchema;
+import org.apache.ignite.internal.storage.index.HashIndexStorage;
+import org.apache.ignite.internal.storage.index.SortedIndexStorage;
 import org.apache.ignite.internal.table.TableImpl;
 import org.apache.ignite.internal.table.distributed.TableManager;
 import org.apache.ignite.lang.IgniteInternalException;
@@ -171,12 +178,28 @@ public class SqlSchemaManagerImpl implements SqlSchemaManager {
                 ))
                 .collect(Collectors.toList());
 
+        TableDescriptor tableDescriptor = new TableDescriptorImpl(colDescriptors);
+
         IgniteTableImpl igniteTable = new IgniteTableImpl(
-                new TableDescriptorImpl(colDescriptors),
+                tableDescriptor,
                 table.internalTable(),
                 table.schemaView()
         );
 
+        for (SortedIndexStorage index : tableManager.sortedIndexes(table.tableId())) {
+            String indexName = index.indexDescriptor().name();
+
+            igniteTable.addIndex(new IgniteIndex(indexCollation(index, tableDescriptor), indexName, igniteTable, index));
+        }
+
+        for (HashIndexStorage index : tableManager.hashIndexes(table.tableId())) {
+            List<Integer> columns = index.indexDescriptor().indexColumns().stream()
+                    .map(col -> tableDescriptor.columnDescriptor(col.name()).logicalIndex())
+                    .collect(Collectors.toList());
+
+            igniteTable.addHashIndex(new IgniteHashIndex(index.indexDescriptor().name(), columns, igniteTable, index));
+        }
+
         schema.addTable(removeSchema(schemaName, table.name()), igniteTable);
         tablesById.put(igniteTable.id(), igniteTable);
 
@@ -226,6 +249,22 @@ public class SqlSchemaManagerImpl implements SqlSchemaManager {
         onSchemaUpdatedCallback.run();
     }
 
+    /**
+     * Returns the collation of the rows of an index: the indexed columns followed by the primary key columns, nulls go first in the
+     * ascending order.
+     */
+    private static RelCollation indexCollation(SortedIndexStorage index, TableDescriptor tableDescriptor) {
+        List<RelFieldCollation> fieldCollations = index.indexDescriptor().indexRowColumns().stream()
+                .map(col -> new RelFieldCollation(
+                        tableDescriptor.columnDescriptor(col.column().name()).logicalIndex(),
+                        col.asc() ? Direction.ASCENDING : Direction.DESCENDING,
+                        col.asc() ? NullDirection.FIRST : NullDirection.LAST
+                ))
+                .collect(Collectors.toList());
+
+        return RelCollations.of(fieldCollations);
+    }
+
     private static String removeSchema(String schemaName, String canonicalName) {
         return canonicalName.substring(schemaName.length() + 1);
     }
@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.sql.engine.exec.rel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.apache.calcite.rel.RelCollations;
+import org.apache.calcite.rel.core.TableModify;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.calcite.util.ImmutableIntList;
+import org.apache.ignite.internal.schema.BinaryRow;
+import org.apache.ignite.internal.schema.Column;
+import org.apache.ignite.internal.schema.NativeTypes;
+import org.apache.ignite.internal.sql.engine.exec.ExecutionContext;
+import org.apache.ignite.internal.sql.engine.schema.ColumnDescriptor;
+import org.apache.ignite.internal.sql.engine.schema.InternalIgniteTable;
+import org.apache.ignite.internal.sql.engine.schema.TableDescriptor;
+import org.apache.ignite.internal.sql.engine.type.IgniteTypeFactory;
+import org.apache.ignite.internal.sql.engine.util.TypeUtils;
+import org.apache.ignite.internal.storage.index.IndexRow;
+import org.apache.ignite.internal.storage.index.IndexRowDeserializer;
+import org.apache.ignite.internal.storage.index.IndexRowFactory;
+import org.apache.ignite.internal.storage.index.IndexRowPrefix;
+import org.apache.ignite.internal.storage.index.SortedIndexDescriptor;
+import org.apache.ignite.internal.storage.index.SortedIndexStorage;
+import org.apache.ignite.internal.table.InternalTable;
+import org.apache.ignite.internal.tx.InternalTransaction;
+import org.apache.ignite.internal.util.Cursor;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link IndexScanNode}.
+ */
+public class IndexScanNodeTest extends AbstractExecutionTest {
+    /** Current rows of the table: ID (key), VAL. */
+    private final Map<Integer, Object[]> rows = new HashMap<>();
+
+    /** Entries of the index on VAL: ID, VAL, in the order of the index. */
+    private final List<Object[]> entries = new ArrayList<>();
+
+    /** Prefixes of the bounds the index was scanned with. */
+    private final List<Object[]> prefixes = new ArrayList<>();
+
+    private InternalIgniteTable tbl;
+
+    private InternalTable internalTbl;
+
+    /** Read-only transaction of the lookups. */
+    private final InternalTransaction tx = mock(InternalTransaction.class);
+
+    private SortedIndexStorage storage;
+
+    private ExecutionContext<Object[]> ectx;
+
+    @BeforeEach
+    void setUp() {
+        ectx = executionContext();
+
+        IgniteTypeFactory tf = ectx.getTypeFactory();
+
+        tbl = mock(InternalIgniteTable.class);
+
+        when(tbl.getRowType(any(), isNull())).thenReturn(TypeUtils.createRowType(tf, Integer.class, Integer.class));
+        when(tbl.getRowType(any(), eq(ImmutableBitSet.of(1)))).thenReturn(TypeUtils.createRowType(tf, Integer.class));
+
+        TableDescriptor desc = mock(TableDescriptor.class);
+
+        ColumnDescriptor idCol = mock(ColumnDescriptor.class);
+        when(idCol.logicalIndex()).thenReturn(0);
+        when(idCol.key()).thenReturn(true);
+
+        ColumnDescriptor valCol = mock(ColumnDescriptor.class);
+        when(valCol.logicalIndex()).thenReturn(1);
+
+        when(desc.columnDescriptor("ID")).thenReturn(idCol);
+        when(desc.columnDescriptor("VAL")).thenReturn(valCol);
+        when(tbl.descriptor()).thenReturn(desc);
+
+        when(tbl.toBinaryRow(any(), any(), eq(TableModify.Operation.DELETE), isNull()))
+                .thenAnswer(invocation -> binaryRow((Integer) invocation.<Object[]>getArgument(1)[0]));
+
+        when(tbl.toRow(any(), any(), any(), isNull()))
+                .thenAnswer(invocation -> rows.get(id(invocation.getArgument(1))).clone());
+
+        internalTbl = mock(InternalTable.class);
+
+        when(internalTbl.beginReadOnly()).thenReturn(tx);
+
+        when(internalTbl.partition(any())).thenAnswer(invocation -> id(invocation.getArgument(0)) % 2);
+
+        // The rows are looked up asynchronously, by the read-only transaction.
+        when(internalTbl.getAll(anyCollection(), eq(tx))).thenAnswer(invocation -> {
+            List<BinaryRow> res = new ArrayList<>();
+
+            for (BinaryRow key : invocation.<Collection<BinaryRow>>getArgument(0)) {
+                if (rows.containsKey(id(key))) {
+                    res.add(0, binaryRow(id(key)));
+                }
+            }
+
+            return CompletableFuture.supplyAsync(() -> res);
+        });
+
+        when(tbl.table()).thenReturn(internalTbl);
+
+        storage = mock(SortedIndexStorage.class);
+
+        SortedIndexDescriptor idxDesc = mock(SortedIndexDescriptor.class);
+
+        when(idxDesc.indexRowColumns()).thenReturn(List.of(indexColumn("VAL"), indexColumn("ID")));
+        when(storage.indexDescriptor()).thenReturn(idxDesc);
+
+        IndexRowFactory rowFactory = mock(IndexRowFactory.class);
+
+        when(rowFactory.createIndexRowPrefix(any())).thenAnswer(invocation -> {
+            Object[] prefix = invocation.getArgument(0);
+
+            prefixes.add(prefix);
+
+            return (IndexRowPrefix) () -> prefix;
+        });
+        when(storage.indexRowFactory()).thenReturn(rowFactory);
+
+        IndexRowDeserializer deserializer = mock(IndexRowDeserializer.class);
+
+        when(deserializer.indexRowColumnValues(any())).thenAnswer(invocation -> {
+            ByteBuffer entry = ByteBuffer.wrap(invocation.<IndexRow>getArgument(0).rowBytes());
+
+            return new Object[]{entry.getInt(0), entry.getInt(Integer.BYTES)};
+        });
+        when(storage.indexRowDeserializer()).thenReturn(deserializer);
+
+        when(storage.range(any(), any())).thenAnswer(invocation -> cursor(entries.iterator()));
+    }
+
+    /**
+     * Tests that the rows are returned in the order of the index, and only those of the scanned partitions that still have the values of
+     * the entries.
+     */
+    @Test
+    public void testScan() {
+        rows.put(2, new Object[]{2, 20});
+        rows.put(3, new Object[]{3, 30});
+        rows.put(4, new Object[]{4, 45});
+
+        entries.add(new Object[]{2, 20});
+        entries.add(new Object[]{3, 30}); // Another partition.
+        entries.add(new Object[]{4, 40}); // Previous version.
+        entries.add(new Object[]{4, 45});
+        entries.add(new Object[]{6, 60}); // Removed row.
+
+        List<Object[]> res = scan(null, null, null);
+
+        assertEquals(2, res.size());
+        assertArrayEquals(new Object[]{2, 20}, res.get(0));
+        assertArrayEquals(new Object[]{4, 45}, res.get(1));
+
+        assertArrayEquals(new Object[0], prefixes.get(0));
+        assertArrayEquals(new Object[0], prefixes.get(1));
+
+        verify(internalTbl, times(1)).beginReadOnly();
+    }
+
+    /**
+     * Tests the bounds and the required columns.
+     */
+    @Test
+    public void testBoundsAndRequiredColumns() {
+        rows.put(2, new Object[]{2, 20});
+        rows.put(4, new Object[]{4, 40});
+
+        entries.add(new Object[]{2, 20});
+        entries.add(new Object[]{4, 40});
+
+        List<Object[]> res = scan(new Object[]{null, 20}, new Object[]{4, 40}, ImmutableBitSet.of(1));
+
+        assertEquals(2, res.size());
+        assertArrayEquals(new Object[]{20}, res.get(0));
+        assertArrayEquals(new Object[]{40}, res.get(1));
+
+        assertArrayEquals(new Object[]{20}, prefixes.get(0));
+        assertArrayEquals(new Object[]{40, 4}, prefixes.get(1));
+    }
+
+    private List<Object[]> scan(Object[] lower, Object[] upper, ImmutableBitSet requiredColumns) {
+        IndexScanNode<Object[]> scan = new IndexScanNode<>(
+                ectx,
+                tbl,
+                storage,
+                RelCollations.of(ImmutableIntList.of(1, 0)),
+                new int[]{0},
+                null,
+                lower == null ? null : () -> lower,
+                upper == null ? null : () -> upper,
+                null,
+                requiredColumns
+        );
+
+        RootNode<Object[]> root = new RootNode<>(ectx, scan.rowType());
+
+        root.register(scan);
+
+        List<Object[]> res = new ArrayList<>();
+
+        try {
+            while (root.hasNext()) {
+                res.add(root.next());
+            }
+        } finally {
+            root.close();
+        }
+
+        return res;
+    }
+
+    private static SortedIndexDescriptor.ColumnDescriptor indexColumn(String name) {
+        SortedIndexDescriptor.ColumnDescriptor col = mock(SortedIndexDescriptor.ColumnDescriptor.class);
+
+        when(col.column()).thenReturn(new Column(name, NativeTypes.INT32, false));
+
+        return col;
+    }
+
+    /**
+     * Creates a row of the table whose key slice holds the ID.
+     */
+    private static BinaryRow binaryRow(int id) {
+        BinaryRow row = mock(BinaryRow.class);
+
+        when(row.keySlice()).thenAnswer(invocation -> ByteBuffer.allocate(Integer.BYTES).putInt(0, id));
+
+        return row;
+    }
+
+    private static int id(BinaryRow row) {
+        return row.keySlice().getInt(0);
+    }
+
+    private static Cursor<IndexRow> cursor(Iterator<Object[]> it) {
+        return new Cursor<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public IndexRow next() {
+                Object[] entry = it.next();
+
+                IndexRow row = mock(IndexRow.class);
+
+                byte[] bytes = ByteBuffer.allocate(2 * Integer.BYTES)
+                        .putInt((Integer) entry[1])
+                        .putInt((Integer) entry[0])
+                        .array();
+
+                when(row.rowBytes()).thenReturn(bytes);
+
+                return row;
+            }
+
+            @Override
+            public void close() {
+                // No-op.
+            }
+
+            @Override
+            public @NotNull Iterator<IndexRow> iterator() {
+                return this;
+            }
+        };
+    }
+}
@@ -89,6 +89,7 @@ import org.apache.ignite.internal.sql.engine.rel.IgniteTableScan;
 import org.apache.ignite.internal.sql.engine.rel.logical.IgniteLogicalIndexScan;
 import org.apache.ignite.internal.sql.engine.rel.logical.IgniteLogicalTableScan;
 import org.apache.ignite.internal.sql.engine.schema.ColumnDescriptor;
+import org.apache.ignite.internal.sql.engine.schema.IgniteHashIndex;
 import org.apache.ignite.internal.sql.engine.schema.IgniteIndex;
 import org.apache.ignite.internal.sql.engine.schema.IgniteSchema;
 import org.apache.ignite.internal.sql.engine.schema.IgniteTable;
@@ -565,6 +566,8 @@ public abstract class AbstractPlannerTest extends IgniteAbstractTest {
 
         private final Map<String, IgniteIndex> indexes = new HashMap<>();
 
+        private final Map<String, IgniteHashIndex> hashIndexes = new HashMap<>();
+
         private final double rowCnt;
 
         private final TableDescriptor desc;
@@ -739,6 +742,19 @@ public abstract class AbstractPlannerTest extends IgniteAbstractTest {
             return this;
         }
 
+        /**
+         * Adds a hash index over the given columns.
+         *
+         * @param name Index name.
+         * @param columns Indexes of the table columns of the index.
+         * @return {@code this} for chaining.
+         */
+        public TestTable addHashIndex(String name, Integer... columns) {
+            hashIndexes.put(name, new IgniteHashIndex(name, List.of(columns), this, null));
+
+            return this;
+        }
+
         /** {@inheritDoc} */
         @Override
         public IgniteIndex getIndex(String idxName) {
@@ -751,6 +767,24 @@ public abstract class AbstractPlannerTest extends IgniteAbstractTest {
             throw new AssertionError();
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public Map<String, IgniteHashIndex> hashIndexes() {
+            return Collections.unmodifiableMap(hashIndexes);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void addHashIndex(IgniteHashIndex idx) {
+            hashIndexes.put(idx.name(), idx);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public IgniteHashIndex getHashIndex(String idxName) {
+            return hashIndexes.get(idxName);
+        }
+
         /**
          * Get name.
          */
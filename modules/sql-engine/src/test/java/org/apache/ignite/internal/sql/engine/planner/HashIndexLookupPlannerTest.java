@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.sql.engine.planner;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.ignite.internal.sql.engine.rel.IgniteHashIndexLookup;
+import org.apache.ignite.internal.sql.engine.rel.IgniteRel;
+import org.apache.ignite.internal.sql.engine.rel.IgniteTableScan;
+import org.apache.ignite.internal.sql.engine.schema.IgniteSchema;
+import org.apache.ignite.internal.sql.engine.trait.IgniteDistribution;
+import org.apache.ignite.internal.sql.engine.trait.IgniteDistributions;
+import org.apache.ignite.internal.sql.engine.type.IgniteTypeFactory;
+import org.apache.ignite.internal.sql.engine.type.IgniteTypeSystem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the planning of the hash index lookups.
+ */
+public class HashIndexLookupPlannerTest extends AbstractPlannerTest {
+    private IgniteSchema publicSchema;
+
+    /**
+     * Creates a table with a hash index on a single column and a hash index on two columns.
+     */
+    @BeforeEach
+    public void setUp() {
+        publicSchema = new IgniteSchema("PUBLIC");
+
+        IgniteTypeFactory f = new IgniteTypeFactory(IgniteTypeSystem.INSTANCE);
+
+        publicSchema.addTable(
+                "USERS",
+                new TestTable(
+                        new RelDataTypeFactory.Builder(f)
+                                .add("ID", f.createJavaType(Integer.class))
+                                .add("EMAIL", f.createJavaType(String.class))
+                                .add("TENANT", f.createJavaType(Integer.class))
+                                .add("EXT_ID", f.createJavaType(String.class))
+                                .build(), 10_000) {
+
+                    @Override
+                    public IgniteDistribution distribution() {
+                        return IgniteDistributions.affinity(0, "USERS", "hash");
+                    }
+                }
+                        .addHashIndex("EMAIL_IDX", 1)
+                        .addHashIndex("EXT_ID_IDX", 2, 3)
+        );
+    }
+
+    @Test
+    public void testLookupByAllIndexColumns() throws Exception {
+        assertPlan("SELECT id FROM users WHERE email = 'a@b.c'", publicSchema,
+                nodeOrAnyChild(isInstanceOf(IgniteHashIndexLookup.class)
+                        .and(lookup -> "EMAIL_IDX".equals(lookup.indexName()))));
+
+        assertPlan("SELECT * FROM users WHERE ext_id = 'x' AND tenant = 1 AND id > 10", publicSchema,
+                nodeOrAnyChild(isInstanceOf(IgniteHashIndexLookup.class)
+                        .and(lookup -> "EXT_ID_IDX".equals(lookup.indexName()) && lookup.searchRow().size() == 2)));
+    }
+
+    @Test
+    public void testNoLookupByIndexColumnsPrefix() throws Exception {
+        assertPlan("SELECT * FROM users WHERE tenant = 1", publicSchema,
+                nodeOrAnyChild(isInstanceOf(IgniteTableScan.class)));
+
+        IgniteRel phys = physicalPlan("SELECT * FROM users WHERE email > 'a'", publicSchema);
+
+        assertNull(findFirstNode(phys, byClass(IgniteHashIndexLookup.class)));
+    }
+}
@@ -18,9 +18,11 @@
 package org.apache.ignite.internal.storage;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import org.apache.ignite.internal.util.Cursor;
 import org.jetbrains.annotations.NotNull;
@@ -31,6 +33,18 @@ import org.jetbrains.annotations.Nullable;
  * groups where all write operations are serialized.
  */
 public interface PartitionStorage extends AutoCloseable {
+    /** Range scan flag: the lower bound is excluded. */
+    int GREATER = 0;
+
+    /** Range scan flag: the lower bound is included. */
+    int GREATER_OR_EQUAL = 1;
+
+    /** Range scan flag: the upper bound is excluded. */
+    int LESS = 0;
+
+    /** Range scan flag: the upper bound is included. */
+    int LESS_OR_EQUAL = 1 << 1;
+
     /**
      * Returns the partition id.
      *
@@ -38,6 +52,33 @@ public interface PartitionStorage extends AutoCloseable {
      */
     int partitionId();
 
+    /**
+     * Executes a closure so that all the modifications it makes, including the {@link #lastAppliedIndex(long) applied index} update, are
+     * either all persisted or all lost after a crash. Modifications are visible to the reads made by the closure itself right away, and to
+     * the other threads after the closure has completed. Nested calls are executed as a part of the outer one.
+     *
+     * @param closure Closure.
+     * @param <V> Type of the result.
+     * @return Result of the closure.
+     * @throws StorageException If failed to write the data or the storage is already stopped.
+     */
+    <V> V runConsistently(WriteClosure<V> closure) throws StorageException;
+
+    /**
+     * Returns the index of the last Raft command applied to the storage, {@code 0} if unknown. Commands up to this index don't have to be
+     * replayed from the Raft log after a restart.
+     */
+    long lastAppliedIndex();
+
+    /**
+     * Sets the index of the last Raft command applied to the storage. Should be called from the same {@link #runConsistently} closure that
+     * applies the command, so that the data and the index are persisted atomically.
+     *
+     * @param lastAppliedIndex Index of the last applied Raft command.
+     * @throws StorageException If failed to write the index or the storage is already stopped.
+     */
+    void lastAppliedIndex(long lastAppliedIndex) throws StorageException;
+
     /**
      * Reads a DataRow for a given key.
      *
@@ -57,6 +98,62 @@ public interface PartitionStorage extends AutoCloseable {
      */
     Collection<DataRow> readAll(List<? extends SearchRow> keys);
 
+    /**
+     * Returns the executor of the asynchronous reads. The reads that may block on the disk are executed by a storage I/O pool, so that the
+     * threads applying the Raft commands are not blocked by them. The in-memory storages execute the reads in the calling thread.
+     *
+     * @return Executor of the asynchronous reads.
+     */
+    default Executor readExecutor() {
+        return Runnable::run;
+    }
+
+    /**
+     * Asynchronously reads a DataRow for a given key with the {@link #readExecutor() read executor}. The read doesn't see the
+     * modifications of a {@link #runConsistently} closure in progress.
+     *
+     * @param key Search row.
+     * @return Future of the data row or {@code null} if no data has been found. Completed exceptionally with a {@link StorageException}
+     *      if failed to read the data or the storage is already stopped.
+     */
+    default CompletableFuture<DataRow> readAsync(SearchRow key) {
+        return CompletableFuture.supplyAsync(() -> read(key), readExecutor());
+    }
+
+    /**
+     * Asynchronously reads {@link DataRow}s for a given collection of keys with the {@link #readExecutor() read executor}. The read doesn't
+     * see the modifications of a {@link #runConsistently} closure in progress.
+     *
+     * @param keys Search rows.
+     * @return Future of the data rows of the found keys. Completed exceptionally with a {@link StorageException} if failed to read the data
+     *      or the storage is already stopped.
+     */
+    default CompletableFuture<Collection<DataRow>> readAllAsync(List<? extends SearchRow> keys) {
+        return CompletableFuture.supplyAsync(() -> readAll(keys), readExecutor());
+    }
+
+    /**
+     * Asynchronously reads the next batch of rows from a cursor with the {@link #readExecutor() read executor}. The cursor must be created
+     * by a {@link #scan} of this storage or be a view of such a cursor. The batches of the same cursor must not be read concurrently.
+     *
+     * @param cursor Cursor.
+     * @param maxRows Maximum number of rows in the batch.
+     * @param <T> Type of the rows.
+     * @return Future of the rows, fewer than {@code maxRows} only if the cursor has been exhausted. Completed exceptionally with a
+     *      {@link StorageException} if failed to read the data or the storage is already stopped.
+     */
+    default <T> CompletableFuture<List<T>> readBatchAsync(Cursor<T> cursor, int maxRows) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<T> batch = new ArrayList<>();
+
+            while (batch.size() < maxRows && cursor.hasNext()) {
+                batch.add(cursor.next());
+            }
+
+            return batch;
+        }, readExecutor());
+    }
+
     /**
      * Writes a DataRow into the storage.
      *
@@ -127,7 +224,27 @@ public interface PartitionStorage extends AutoCloseable {
      * @return Cursor with filtered data.
      * @throws StorageException If failed to read data or storage is already stopped.
      */
-    Cursor<DataRow> scan(Predicate<SearchRow> filter) throws StorageException;
+    default Cursor<DataRow> scan(Predicate<SearchRow> filter) throws StorageException {
+        return scan(null, null, GREATER_OR_EQUAL | LESS_OR_EQUAL, filter);
+    }
+
+    /**
+     * Creates cursor over the rows with the keys in a range. The bounds are key prefixes: an inclusive bound includes all the keys that
+     * start with it, an exclusive bound excludes them, so a prefix scan is a scan with the same inclusive lower and upper bounds. Keys
+     * are compared as unsigned byte arrays. The order of the rows is defined by the storage.
+     *
+     * <p>The filter is applied to the keys before the values are read, the values of the rejected rows are not read at all.
+     *
+     * @param lowerBound Lower bound, {@code null} if the range is not bounded from below.
+     * @param upperBound Upper bound, {@code null} if the range is not bounded from above.
+     * @param flags Bound flags: {@link #GREATER} or {@link #GREATER_OR_EQUAL}, combined with {@link #LESS} or {@link #LESS_OR_EQUAL}.
+     * @param filter Filter of the keys.
+     * @return Cursor with filtered data.
+     * @throws StorageException If failed to read data or storage is already stopped.
+     * @see org.apache.ignite.internal.storage.basic.KeyRange
+     */
+    Cursor<DataRow> scan(byte @Nullable [] lowerBound, byte @Nullable [] upperBound, int flags, Predicate<SearchRow> filter)
+            throws StorageException;
 
     /**
      * Creates a snapshot of the storage's current state in the specified directory.
@@ -149,4 +266,20 @@ public interface PartitionStorage extends AutoCloseable {
      * Removes all data from this storage and frees all associated resources.
      */
     void destroy();
+
+    /**
+     * Closure executed by {@link #runConsistently}.
+     *
+     * @param <V> Type of the result.
+     */
+    @FunctionalInterface
+    interface WriteClosure<V> {
+        /**
+         * Executes the closure.
+         *
+         * @return Result.
+         * @throws StorageException If failed.
+         */
+        V execute() throws StorageException;
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.basic;
+
+import static org.apache.ignite.internal.storage.PartitionStorage.GREATER_OR_EQUAL;
+import static org.apache.ignite.internal.storage.PartitionStorage.LESS_OR_EQUAL;
+
+import java.util.Arrays;
+import org.apache.ignite.internal.storage.PartitionStorage;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Range of keys of a {@link PartitionStorage#scan(byte[], byte[], int, java.util.function.Predicate) range scan}. The bounds are key
+ * prefixes: an inclusive bound includes all the keys that start with it, an exclusive bound excludes them. The range is converted to the
+ * interval between an inclusive lower key and an exclusive upper key, keys are compared as unsigned byte arrays.
+ */
+public class KeyRange {
+    /** Inclusive lower key, {@code null} if the range is not bounded from below. */
+    private final byte @Nullable [] lowerKey;
+
+    /** Exclusive upper key, {@code null} if the range is not bounded from above. */
+    private final byte @Nullable [] upperKey;
+
+    /** {@code True} if there are no keys in the range. */
+    private final boolean empty;
+
+    /**
+     * Constructor.
+     *
+     * @param lowerBound Lower bound, {@code null} if the range is not bounded from below.
+     * @param upperBound Upper bound, {@code null} if the range is not bounded from above.
+     * @param flags Bound flags, see {@link PartitionStorage#GREATER_OR_EQUAL} and {@link PartitionStorage#LESS_OR_EQUAL}.
+     */
+    public KeyRange(byte @Nullable [] lowerBound, byte @Nullable [] upperBound, int flags) {
+        boolean empty = false;
+
+        if (lowerBound == null || (flags & GREATER_OR_EQUAL) != 0) {
+            lowerKey = lowerBound;
+        } else {
+            lowerKey = nextPrefix(lowerBound);
+
+            // All the keys start with the excluded bound or are less than it.
+            empty = lowerKey == null;
+        }
+
+        if (upperBound == null || (flags & LESS_OR_EQUAL) == 0) {
+            upperKey = upperBound;
+        } else {
+            upperKey = nextPrefix(upperBound);
+        }
+
+        this.empty = empty || (lowerKey != null && upperKey != null && Arrays.compareUnsigned(lowerKey, upperKey) >= 0);
+    }
+
+    /**
+     * Returns the inclusive lower key, {@code null} if the range is not bounded from below.
+     */
+    public byte @Nullable [] lowerKey() {
+        return lowerKey;
+    }
+
+    /**
+     * Returns the exclusive upper key, {@code null} if the range is not bounded from above.
+     */
+    public byte @Nullable [] upperKey() {
+        return upperKey;
+    }
+
+    /**
+     * Returns {@code true} if there are no keys in the range.
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Checks if a key is in the range.
+     *
+     * @param key Key.
+     * @return {@code True} if the key is in the range.
+     */
+    public boolean contains(byte[] key) {
+        return !empty
+                && (lowerKey == null || Arrays.compareUnsigned(key, lowerKey) >= 0)
+                && (upperKey == null || Arrays.compareUnsigned(key, upperKey) < 0);
+    }
+
+    /**
+     * Returns the smallest key that is greater than all the keys starting with a prefix.
+     *
+     * @param prefix Prefix.
+     * @return The key, {@code null} if there is no such key, i.e. the prefix consists of {@code 0xFF} bytes only.
+     */
+    public static byte @Nullable [] nextPrefix(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] next = Arrays.copyOf(prefix, i + 1);
+
+                next[i]++;
+
+                return next;
+            }
+        }
+
+        return null;
+    }
+}
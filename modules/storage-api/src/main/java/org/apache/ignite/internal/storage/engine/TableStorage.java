@@ -20,6 +20,7 @@ package org.apache.ignite.internal.storage.engine;
 import org.apache.ignite.configuration.schemas.table.TableConfiguration;
 import org.apache.ignite.internal.storage.PartitionStorage;
 import org.apache.ignite.internal.storage.StorageException;
+import org.apache.ignite.internal.storage.index.HashIndexStorage;
 import org.apache.ignite.internal.storage.index.SortedIndexStorage;
 import org.jetbrains.annotations.Nullable;
 
@@ -70,7 +71,20 @@ public interface TableStorage {
     SortedIndexStorage getOrCreateSortedIndex(String indexName);
 
     /**
-     * Destroys the index under the given name and all data in it.
+     * Creates or returns an already created Hash Index with the given name.
+     *
+     * <p>A prerequisite for calling this method is to have the index already configured under the same name in the Table Configuration
+     * (see {@link #configuration()}).
+     *
+     * @param indexName Index name.
+     * @return Hash Index storage.
+     * @throws StorageException if no index has been configured under the given name or it has been configured incorrectly (e.g. it was
+     *                          configured as a Sorted Index).
+     */
+    HashIndexStorage getOrCreateHashIndex(String indexName);
+
+    /**
+     * Destroys the index (either sorted or hash) under the given name and all data in it.
      *
      * <p>This method is a no-op if the index under the given name does not exist.
      *
@@ -78,6 +92,16 @@ public interface TableStorage {
      */
     void dropIndex(String indexName);
 
+    /**
+     * Returns the compression ratio of the table data: the uncompressed size of the persisted data divided by its compressed size.
+     *
+     * @return Compression ratio, {@code 1} if the storage doesn't compress the data or there is no data yet.
+     * @throws StorageException If failed to compute the ratio.
+     */
+    default double compressionRatio() throws StorageException {
+        return 1.0;
+    }
+
     /**
      * Returns the table configuration.
      *
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.storage.index;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.ignite.configuration.schemas.table.ColumnView;
+import org.apache.ignite.configuration.schemas.table.HashIndexView;
+import org.apache.ignite.configuration.schemas.table.TableIndexView;
+import org.apache.ignite.configuration.schemas.table.TableView;
+import org.apache.ignite.internal.schema.BinaryRow;
+import org.apache.ignite.internal.schema.Column;
+import org.apache.ignite.internal.schema.SchemaDescriptor;
+import org.apache.ignite.internal.schema.configuration.SchemaConfigurationConverter;
+import org.apache.ignite.internal.schema.configuration.SchemaDescriptorConverter;
+import org.apache.ignite.internal.schema.row.RowAssembler;
+import org.apache.ignite.internal.storage.StorageException;
+import org.apache.ignite.schema.definition.ColumnDefinition;
+
+/**
+ * Descriptor for creating a Hash Index Storage.
+ *
+ * @see HashIndexStorage
+ */
+public class HashIndexDescriptor {
+    private final String name;
+
+    private final List<Column> columns;
+
+    private final SchemaDescriptor schemaDescriptor;
+
+    /**
+     * Creates an Index Descriptor from a given Table Configuration.
+     *
+     * @param name        index name.
+     * @param tableConfig table configuration.
+     */
+    public HashIndexDescriptor(String name, TableView tableConfig) {
+        this.name = name;
+
+        TableIndexView indexConfig = tableConfig.indices().get(name);
+
+        if (indexConfig == null) {
+            throw new StorageException(String.format("Index configuration for \"%s\" could not be found", name));
+        }
+
+        if (!(indexConfig instanceof HashIndexView)) {
+            throw new StorageException(String.format(
+                    "Index \"%s\" is not configured as a Hash Index. Actual type: %s",
+                    name, indexConfig.type()
+            ));
+        }
+
+        String[] columnNames = ((HashIndexView) indexConfig).colNames();
+
+        Column[] keyColumns = new Column[columnNames.length];
+
+        for (int i = 0; i < columnNames.length; ++i) {
+            ColumnView columnView = tableConfig.columns().get(columnNames[i]);
+
+            assert columnView != null : "Incorrect index column configuration. " + columnNames[i] + " column does not exist";
+
+            ColumnDefinition columnDefinition = SchemaConfigurationConverter.convert(columnView);
+
+            keyColumns[i] = SchemaDescriptorConverter.convert(i, columnDefinition);
+        }
+
+        schemaDescriptor = new SchemaDescriptor(0, keyColumns, new Column[0]);
+
+        columns = Arrays.stream(schemaDescriptor.keyColumns().columns())
+                .sorted(Comparator.comparingInt(Column::columnOrder))
+                .collect(toUnmodifiableList());
+    }
+
+    /**
+     * Returns this index' name.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the indexed columns in the order of the index definition. Unlike Sorted Indexes, the Primary Key columns are not a part of
+     * the index key, because the entries are never compared by anything but equality.
+     */
+    public List<Column> indexColumns() {
+        return columns;
+    }
+
+    /**
+     * Converts this Descriptor into an equivalent {@link SchemaDescriptor}.
+     *
+     * <p>The resulting {@code SchemaDescriptor} will have empty {@link SchemaDescriptor#valueColumns()} and its
+     * {@link SchemaDescriptor#keyColumns()} will be consistent with the columns returned by {@link #indexColumns()}.
+     */
+    public SchemaDescriptor asSchemaDescriptor() {
+        return schemaDescriptor;
+    }
+
+    /**
+     * Serializes the values of the indexed columns into a row of the {@link #asSchemaDescriptor() index schema}. Equal values produce
+     * equal rows, so the bytes and the {@link BinaryRow#hash() hash} of the row can be used as the index key.
+     *
+     * @param columnValues Values of the indexed columns in the order of {@link #indexColumns()}.
+     * @return Index key.
+     */
+    public BinaryRow indexKey(Object[] columnValues) {
+        if (columnValues.length != columns.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Incorrect number of column values passed. Expected %d, got %d",
+                    columns.size(),
+                    columnValues.length
+            ));
+        }
+
+        Column[] keyColumns = schemaDescriptor.keyColumns().columns();
+
+        int nonNullVarlenKeyCols = 0;
+
+        for (Column column : keyColumns) {
+            if (!column.type().spec().fixedLength() && columnValues[column.columnOrder()] != null) {
+                nonNullVarlenKeyCols += 1;
+            }
+        }
+
+        var rowAssembler = new RowAssembler(schemaDescriptor, nonNullVarlenKeyCols, 0);
+
+        for (Column column : keyColumns) {
+            RowAssembler.writeValue(rowAssembler, column, columnValues[column.columnOrder()]);
+        }
+
+        return rowAssembler.build();
+    }
+}
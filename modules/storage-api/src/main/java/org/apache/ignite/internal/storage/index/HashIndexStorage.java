@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.storage.index;
+
+import org.apache.ignite.internal.storage.SearchRow;
+import org.apache.ignite.internal.util.Cursor;
+
+/**
+ * Storage for a Hash Index.
+ *
+ * <p>This storage serves as an unordered mapping from the values of a subset of a table's columns (a.k.a. index columns) to the
+ * {@link SearchRow}s from the {@link org.apache.ignite.internal.storage.PartitionStorage}s of the same table. Unlike a
+ * {@link SortedIndexStorage}, it only supports point lookups by all the index columns.
+ *
+ * <p>The updates made from a {@link org.apache.ignite.internal.storage.PartitionStorage#runConsistently} closure of a partition of the
+ * same table are persisted atomically with the modifications of the partition.
+ *
+ * @see org.apache.ignite.schema.definition.index.HashIndexDefinition
+ */
+public interface HashIndexStorage extends AutoCloseable {
+    /**
+     * Returns the Index Descriptor of this storage.
+     */
+    HashIndexDescriptor indexDescriptor();
+
+    /**
+     * Adds the given primary key to the entries of the given index column values.
+     *
+     * <p>Putting an already present pair of values and primary key is a no-op.
+     *
+     * @param columnValues Values of the indexed columns in the order of {@link HashIndexDescriptor#indexColumns()}.
+     * @param primaryKey Primary key of the row, its bytes are opaque to the storage and are returned by {@link #get} as is.
+     */
+    void put(Object[] columnValues, SearchRow primaryKey);
+
+    /**
+     * Removes the given primary key from the entries of the given index column values.
+     *
+     * <p>Removing a non-existent entry is a no-op.
+     *
+     * @param columnValues Values of the indexed columns in the order of {@link HashIndexDescriptor#indexColumns()}.
+     * @param primaryKey Primary key of the row.
+     */
+    void remove(Object[] columnValues, SearchRow primaryKey);
+
+    /**
+     * Returns the primary keys of all the entries of the given index column values.
+     *
+     * @param columnValues Values of the indexed columns in the order of {@link HashIndexDescriptor#indexColumns()}.
+     * @return Cursor over the primary keys, in no particular order.
+     */
+    Cursor<SearchRow> get(Object[] columnValues);
+
+    /**
+     * Removes all data in this index and frees the associated resources.
+     */
+    void destroy();
+}
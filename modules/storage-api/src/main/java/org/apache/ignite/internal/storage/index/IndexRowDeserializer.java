@@ -28,4 +28,12 @@ public interface IndexRowDeserializer {
      * @return Values of the indexed columns.
      */
     Object[] indexedColumnValues(IndexRow indexRow);
+
+    /**
+     * De-serializes the values of all the columns of an index row: the indexed columns followed by the Primary Key columns.
+     *
+     * @param indexRow Index row.
+     * @return Column values in the order of {@link SortedIndexDescriptor#indexRowColumns()}.
+     */
+    Object[] indexRowColumnValues(IndexRow indexRow);
 }
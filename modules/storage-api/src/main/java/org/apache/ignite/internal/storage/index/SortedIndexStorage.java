@@ -26,6 +26,9 @@ import org.apache.ignite.internal.util.Cursor;
  * <p>This storage serves as a sorted mapping from a subset of a table's columns (a.k.a. index columns) to a {@link SearchRow}
  * from a {@link org.apache.ignite.internal.storage.PartitionStorage} from the same table.
  *
+ * <p>The updates made from a {@link org.apache.ignite.internal.storage.PartitionStorage#runConsistently} closure of a partition of the
+ * same table are persisted atomically with the modifications of the partition.
+ *
  * @see org.apache.ignite.schema.definition.index.SortedIndexDefinition
  */
 public interface SortedIndexStorage extends AutoCloseable {
@@ -18,6 +18,10 @@
 package org.apache.ignite.internal.storage;
 
 import static java.util.Collections.emptyList;
+import static org.apache.ignite.internal.storage.PartitionStorage.GREATER;
+import static org.apache.ignite.internal.storage.PartitionStorage.GREATER_OR_EQUAL;
+import static org.apache.ignite.internal.storage.PartitionStorage.LESS;
+import static org.apache.ignite.internal.storage.PartitionStorage.LESS_OR_EQUAL;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
@@ -54,6 +58,7 @@ import org.apache.ignite.internal.testframework.WorkDirectory;
 import org.apache.ignite.internal.testframework.WorkDirectoryExtension;
 import org.apache.ignite.internal.util.Cursor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
@@ -183,6 +188,58 @@ public abstract class AbstractPartitionStorageTest {
         assertTrue(list.isEmpty());
     }
 
+    /**
+     * Tests range and prefix scans.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void scanRange() throws Exception {
+        for (String key : List.of("a", "ab", "abc", "b", "c")) {
+            storage.write(dataRow(key, VALUE));
+        }
+
+        assertThat(scanKeys("ab", "ab", GREATER_OR_EQUAL | LESS_OR_EQUAL), containsInAnyOrder("ab", "abc"));
+        assertThat(scanKeys("a", null, GREATER), containsInAnyOrder("b", "c"));
+        assertThat(scanKeys(null, "b", LESS), containsInAnyOrder("a", "ab", "abc"));
+        assertThat(scanKeys(null, "b", LESS_OR_EQUAL), containsInAnyOrder("a", "ab", "abc", "b"));
+        assertThat(scanKeys("ab", "b", GREATER | LESS_OR_EQUAL), containsInAnyOrder("b"));
+        assertThat(scanKeys("abc", "c", GREATER_OR_EQUAL | LESS), containsInAnyOrder("abc", "b"));
+        assertThat(scanKeys("b", "ab", GREATER_OR_EQUAL | LESS_OR_EQUAL), hasSize(0));
+        assertThat(scanKeys("d", null, GREATER_OR_EQUAL), hasSize(0));
+
+        List<DataRow> list = toList(storage.scan(
+                "a".getBytes(StandardCharsets.UTF_8),
+                "a".getBytes(StandardCharsets.UTF_8),
+                GREATER_OR_EQUAL | LESS_OR_EQUAL,
+                key -> key.keyBytes().length == 2
+        ));
+
+        assertThat(list, hasSize(1));
+
+        checkRowsEqual(dataRow("ab", VALUE), list.get(0));
+    }
+
+    /**
+     * Scans a key range and returns the keys.
+     *
+     * @param lowerBound Lower bound.
+     * @param upperBound Upper bound.
+     * @param flags Bound flags.
+     * @return Keys.
+     * @throws Exception If failed.
+     */
+    private List<String> scanKeys(@Nullable String lowerBound, @Nullable String upperBound, int flags) throws Exception {
+        Cursor<DataRow> cursor = storage.scan(
+                lowerBound == null ? null : lowerBound.getBytes(StandardCharsets.UTF_8),
+                upperBound == null ? null : upperBound.getBytes(StandardCharsets.UTF_8),
+                flags,
+                key -> true
+        );
+
+        return toList(cursor).stream().map(row -> new String(row.keyBytes(), StandardCharsets.UTF_8)).collect(Collectors.toList());
+    }
+
     /**
      * Tests that {@link InsertInvokeClosure} inserts a data row if there is no existing data row with the same key.
      */
@@ -570,6 +627,31 @@ public abstract class AbstractPartitionStorageTest {
         rows.forEach(this::checkHasSameEntry);
     }
 
+    /**
+     * Tests that {@link PartitionStorage#runConsistently} makes the modifications visible to the closure and applies them along with the
+     * last applied index.
+     */
+    @Test
+    public void testRunConsistently() {
+        DataRow row = dataRow(KEY, VALUE);
+
+        assertEquals(0, storage.lastAppliedIndex());
+
+        storage.runConsistently(() -> {
+            storage.write(row);
+
+            checkHasSameEntry(row);
+
+            storage.lastAppliedIndex(10);
+
+            return null;
+        });
+
+        checkHasSameEntry(row);
+
+        assertEquals(10, storage.lastAppliedIndex());
+    }
+
     /**
      * Tests that {@link Storage#snapshot(Path)} and {@link Storage#restoreSnapshot(Path)} operations work properly in basic scenario of
      * creating snapshot and restoring it on the clear db.
@@ -58,12 +58,33 @@ public class ConcurrentHashMapPartitionStorage implements PartitionStorage {
     /** Storage content. */
     private final ConcurrentSkipListMap<ByteArray, byte[]> map = new ConcurrentSkipListMap<>();
 
+    /** Index of the last applied Raft command. */
+    private volatile long lastAppliedIndex;
+
     /** {@inheritDoc} */
     @Override
     public int partitionId() {
         return 0;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public <V> V runConsistently(WriteClosure<V> closure) throws StorageException {
+        return closure.execute();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long lastAppliedIndex() {
+        return lastAppliedIndex;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void lastAppliedIndex(long lastAppliedIndex) throws StorageException {
+        this.lastAppliedIndex = lastAppliedIndex;
+    }
+
     /** {@inheritDoc} */
     @Override
     @Nullable
@@ -188,8 +209,16 @@ public class ConcurrentHashMapPartitionStorage implements PartitionStorage {
 
     /** {@inheritDoc} */
     @Override
-    public Cursor<DataRow> scan(Predicate<SearchRow> filter) throws StorageException {
+    public Cursor<DataRow> scan(
+            byte @Nullable [] lowerBound,
+            byte @Nullable [] upperBound,
+            int flags,
+            Predicate<SearchRow> filter
+    ) throws StorageException {
+        var range = new KeyRange(lowerBound, upperBound, flags);
+
         Iterator<SimpleDataRow> iter = map.entrySet().stream()
+                .filter(e -> range.contains(e.getKey().bytes()))
                 .map(e -> new SimpleDataRow(e.getKey().bytes(), e.getValue()))
                 .filter(filter)
                 .iterator();
@@ -225,6 +254,8 @@ public class ConcurrentHashMapPartitionStorage implements PartitionStorage {
     /** {@inheritDoc} */
     @Override
     public @NotNull CompletableFuture<Void> snapshot(Path snapshotPath) {
+        long snapshotAppliedIndex = lastAppliedIndex;
+
         return CompletableFuture.runAsync(() -> {
             try (
                     OutputStream out = Files.newOutputStream(snapshotPath.resolve(SNAPSHOT_FILE));
@@ -232,6 +263,7 @@ public class ConcurrentHashMapPartitionStorage implements PartitionStorage {
             ) {
                 objOut.writeObject(map.keySet().stream().map(ByteArray::bytes).collect(toList()));
                 objOut.writeObject(new ArrayList<>(map.values()));
+                objOut.writeLong(snapshotAppliedIndex);
             } catch (Exception e) {
                 throw new IgniteInternalException(e);
             }
@@ -247,12 +279,15 @@ public class ConcurrentHashMapPartitionStorage implements PartitionStorage {
         ) {
             var keys = (List<byte[]>) objIn.readObject();
             var values = (List<byte[]>) objIn.readObject();
+            long snapshotAppliedIndex = objIn.readLong();
 
             map.clear();
 
             for (int i = 0; i < keys.size(); i++) {
                 map.put(new ByteArray(keys.get(i)), values.get(i));
             }
+
+            lastAppliedIndex = snapshotAppliedIndex;
         } catch (Exception e) {
             throw new IgniteInternalException(e);
         }
@@ -267,6 +302,8 @@ public class ConcurrentHashMapPartitionStorage implements PartitionStorage {
     @Override
     public void destroy() {
         map.clear();
+
+        lastAppliedIndex = 0;
     }
 
     /** {@inheritDoc} */
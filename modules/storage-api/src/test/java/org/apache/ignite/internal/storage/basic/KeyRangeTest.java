@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.basic;
+
+import static org.apache.ignite.internal.storage.PartitionStorage.GREATER;
+import static org.apache.ignite.internal.storage.PartitionStorage.GREATER_OR_EQUAL;
+import static org.apache.ignite.internal.storage.PartitionStorage.LESS;
+import static org.apache.ignite.internal.storage.PartitionStorage.LESS_OR_EQUAL;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link KeyRange}.
+ */
+public class KeyRangeTest {
+    /**
+     * Tests the smallest key following all the keys with a prefix.
+     */
+    @Test
+    public void testNextPrefix() {
+        assertArrayEquals(new byte[]{1, 3}, KeyRange.nextPrefix(new byte[]{1, 2}));
+        assertArrayEquals(new byte[]{2}, KeyRange.nextPrefix(new byte[]{1, (byte) 0xFF}));
+        assertArrayEquals(new byte[]{(byte) 0x80}, KeyRange.nextPrefix(new byte[]{0x7F}));
+        assertNull(KeyRange.nextPrefix(new byte[]{(byte) 0xFF, (byte) 0xFF}));
+        assertNull(KeyRange.nextPrefix(new byte[0]));
+    }
+
+    /**
+     * Tests the bounds of a range.
+     */
+    @Test
+    public void testContains() {
+        var range = new KeyRange(new byte[]{1}, new byte[]{3}, GREATER | LESS_OR_EQUAL);
+
+        assertFalse(range.contains(new byte[]{1}));
+        assertFalse(range.contains(new byte[]{1, 5}));
+        assertTrue(range.contains(new byte[]{2}));
+        assertTrue(range.contains(new byte[]{3, 5}));
+        assertFalse(range.contains(new byte[]{4}));
+
+        // Bytes are compared as unsigned.
+        range = new KeyRange(new byte[]{0x7F}, null, GREATER_OR_EQUAL);
+
+        assertTrue(range.contains(new byte[]{(byte) 0x80}));
+        assertFalse(range.contains(new byte[]{0x10}));
+
+        range = new KeyRange(new byte[]{(byte) 0xFF}, null, GREATER);
+
+        assertTrue(range.isEmpty());
+        assertFalse(range.contains(new byte[]{(byte) 0xFF, 1}));
+
+        range = new KeyRange(new byte[]{2}, new byte[]{2}, GREATER_OR_EQUAL | LESS);
+
+        assertTrue(range.isEmpty());
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.storage.benchmarks;
+
+import static org.apache.ignite.internal.storage.PartitionStorage.GREATER_OR_EQUAL;
+import static org.apache.ignite.internal.storage.PartitionStorage.LESS;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.ignite.internal.storage.DataRow;
+import org.apache.ignite.internal.storage.PartitionStorage;
+import org.apache.ignite.internal.storage.SearchRow;
+import org.apache.ignite.internal.storage.basic.GetAndReplaceInvokeClosure;
+import org.apache.ignite.internal.storage.basic.SimpleDataRow;
+import org.apache.ignite.internal.util.Cursor;
+import org.apache.ignite.schema.SchemaBuilders;
+import org.apache.ignite.schema.definition.ColumnType;
+import org.apache.ignite.schema.definition.TableDefinition;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of the {@link PartitionStorage} operations.
+ *
+ * <p>The partition is filled with {@link #KEYS_COUNT} rows, the keys start with the big-endian row number, so the rows are stored in
+ * the order of their numbers. Point reads look up a missing key with the probability of {@code 1 - hitRatio}, the writes only update
+ * the existing rows to keep the size of the partition constant.
+ */
+@SuppressWarnings("InstanceVariableMayNotBeInitialized")
+public abstract class AbstractPartitionStorageBenchmark extends AbstractStorageBenchmark {
+    /** Number of rows in the partition. */
+    protected static final int KEYS_COUNT = 100_000;
+
+    /** Number of rows read or written by the batch operations. */
+    private static final int BATCH_SIZE = 100;
+
+    /** Number of rows read by a scan. */
+    private static final int SCAN_SIZE = 100;
+
+    /** Key size in bytes, at least {@link Long#BYTES}. */
+    @Param({"8", "64"})
+    public int keySize;
+
+    /** Value size in bytes. */
+    @Param({"128", "1024"})
+    public int valueSize;
+
+    /** Share of the point reads that find a row. */
+    @Param({"1.0", "0.5"})
+    public double hitRatio;
+
+    /** Partition storage. */
+    private PartitionStorage storage;
+
+    /** Value of all the rows. */
+    private byte[] value;
+
+    /** {@inheritDoc} */
+    @Override
+    protected TableDefinition tableDefinition() {
+        return SchemaBuilders.tableBuilder("PUBLIC", "BENCHMARK")
+                .columns(
+                        SchemaBuilders.column("KEY", ColumnType.INT64).build(),
+                        SchemaBuilders.column("VAL", ColumnType.blobOf()).asNullable(true).build()
+                )
+                .withPrimaryKey("KEY")
+                .build();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void fill() {
+        storage = tableStorage.getOrCreatePartition(0);
+
+        value = new byte[valueSize];
+
+        ThreadLocalRandom.current().nextBytes(value);
+
+        List<DataRow> rows = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < KEYS_COUNT; i++) {
+            rows.add(new SimpleDataRow(key(i), value));
+
+            if (rows.size() == BATCH_SIZE) {
+                storage.writeAll(rows);
+
+                rows.clear();
+            }
+        }
+
+        storage.writeAll(rows);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void close() throws Exception {
+        if (storage != null) {
+            storage.close();
+        }
+    }
+
+    /**
+     * Reads a single row.
+     */
+    @Benchmark
+    public DataRow read() {
+        return storage.read(new KeyRow(key(randomKey())));
+    }
+
+    /**
+     * Reads a batch of rows.
+     */
+    @Benchmark
+    public Collection<DataRow> readAll() {
+        List<SearchRow> keys = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            keys.add(new KeyRow(key(randomKey())));
+        }
+
+        return storage.readAll(keys);
+    }
+
+    /**
+     * Replaces a row if it exists with an invoke closure.
+     */
+    @Benchmark
+    public Boolean invoke() {
+        byte[] key = key(randomKey());
+
+        return storage.invoke(new KeyRow(key), new GetAndReplaceInvokeClosure(new SimpleDataRow(key, value), true));
+    }
+
+    /**
+     * Overwrites a batch of the existing rows.
+     */
+    @Benchmark
+    public void writeAll() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        List<DataRow> rows = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            rows.add(new SimpleDataRow(key(rnd.nextInt(KEYS_COUNT)), value));
+        }
+
+        storage.writeAll(rows);
+    }
+
+    /**
+     * Scans {@link #SCAN_SIZE} consecutive rows.
+     *
+     * @param bh Black hole.
+     * @throws Exception If failed.
+     */
+    @Benchmark
+    public void scan(Blackhole bh) throws Exception {
+        int from = ThreadLocalRandom.current().nextInt(KEYS_COUNT - SCAN_SIZE);
+
+        try (Cursor<DataRow> cursor = storage.scan(key(from), key(from + SCAN_SIZE), GREATER_OR_EQUAL | LESS, row -> true)) {
+            cursor.forEachRemaining(bh::consume);
+        }
+    }
+
+    /**
+     * Returns the number of a random row, which is missing with the probability of {@code 1 - hitRatio}.
+     */
+    private int randomKey() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        return rnd.nextDouble() < hitRatio ? rnd.nextInt(KEYS_COUNT) : KEYS_COUNT + rnd.nextInt(KEYS_COUNT);
+    }
+
+    /**
+     * Creates the key of the given row number.
+     *
+     * @param num Row number.
+     * @return Key of {@link #keySize} bytes.
+     */
+    private byte[] key(int num) {
+        byte[] key = new byte[keySize];
+
+        ByteBuffer.wrap(key).putLong(num);
+
+        return key;
+    }
+
+    /**
+     * Search row over a key.
+     */
+    private static class KeyRow implements SearchRow {
+        /** Key. */
+        private final byte[] key;
+
+        /**
+         * Constructor.
+         *
+         * @param key Key.
+         */
+        KeyRow(byte[] key) {
+            this.key = key;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public byte @NotNull [] keyBytes() {
+            return key;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public @NotNull ByteBuffer key() {
+            return ByteBuffer.wrap(key);
+        }
+    }
+}
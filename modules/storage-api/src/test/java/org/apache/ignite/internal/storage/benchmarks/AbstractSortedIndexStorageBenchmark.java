@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.storage.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.ignite.internal.storage.SearchRow;
+import org.apache.ignite.internal.storage.basic.SimpleDataRow;
+import org.apache.ignite.internal.storage.index.IndexRow;
+import org.apache.ignite.internal.storage.index.IndexRowFactory;
+import org.apache.ignite.internal.storage.index.SortedIndexDescriptor.ColumnDescriptor;
+import org.apache.ignite.internal.storage.index.SortedIndexStorage;
+import org.apache.ignite.internal.util.Cursor;
+import org.apache.ignite.schema.SchemaBuilders;
+import org.apache.ignite.schema.definition.ColumnType;
+import org.apache.ignite.schema.definition.TableDefinition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of the {@link SortedIndexStorage} range scans.
+ *
+ * <p>The index is built over a {@code long} column and filled with {@link #KEYS_COUNT} rows with the values from {@code 0} to
+ * {@code KEYS_COUNT - 1}, so a range of {@link #rangeSize} values always contains the same number of rows.
+ */
+@SuppressWarnings("InstanceVariableMayNotBeInitialized")
+public abstract class AbstractSortedIndexStorageBenchmark extends AbstractStorageBenchmark {
+    /** Number of rows in the index. */
+    protected static final int KEYS_COUNT = 100_000;
+
+    /** Name of the index. */
+    private static final String INDEX_NAME = "BENCHMARK_IDX";
+
+    /** Number of rows in a scanned range. */
+    @Param({"10", "1000"})
+    public int rangeSize;
+
+    /** Sorted index storage. */
+    private SortedIndexStorage index;
+
+    /** {@inheritDoc} */
+    @Override
+    protected TableDefinition tableDefinition() {
+        return SchemaBuilders.tableBuilder("PUBLIC", "BENCHMARK")
+                .columns(
+                        SchemaBuilders.column("KEY", ColumnType.INT64).build(),
+                        SchemaBuilders.column("VAL", ColumnType.INT64).build()
+                )
+                .withPrimaryKey("KEY")
+                .withIndex(SchemaBuilders.sortedIndex(INDEX_NAME).addIndexColumn("VAL").asc().done().build())
+                .build();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void fill() {
+        index = tableStorage.getOrCreateSortedIndex(INDEX_NAME);
+
+        List<ColumnDescriptor> columns = index.indexDescriptor().indexRowColumns();
+
+        IndexRowFactory rowFactory = index.indexRowFactory();
+
+        for (long i = 0; i < KEYS_COUNT; i++) {
+            // Both the indexed and the primary key columns are set to the row number.
+            Object[] columnValues = new Object[columns.size()];
+
+            for (int j = 0; j < columnValues.length; j++) {
+                columnValues[j] = i;
+            }
+
+            index.put(rowFactory.createIndexRow(columnValues, primaryKey(i)));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void close() throws Exception {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    /**
+     * Scans a range of {@link #rangeSize} rows.
+     *
+     * @param bh Black hole.
+     * @throws Exception If failed.
+     */
+    @Benchmark
+    public void range(Blackhole bh) throws Exception {
+        long from = ThreadLocalRandom.current().nextInt(KEYS_COUNT - rangeSize);
+
+        IndexRowFactory rowFactory = index.indexRowFactory();
+
+        try (Cursor<IndexRow> cursor = index.range(
+                rowFactory.createIndexRowPrefix(new Object[]{from}),
+                rowFactory.createIndexRowPrefix(new Object[]{from + rangeSize - 1})
+        )) {
+            cursor.forEachRemaining(bh::consume);
+        }
+    }
+
+    /**
+     * Creates the primary key of the given row number.
+     *
+     * @param num Row number.
+     * @return Primary key.
+     */
+    private static SearchRow primaryKey(long num) {
+        byte[] key = new byte[Long.BYTES];
+
+        ByteBuffer.wrap(key).putLong(num);
+
+        return new SimpleDataRow(key, new byte[0]);
+    }
+}
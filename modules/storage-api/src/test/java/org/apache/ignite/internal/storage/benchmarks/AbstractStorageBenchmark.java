@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.storage.benchmarks;
+
+import static org.apache.ignite.configuration.annotation.ConfigurationType.DISTRIBUTED;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.configuration.schemas.store.DataRegionChange;
+import org.apache.ignite.configuration.schemas.store.DataRegionConfiguration;
+import org.apache.ignite.configuration.schemas.store.DataStorageConfiguration;
+import org.apache.ignite.configuration.schemas.table.HashIndexConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.SortedIndexConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.TableConfiguration;
+import org.apache.ignite.configuration.schemas.table.TablesConfiguration;
+import org.apache.ignite.internal.configuration.ConfigurationRegistry;
+import org.apache.ignite.internal.configuration.storage.TestConfigurationStorage;
+import org.apache.ignite.internal.schema.configuration.SchemaConfigurationConverter;
+import org.apache.ignite.internal.storage.engine.DataRegion;
+import org.apache.ignite.internal.storage.engine.StorageEngine;
+import org.apache.ignite.internal.storage.engine.TableStorage;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.apache.ignite.schema.definition.TableDefinition;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Base class for the storage benchmarks, starts a storage engine with a single data region and a table storage in a temporary directory.
+ *
+ * <p>The engine is plugged in by the subclasses, so the same benchmarks can be run against every {@link StorageEngine} implementation.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@SuppressWarnings("InstanceVariableMayNotBeInitialized")
+public abstract class AbstractStorageBenchmark {
+    /** Numbers of threads the benchmarks are run with by {@link #run}. */
+    private static final int[] THREADS = {1, 4, 16};
+
+    /** Name of the data region of the benchmark table. */
+    private static final String DATA_REGION_NAME = "benchmark";
+
+    /** Work directory. */
+    private Path workDir;
+
+    /** Configuration registry. */
+    private ConfigurationRegistry registry;
+
+    /** Storage engine. */
+    private StorageEngine engine;
+
+    /** Data region. */
+    private DataRegion dataRegion;
+
+    /** Table configuration. */
+    protected TableConfiguration tableCfg;
+
+    /** Table storage. */
+    protected TableStorage tableStorage;
+
+    /**
+     * Runs the given benchmark class with every number of threads from {@link #THREADS}.
+     *
+     * @param benchmarkCls Benchmark class.
+     * @throws RunnerException If failed.
+     */
+    protected static void run(Class<? extends AbstractStorageBenchmark> benchmarkCls) throws RunnerException {
+        for (int threads : THREADS) {
+            new Runner(
+                    new OptionsBuilder()
+                            .include(benchmarkCls.getName())
+                            .threads(threads)
+                            .build()
+            ).run();
+        }
+    }
+
+    /**
+     * Starts the engine and the table storage, and fills the storage.
+     *
+     * @throws Exception If failed.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory(getClass().getSimpleName());
+
+        List<Class<?>> polymorphicSchemaExtensions = new ArrayList<>(polymorphicSchemaExtensions());
+
+        polymorphicSchemaExtensions.add(HashIndexConfigurationSchema.class);
+        polymorphicSchemaExtensions.add(SortedIndexConfigurationSchema.class);
+
+        registry = new ConfigurationRegistry(
+                List.of(TablesConfiguration.KEY, DataStorageConfiguration.KEY),
+                Map.of(),
+                new TestConfigurationStorage(DISTRIBUTED),
+                List.of(),
+                polymorphicSchemaExtensions
+        );
+
+        registry.start();
+
+        DataStorageConfiguration dataStorageCfg = registry.getConfiguration(DataStorageConfiguration.KEY);
+
+        dataStorageCfg.regions().change(regions -> regions.create(DATA_REGION_NAME, this::changeDataRegion)).get();
+
+        DataRegionConfiguration dataRegionCfg = dataStorageCfg.regions().get(DATA_REGION_NAME);
+
+        TableDefinition tableDef = tableDefinition();
+
+        TablesConfiguration tablesCfg = registry.getConfiguration(TablesConfiguration.KEY);
+
+        tablesCfg.change(tables -> SchemaConfigurationConverter.createTable(tableDef, tables)).get();
+
+        tableCfg = tablesCfg.tables().get(tableDef.canonicalName());
+
+        engine = createEngine(workDir);
+
+        engine.start();
+
+        dataRegion = engine.createDataRegion(dataRegionCfg);
+
+        dataRegion.start();
+
+        tableStorage = engine.createTable(workDir, tableCfg, dataRegion);
+
+        tableStorage.start();
+
+        fill();
+    }
+
+    /**
+     * Stops the storage and removes its files.
+     *
+     * @throws Exception If failed.
+     */
+    @TearDown
+    public void tearDown() throws Exception {
+        IgniteUtils.closeAll(
+                this::close,
+                tableStorage == null ? null : tableStorage::stop,
+                dataRegion == null ? null : () -> {
+                    dataRegion.beforeNodeStop();
+                    dataRegion.stop();
+                },
+                engine == null ? null : engine::stop,
+                registry == null ? null : registry::stop,
+                workDir == null ? null : () -> IgniteUtils.deleteIfExists(workDir)
+        );
+    }
+
+    /**
+     * Creates the storage engine under test.
+     *
+     * @param workDir Work directory.
+     * @return Storage engine.
+     */
+    protected abstract StorageEngine createEngine(Path workDir);
+
+    /**
+     * Returns the polymorphic configuration schemas of the data region of the engine under test.
+     */
+    protected abstract Collection<Class<?>> polymorphicSchemaExtensions();
+
+    /**
+     * Configures the data region of the benchmark table, must set its type to the one of the engine under test.
+     *
+     * @param regionChange Data region change.
+     */
+    protected abstract void changeDataRegion(DataRegionChange regionChange);
+
+    /**
+     * Returns the definition of the benchmark table.
+     */
+    protected abstract TableDefinition tableDefinition();
+
+    /**
+     * Creates the storages under test and loads the benchmark data into them.
+     *
+     * @throws Exception If failed.
+     */
+    protected abstract void fill() throws Exception;
+
+    /**
+     * Closes the storages under test.
+     *
+     * @throws Exception If failed.
+     */
+    protected abstract void close() throws Exception;
+}
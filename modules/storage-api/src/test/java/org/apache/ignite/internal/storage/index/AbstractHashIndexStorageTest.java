@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.storage.index;
+
+import static java.util.stream.Collectors.toList;
+import static org.apache.ignite.internal.schema.configuration.SchemaConfigurationConverter.convert;
+import static org.apache.ignite.internal.testframework.matchers.CompletableFutureMatcher.willBe;
+import static org.apache.ignite.schema.SchemaBuilders.column;
+import static org.apache.ignite.schema.SchemaBuilders.tableBuilder;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.ignite.configuration.schemas.table.TableConfiguration;
+import org.apache.ignite.internal.storage.SearchRow;
+import org.apache.ignite.internal.storage.StorageException;
+import org.apache.ignite.internal.storage.basic.SimpleDataRow;
+import org.apache.ignite.internal.storage.engine.TableStorage;
+import org.apache.ignite.internal.util.Cursor;
+import org.apache.ignite.schema.SchemaBuilders;
+import org.apache.ignite.schema.definition.ColumnDefinition;
+import org.apache.ignite.schema.definition.ColumnType;
+import org.apache.ignite.schema.definition.TableDefinition;
+import org.apache.ignite.schema.definition.index.IndexDefinition;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Abstract test that covers basic scenarios of the {@link HashIndexStorage} API. Implementations must configure the table with
+ * {@link #configureTable} and assign {@link #tableCfg} and {@link #tableStorage} before each test.
+ */
+public abstract class AbstractHashIndexStorageTest {
+    private static final ColumnDefinition ID_COLUMN = column("ID", ColumnType.INT64).build();
+
+    private static final ColumnDefinition INT_COLUMN = column("INTVAL", ColumnType.INT32).asNullable(true).build();
+
+    private static final ColumnDefinition STR_COLUMN = column("STRVAL", ColumnType.string()).asNullable(true).build();
+
+    /** Table configuration, must support both the hash and sorted indexes. */
+    protected TableConfiguration tableCfg;
+
+    /** Started table storage of the {@link #tableCfg}. */
+    protected TableStorage tableStorage;
+
+    /**
+     * Configures a test table with a primary key and two nullable columns.
+     *
+     * @param tableCfg Table configuration.
+     */
+    protected static void configureTable(TableConfiguration tableCfg) {
+        TableDefinition tableDefinition = tableBuilder("test", "foo")
+                .columns(ID_COLUMN, INT_COLUMN, STR_COLUMN)
+                .withPrimaryKey(ID_COLUMN.name())
+                .build();
+
+        assertThat(tableCfg.change(cfg -> convert(tableDefinition, cfg)), willBe(nullValue(Void.class)));
+    }
+
+    /**
+     * Tests that the lookups return all the primary keys of the values and only them.
+     */
+    @Test
+    void testPutGetRemove() throws Exception {
+        HashIndexStorage index = createIndex("idx");
+
+        index.put(new Object[]{1, "a"}, key("pk1"));
+        index.put(new Object[]{1, "a"}, key("pk2"));
+        index.put(new Object[]{2, "a"}, key("pk3"));
+        index.put(new Object[]{1, "b"}, key("pk4"));
+
+        assertThat(get(index, 1, "a"), containsInAnyOrder("pk1", "pk2"));
+        assertThat(get(index, 2, "a"), containsInAnyOrder("pk3"));
+        assertThat(get(index, 1, "b"), containsInAnyOrder("pk4"));
+        assertThat(get(index, 2, "b"), is(empty()));
+
+        index.remove(new Object[]{1, "a"}, key("pk1"));
+
+        assertThat(get(index, 1, "a"), containsInAnyOrder("pk2"));
+
+        // Removing an absent entry is a no-op.
+        index.remove(new Object[]{2, "b"}, key("pk2"));
+
+        assertThat(get(index, 1, "a"), containsInAnyOrder("pk2"));
+    }
+
+    /**
+     * Tests that putting the same entry twice doesn't duplicate it.
+     */
+    @Test
+    void testPutTwice() throws Exception {
+        HashIndexStorage index = createIndex("idx");
+
+        index.put(new Object[]{1, "a"}, key("pk1"));
+        index.put(new Object[]{1, "a"}, key("pk1"));
+
+        assertThat(get(index, 1, "a"), containsInAnyOrder("pk1"));
+    }
+
+    /**
+     * Tests that {@code null} values are indexed and distinguished from each other.
+     */
+    @Test
+    void testNullValues() throws Exception {
+        HashIndexStorage index = createIndex("idx");
+
+        index.put(new Object[]{null, null}, key("pk1"));
+        index.put(new Object[]{1, null}, key("pk2"));
+
+        assertThat(get(index, null, null), containsInAnyOrder("pk1"));
+        assertThat(get(index, 1, null), containsInAnyOrder("pk2"));
+        assertThat(get(index, null, "a"), is(empty()));
+    }
+
+    /**
+     * Tests that a lookup with a wrong number of values is rejected.
+     */
+    @Test
+    void testWrongNumberOfValues() {
+        HashIndexStorage index = createIndex("idx");
+
+        assertThrows(IllegalArgumentException.class, () -> index.get(new Object[]{1}));
+    }
+
+    /**
+     * Tests creating a Hash Index that has been misconfigured as a Sorted Index.
+     */
+    @Test
+    void testCreateMisconfiguredIndex() {
+        IndexDefinition definition = SchemaBuilders.sortedIndex("wrong type")
+                .addIndexColumn(INT_COLUMN.name()).done()
+                .build();
+
+        addIndex(definition);
+
+        StorageException ex = assertThrows(StorageException.class, () -> tableStorage.getOrCreateHashIndex(definition.name()));
+
+        assertThat(ex.getMessage(), is(equalTo("Index \"WRONG TYPE\" is not configured as a Hash Index. Actual type: SORTED")));
+    }
+
+    /**
+     * Tests the {@link TableStorage#dropIndex} functionality.
+     */
+    @Test
+    void testDropIndex() throws Exception {
+        HashIndexStorage index = createIndex("idx");
+
+        String indexName = index.indexDescriptor().name();
+
+        assertThat(tableStorage.getOrCreateHashIndex(indexName), is(sameInstance(index)));
+
+        index.put(new Object[]{1, "a"}, key("pk1"));
+
+        tableStorage.dropIndex(indexName);
+
+        HashIndexStorage nextIndex = tableStorage.getOrCreateHashIndex(indexName);
+
+        assertThat(nextIndex, is(not(sameInstance(index))));
+        assertThat(get(nextIndex, 1, "a"), is(empty()));
+    }
+
+    /**
+     * Configures a Hash Index over both value columns and creates its storage.
+     *
+     * @param name Index name.
+     * @return Index storage.
+     */
+    protected HashIndexStorage createIndex(String name) {
+        IndexDefinition definition = SchemaBuilders.hashIndex(name)
+                .withColumns(INT_COLUMN.name(), STR_COLUMN.name())
+                .build();
+
+        addIndex(definition);
+
+        return tableStorage.getOrCreateHashIndex(definition.name());
+    }
+
+    private void addIndex(IndexDefinition definition) {
+        CompletableFuture<Void> createIndexFuture = tableCfg.change(cfg ->
+                cfg.changeIndices(idxList ->
+                        idxList.create(definition.name(), idx -> convert(definition, idx))));
+
+        assertThat(createIndexFuture, willBe(nullValue(Void.class)));
+    }
+
+    /**
+     * Looks up the primary keys of the given values and converts them to strings.
+     */
+    private static List<String> get(HashIndexStorage index, Object... values) throws Exception {
+        try (Cursor<SearchRow> cursor = index.get(values)) {
+            var list = new ArrayList<SearchRow>();
+
+            cursor.forEachRemaining(list::add);
+
+            return list.stream()
+                    .map(row -> new String(row.keyBytes(), StandardCharsets.UTF_8))
+                    .collect(toList());
+        }
+    }
+
+    private static SearchRow key(String key) {
+        return new SimpleDataRow(key.getBytes(StandardCharsets.UTF_8), new byte[0]);
+    }
+}
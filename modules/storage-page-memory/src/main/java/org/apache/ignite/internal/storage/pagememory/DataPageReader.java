@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory;
+
+import static org.apache.ignite.internal.pagememory.util.PageIdUtils.itemId;
+import static org.apache.ignite.internal.pagememory.util.PageIdUtils.pageId;
+
+import java.util.Arrays;
+import org.apache.ignite.internal.pagememory.PageMemory;
+import org.apache.ignite.internal.pagememory.io.DataPagePayload;
+import org.apache.ignite.internal.pagememory.metric.IoStatisticsHolderNoOp;
+import org.apache.ignite.internal.storage.pagememory.io.TableDataIo;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+
+/**
+ * Reads rows written by {@link TableFreeList} out of data pages, following the fragment links if a row spans several pages.
+ */
+class DataPageReader {
+    /** Page memory. */
+    private final PageMemory pageMem;
+
+    /** Group ID of the data pages. */
+    private final int grpId;
+
+    /**
+     * Constructor.
+     *
+     * @param pageMem Page memory.
+     * @param grpId Group ID of the data pages.
+     */
+    DataPageReader(PageMemory pageMem, int grpId) {
+        this.pageMem = pageMem;
+        this.grpId = grpId;
+    }
+
+    /**
+     * Reads the row bytes.
+     *
+     * @param link Row link.
+     * @return Row bytes.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    byte[] readRowBytes(long link) throws IgniteInternalCheckedException {
+        assert link != 0L;
+
+        byte[] res = null;
+
+        long nextLink = link;
+
+        do {
+            long pageId = pageId(nextLink);
+
+            long page = pageMem.acquirePage(grpId, pageId, IoStatisticsHolderNoOp.INSTANCE);
+
+            try {
+                long pageAddr = pageMem.readLock(grpId, pageId, page);
+
+                assert pageAddr != 0L : IgniteUtils.hexLong(nextLink);
+
+                try {
+                    TableDataIo io = TableDataIo.VERSIONS.forPage(pageAddr);
+
+                    DataPagePayload data = io.readPayload(pageAddr, itemId(nextLink), pageMem.realPageSize(grpId));
+
+                    byte[] fragment = data.getBytes(pageAddr);
+
+                    if (res == null) {
+                        res = fragment;
+                    } else {
+                        // Fragments follow the links from the head to the tail of the row.
+                        int off = res.length;
+
+                        res = Arrays.copyOf(res, off + fragment.length);
+
+                        System.arraycopy(fragment, 0, res, off, fragment.length);
+                    }
+
+                    nextLink = data.nextLink();
+                } finally {
+                    pageMem.readUnlock(grpId, pageId, page);
+                }
+            } finally {
+                pageMem.releasePage(grpId, pageId, page);
+            }
+        } while (nextLink != 0L);
+
+        return res;
+    }
+}
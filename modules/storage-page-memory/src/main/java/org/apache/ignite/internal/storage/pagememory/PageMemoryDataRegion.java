@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory;
+
+import static org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionConfigurationSchema.PAGE_MEMORY_DATA_REGION_TYPE;
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.FLAG_AUX;
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.INDEX_PARTITION;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionConfiguration;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionView;
+import org.apache.ignite.internal.pagememory.PageMemory;
+import org.apache.ignite.internal.pagememory.impl.PageMemoryNoStoreImpl;
+import org.apache.ignite.internal.pagememory.io.PageIoRegistry;
+import org.apache.ignite.internal.pagememory.mem.unsafe.UnsafeMemoryProvider;
+import org.apache.ignite.internal.pagememory.metric.IoStatisticsHolderNoOp;
+import org.apache.ignite.internal.pagememory.persistence.PageMemoryImpl;
+import org.apache.ignite.internal.pagememory.persistence.checkpoint.Checkpointer;
+import org.apache.ignite.internal.pagememory.persistence.store.FilePageStoreManager;
+import org.apache.ignite.internal.pagememory.util.PageIdUtils;
+import org.apache.ignite.internal.storage.StorageException;
+import org.apache.ignite.internal.storage.engine.DataRegion;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Data region implementation for {@link PageMemoryStorageEngine}. Based on an in-memory {@link PageMemoryNoStoreImpl}, or on a
+ * {@link PageMemoryImpl} with periodic checkpoints if the region is persistent.
+ *
+ * <p>All the pages of the region belong to a single page group: pages of the rows and of the partition trees are recycled among all the
+ * tables of the region. The meta pages of the partition trees are registered in a region meta tree, so they can be found after restart.
+ */
+public class PageMemoryDataRegion implements DataRegion {
+    /** Group ID of all the pages of the region. */
+    static final int GROUP_ID = 0;
+
+    /** Index of the free list meta page in the index partition. */
+    private static final int FREE_LIST_META_PAGE_IDX = 0;
+
+    /** Index of the region meta tree meta page in the index partition. */
+    private static final int META_TREE_META_PAGE_IDX = 1;
+
+    /** Region configuration. */
+    private final PageMemoryDataRegionConfiguration cfg;
+
+    /** Page IO registry. */
+    private final PageIoRegistry ioRegistry;
+
+    /** Directory of the persistent region files. */
+    private final Path storagePath;
+
+    /** Page memory instance. */
+    private volatile PageMemory pageMemory;
+
+    /** Free list for the rows of all the tables of the region. */
+    private volatile TableFreeList freeList;
+
+    /** Meta tree that maps the partitions of the tables to the meta pages of their trees. */
+    private volatile TableTree metaTree;
+
+    /** Page store manager, {@code null} if the region is not persistent. */
+    @Nullable
+    private volatile FilePageStoreManager storeMgr;
+
+    /** Checkpointer, {@code null} if the region is not persistent. */
+    @Nullable
+    private volatile Checkpointer checkpointer;
+
+    /**
+     * Constructor.
+     *
+     * @param cfg Data region configuration.
+     * @param ioRegistry Page IO registry.
+     * @param storagePath Directory of the persistent region files.
+     */
+    public PageMemoryDataRegion(PageMemoryDataRegionConfiguration cfg, PageIoRegistry ioRegistry, Path storagePath) {
+        this.cfg = cfg;
+        this.ioRegistry = ioRegistry;
+        this.storagePath = storagePath;
+
+        assert PAGE_MEMORY_DATA_REGION_TYPE.equalsIgnoreCase(cfg.type().value());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void start() {
+        PageMemoryDataRegionView dataRegionView = (PageMemoryDataRegionView) cfg.value();
+
+        boolean initNew;
+
+        try {
+            if (dataRegionView.persistent()) {
+                FilePageStoreManager storeMgr = new FilePageStoreManager(storagePath, dataRegionView.pageSize());
+
+                storeMgr.start();
+
+                this.storeMgr = storeMgr;
+
+                PageMemoryImpl pageMemory = new PageMemoryImpl(
+                        new UnsafeMemoryProvider(null),
+                        cfg,
+                        ioRegistry,
+                        storeMgr,
+                        () -> checkpointer.scheduleCheckpoint("too many dirty pages")
+                );
+
+                checkpointer = new Checkpointer(dataRegionView.name(), pageMemory, storeMgr, dataRegionView.checkpointFrequency());
+
+                pageMemory.start();
+
+                this.pageMemory = pageMemory;
+
+                initNew = storeMgr.pages(GROUP_ID, INDEX_PARTITION) == 0;
+            } else {
+                pageMemory = new PageMemoryNoStoreImpl(new UnsafeMemoryProvider(null), cfg, ioRegistry);
+
+                pageMemory.start();
+
+                initNew = true;
+            }
+
+            long freeListMetaPageId = metaPageId(FREE_LIST_META_PAGE_IDX, initNew);
+            long metaTreeMetaPageId = metaPageId(META_TREE_META_PAGE_IDX, initNew);
+
+            freeList = new TableFreeList(GROUP_ID, pageMemory, freeListMetaPageId, initNew);
+
+            metaTree = new TableTree(GROUP_ID, "meta", INDEX_PARTITION, pageMemory, metaTreeMetaPageId, freeList, initNew);
+        } catch (IgniteInternalCheckedException e) {
+            stop();
+
+            throw new StorageException("Failed to start the data region: " + dataRegionView.name(), e);
+        }
+
+        if (checkpointer != null) {
+            checkpointer.addCheckpointListener(() -> freeList.saveMetadata(IoStatisticsHolderNoOp.INSTANCE));
+
+            checkpointer.start();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void stop() {
+        if (checkpointer != null) {
+            checkpointer.stop(false);
+        }
+
+        if (freeList != null) {
+            freeList.close();
+        }
+
+        if (pageMemory != null) {
+            pageMemory.stop(true);
+        }
+
+        if (storeMgr != null) {
+            storeMgr.stop();
+        }
+    }
+
+    /**
+     * Returns page memory of the region.
+     */
+    public PageMemory pageMemory() {
+        return pageMemory;
+    }
+
+    /**
+     * Returns free list for the rows of all the tables of the region.
+     */
+    public TableFreeList freeList() {
+        return freeList;
+    }
+
+    /**
+     * Returns the checkpointer, {@code null} if the region is not persistent.
+     */
+    @Nullable
+    public Checkpointer checkpointer() {
+        return checkpointer;
+    }
+
+    /**
+     * Acquires the checkpoint read lock, must be held while the data structures of the region are modified. No-op for the in-memory
+     * regions.
+     */
+    public void checkpointReadLock() {
+        Checkpointer checkpointer = this.checkpointer;
+
+        if (checkpointer != null) {
+            checkpointer.checkpointReadLock();
+        }
+    }
+
+    /**
+     * Releases the checkpoint read lock.
+     */
+    public void checkpointReadUnlock() {
+        Checkpointer checkpointer = this.checkpointer;
+
+        if (checkpointer != null) {
+            checkpointer.checkpointReadUnlock();
+        }
+    }
+
+    /**
+     * Returns the meta page ID of the tree of a partition, must be called under the checkpoint read lock.
+     *
+     * @param tableName Table name.
+     * @param partId Partition ID.
+     * @return Meta page ID, {@code 0} if the partition has no tree.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    long partitionMetaPageId(String tableName, int partId) throws IgniteInternalCheckedException {
+        return registeredValue(partitionKey(tableName, partId));
+    }
+
+    /**
+     * Registers the meta page ID of the tree of a partition, must be called under the checkpoint read lock.
+     *
+     * @param tableName Table name.
+     * @param partId Partition ID.
+     * @param metaPageId Meta page ID, {@code 0} to remove the registration.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    void partitionMetaPageId(String tableName, int partId, long metaPageId) throws IgniteInternalCheckedException {
+        registerValue(partitionKey(tableName, partId), metaPageId);
+    }
+
+    /**
+     * Returns the index of the last Raft command applied to a partition, must be called under the checkpoint read lock.
+     *
+     * @param tableName Table name.
+     * @param partId Partition ID.
+     * @return Index of the last applied command, {@code 0} if unknown.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    long partitionAppliedIndex(String tableName, int partId) throws IgniteInternalCheckedException {
+        return registeredValue(appliedIndexKey(tableName, partId));
+    }
+
+    /**
+     * Stores the index of the last Raft command applied to a partition, must be called under the checkpoint read lock, so that the index
+     * gets into the same checkpoint as the data of the commands.
+     *
+     * @param tableName Table name.
+     * @param partId Partition ID.
+     * @param appliedIndex Index of the last applied command, {@code 0} to remove it.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    void partitionAppliedIndex(String tableName, int partId, long appliedIndex) throws IgniteInternalCheckedException {
+        registerValue(appliedIndexKey(tableName, partId), appliedIndex);
+    }
+
+    /**
+     * Returns the meta page ID of the tree of an index, must be called under the checkpoint read lock.
+     *
+     * @param tableName Table name.
+     * @param indexName Index name.
+     * @return Meta page ID, {@code 0} if the index has no tree.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    long indexMetaPageId(String tableName, String indexName) throws IgniteInternalCheckedException {
+        return registeredValue(indexKey(tableName, indexName));
+    }
+
+    /**
+     * Registers the meta page ID of the tree of an index, must be called under the checkpoint read lock.
+     *
+     * @param tableName Table name.
+     * @param indexName Index name.
+     * @param metaPageId Meta page ID, {@code 0} to remove the registration.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    void indexMetaPageId(String tableName, String indexName, long metaPageId) throws IgniteInternalCheckedException {
+        registerValue(indexKey(tableName, indexName), metaPageId);
+    }
+
+    /**
+     * Returns the value registered under the given key in the meta tree, {@code 0} if there is none.
+     */
+    private long registeredValue(byte[] key) throws IgniteInternalCheckedException {
+        TableDataRow row = metaTree.findOne(new TableSearchRow(key));
+
+        return row == null ? 0 : ByteBuffer.wrap(row.valueBytes()).getLong();
+    }
+
+    /**
+     * Registers the value under the given key in the meta tree, removes the registration if the value is {@code 0}.
+     */
+    private void registerValue(byte[] key, long val) throws IgniteInternalCheckedException {
+        TableDataRow oldRow;
+
+        if (val == 0) {
+            oldRow = metaTree.remove(new TableSearchRow(key));
+        } else {
+            TableDataRow row = new TableDataRow(INDEX_PARTITION, key, ByteBuffer.allocate(Long.BYTES).putLong(val).array());
+
+            freeList.insertDataRow(row, IoStatisticsHolderNoOp.INSTANCE);
+
+            oldRow = metaTree.put(row);
+        }
+
+        if (oldRow != null) {
+            freeList.removeDataRowByLink(oldRow.link(), IoStatisticsHolderNoOp.INSTANCE);
+        }
+    }
+
+    /**
+     * Returns the meta page ID of a region data structure, allocating it if the region is new. The pages are allocated in a fixed order,
+     * so they have the same IDs after restart.
+     */
+    private long metaPageId(int pageIdx, boolean initNew) throws IgniteInternalCheckedException {
+        long pageId = initNew
+                ? pageMemory.allocatePage(GROUP_ID, INDEX_PARTITION, FLAG_AUX)
+                : PageIdUtils.pageId(INDEX_PARTITION, FLAG_AUX, pageIdx);
+
+        assert PageIdUtils.pageIndex(pageId) == pageIdx : PageIdUtils.toDetailString(pageId);
+
+        return pageId;
+    }
+
+    private static byte[] partitionKey(String tableName, int partId) {
+        byte[] tableNameBytes = tableName.getBytes(StandardCharsets.UTF_8);
+
+        return ByteBuffer.allocate(Integer.BYTES + tableNameBytes.length).putInt(partId).put(tableNameBytes).array();
+    }
+
+    /**
+     * Creates the meta tree key of the applied index of a partition, it starts with a negative number distinct from the one of the index
+     * keys.
+     */
+    private static byte[] appliedIndexKey(String tableName, int partId) {
+        byte[] tableNameBytes = tableName.getBytes(StandardCharsets.UTF_8);
+
+        return ByteBuffer.allocate(2 * Integer.BYTES + tableNameBytes.length).putInt(-2).putInt(partId).put(tableNameBytes).array();
+    }
+
+    /**
+     * Creates the meta tree key of an index. The keys of the indexes start with a negative number, so they never clash with the keys of
+     * the partitions, and the table name length separates the table name from the index name.
+     */
+    private static byte[] indexKey(String tableName, String indexName) {
+        byte[] tableNameBytes = tableName.getBytes(StandardCharsets.UTF_8);
+        byte[] indexNameBytes = indexName.getBytes(StandardCharsets.UTF_8);
+
+        return ByteBuffer.allocate(2 * Integer.BYTES + tableNameBytes.length + indexNameBytes.length)
+                .putInt(-1)
+                .putInt(tableNameBytes.length)
+                .put(tableNameBytes)
+                .put(indexNameBytes)
+                .array();
+    }
+}
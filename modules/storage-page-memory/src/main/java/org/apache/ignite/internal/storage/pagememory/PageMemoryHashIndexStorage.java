@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.storage.pagememory;
+
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.FLAG_AUX;
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.INDEX_PARTITION;
+import static org.apache.ignite.internal.storage.pagememory.PageMemoryDataRegion.GROUP_ID;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.apache.ignite.internal.pagememory.PageMemory;
+import org.apache.ignite.internal.pagememory.metric.IoStatisticsHolderNoOp;
+import org.apache.ignite.internal.schema.BinaryRow;
+import org.apache.ignite.internal.storage.SearchRow;
+import org.apache.ignite.internal.storage.StorageException;
+import org.apache.ignite.internal.storage.index.HashIndexDescriptor;
+import org.apache.ignite.internal.storage.index.HashIndexStorage;
+import org.apache.ignite.internal.util.Cursor;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Hash index storage implementation based on the page memory. The entries are kept in a {@link TableTree} of the index partition with
+ * empty values and the keys of the following format:
+ * <pre>
+ * [length of the index key (4 bytes)][index key][primary key]
+ * </pre>
+ * The tree is ordered by the hash of the index key first, so all the entries of the same index key are stored next to each other and a
+ * lookup is a single descent of the tree.
+ */
+class PageMemoryHashIndexStorage implements HashIndexStorage {
+    /** Value of all the entries. */
+    private static final byte[] EMPTY_VALUE = new byte[0];
+
+    /** Index descriptor. */
+    private final HashIndexDescriptor descriptor;
+
+    /** Table name. */
+    private final String tableName;
+
+    /** Data region. */
+    private final PageMemoryDataRegion dataRegion;
+
+    /** Free list that stores the entries. */
+    private final TableFreeList freeList;
+
+    /** Index tree. */
+    private final TableTree tree;
+
+    /**
+     * Constructor.
+     *
+     * @param descriptor Index descriptor.
+     * @param tableName Table name.
+     * @param dataRegion Data region.
+     * @throws StorageException If failed to open or create the index tree.
+     */
+    PageMemoryHashIndexStorage(HashIndexDescriptor descriptor, String tableName, PageMemoryDataRegion dataRegion) throws StorageException {
+        this.descriptor = descriptor;
+        this.tableName = tableName;
+        this.dataRegion = dataRegion;
+
+        freeList = dataRegion.freeList();
+
+        PageMemory pageMem = dataRegion.pageMemory();
+
+        dataRegion.checkpointReadLock();
+
+        try {
+            long metaPageId = dataRegion.indexMetaPageId(tableName, descriptor.name());
+
+            boolean initNew = metaPageId == 0;
+
+            if (initNew) {
+                metaPageId = pageMem.allocatePage(GROUP_ID, INDEX_PARTITION, FLAG_AUX);
+            }
+
+            tree = new TableTree(GROUP_ID, tableName, INDEX_PARTITION, pageMem, metaPageId, freeList, initNew);
+
+            if (initNew) {
+                dataRegion.indexMetaPageId(tableName, descriptor.name(), metaPageId);
+            }
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to open hash index " + descriptor.name() + " of table " + tableName, e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public HashIndexDescriptor indexDescriptor() {
+        return descriptor;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void put(Object[] columnValues, SearchRow primaryKey) {
+        BinaryRow indexKey = descriptor.indexKey(columnValues);
+
+        TableDataRow row = new TableDataRow(INDEX_PARTITION, indexKey.hash(), entryKey(indexKey, primaryKey), EMPTY_VALUE);
+
+        dataRegion.checkpointReadLock();
+
+        try {
+            freeList.insertDataRow(row, IoStatisticsHolderNoOp.INSTANCE);
+
+            TableDataRow oldRow = tree.put(row);
+
+            if (oldRow != null) {
+                freeList.removeDataRowByLink(oldRow.link(), IoStatisticsHolderNoOp.INSTANCE);
+            }
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to write data to the index", e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void remove(Object[] columnValues, SearchRow primaryKey) {
+        BinaryRow indexKey = descriptor.indexKey(columnValues);
+
+        dataRegion.checkpointReadLock();
+
+        try {
+            TableDataRow oldRow = tree.remove(new TableSearchRow(indexKey.hash(), entryKey(indexKey, primaryKey)));
+
+            if (oldRow != null) {
+                freeList.removeDataRowByLink(oldRow.link(), IoStatisticsHolderNoOp.INSTANCE);
+            }
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to remove data from the index", e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Cursor<SearchRow> get(Object[] columnValues) {
+        BinaryRow indexKey = descriptor.indexKey(columnValues);
+
+        byte[] prefix = keyPrefix(indexKey);
+
+        // The prefix is less than any entry key that starts with it, so the lookup starts right at the first entry of the index key.
+        return new LookupCursor(tree.find(new TableSearchRow(indexKey.hash(), prefix), null), indexKey.hash(), prefix);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws Exception {
+        // nothing to do
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void destroy() {
+        dataRegion.checkpointReadLock();
+
+        try {
+            tree.destroy();
+
+            dataRegion.indexMetaPageId(tableName, descriptor.name(), 0);
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Unable to destroy hash index " + descriptor.name() + " of table " + tableName, e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+    }
+
+    /**
+     * Creates the key of an index entry.
+     */
+    private static byte[] entryKey(BinaryRow indexKey, SearchRow primaryKey) {
+        byte[] prefix = keyPrefix(indexKey);
+        byte[] primaryKeyBytes = primaryKey.keyBytes();
+
+        byte[] key = Arrays.copyOf(prefix, prefix.length + primaryKeyBytes.length);
+
+        System.arraycopy(primaryKeyBytes, 0, key, prefix.length, primaryKeyBytes.length);
+
+        return key;
+    }
+
+    /**
+     * Creates the common prefix of the keys of all the entries of the given index key.
+     */
+    private static byte[] keyPrefix(BinaryRow indexKey) {
+        byte[] keyBytes = indexKey.bytes();
+
+        return ByteBuffer.allocate(Integer.BYTES + keyBytes.length).putInt(keyBytes.length).put(keyBytes).array();
+    }
+
+    /**
+     * Cursor over the entries of a single index key, stops at the first entry of another key.
+     */
+    private static class LookupCursor implements Cursor<SearchRow> {
+        /** Index tree cursor. */
+        private final Cursor<TableDataRow> treeCursor;
+
+        /** Hash of the index key. */
+        private final int hash;
+
+        /** Common prefix of the entry keys. */
+        private final byte[] prefix;
+
+        /** Next primary key. */
+        @Nullable
+        private SearchRow next;
+
+        /** {@code True} if the entries of the index key are exhausted. */
+        private boolean finished;
+
+        /**
+         * Constructor.
+         *
+         * @param treeCursor Index tree cursor.
+         * @param hash Hash of the index key.
+         * @param prefix Common prefix of the entry keys.
+         */
+        private LookupCursor(Cursor<TableDataRow> treeCursor, int hash, byte[] prefix) {
+            this.treeCursor = treeCursor;
+            this.hash = hash;
+            this.prefix = prefix;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            if (next == null && !finished) {
+                if (treeCursor.hasNext()) {
+                    TableDataRow row = treeCursor.next();
+
+                    byte[] key = row.keyBytes();
+
+                    if (row.hash() == hash && key.length >= prefix.length
+                            && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length)) {
+                        next = new TableSearchRow(Arrays.copyOfRange(key, prefix.length, key.length));
+                    } else {
+                        finished = true;
+                    }
+                } else {
+                    finished = true;
+                }
+            }
+
+            return next != null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public SearchRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            SearchRow row = next;
+
+            next = null;
+
+            return row;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Iterator<SearchRow> iterator() {
+            return this;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() throws Exception {
+            treeCursor.close();
+        }
+    }
+}
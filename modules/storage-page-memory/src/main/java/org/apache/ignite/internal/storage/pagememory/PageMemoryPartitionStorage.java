@@ -0,0 +1,727 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.FLAG_AUX;
+import static org.apache.ignite.internal.storage.pagememory.PageMemoryDataRegion.GROUP_ID;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.apache.ignite.internal.pagememory.PageMemory;
+import org.apache.ignite.internal.pagememory.metric.IoStatisticsHolderNoOp;
+import org.apache.ignite.internal.storage.DataRow;
+import org.apache.ignite.internal.storage.InvokeClosure;
+import org.apache.ignite.internal.storage.PartitionStorage;
+import org.apache.ignite.internal.storage.SearchRow;
+import org.apache.ignite.internal.storage.StorageException;
+import org.apache.ignite.internal.storage.basic.KeyRange;
+import org.apache.ignite.internal.util.Cursor;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+import org.apache.ignite.lang.IgniteInternalException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Partition storage implementation based on the page memory: rows are stored in the free list of the data region, and the partition owns
+ * a {@link TableTree} that maps the keys to the rows.
+ *
+ * <p>The modifications, snapshots and their restoration are executed by the thread that applies the commands of the partition, while the
+ * reads and the scans may run concurrently. A restored snapshot replaces the primary index, the replaced one is destroyed once the reads
+ * and the scans that have started on it are done.
+ */
+class PageMemoryPartitionStorage implements PartitionStorage {
+    /** Name of the snapshot file. */
+    static final String SNAPSHOT_FILE_NAME = "partition.bin";
+
+    /** Suffix for the temporary snapshot file. */
+    private static final String TMP_SUFFIX = ".tmp";
+
+    /** Partition ID. */
+    private final int partId;
+
+    /** Table name. */
+    private final String tableName;
+
+    /** Data region. */
+    private final PageMemoryDataRegion dataRegion;
+
+    /** Page memory. */
+    private final PageMemory pageMem;
+
+    /** Free list that stores the rows. */
+    private final TableFreeList freeList;
+
+    /** Primary index, replaced when a snapshot is restored. */
+    private volatile TreeHolder treeHolder;
+
+    /**
+     * Index of the last applied Raft command. Stored in the meta tree of the data region, in the same checkpoint as the data of the
+     * commands, so the commands up to it are skipped when the Raft log is replayed after a restart.
+     */
+    private volatile long lastAppliedIndex;
+
+    /**
+     * Constructor.
+     *
+     * @param partId Partition ID.
+     * @param tableName Table name.
+     * @param dataRegion Data region.
+     * @throws StorageException If failed to open or create the primary index.
+     */
+    PageMemoryPartitionStorage(int partId, String tableName, PageMemoryDataRegion dataRegion) throws StorageException {
+        assert partId >= 0 && partId < 0xFFFF : partId;
+
+        this.partId = partId;
+        this.tableName = tableName;
+
+        this.dataRegion = dataRegion;
+
+        pageMem = dataRegion.pageMemory();
+        freeList = dataRegion.freeList();
+
+        dataRegion.checkpointReadLock();
+
+        try {
+            long metaPageId = dataRegion.partitionMetaPageId(tableName, partId);
+
+            treeHolder = new TreeHolder(
+                    metaPageId == 0 ? createTree() : new TableTree(GROUP_ID, tableName, partId, pageMem, metaPageId, freeList, false)
+            );
+
+            lastAppliedIndex = dataRegion.partitionAppliedIndex(tableName, partId);
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to open a primary index for partition " + partId + " of table " + tableName, e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int partitionId() {
+        return partId;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <V> V runConsistently(WriteClosure<V> closure) throws StorageException {
+        // Keeps all the modifications of the closure within the same checkpoint.
+        dataRegion.checkpointReadLock();
+
+        try {
+            return closure.execute();
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long lastAppliedIndex() {
+        return lastAppliedIndex;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void lastAppliedIndex(long lastAppliedIndex) throws StorageException {
+        dataRegion.checkpointReadLock();
+
+        try {
+            dataRegion.partitionAppliedIndex(tableName, partId, lastAppliedIndex);
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to write the applied index of partition " + partId + " of table " + tableName, e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+
+        this.lastAppliedIndex = lastAppliedIndex;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Nullable
+    public DataRow read(SearchRow key) throws StorageException {
+        TreeHolder holder = acquireTree();
+
+        try {
+            return holder.tree.findOne(new TableSearchRow(key.keyBytes()));
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to read data from the storage", e);
+        } finally {
+            holder.release();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Collection<DataRow> readAll(List<? extends SearchRow> keys) throws StorageException {
+        List<DataRow> res = new ArrayList<>(keys.size());
+
+        TreeHolder holder = acquireTree();
+
+        try {
+            for (SearchRow key : keys) {
+                DataRow row = holder.tree.findOne(new TableSearchRow(key.keyBytes()));
+
+                if (row != null) {
+                    res.add(row);
+                }
+            }
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to read data from the storage", e);
+        } finally {
+            holder.release();
+        }
+
+        return res;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(DataRow row) throws StorageException {
+        dataRegion.checkpointReadLock();
+
+        try {
+            put(row);
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to write data to the storage", e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void writeAll(List<? extends DataRow> rows) throws StorageException {
+        dataRegion.checkpointReadLock();
+
+        try {
+            for (DataRow row : rows) {
+                put(row);
+            }
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to write data to the storage", e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Collection<DataRow> insertAll(List<? extends DataRow> rows) throws StorageException {
+        List<DataRow> cantInsert = new ArrayList<>();
+
+        dataRegion.checkpointReadLock();
+
+        try {
+            for (DataRow row : rows) {
+                if (tree().findOne(new TableSearchRow(row.keyBytes())) == null) {
+                    put(row);
+                } else {
+                    cantInsert.add(row);
+                }
+            }
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to write data to the storage", e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+
+        return cantInsert;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void remove(SearchRow key) throws StorageException {
+        dataRegion.checkpointReadLock();
+
+        try {
+            remove(new TableSearchRow(key.keyBytes()));
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to remove data from the storage", e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Collection<SearchRow> removeAll(List<? extends SearchRow> keys) {
+        List<SearchRow> skippedRows = new ArrayList<>();
+
+        dataRegion.checkpointReadLock();
+
+        try {
+            for (SearchRow key : keys) {
+                if (remove(new TableSearchRow(key.keyBytes())) == null) {
+                    skippedRows.add(key);
+                }
+            }
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to remove data from the storage", e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+
+        return skippedRows;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Collection<DataRow> removeAllExact(List<? extends DataRow> keyValues) {
+        List<DataRow> skippedRows = new ArrayList<>();
+
+        dataRegion.checkpointReadLock();
+
+        try {
+            for (DataRow keyValue : keyValues) {
+                TableSearchRow searchRow = new TableSearchRow(keyValue.keyBytes());
+
+                TableDataRow row = tree().findOne(searchRow);
+
+                if (row != null && Arrays.equals(row.valueBytes(), keyValue.valueBytes())) {
+                    remove(searchRow);
+                } else {
+                    skippedRows.add(keyValue);
+                }
+            }
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to remove data from the storage", e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+
+        return skippedRows;
+    }
+
+    /** {@inheritDoc} */
+    @Nullable
+    @Override
+    public <T> T invoke(SearchRow key, InvokeClosure<T> clo) throws StorageException {
+        dataRegion.checkpointReadLock();
+
+        try {
+            TableSearchRow searchRow = new TableSearchRow(key.keyBytes());
+
+            clo.call(tree().findOne(searchRow));
+
+            switch (clo.operationType()) {
+                case WRITE:
+                    DataRow newRow = clo.newRow();
+
+                    assert newRow != null;
+
+                    put(newRow);
+
+                    break;
+
+                case REMOVE:
+                    remove(searchRow);
+
+                    break;
+
+                case NOOP:
+                    break;
+
+                default:
+                    throw new UnsupportedOperationException(String.valueOf(clo.operationType()));
+            }
+
+            return clo.result();
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to access data in the storage", e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Cursor<DataRow> scan(
+            byte @Nullable [] lowerBound,
+            byte @Nullable [] upperBound,
+            int flags,
+            Predicate<SearchRow> filter
+    ) throws StorageException {
+        var range = new KeyRange(lowerBound, upperBound, flags);
+
+        TreeHolder holder = acquireTree();
+
+        // The primary index is ordered by the key hashes, so the key range can't limit the traversal.
+        return new ScanCursor(holder, row -> range.contains(row.keyBytes()) && filter.test(row));
+    }
+
+    /**
+     * Writes the last applied index and all the rows into a file synchronously. Partition modifications are applied by the same thread
+     * that takes snapshots, so the snapshot is consistent without any copy-on-write machinery.
+     */
+    @Override
+    public @NotNull CompletableFuture<Void> snapshot(Path snapshotPath) {
+        Path snapshotFile = snapshotPath.resolve(SNAPSHOT_FILE_NAME);
+        Path tmpFile = snapshotPath.resolve(SNAPSHOT_FILE_NAME + TMP_SUFFIX);
+
+        try {
+            Files.createDirectories(snapshotPath);
+
+            try (
+                    Cursor<TableDataRow> cursor = tree().find(null, null);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))
+            ) {
+                out.writeLong(lastAppliedIndex);
+
+                for (TableDataRow row : cursor) {
+                    writeBytes(out, row.keyBytes());
+                    writeBytes(out, row.valueBytes());
+                }
+
+                // End of data marker.
+                out.writeInt(-1);
+            }
+
+            Files.move(tmpFile, snapshotFile, REPLACE_EXISTING, ATOMIC_MOVE);
+
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new IgniteInternalException("Failed to create a snapshot: " + snapshotPath, e));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void restoreSnapshot(Path snapshotPath) {
+        Path snapshotFile = snapshotPath.resolve(SNAPSHOT_FILE_NAME);
+
+        if (!Files.exists(snapshotFile)) {
+            throw new IgniteInternalException("Snapshot not found: " + snapshotFile);
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            long snapshotAppliedIndex = in.readLong();
+
+            dataRegion.checkpointReadLock();
+
+            try {
+                TreeHolder oldHolder = treeHolder;
+
+                treeHolder = new TreeHolder(createTree());
+
+                // The reads that have acquired the replaced index are done with it before it's destroyed.
+                oldHolder.release();
+
+                // The index is reset until all the rows are restored, so that an interrupted restore is not taken for a complete one.
+                lastAppliedIndex(0);
+            } finally {
+                dataRegion.checkpointReadUnlock();
+            }
+
+            // Checkpoint lock is taken per row, so that a large snapshot doesn't block the checkpoints.
+            for (byte[] keyBytes; (keyBytes = readBytes(in)) != null; ) {
+                TableDataRow row = new TableDataRow(partId, keyBytes, readBytes(in));
+
+                dataRegion.checkpointReadLock();
+
+                try {
+                    put(row);
+                } finally {
+                    dataRegion.checkpointReadUnlock();
+                }
+            }
+
+            lastAppliedIndex(snapshotAppliedIndex);
+        } catch (IOException | IgniteInternalCheckedException e) {
+            throw new IgniteInternalException("Failed to restore a snapshot: " + snapshotPath, e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws Exception {
+        // nothing to do
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void destroy() {
+        dataRegion.checkpointReadLock();
+
+        try {
+            treeHolder.release();
+
+            dataRegion.partitionMetaPageId(tableName, partId, 0);
+            dataRegion.partitionAppliedIndex(tableName, partId, 0);
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Unable to destroy partition " + partId + " of table " + tableName, e);
+        } finally {
+            dataRegion.checkpointReadUnlock();
+        }
+    }
+
+    /**
+     * Returns the current primary index. Must be called by the thread that restores the snapshots, the index is not replaced concurrently
+     * then.
+     */
+    private TableTree tree() {
+        return treeHolder.tree;
+    }
+
+    /**
+     * Acquires the current primary index for a read that may run concurrently with a restoration of a snapshot.
+     *
+     * @return Holder of the index, to be released once the read is done.
+     */
+    private TreeHolder acquireTree() {
+        while (true) {
+            TreeHolder holder = treeHolder;
+
+            // The holder fails to be acquired only if it has already been replaced.
+            if (holder.acquire()) {
+                return holder;
+            }
+        }
+    }
+
+    /**
+     * Creates a new empty primary index and registers it in the data region. Must be called under the checkpoint read lock.
+     */
+    private TableTree createTree() throws StorageException {
+        try {
+            long metaPageId = pageMem.allocatePage(GROUP_ID, partId, FLAG_AUX);
+
+            TableTree tree = new TableTree(GROUP_ID, tableName, partId, pageMem, metaPageId, freeList, true);
+
+            dataRegion.partitionMetaPageId(tableName, partId, metaPageId);
+
+            return tree;
+        } catch (IgniteInternalCheckedException e) {
+            throw new StorageException("Failed to create a primary index for partition " + partId + " of table " + tableName, e);
+        }
+    }
+
+    /**
+     * Stores the row and puts it into the primary index, releasing the replaced row.
+     *
+     * @param row Row.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private void put(DataRow row) throws IgniteInternalCheckedException {
+        byte[] valueBytes = row.valueBytes();
+
+        assert valueBytes != null;
+
+        TableDataRow dataRow = new TableDataRow(partId, row.keyBytes(), valueBytes);
+
+        freeList.insertDataRow(dataRow, IoStatisticsHolderNoOp.INSTANCE);
+
+        TableDataRow oldRow = tree().put(dataRow);
+
+        if (oldRow != null) {
+            freeList.removeDataRowByLink(oldRow.link(), IoStatisticsHolderNoOp.INSTANCE);
+        }
+    }
+
+    /**
+     * Removes the row from the primary index and releases it.
+     *
+     * @param searchRow Search row.
+     * @return Removed row or {@code null} if there was none.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    private @Nullable TableDataRow remove(TableSearchRow searchRow) throws IgniteInternalCheckedException {
+        TableDataRow oldRow = tree().remove(searchRow);
+
+        if (oldRow != null) {
+            freeList.removeDataRowByLink(oldRow.link(), IoStatisticsHolderNoOp.INSTANCE);
+        }
+
+        return oldRow;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte @Nullable [] readBytes(DataInputStream in) throws IOException {
+        int len = in.readInt();
+
+        if (len < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[len];
+
+        in.readFully(bytes);
+
+        return bytes;
+    }
+
+    /**
+     * Primary index along with the number of its users. The index is destroyed when it has been replaced and the last read that has
+     * acquired it is done.
+     */
+    private class TreeHolder {
+        /** Primary index. */
+        final TableTree tree;
+
+        /** Number of the reads that have acquired the index, plus one while the index is not replaced. */
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        /**
+         * Constructor.
+         *
+         * @param tree Primary index.
+         */
+        TreeHolder(TableTree tree) {
+            this.tree = tree;
+        }
+
+        /**
+         * Acquires the index for a read.
+         *
+         * @return {@code False} if the index has already been destroyed.
+         */
+        boolean acquire() {
+            while (true) {
+                int cnt = refs.get();
+
+                if (cnt == 0) {
+                    return false;
+                }
+
+                if (refs.compareAndSet(cnt, cnt + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Releases the index, destroys it if it's the last release.
+         *
+         * @throws StorageException If failed to destroy the index.
+         */
+        void release() throws StorageException {
+            if (refs.decrementAndGet() != 0) {
+                return;
+            }
+
+            dataRegion.checkpointReadLock();
+
+            try {
+                tree.destroy();
+            } catch (IgniteInternalCheckedException e) {
+                throw new StorageException("Failed to destroy a primary index of partition " + partId + " of table " + tableName, e);
+            } finally {
+                dataRegion.checkpointReadUnlock();
+            }
+        }
+    }
+
+    /**
+     * Cursor over the primary index with a custom filter.
+     */
+    private static class ScanCursor implements Cursor<DataRow> {
+        /** Holder of the primary index, released when the cursor is closed. */
+        private final TreeHolder holder;
+
+        /** Primary index cursor. */
+        private final Cursor<TableDataRow> treeCursor;
+
+        /** Custom filter predicate. */
+        private final Predicate<SearchRow> filter;
+
+        /** Next row that matches the filter. */
+        @Nullable
+        private DataRow next;
+
+        /** {@code True} if the cursor is closed. */
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        /**
+         * Constructor.
+         *
+         * @param holder Holder of the primary index, acquired for the cursor.
+         * @param filter Filter.
+         */
+        private ScanCursor(TreeHolder holder, Predicate<SearchRow> filter) {
+            this.holder = holder;
+            this.treeCursor = holder.tree.find(null, null);
+            this.filter = filter;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            while (next == null && treeCursor.hasNext()) {
+                TableDataRow row = treeCursor.next();
+
+                if (filter.test(row)) {
+                    next = row;
+                }
+            }
+
+            return next != null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public DataRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            DataRow row = next;
+
+            next = null;
+
+            return row;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Iterator<DataRow> iterator() {
+            return this;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() throws Exception {
+            if (closed.compareAndSet(false, true)) {
+                treeCursor.close();
+
+                holder.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory;
+
+import java.nio.file.Path;
+import org.apache.ignite.configuration.schemas.store.DataRegionConfiguration;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionConfiguration;
+import org.apache.ignite.configuration.schemas.table.TableConfiguration;
+import org.apache.ignite.internal.pagememory.io.PageIoRegistry;
+import org.apache.ignite.internal.storage.StorageException;
+import org.apache.ignite.internal.storage.engine.DataRegion;
+import org.apache.ignite.internal.storage.engine.StorageEngine;
+import org.apache.ignite.internal.storage.engine.TableStorage;
+
+/**
+ * Storage engine implementation based on the page memory. Table data of the in-memory data regions is not persisted, the durability is
+ * provided by the replication protocol. Persistent data regions write their pages to the partition files with periodic checkpoints.
+ */
+public class PageMemoryStorageEngine implements StorageEngine {
+    /** Prefix of the directories of the persistent data regions. */
+    private static final String REGION_DIR_PREFIX = "region-";
+
+    /** Page IO registry shared by all the data regions. */
+    private final PageIoRegistry ioRegistry = new PageIoRegistry();
+
+    /** Directory of the persistent data regions. */
+    private final Path storagePath;
+
+    /**
+     * Constructor.
+     *
+     * @param storagePath Directory of the persistent data regions.
+     */
+    public PageMemoryStorageEngine(Path storagePath) {
+        this.storagePath = storagePath;
+
+        ioRegistry.loadFromServiceLoader();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void start() {
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void stop() throws StorageException {
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DataRegion createDataRegion(DataRegionConfiguration regionCfg) {
+        assert regionCfg instanceof PageMemoryDataRegionConfiguration : regionCfg;
+
+        return new PageMemoryDataRegion(
+                (PageMemoryDataRegionConfiguration) regionCfg,
+                ioRegistry,
+                storagePath.resolve(REGION_DIR_PREFIX + regionCfg.name().value())
+        );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TableStorage createTable(Path tablePath, TableConfiguration tableCfg, DataRegion dataRegion) {
+        assert dataRegion instanceof PageMemoryDataRegion : dataRegion;
+
+        return new PageMemoryTableStorage(tableCfg, (PageMemoryDataRegion) dataRegion);
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.apache.ignite.configuration.schemas.table.TableConfiguration;
+import org.apache.ignite.configuration.schemas.table.TableView;
+import org.apache.ignite.internal.storage.PartitionStorage;
+import org.apache.ignite.internal.storage.StorageException;
+import org.apache.ignite.internal.storage.engine.DataRegion;
+import org.apache.ignite.internal.storage.engine.TableStorage;
+import org.apache.ignite.internal.storage.index.HashIndexDescriptor;
+import org.apache.ignite.internal.storage.index.HashIndexStorage;
+import org.apache.ignite.internal.storage.index.SortedIndexStorage;
+import org.apache.ignite.internal.tostring.S;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Table storage implementation based on the page memory of a {@link PageMemoryDataRegion}.
+ */
+class PageMemoryTableStorage implements TableStorage {
+    /** Table configuration. */
+    private final TableConfiguration tableCfg;
+
+    /** Data region for the table. */
+    private final PageMemoryDataRegion dataRegion;
+
+    /** Partition storages. */
+    private volatile AtomicReferenceArray<PageMemoryPartitionStorage> partitions;
+
+    /** Hash index storages by their names. */
+    private final Map<String, PageMemoryHashIndexStorage> hashIndices = new ConcurrentHashMap<>();
+
+    /** Flag indicating if the storage has been stopped. */
+    private volatile boolean stopped = false;
+
+    /**
+     * Constructor.
+     *
+     * @param tableCfg Table configuration.
+     * @param dataRegion Data region for the table.
+     */
+    PageMemoryTableStorage(TableConfiguration tableCfg, PageMemoryDataRegion dataRegion) {
+        this.tableCfg = tableCfg;
+        this.dataRegion = dataRegion;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public TableConfiguration configuration() {
+        return tableCfg;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DataRegion dataRegion() {
+        return dataRegion;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void start() throws StorageException {
+        TableView tableView = tableCfg.value();
+
+        partitions = new AtomicReferenceArray<>(tableView.partitions());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void stop() throws StorageException {
+        stopped = true;
+
+        List<AutoCloseable> resources = new ArrayList<>(hashIndices.values());
+
+        for (int i = 0; i < partitions.length(); i++) {
+            PartitionStorage partition = partitions.get(i);
+
+            if (partition != null) {
+                resources.add(partition);
+            }
+        }
+
+        try {
+            IgniteUtils.closeAll(resources);
+        } catch (Exception e) {
+            throw new StorageException("Failed to stop page memory table storage.", e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void destroy() throws StorageException {
+        stop();
+
+        // Unlike the rest of the data region, the pages of the table are released right away and reused by other tables.
+        for (int i = 0; i < partitions.length(); i++) {
+            PartitionStorage partition = partitions.getAndSet(i, null);
+
+            if (partition != null) {
+                partition.destroy();
+            }
+        }
+
+        hashIndices.values().forEach(PageMemoryHashIndexStorage::destroy);
+
+        hashIndices.clear();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartitionStorage getOrCreatePartition(int partId) throws StorageException {
+        PageMemoryPartitionStorage storage = (PageMemoryPartitionStorage) getPartition(partId);
+
+        if (storage != null) {
+            return storage;
+        }
+
+        // Not expected to be called concurrently with the same partition ID, see the interface.
+        storage = new PageMemoryPartitionStorage(partId, tableCfg.name().value(), dataRegion);
+
+        partitions.set(partId, storage);
+
+        return storage;
+    }
+
+    /** {@inheritDoc} */
+    @Nullable
+    @Override
+    public PartitionStorage getPartition(int partId) {
+        assert !stopped : "Storage has been stopped";
+
+        checkPartitionId(partId);
+
+        return partitions.get(partId);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void dropPartition(int partId) throws StorageException {
+        PartitionStorage partition = getPartition(partId);
+
+        if (partition != null) {
+            partitions.set(partId, null);
+
+            partition.destroy();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SortedIndexStorage getOrCreateSortedIndex(String indexName) {
+        throw new UnsupportedOperationException("Sorted indexes are not supported by the page memory storage yet");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public HashIndexStorage getOrCreateHashIndex(String indexName) {
+        assert !stopped : "Storage has been stopped";
+
+        return hashIndices.computeIfAbsent(indexName, name -> new PageMemoryHashIndexStorage(
+                new HashIndexDescriptor(name, tableCfg.value()),
+                tableCfg.name().value(),
+                dataRegion
+        ));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void dropIndex(String indexName) {
+        assert !stopped : "Storage has been stopped";
+
+        hashIndices.computeIfPresent(indexName, (name, indexStorage) -> {
+            indexStorage.destroy();
+
+            return null;
+        });
+    }
+
+    /**
+     * Checks that a passed partition id is within the proper bounds.
+     *
+     * @param partId Partition id.
+     */
+    private void checkPartitionId(int partId) {
+        if (partId < 0 || partId >= partitions.length()) {
+            throw new IllegalArgumentException(S.toString(
+                    "Unable to access partition with id outside of configured range",
+                    "table", tableCfg.name().value(), false,
+                    "partitionId", partId, false,
+                    "partitions", partitions.length(), false
+            ));
+        }
+    }
+}
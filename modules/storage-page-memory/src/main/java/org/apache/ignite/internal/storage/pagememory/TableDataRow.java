@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory;
+
+import static org.apache.ignite.internal.util.GridUnsafe.NATIVE_BYTE_ORDER;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.ignite.internal.pagememory.Storable;
+import org.apache.ignite.internal.pagememory.io.AbstractDataPageIo;
+import org.apache.ignite.internal.pagememory.io.IoVersions;
+import org.apache.ignite.internal.storage.DataRow;
+import org.apache.ignite.internal.storage.pagememory.io.TableDataIo;
+
+/**
+ * Data row of a {@link PageMemoryPartitionStorage}, stored in data pages as {@code [key size (int)][key][value]}.
+ */
+public class TableDataRow extends TableSearchRow implements DataRow, Storable {
+    /** Size of the key size field. */
+    public static final int KEY_SIZE_BYTES = Integer.BYTES;
+
+    /** Partition ID. */
+    private final int partId;
+
+    /** Value bytes. */
+    private final byte[] valueBytes;
+
+    /** Link to the row in data pages, {@code 0} if the row has not been stored yet. */
+    private long link;
+
+    /**
+     * Constructor.
+     *
+     * @param partId Partition ID.
+     * @param keyBytes Key bytes.
+     * @param valueBytes Value bytes.
+     */
+    public TableDataRow(int partId, byte[] keyBytes, byte[] valueBytes) {
+        this(partId, Arrays.hashCode(keyBytes), keyBytes, valueBytes);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param partId Partition ID.
+     * @param hash Hash of the key bytes.
+     * @param keyBytes Key bytes.
+     * @param valueBytes Value bytes.
+     */
+    public TableDataRow(int partId, int hash, byte[] keyBytes, byte[] valueBytes) {
+        super(hash, keyBytes);
+
+        assert valueBytes != null;
+
+        this.partId = partId;
+        this.valueBytes = valueBytes;
+    }
+
+    /**
+     * Creates a row out of the bytes read from data pages.
+     *
+     * @param partId Partition ID.
+     * @param hash Hash of the key bytes.
+     * @param link Link to the row.
+     * @param bytes Row bytes.
+     * @return Row.
+     */
+    public static TableDataRow fromBytes(int partId, int hash, long link, byte[] bytes) {
+        int keySize = keySize(bytes);
+
+        byte[] keyBytes = Arrays.copyOfRange(bytes, KEY_SIZE_BYTES, KEY_SIZE_BYTES + keySize);
+        byte[] valueBytes = Arrays.copyOfRange(bytes, KEY_SIZE_BYTES + keySize, bytes.length);
+
+        TableDataRow row = new TableDataRow(partId, hash, keyBytes, valueBytes);
+
+        row.link(link);
+
+        return row;
+    }
+
+    /**
+     * Reads the key size out of the row bytes read from data pages.
+     *
+     * @param bytes Row bytes.
+     * @return Key size.
+     */
+    public static int keySize(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).order(NATIVE_BYTE_ORDER).getInt(0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public byte[] valueBytes() {
+        return valueBytes;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ByteBuffer value() {
+        return ByteBuffer.wrap(valueBytes);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void link(long link) {
+        this.link = link;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long link() {
+        return link;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int partition() {
+        return partId;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+        return KEY_SIZE_BYTES + keyBytes.length + valueBytes.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int headerSize() {
+        return 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public IoVersions<? extends AbstractDataPageIo> ioVersions() {
+        return TableDataIo.VERSIONS;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory;
+
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.FLAG_AUX;
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.INDEX_PARTITION;
+
+import org.apache.ignite.internal.pagememory.PageMemory;
+import org.apache.ignite.internal.pagememory.evict.PageEvictionTrackerNoOp;
+import org.apache.ignite.internal.pagememory.freelist.AbstractFreeList;
+import org.apache.ignite.internal.pagememory.util.PageLockListenerNoOp;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+import org.apache.ignite.lang.IgniteLogger;
+
+/**
+ * Free list for {@link TableDataRow}, shared by all the tables of a {@link PageMemoryDataRegion}. Also serves as the reuse list for the
+ * pages of {@link TableTree}s.
+ */
+public class TableFreeList extends AbstractFreeList<TableDataRow> {
+    private static final IgniteLogger LOG = IgniteLogger.forClass(TableFreeList.class);
+
+    /**
+     * Constructor.
+     *
+     * @param grpId Group ID.
+     * @param pageMem Page memory.
+     * @param metaPageId Metadata page ID.
+     * @param initNew {@code True} if new metadata should be initialized.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public TableFreeList(
+            int grpId,
+            PageMemory pageMem,
+            long metaPageId,
+            boolean initNew
+    ) throws IgniteInternalCheckedException {
+        super(
+                grpId,
+                "TableFreeList_" + grpId,
+                pageMem,
+                null,
+                PageLockListenerNoOp.INSTANCE,
+                FLAG_AUX,
+                LOG,
+                metaPageId,
+                initNew,
+                null,
+                PageEvictionTrackerNoOp.INSTANCE
+        );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected long allocatePageNoReuse() throws IgniteInternalCheckedException {
+        return pageMem.allocatePage(grpId, INDEX_PARTITION, FLAG_AUX);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.ignite.internal.storage.SearchRow;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Search row of a {@link TableTree}: the key bytes together with their hash, which is the primary ordering of the tree.
+ */
+public class TableSearchRow implements SearchRow {
+    /** Hash of the key bytes. */
+    protected final int hash;
+
+    /** Key bytes. */
+    protected final byte[] keyBytes;
+
+    /**
+     * Constructor.
+     *
+     * @param keyBytes Key bytes.
+     */
+    public TableSearchRow(byte[] keyBytes) {
+        this(Arrays.hashCode(keyBytes), keyBytes);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param hash Hash of the key bytes.
+     * @param keyBytes Key bytes.
+     */
+    public TableSearchRow(int hash, byte[] keyBytes) {
+        assert keyBytes != null;
+
+        this.hash = hash;
+        this.keyBytes = keyBytes;
+    }
+
+    /**
+     * Returns hash of the key bytes.
+     */
+    public int hash() {
+        return hash;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public byte @NotNull [] keyBytes() {
+        return keyBytes;
+    }
+
+    /** {@inheritDoc} */
+    @NotNull
+    @Override
+    public ByteBuffer key() {
+        return ByteBuffer.wrap(keyBytes);
+    }
+}
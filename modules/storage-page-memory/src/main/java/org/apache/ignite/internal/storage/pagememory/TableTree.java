@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory;
+
+import static org.apache.ignite.internal.pagememory.PageIdAllocator.FLAG_AUX;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.getInt;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.getLong;
+import static org.apache.ignite.internal.storage.pagememory.TableDataRow.KEY_SIZE_BYTES;
+import static org.apache.ignite.internal.storage.pagememory.io.TableLeafIo.LINK_OFF;
+import static org.apache.ignite.internal.util.GridUnsafe.NATIVE_BYTE_ORDER;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.ignite.internal.pagememory.PageMemory;
+import org.apache.ignite.internal.pagememory.metric.IoStatisticsHolderNoOp;
+import org.apache.ignite.internal.pagememory.tree.BplusTree;
+import org.apache.ignite.internal.pagememory.tree.io.BplusIo;
+import org.apache.ignite.internal.pagememory.util.PageLockListenerNoOp;
+import org.apache.ignite.internal.storage.pagememory.io.TableInnerIo;
+import org.apache.ignite.internal.storage.pagememory.io.TableLeafIo;
+import org.apache.ignite.lang.IgniteInternalCheckedException;
+
+/**
+ * Primary index of a partition: maps the keys to the links of {@link TableDataRow}s. Rows are ordered by the key hash, and then by the
+ * key bytes, which are only read from the data pages when the hashes are equal.
+ */
+public class TableTree extends BplusTree<TableSearchRow, TableDataRow> {
+    /** Partition ID. */
+    private final int partId;
+
+    /** Free list that stores the rows. */
+    private final TableFreeList freeList;
+
+    /** Reader of the rows. */
+    private final DataPageReader rowReader;
+
+    /**
+     * Constructor.
+     *
+     * @param grpId Group ID.
+     * @param grpName Group name.
+     * @param partId Partition ID.
+     * @param pageMem Page memory.
+     * @param metaPageId Meta page ID.
+     * @param freeList Free list that stores the rows and is used as a reuse list for the tree pages.
+     * @param initNew {@code True} if a new tree should be created.
+     * @throws IgniteInternalCheckedException If failed.
+     */
+    public TableTree(
+            int grpId,
+            String grpName,
+            int partId,
+            PageMemory pageMem,
+            long metaPageId,
+            TableFreeList freeList,
+            boolean initNew
+    ) throws IgniteInternalCheckedException {
+        super(
+                "TableTree_" + grpId + "_" + partId,
+                grpId,
+                grpName,
+                pageMem,
+                PageLockListenerNoOp.INSTANCE,
+                metaPageId,
+                freeList,
+                TableInnerIo.VERSIONS,
+                TableLeafIo.VERSIONS
+        );
+
+        this.partId = partId;
+        this.freeList = freeList;
+
+        rowReader = new DataPageReader(pageMem, freeList.groupId());
+
+        initTree(initNew);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected long allocatePageNoReuse() throws IgniteInternalCheckedException {
+        return pageMem.allocatePage(grpId, partId, FLAG_AUX);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected int compare(BplusIo<TableSearchRow> io, long pageAddr, int idx, TableSearchRow row) throws IgniteInternalCheckedException {
+        int off = io.offset(idx);
+
+        int cmp = Integer.compare(getInt(pageAddr, off), row.hash());
+
+        if (cmp != 0) {
+            return cmp;
+        }
+
+        byte[] rowBytes = rowReader.readRowBytes(getLong(pageAddr, off + LINK_OFF));
+
+        byte[] keyBytes = row.keyBytes();
+
+        return Arrays.compare(
+                rowBytes, KEY_SIZE_BYTES, KEY_SIZE_BYTES + TableDataRow.keySize(rowBytes),
+                keyBytes, 0, keyBytes.length
+        );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected TableDataRow getRow(BplusIo<TableSearchRow> io, long pageAddr, int idx) throws IgniteInternalCheckedException {
+        int off = io.offset(idx);
+
+        long link = getLong(pageAddr, off + LINK_OFF);
+
+        return TableDataRow.fromBytes(partId, getInt(pageAddr, off), link, rowReader.readRowBytes(link));
+    }
+
+    /**
+     * Stores a copy of the key in the free list, so that the separator stays valid after the row it has been copied from is removed.
+     */
+    @Override
+    protected byte[] separator(byte[] leafItem) throws IgniteInternalCheckedException {
+        ByteBuffer item = ByteBuffer.wrap(leafItem).order(NATIVE_BYTE_ORDER);
+
+        byte[] rowBytes = rowReader.readRowBytes(item.getLong(LINK_OFF));
+
+        byte[] keyBytes = Arrays.copyOfRange(rowBytes, KEY_SIZE_BYTES, KEY_SIZE_BYTES + TableDataRow.keySize(rowBytes));
+
+        TableDataRow keyRow = new TableDataRow(partId, item.getInt(0), keyBytes, new byte[0]);
+
+        freeList.insertDataRow(keyRow, IoStatisticsHolderNoOp.INSTANCE);
+
+        byte[] separator = leafItem.clone();
+
+        ByteBuffer.wrap(separator).order(NATIVE_BYTE_ORDER).putLong(LINK_OFF, keyRow.link());
+
+        return separator;
+    }
+
+    /**
+     * Removes the rows referenced by the leaves and the key copies referenced by the separators.
+     */
+    @Override
+    protected void releaseItem(BplusIo<TableSearchRow> io, long pageAddr, int idx) throws IgniteInternalCheckedException {
+        freeList.removeDataRowByLink(getLong(pageAddr, io.offset(idx) + LINK_OFF), IoStatisticsHolderNoOp.INSTANCE);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory.io;
+
+import static org.apache.ignite.internal.storage.pagememory.TableDataRow.KEY_SIZE_BYTES;
+import static org.apache.ignite.internal.util.GridUnsafe.NATIVE_BYTE_ORDER;
+
+import java.nio.ByteBuffer;
+import org.apache.ignite.internal.pagememory.io.AbstractDataPageIo;
+import org.apache.ignite.internal.pagememory.io.IoVersions;
+import org.apache.ignite.internal.pagememory.util.PageUtils;
+import org.apache.ignite.internal.storage.pagememory.TableDataRow;
+import org.apache.ignite.lang.IgniteStringBuilder;
+
+/**
+ * Data pages IO for {@link TableDataRow}.
+ */
+public class TableDataIo extends AbstractDataPageIo<TableDataRow> {
+    /** Page IO type. */
+    public static final int T_TABLE_DATA_IO = 4;
+
+    /** I/O versions. */
+    public static final IoVersions<TableDataIo> VERSIONS = new IoVersions<>(new TableDataIo(1));
+
+    /**
+     * Constructor.
+     *
+     * @param ver Page format version.
+     */
+    protected TableDataIo(int ver) {
+        super(T_TABLE_DATA_IO, ver);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void writeRowData(long pageAddr, int dataOff, int payloadSize, TableDataRow row, boolean newRow) {
+        assertPageType(pageAddr);
+
+        long addr = pageAddr + dataOff;
+
+        if (newRow) {
+            PageUtils.putShort(addr, 0, (short) payloadSize);
+        }
+
+        addr += 2;
+
+        byte[] keyBytes = row.keyBytes();
+
+        PageUtils.putInt(addr, 0, keyBytes.length);
+        PageUtils.putBytes(addr, KEY_SIZE_BYTES, keyBytes);
+        PageUtils.putBytes(addr, KEY_SIZE_BYTES + keyBytes.length, row.valueBytes());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void writeFragmentData(TableDataRow row, ByteBuffer buf, int rowOff, int payloadSize) {
+        assertPageType(buf);
+
+        byte[] keyBytes = row.keyBytes();
+
+        int end = rowOff + payloadSize;
+        int keyEnd = KEY_SIZE_BYTES + keyBytes.length;
+
+        int pos = rowOff;
+
+        if (pos < KEY_SIZE_BYTES) {
+            byte[] keySize = ByteBuffer.allocate(KEY_SIZE_BYTES).order(NATIVE_BYTE_ORDER).putInt(0, keyBytes.length).array();
+
+            int len = Math.min(end, KEY_SIZE_BYTES) - pos;
+
+            buf.put(keySize, pos, len);
+
+            pos += len;
+        }
+
+        if (pos < end && pos < keyEnd) {
+            int len = Math.min(end, keyEnd) - pos;
+
+            buf.put(keyBytes, pos - KEY_SIZE_BYTES, len);
+
+            pos += len;
+        }
+
+        if (pos < end) {
+            buf.put(row.valueBytes(), pos - keyEnd, end - pos);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void printPage(long addr, int pageSize, IgniteStringBuilder sb) {
+        sb.app("TableDataIo [\n");
+        printPageLayout(addr, pageSize, sb);
+        sb.app("\n]");
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory.io;
+
+import static org.apache.ignite.internal.pagememory.util.PageUtils.putInt;
+import static org.apache.ignite.internal.pagememory.util.PageUtils.putLong;
+
+import org.apache.ignite.internal.pagememory.io.IoVersions;
+import org.apache.ignite.internal.pagememory.tree.io.BplusLeafIo;
+import org.apache.ignite.internal.storage.pagememory.TableDataRow;
+import org.apache.ignite.internal.storage.pagememory.TableSearchRow;
+import org.apache.ignite.internal.storage.pagememory.TableTree;
+
+/**
+ * IO for the leaf pages of a {@link TableTree}. Every item consists of the key hash ({@code int}) followed by the link to the row in data
+ * pages ({@code long}).
+ */
+public class TableLeafIo extends BplusLeafIo<TableSearchRow> {
+    /** Page IO type. */
+    public static final int T_TABLE_LEAF_IO = 6;
+
+    /** I/O versions. */
+    public static final IoVersions<TableLeafIo> VERSIONS = new IoVersions<>(new TableLeafIo(1));
+
+    /** Offset of the link within an item. */
+    public static final int LINK_OFF = Integer.BYTES;
+
+    /** Item size in bytes. */
+    public static final int ITEM_SIZE = LINK_OFF + Long.BYTES;
+
+    /**
+     * Constructor.
+     *
+     * @param ver Page format version.
+     */
+    protected TableLeafIo(int ver) {
+        super(T_TABLE_LEAF_IO, ver, ITEM_SIZE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void storeByOffset(long pageAddr, int off, TableSearchRow row) {
+        assert row instanceof TableDataRow : row;
+
+        long link = ((TableDataRow) row).link();
+
+        assert link != 0L;
+
+        putInt(pageAddr, off, row.hash());
+        putLong(pageAddr, off + LINK_OFF, link);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.storage.pagememory;
+
+import static org.apache.ignite.internal.configuration.ConfigurationTestUtils.fixConfiguration;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.file.Path;
+import org.apache.ignite.configuration.schemas.store.DataRegionConfiguration;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionChange;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionConfigurationSchema;
+import org.apache.ignite.configuration.schemas.store.UnsafeMemoryAllocatorConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.HashIndexConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.SortedIndexConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.TableConfiguration;
+import org.apache.ignite.internal.configuration.testframework.ConfigurationExtension;
+import org.apache.ignite.internal.configuration.testframework.InjectConfiguration;
+import org.apache.ignite.internal.storage.engine.DataRegion;
+import org.apache.ignite.internal.storage.engine.StorageEngine;
+import org.apache.ignite.internal.storage.index.AbstractHashIndexStorageTest;
+import org.apache.ignite.internal.testframework.WorkDirectory;
+import org.apache.ignite.internal.testframework.WorkDirectoryExtension;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Hash index storage test implementation for {@link PageMemoryHashIndexStorage}.
+ */
+@ExtendWith(WorkDirectoryExtension.class)
+@ExtendWith(ConfigurationExtension.class)
+public class PageMemoryHashIndexStorageTest extends AbstractHashIndexStorageTest {
+    private static final int PAGE_SIZE = 1024;
+
+    private static final int MAX_MEMORY_SIZE = 4 * 1024 * 1024;
+
+    private StorageEngine engine;
+
+    private DataRegion dataRegion;
+
+    /**
+     * Before each.
+     */
+    @BeforeEach
+    public void setUp(
+            @WorkDirectory Path workDir,
+            @InjectConfiguration(
+                    value = "mock.type = pagemem",
+                    polymorphicExtensions = {
+                        PageMemoryDataRegionConfigurationSchema.class,
+                        UnsafeMemoryAllocatorConfigurationSchema.class
+                    }) DataRegionConfiguration dataRegionCfg,
+            @InjectConfiguration(polymorphicExtensions = {
+                HashIndexConfigurationSchema.class,
+                SortedIndexConfigurationSchema.class
+            }) TableConfiguration tableCfg
+    ) throws Exception {
+        dataRegionCfg.change(cfg ->
+                cfg.convert(PageMemoryDataRegionChange.class)
+                        .changePageSize(PAGE_SIZE)
+                        .changeInitSize(MAX_MEMORY_SIZE)
+                        .changeMaxSize(MAX_MEMORY_SIZE)
+        ).get();
+
+        dataRegionCfg = fixConfiguration(dataRegionCfg);
+
+        configureTable(tableCfg);
+
+        engine = new PageMemoryStorageEngine(workDir);
+
+        engine.start();
+
+        dataRegion = engine.createDataRegion(dataRegionCfg);
+
+        dataRegion.start();
+
+        this.tableCfg = tableCfg;
+
+        tableStorage = engine.createTable(workDir, tableCfg, dataRegion);
+
+        tableStorage.start();
+    }
+
+    /**
+     * After each.
+     */
+    @AfterEach
+    public void tearDown() throws Exception {
+        IgniteUtils.closeAll(
+                tableStorage == null ? null : tableStorage::stop,
+                dataRegion == null ? null : dataRegion::stop,
+                engine == null ? null : engine::stop
+        );
+    }
+
+    /**
+     * Tests that the index storage is created by the page memory table storage.
+     */
+    @Test
+    void testStorageType() {
+        assertThat(createIndex("idx"), is(instanceOf(PageMemoryHashIndexStorage.class)));
+    }
+}
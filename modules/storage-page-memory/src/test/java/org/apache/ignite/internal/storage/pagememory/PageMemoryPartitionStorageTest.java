@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory;
+
+import static org.apache.ignite.internal.configuration.ConfigurationTestUtils.fixConfiguration;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.configuration.schemas.store.DataRegionConfiguration;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionChange;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionConfigurationSchema;
+import org.apache.ignite.configuration.schemas.store.UnsafeMemoryAllocatorConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.HashIndexConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.TableConfiguration;
+import org.apache.ignite.internal.configuration.testframework.ConfigurationExtension;
+import org.apache.ignite.internal.configuration.testframework.InjectConfiguration;
+import org.apache.ignite.internal.storage.AbstractPartitionStorageTest;
+import org.apache.ignite.internal.storage.DataRow;
+import org.apache.ignite.internal.storage.basic.SimpleDataRow;
+import org.apache.ignite.internal.storage.engine.DataRegion;
+import org.apache.ignite.internal.storage.engine.StorageEngine;
+import org.apache.ignite.internal.storage.engine.TableStorage;
+import org.apache.ignite.internal.testframework.WorkDirectory;
+import org.apache.ignite.internal.testframework.WorkDirectoryExtension;
+import org.apache.ignite.internal.util.Cursor;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Storage test implementation for {@link PageMemoryPartitionStorage}.
+ */
+@ExtendWith(WorkDirectoryExtension.class)
+@ExtendWith(ConfigurationExtension.class)
+public class PageMemoryPartitionStorageTest extends AbstractPartitionStorageTest {
+    private static final int PAGE_SIZE = 1024;
+
+    private static final int MAX_MEMORY_SIZE = 4 * 1024 * 1024;
+
+    private StorageEngine engine;
+
+    private TableStorage table;
+
+    private DataRegion dataRegion;
+
+    private String tableName;
+
+    private Path workDir;
+
+    /**
+     * Before each.
+     */
+    @BeforeEach
+    public void setUp(
+            @WorkDirectory Path workDir,
+            @InjectConfiguration(
+                    value = "mock.type = pagemem",
+                    polymorphicExtensions = {
+                        PageMemoryDataRegionConfigurationSchema.class,
+                        UnsafeMemoryAllocatorConfigurationSchema.class
+                    }) DataRegionConfiguration dataRegionCfg,
+            @InjectConfiguration(polymorphicExtensions = HashIndexConfigurationSchema.class) TableConfiguration tableCfg
+    ) throws Exception {
+        this.workDir = workDir;
+
+        dataRegionCfg.change(cfg ->
+                cfg.convert(PageMemoryDataRegionChange.class)
+                        .changePageSize(PAGE_SIZE)
+                        .changeInitSize(MAX_MEMORY_SIZE)
+                        .changeMaxSize(MAX_MEMORY_SIZE)
+        ).get();
+
+        dataRegionCfg = fixConfiguration(dataRegionCfg);
+
+        engine = new PageMemoryStorageEngine(workDir);
+
+        engine.start();
+
+        dataRegion = engine.createDataRegion(dataRegionCfg);
+
+        assertThat(dataRegion, is(instanceOf(PageMemoryDataRegion.class)));
+
+        dataRegion.start();
+
+        tableName = tableCfg.name().value();
+
+        table = engine.createTable(workDir, tableCfg, dataRegion);
+
+        assertThat(table, is(instanceOf(PageMemoryTableStorage.class)));
+
+        table.start();
+
+        storage = table.getOrCreatePartition(0);
+
+        assertThat(storage, is(instanceOf(PageMemoryPartitionStorage.class)));
+    }
+
+    /**
+     * After each.
+     */
+    @AfterEach
+    public void tearDown() throws Exception {
+        IgniteUtils.closeAll(
+                storage,
+                table == null ? null : table::stop,
+                dataRegion == null ? null : dataRegion::stop,
+                engine == null ? null : engine::stop
+        );
+    }
+
+    /**
+     * Checks that the last applied index is stored in the data region along with the data, rather than only in memory.
+     */
+    @Test
+    public void testLastAppliedIndexStored() {
+        DataRow row = new SimpleDataRow(new byte[] {1}, new byte[] {2});
+
+        storage.runConsistently(() -> {
+            storage.write(row);
+
+            storage.lastAppliedIndex(10);
+
+            return null;
+        });
+
+        var reopened = new PageMemoryPartitionStorage(0, tableName, (PageMemoryDataRegion) dataRegion);
+
+        assertEquals(10, reopened.lastAppliedIndex());
+        assertArrayEquals(row.valueBytes(), reopened.read(row).valueBytes());
+    }
+
+    /**
+     * Checks that a scan started before a snapshot is restored keeps reading the replaced primary index until it is closed.
+     */
+    @Test
+    public void testScanOverReplacedIndex() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            storage.write(new SimpleDataRow(new byte[] {(byte) i}, new byte[] {(byte) i}));
+        }
+
+        Path snapshotPath = workDir.resolve("snapshot");
+
+        storage.snapshot(snapshotPath).get(1, TimeUnit.SECONDS);
+
+        for (int i = 100; i < 120; i++) {
+            storage.write(new SimpleDataRow(new byte[] {(byte) i}, new byte[] {(byte) i}));
+        }
+
+        List<DataRow> scanned = new ArrayList<>();
+
+        try (Cursor<DataRow> cursor = storage.scan(row -> true)) {
+            scanned.add(cursor.next());
+
+            storage.restoreSnapshot(snapshotPath);
+
+            cursor.forEachRemaining(scanned::add);
+        }
+
+        assertEquals(120, scanned.size());
+
+        scanned.clear();
+
+        try (Cursor<DataRow> cursor = storage.scan(row -> true)) {
+            cursor.forEachRemaining(scanned::add);
+        }
+
+        assertEquals(100, scanned.size());
+
+        assertNull(storage.read(new SimpleDataRow(new byte[] {110}, new byte[0])));
+    }
+}
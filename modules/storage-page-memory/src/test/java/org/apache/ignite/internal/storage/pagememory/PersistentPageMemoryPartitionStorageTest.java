@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.storage.pagememory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.ignite.internal.configuration.ConfigurationTestUtils.fixConfiguration;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import org.apache.ignite.configuration.schemas.store.DataRegionConfiguration;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionChange;
+import org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionConfigurationSchema;
+import org.apache.ignite.configuration.schemas.store.UnsafeMemoryAllocatorConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.HashIndexConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.TableConfiguration;
+import org.apache.ignite.internal.configuration.testframework.ConfigurationExtension;
+import org.apache.ignite.internal.configuration.testframework.InjectConfiguration;
+import org.apache.ignite.internal.storage.AbstractPartitionStorageTest;
+import org.apache.ignite.internal.storage.DataRow;
+import org.apache.ignite.internal.storage.basic.SimpleDataRow;
+import org.apache.ignite.internal.storage.engine.DataRegion;
+import org.apache.ignite.internal.storage.engine.StorageEngine;
+import org.apache.ignite.internal.storage.engine.TableStorage;
+import org.apache.ignite.internal.testframework.WorkDirectory;
+import org.apache.ignite.internal.testframework.WorkDirectoryExtension;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Storage test implementation for {@link PageMemoryPartitionStorage} in a persistent data region.
+ */
+@ExtendWith(WorkDirectoryExtension.class)
+@ExtendWith(ConfigurationExtension.class)
+public class PersistentPageMemoryPartitionStorageTest extends AbstractPartitionStorageTest {
+    private static final int PAGE_SIZE = 1024;
+
+    private static final int MAX_MEMORY_SIZE = 4 * 1024 * 1024;
+
+    @WorkDirectory
+    private Path workDir;
+
+    @InjectConfiguration(
+            value = "mock.type = pagemem",
+            polymorphicExtensions = {
+                PageMemoryDataRegionConfigurationSchema.class,
+                UnsafeMemoryAllocatorConfigurationSchema.class
+            })
+    private DataRegionConfiguration dataRegionCfg;
+
+    @InjectConfiguration(polymorphicExtensions = HashIndexConfigurationSchema.class)
+    private TableConfiguration tableCfg;
+
+    private StorageEngine engine;
+
+    private TableStorage table;
+
+    private DataRegion dataRegion;
+
+    /**
+     * Before each.
+     */
+    @BeforeEach
+    public void setUp() throws Exception {
+        dataRegionCfg.change(cfg ->
+                cfg.convert(PageMemoryDataRegionChange.class)
+                        .changePersistent(true)
+                        .changePageSize(PAGE_SIZE)
+                        .changeInitSize(MAX_MEMORY_SIZE)
+                        .changeMaxSize(MAX_MEMORY_SIZE)
+        ).get();
+
+        dataRegionCfg = fixConfiguration(dataRegionCfg);
+
+        startStorage();
+    }
+
+    /**
+     * After each.
+     */
+    @AfterEach
+    public void tearDown() throws Exception {
+        stopStorage();
+    }
+
+    /**
+     * Tests that the data written before a graceful stop is readable after the restart.
+     */
+    @Test
+    void testRestart() throws Exception {
+        for (int i = 0; i < 1_000; i++) {
+            storage.write(row(i));
+        }
+
+        storage.remove(row(0));
+
+        stopStorage();
+
+        startStorage();
+
+        assertNull(storage.read(row(0)));
+
+        for (int i = 1; i < 1_000; i++) {
+            DataRow row = storage.read(row(i));
+
+            assertNotNull(row, "key" + i);
+
+            assertArrayEquals(row(i).valueBytes(), row.valueBytes());
+        }
+    }
+
+    /**
+     * Tests that a checkpoint makes the data durable even if the storage is not stopped gracefully.
+     */
+    @Test
+    void testCheckpointBeforeCrash() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            storage.write(row(i));
+        }
+
+        ((PageMemoryDataRegion) dataRegion).checkpointer().forceCheckpoint("test").get();
+
+        // Not checkpointed, lost on crash.
+        storage.write(row(100));
+
+        ((PageMemoryDataRegion) dataRegion).checkpointer().stop(true);
+
+        stopStorage();
+
+        startStorage();
+
+        for (int i = 0; i < 100; i++) {
+            assertNotNull(storage.read(row(i)), "key" + i);
+        }
+
+        assertNull(storage.read(row(100)));
+    }
+
+    private void startStorage() {
+        engine = new PageMemoryStorageEngine(workDir);
+
+        engine.start();
+
+        dataRegion = engine.createDataRegion(dataRegionCfg);
+
+        assertThat(dataRegion, is(instanceOf(PageMemoryDataRegion.class)));
+
+        dataRegion.start();
+
+        table = engine.createTable(workDir.resolve("table"), tableCfg, dataRegion);
+
+        table.start();
+
+        storage = table.getOrCreatePartition(0);
+
+        assertThat(storage, is(instanceOf(PageMemoryPartitionStorage.class)));
+    }
+
+    private void stopStorage() throws Exception {
+        IgniteUtils.closeAll(
+                storage,
+                table == null ? null : table::stop,
+                dataRegion == null ? null : dataRegion::stop,
+                engine == null ? null : engine::stop
+        );
+
+        storage = null;
+        table = null;
+        dataRegion = null;
+        engine = null;
+    }
+
+    private static DataRow row(int i) {
+        return new SimpleDataRow(("key" + i).getBytes(UTF_8), ("value" + i).getBytes(UTF_8));
+    }
+}
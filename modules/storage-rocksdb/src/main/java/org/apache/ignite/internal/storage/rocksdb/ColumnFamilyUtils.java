@@ -34,16 +34,50 @@ class ColumnFamilyUtils {
      */
     static final String PARTITION_CF_NAME = "cf-part";
 
+    /**
+     * Prefix for the names of the Column Families that store the data of a single partition.
+     */
+    private static final String CF_PARTITION_PREFIX = PARTITION_CF_NAME + '-';
+
     /**
      * Prefix for SQL indexes column family names.
      */
     private static final String CF_SORTED_INDEX_PREFIX = "cf-sorted-idx-";
 
+    /**
+     * Prefix for hash indexes column family names.
+     */
+    private static final String CF_HASH_INDEX_PREFIX = "cf-hash-idx-";
+
     /**
      * Utility enum to describe a type of the column family - meta, partition or index.
      */
     enum ColumnFamilyType {
-        META, PARTITION, SORTED_INDEX, UNKNOWN
+        META, PARTITION, DEDICATED_PARTITION, SORTED_INDEX, HASH_INDEX, UNKNOWN
+    }
+
+    /**
+     * Creates the name of the Column Family that stores the data of the given partition only.
+     *
+     * @param partId Partition ID.
+     * @return Column family name.
+     *
+     * @see #partitionId
+     */
+    static String partitionCfName(int partId) {
+        return CF_PARTITION_PREFIX + partId;
+    }
+
+    /**
+     * Extracts the partition ID from the name of a Column Family that stores the data of a single partition.
+     *
+     * @param cfName Column Family name.
+     * @return Partition ID.
+     *
+     * @see #partitionCfName
+     */
+    static int partitionId(String cfName) {
+        return Integer.parseInt(cfName.substring(CF_PARTITION_PREFIX.length()));
     }
 
     /**
@@ -70,6 +104,30 @@ class ColumnFamilyUtils {
         return cfName.substring(CF_SORTED_INDEX_PREFIX.length());
     }
 
+    /**
+     * Creates a Hash Index column family name by index name.
+     *
+     * @param indexName Index name.
+     * @return Column family name.
+     *
+     * @see #hashIndexName
+     */
+    static String hashIndexCfName(String indexName) {
+        return CF_HASH_INDEX_PREFIX + indexName;
+    }
+
+    /**
+     * Creates a Hash Index name from the given Column Family name.
+     *
+     * @param cfName Column Family name.
+     * @return Hash Index name.
+     *
+     * @see #hashIndexCfName
+     */
+    static String hashIndexName(String cfName) {
+        return cfName.substring(CF_HASH_INDEX_PREFIX.length());
+    }
+
     /**
      * Determines column family type by its name.
      *
@@ -85,10 +143,18 @@ class ColumnFamilyUtils {
             return ColumnFamilyType.PARTITION;
         }
 
+        if (cfName.startsWith(CF_PARTITION_PREFIX)) {
+            return ColumnFamilyType.DEDICATED_PARTITION;
+        }
+
         if (cfName.startsWith(CF_SORTED_INDEX_PREFIX)) {
             return ColumnFamilyType.SORTED_INDEX;
         }
 
+        if (cfName.startsWith(CF_HASH_INDEX_PREFIX)) {
+            return ColumnFamilyType.HASH_INDEX;
+        }
+
         return ColumnFamilyType.UNKNOWN;
     }
 }
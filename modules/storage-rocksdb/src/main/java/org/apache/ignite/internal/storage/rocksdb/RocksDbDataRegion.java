@@ -26,13 +26,18 @@ import org.apache.ignite.configuration.schemas.store.RocksDbDataRegionConfigurat
 import org.apache.ignite.configuration.schemas.store.RocksDbDataRegionView;
 import org.apache.ignite.internal.storage.engine.DataRegion;
 import org.apache.ignite.internal.util.IgniteUtils;
+import org.jetbrains.annotations.Nullable;
 import org.rocksdb.Cache;
 import org.rocksdb.ClockCache;
 import org.rocksdb.LRUCache;
+import org.rocksdb.RateLimiter;
 import org.rocksdb.WriteBufferManager;
 
 /**
  * Data region implementation for {@link RocksDbStorageEngine}. Based on a {@link Cache}.
+ *
+ * <p>The block cache, the write buffer manager and the rate limiter of a region are shared by all the tables that belong to it, so
+ * the memory and the disk bandwidth used by the storage are bounded per region rather than per table.
  */
 public class RocksDbDataRegion implements DataRegion {
     /** Region configuration. */
@@ -44,6 +49,10 @@ public class RocksDbDataRegion implements DataRegion {
     /** Write buffer manager instance. */
     private WriteBufferManager writeBufferManager;
 
+    /** Rate limiter of flushes and compactions, {@code null} if the write rate is not limited. */
+    @Nullable
+    private RateLimiter rateLimiter;
+
     /**
      * Constructor.
      *
@@ -80,12 +89,50 @@ public class RocksDbDataRegion implements DataRegion {
         }
 
         writeBufferManager = new WriteBufferManager(writeBufferSize, cache);
+
+        long writeRateLimit = dataRegionView.writeRateLimit();
+
+        if (writeRateLimit > 0) {
+            rateLimiter = new RateLimiter(writeRateLimit);
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public void stop() throws Exception {
-        IgniteUtils.closeAll(writeBufferManager, cache);
+        IgniteUtils.closeAll(rateLimiter, writeBufferManager, cache);
+    }
+
+    /**
+     * Returns {@code true} if partition data must be written bypassing the write-ahead log.
+     */
+    public boolean disableWal() {
+        return ((RocksDbDataRegionView) cfg.value()).disableWal();
+    }
+
+    /**
+     * Returns {@code true} if new partitions must be stored in column families of their own.
+     */
+    public boolean partitionColumnFamilies() {
+        return ((RocksDbDataRegionView) cfg.value()).partitionColumnFamilies();
+    }
+
+    /**
+     * Returns block cache shared by the tables of the region.
+     *
+     * @return Block cache shared by the tables of the region.
+     */
+    public Cache cache() {
+        return cache;
+    }
+
+    /**
+     * Returns rate limiter of flushes and compactions shared by the tables of the region.
+     *
+     * @return Rate limiter, {@code null} if the write rate is not limited.
+     */
+    public @Nullable RateLimiter rateLimiter() {
+        return rateLimiter;
     }
 
     /**
@@ -25,6 +25,7 @@ import java.util.stream.Stream;
 import org.apache.ignite.internal.rocksdb.ColumnFamily;
 import org.apache.ignite.internal.rocksdb.RocksUtils;
 import org.apache.ignite.internal.storage.StorageException;
+import org.rocksdb.AbstractWriteBatch;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
@@ -45,6 +46,11 @@ class RocksDbMetaStorage implements AutoCloseable {
      */
     private static final byte[] PARTITION_ID_PREFIX_END;
 
+    /**
+     * Prefix of the keys that correspond to the last applied Raft index of a partition.
+     */
+    private static final byte[] APPLIED_INDEX_PREFIX = "appliedIdx".getBytes(StandardCharsets.UTF_8);
+
     static {
         PARTITION_ID_PREFIX_END = PARTITION_ID_PREFIX.clone();
 
@@ -121,6 +127,71 @@ class RocksDbMetaStorage implements AutoCloseable {
         }
     }
 
+    /**
+     * Returns the last applied Raft index of the given partition.
+     *
+     * @param partitionId partition ID
+     * @return last applied index, {@code 0} if none has been saved
+     */
+    long getAppliedIndex(int partitionId) {
+        try {
+            byte[] value = metaCf.get(appliedIndexKey(partitionId));
+
+            return value == null ? 0 : ByteBuffer.wrap(value).order(ByteOrder.BIG_ENDIAN).getLong();
+        } catch (RocksDBException e) {
+            throw new StorageException("Unable to read the applied index of partition " + partitionId + " from the meta Column Family", e);
+        }
+    }
+
+    /**
+     * Saves the last applied Raft index of the given partition into a write batch, so that it is persisted atomically with the data.
+     *
+     * @param batch write batch
+     * @param partitionId partition ID
+     * @param appliedIndex last applied index
+     */
+    void putAppliedIndex(AbstractWriteBatch batch, int partitionId, long appliedIndex) {
+        byte[] value = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.BIG_ENDIAN).putLong(appliedIndex).array();
+
+        try {
+            batch.put(metaCf.handle(), appliedIndexKey(partitionId), value);
+        } catch (RocksDBException e) {
+            throw new StorageException("Unable to save the applied index of partition " + partitionId + " in the meta Column Family", e);
+        }
+    }
+
+    /**
+     * Removes the last applied Raft index of the given partition from the meta Column Family.
+     *
+     * @param partitionId partition ID
+     */
+    void removeAppliedIndex(int partitionId) {
+        try {
+            metaCf.delete(appliedIndexKey(partitionId));
+        } catch (RocksDBException e) {
+            throw new StorageException(
+                    "Unable to delete the applied index of partition " + partitionId + " from the meta Column Family", e
+            );
+        }
+    }
+
+    /**
+     * Returns the meta Column Family.
+     */
+    ColumnFamily columnFamily() {
+        return metaCf;
+    }
+
+    private static byte[] appliedIndexKey(int partitionId) {
+        assert partitionId >= 0 && partitionId <= 0xFFFF : partitionId;
+
+        return ByteBuffer.allocate(APPLIED_INDEX_PREFIX.length + Short.BYTES)
+                .order(ByteOrder.BIG_ENDIAN)
+                .put(APPLIED_INDEX_PREFIX)
+                .putShort((short) partitionId)
+                .array();
+    }
+
     private static byte[] partitionIdKey(int partitionId) {
         assert partitionId >= 0 && partitionId <= 0xFFFF : partitionId;
 
@@ -18,11 +18,13 @@
 package org.apache.ignite.internal.storage.rocksdb;
 
 import static java.util.Collections.nCopies;
-import static org.apache.ignite.internal.rocksdb.RocksUtils.createSstFile;
+import static org.apache.ignite.internal.storage.rocksdb.ColumnFamilyUtils.PARTITION_CF_NAME;
+import static org.apache.ignite.internal.storage.rocksdb.ColumnFamilyUtils.partitionCfName;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -31,30 +33,40 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import org.apache.ignite.internal.rocksdb.ColumnFamily;
 import org.apache.ignite.internal.rocksdb.RocksIteratorAdapter;
+import org.apache.ignite.internal.rocksdb.RocksUtils;
 import org.apache.ignite.internal.storage.DataRow;
 import org.apache.ignite.internal.storage.InvokeClosure;
 import org.apache.ignite.internal.storage.PartitionStorage;
 import org.apache.ignite.internal.storage.SearchRow;
 import org.apache.ignite.internal.storage.StorageException;
+import org.apache.ignite.internal.storage.basic.KeyRange;
 import org.apache.ignite.internal.storage.basic.SimpleDataRow;
 import org.apache.ignite.internal.util.Cursor;
 import org.apache.ignite.internal.util.IgniteUtils;
 import org.apache.ignite.lang.IgniteInternalException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.rocksdb.Checkpoint;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.EnvOptions;
 import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.Slice;
-import org.rocksdb.Snapshot;
-import org.rocksdb.WriteBatch;
+import org.rocksdb.SstFileWriter;
+import org.rocksdb.WriteBatchWithIndex;
 import org.rocksdb.WriteOptions;
 
 /**
@@ -64,14 +76,30 @@ class RocksDbPartitionStorage implements PartitionStorage {
     /** Suffix for the temporary snapshot folder. */
     private static final String TMP_SUFFIX = ".tmp";
 
+    /** Name of the snapshot file with the last applied index. */
+    private static final String APPLIED_INDEX_FILE_NAME = "applied_index";
+
+    /** Name of the file that tells that a snapshot directory holds a RocksDB checkpoint. */
+    private static final String CHECKPOINT_CURRENT_FILE_NAME = "CURRENT";
+
+    /**
+     * Name of the SST file with the data of the partition in the snapshots made before the checkpoints, the same for both the shared and
+     * the dedicated column families. Also used for the temporary SST file written from a checkpoint.
+     */
+    private static final String SST_FILE_NAME = PARTITION_CF_NAME;
+
     /**
-     * Size of the overhead for all keys in the storage: partition ID (unsigned {@code short}) + key hash ({@code int}).
+     * Size of the overhead for all keys in the storage: partition ID (unsigned {@code short}). The keys of a partition follow in their
+     * natural order, so that key ranges can be scanned.
      */
-    private static final int PARTITION_KEY_PREFIX_SIZE = Short.BYTES + Integer.BYTES;
+    private static final int PARTITION_KEY_PREFIX_SIZE = Short.BYTES;
 
     /** Thread pool for async operations. */
     private final Executor threadPool;
 
+    /** Storage I/O pool for the asynchronous reads. */
+    private final Executor ioPool;
+
     /**
      * Partition ID (should be treated as an unsigned short).
      *
@@ -85,28 +113,68 @@ class RocksDbPartitionStorage implements PartitionStorage {
     /** Data column family. */
     private final ColumnFamily data;
 
+    /** {@code True} if the data column family holds the data of this partition only and is owned by this storage. */
+    private final boolean dedicatedColumnFamily;
+
+    /** Meta storage, holds the last applied index. */
+    private final RocksDbMetaStorage meta;
+
+    /** Write options, the write-ahead log may be disabled. */
+    private final WriteOptions writeOpts;
+
+    /** Read options for the reads made by the {@link #runConsistently} closures. */
+    private final ReadOptions batchReadOpts = new ReadOptions();
+
+    /** Write batch of the {@link #runConsistently} closure executed by the current thread, shared with the indexes of the table. */
+    private final ThreadLocal<WriteBatchWithIndex> threadLocalWriteBatch;
+
+    /** Index of the last applied Raft command, as committed to the database. */
+    private volatile long lastAppliedIndex;
+
+    /** Index written by the {@link #runConsistently} closure executed by the current thread, published once its batch is committed. */
+    private final ThreadLocal<Long> pendingAppliedIndex = new ThreadLocal<>();
+
     /**
      * Constructor.
      *
      * @param threadPool   Thread pool for async operations.
+     * @param ioPool       Storage I/O pool for the asynchronous reads.
      * @param partId       Partition id.
      * @param db           Rocks DB instance.
      * @param columnFamily Column family to be used for all storage operations. This class does not own the column family handler
-     *                     as it is shared between multiple storages and will not close it.
+     *                     if it is shared between multiple storages and will not close it.
+     * @param dedicatedColumnFamily {@code True} if the column family holds the data of this partition only, such a column family is
+     *                     owned by this storage and is dropped when the partition is destroyed.
+     * @param meta         Meta storage, shared between multiple storages.
+     * @param writeOpts    Write options, shared between multiple storages.
+     * @param threadLocalWriteBatch Write batch of the {@link #runConsistently} closure executed by the current thread, shared between
+     *                     multiple storages and the indexes of the table.
      * @throws StorageException If failed to create RocksDB instance.
      */
     RocksDbPartitionStorage(
             Executor threadPool,
+            Executor ioPool,
             int partId,
             RocksDB db,
-            ColumnFamily columnFamily
+            ColumnFamily columnFamily,
+            boolean dedicatedColumnFamily,
+            RocksDbMetaStorage meta,
+            WriteOptions writeOpts,
+            ThreadLocal<WriteBatchWithIndex> threadLocalWriteBatch
     ) throws StorageException {
         assert partId >= 0 && partId < 0xFFFF : partId;
 
         this.threadPool = threadPool;
+        this.ioPool = ioPool;
         this.partId = partId;
         this.db = db;
         this.data = columnFamily;
+        this.dedicatedColumnFamily = dedicatedColumnFamily;
+        this.meta = meta;
+        this.writeOpts = writeOpts;
+        this.threadLocalWriteBatch = threadLocalWriteBatch;
+
+        lastAppliedIndex = meta.getAppliedIndex(partId);
     }
 
     /** {@inheritDoc} */
@@ -115,6 +183,58 @@ class RocksDbPartitionStorage implements PartitionStorage {
         return partId;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public <V> V runConsistently(WriteClosure<V> closure) throws StorageException {
+        if (threadLocalWriteBatch.get() != null) {
+            return closure.execute();
+        }
+
+        // Keys are overwritten in the batch index, so that the reads see the latest write of a key updated more than once.
+        try (WriteBatchWithIndex batch = new WriteBatchWithIndex(true)) {
+            threadLocalWriteBatch.set(batch);
+
+            V res = closure.execute();
+
+            if (batch.count() > 0) {
+                db.write(writeOpts, batch);
+            }
+
+            Long appliedIndex = pendingAppliedIndex.get();
+
+            if (appliedIndex != null) {
+                lastAppliedIndex = appliedIndex;
+            }
+
+            return res;
+        } catch (RocksDBException e) {
+            throw new StorageException("Filed to write data to the storage", e);
+        } finally {
+            threadLocalWriteBatch.remove();
+
+            pendingAppliedIndex.remove();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long lastAppliedIndex() {
+        return lastAppliedIndex;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void lastAppliedIndex(long lastAppliedIndex) throws StorageException {
+        runConsistently(() -> {
+            meta.putAppliedIndex(writeBatch(), partId, lastAppliedIndex);
+
+            // The index becomes visible once the batch is committed, it isn't if the closure or the write fails.
+            pendingAppliedIndex.set(lastAppliedIndex);
+
+            return null;
+        });
+    }
+
     /** {@inheritDoc} */
     @Override
     @Nullable
@@ -122,7 +242,7 @@ class RocksDbPartitionStorage implements PartitionStorage {
         try {
             byte[] keyBytes = key.keyBytes();
 
-            byte[] valueBytes = data.get(partitionKey(keyBytes));
+            byte[] valueBytes = get(partitionKey(keyBytes));
 
             return valueBytes == null ? null : new SimpleDataRow(keyBytes, valueBytes);
         } catch (RocksDBException e) {
@@ -130,6 +250,12 @@ class RocksDbPartitionStorage implements PartitionStorage {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Executor readExecutor() {
+        return ioPool;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Collection<DataRow> readAll(List<? extends SearchRow> keys) throws StorageException {
@@ -138,7 +264,7 @@ class RocksDbPartitionStorage implements PartitionStorage {
         List<byte[]> values;
 
         try {
-            values = db.multiGetAsList(nCopies(resultSize, data.handle()), getKeys(keys));
+            values = multiGet(getKeys(keys));
         } catch (RocksDBException e) {
             throw new StorageException("Failed to read data from the storage", e);
         }
@@ -161,147 +287,166 @@ class RocksDbPartitionStorage implements PartitionStorage {
     /** {@inheritDoc} */
     @Override
     public void write(DataRow row) throws StorageException {
-        try {
-            byte[] value = row.valueBytes();
+        runConsistently(() -> {
+            try {
+                byte[] value = row.valueBytes();
 
-            assert value != null;
+                assert value != null;
 
-            data.put(partitionKey(row.keyBytes()), value);
-        } catch (RocksDBException e) {
-            throw new StorageException("Filed to write data to the storage", e);
-        }
+                writeBatch().put(data.handle(), partitionKey(row.keyBytes()), value);
+
+                return null;
+            } catch (RocksDBException e) {
+                throw new StorageException("Filed to write data to the storage", e);
+            }
+        });
     }
 
     /** {@inheritDoc} */
     @Override
     public void writeAll(List<? extends DataRow> rows) throws StorageException {
-        try (WriteBatch batch = new WriteBatch();
-                WriteOptions opts = new WriteOptions()) {
-            for (DataRow row : rows) {
-                byte[] value = row.valueBytes();
+        runConsistently(() -> {
+            try {
+                WriteBatchWithIndex batch = writeBatch();
 
-                assert value != null;
+                for (DataRow row : rows) {
+                    byte[] value = row.valueBytes();
 
-                data.put(batch, partitionKey(row.keyBytes()), value);
-            }
+                    assert value != null;
 
-            db.write(opts, batch);
-        } catch (RocksDBException e) {
-            throw new StorageException("Filed to write data to the storage", e);
-        }
+                    batch.put(data.handle(), partitionKey(row.keyBytes()), value);
+                }
+
+                return null;
+            } catch (RocksDBException e) {
+                throw new StorageException("Filed to write data to the storage", e);
+            }
+        });
     }
 
     /** {@inheritDoc} */
     @Override
     public Collection<DataRow> insertAll(List<? extends DataRow> rows) throws StorageException {
-        List<DataRow> cantInsert = new ArrayList<>();
+        return runConsistently(() -> {
+            List<DataRow> cantInsert = new ArrayList<>();
 
-        try (var batch = new WriteBatch();
-                var opts = new WriteOptions()) {
+            try {
+                WriteBatchWithIndex batch = writeBatch();
 
-            for (DataRow row : rows) {
-                byte[] partitionKey = partitionKey(row.keyBytes());
+                for (DataRow row : rows) {
+                    byte[] partitionKey = partitionKey(row.keyBytes());
 
-                if (data.get(partitionKey) == null) {
-                    byte[] value = row.valueBytes();
+                    if (get(partitionKey) == null) {
+                        byte[] value = row.valueBytes();
 
-                    assert value != null;
+                        assert value != null;
 
-                    data.put(batch, partitionKey, value);
-                } else {
-                    cantInsert.add(row);
+                        batch.put(data.handle(), partitionKey, value);
+                    } else {
+                        cantInsert.add(row);
+                    }
                 }
+            } catch (RocksDBException e) {
+                throw new StorageException("Filed to write data to the storage", e);
             }
 
-            db.write(opts, batch);
-        } catch (RocksDBException e) {
-            throw new StorageException("Filed to write data to the storage", e);
-        }
-
-        return cantInsert;
+            return cantInsert;
+        });
     }
 
     /** {@inheritDoc} */
     @Override
     public void remove(SearchRow key) throws StorageException {
-        try {
-            data.delete(partitionKey(key.keyBytes()));
-        } catch (RocksDBException e) {
-            throw new StorageException("Failed to remove data from the storage", e);
-        }
+        runConsistently(() -> {
+            try {
+                writeBatch().delete(data.handle(), partitionKey(key.keyBytes()));
+
+                return null;
+            } catch (RocksDBException e) {
+                throw new StorageException("Failed to remove data from the storage", e);
+            }
+        });
     }
 
     /** {@inheritDoc} */
     @Override
     public Collection<SearchRow> removeAll(List<? extends SearchRow> keys) {
-        List<SearchRow> skippedRows = new ArrayList<>();
+        return runConsistently(() -> {
+            List<SearchRow> skippedRows = new ArrayList<>();
 
-        try (var batch = new WriteBatch();
-                var opts = new WriteOptions()) {
+            try {
+                WriteBatchWithIndex batch = writeBatch();
 
-            for (SearchRow key : keys) {
-                byte[] partitionKey = partitionKey(key.keyBytes());
+                for (SearchRow key : keys) {
+                    byte[] partitionKey = partitionKey(key.keyBytes());
 
-                byte[] value = data.get(partitionKey);
+                    byte[] value = get(partitionKey);
 
-                if (value != null) {
-                    data.delete(batch, partitionKey);
-                } else {
-                    skippedRows.add(key);
+                    if (value != null) {
+                        batch.delete(data.handle(), partitionKey);
+                    } else {
+                        skippedRows.add(key);
+                    }
                 }
+            } catch (RocksDBException e) {
+                throw new StorageException("Failed to remove data from the storage", e);
             }
 
-            db.write(opts, batch);
-        } catch (RocksDBException e) {
-            throw new StorageException("Failed to remove data from the storage", e);
-        }
-
-        return skippedRows;
+            return skippedRows;
+        });
     }
 
     /** {@inheritDoc} */
     @Override
     public Collection<DataRow> removeAllExact(List<? extends DataRow> keyValues) {
-        List<DataRow> skippedRows = new ArrayList<>();
+        return runConsistently(() -> {
+            List<DataRow> skippedRows = new ArrayList<>();
 
-        try (WriteBatch batch = new WriteBatch();
-                WriteOptions opts = new WriteOptions()) {
+            try {
+                WriteBatchWithIndex batch = writeBatch();
 
-            List<byte[]> keys = getKeys(keyValues);
-            List<byte[]> values = db.multiGetAsList(nCopies(keys.size(), data.handle()), keys);
+                List<byte[]> keys = getKeys(keyValues);
+                List<byte[]> values = multiGet(keys);
 
-            assert values.size() == keys.size();
+                assert values.size() == keys.size();
 
-            for (int i = 0; i < keys.size(); i++) {
-                byte[] key = keys.get(i);
-                byte[] expectedValue = keyValues.get(i).valueBytes();
-                byte[] value = values.get(i);
+                for (int i = 0; i < keys.size(); i++) {
+                    byte[] key = keys.get(i);
+                    byte[] expectedValue = keyValues.get(i).valueBytes();
+                    byte[] value = values.get(i);
 
-                if (Arrays.equals(value, expectedValue)) {
-                    data.delete(batch, key);
-                } else {
-                    skippedRows.add(keyValues.get(i));
+                    if (Arrays.equals(value, expectedValue)) {
+                        batch.delete(data.handle(), key);
+                    } else {
+                        skippedRows.add(keyValues.get(i));
+                    }
                 }
+            } catch (RocksDBException e) {
+                throw new StorageException("Failed to remove data from the storage", e);
             }
 
-            db.write(opts, batch);
-        } catch (RocksDBException e) {
-            throw new StorageException("Failed to remove data from the storage", e);
-        }
-
-        return skippedRows;
+            return skippedRows;
+        });
     }
 
     /** {@inheritDoc} */
     @Nullable
     @Override
     public <T> T invoke(SearchRow key, InvokeClosure<T> clo) throws StorageException {
+        return runConsistently(() -> invoke0(key, clo));
+    }
+
+    /**
+     * Executes an invoke closure, must be called from a {@link #runConsistently} closure.
+     */
+    @Nullable
+    private <T> T invoke0(SearchRow key, InvokeClosure<T> clo) throws StorageException {
         try {
             byte[] keyBytes = key.keyBytes();
 
             byte[] partitionKey = partitionKey(keyBytes);
 
-            byte[] existingDataBytes = data.get(partitionKey);
+            byte[] existingDataBytes = get(partitionKey);
 
             clo.call(existingDataBytes == null ? null : new SimpleDataRow(keyBytes, existingDataBytes));
 
@@ -315,12 +460,12 @@ class RocksDbPartitionStorage implements PartitionStorage {
 
                     assert value != null;
 
-                    data.put(partitionKey, value);
+                    writeBatch().put(data.handle(), partitionKey, value);
 
                     break;
 
                 case REMOVE:
-                    data.delete(partitionKey);
+                    writeBatch().delete(data.handle(), partitionKey);
 
                     break;
 
@@ -339,97 +484,343 @@ class RocksDbPartitionStorage implements PartitionStorage {
 
     /** {@inheritDoc} */
     @Override
-    public Cursor<DataRow> scan(Predicate<SearchRow> filter) throws StorageException {
-        var upperBound = new Slice(partitionEndPrefix());
+    public Cursor<DataRow> scan(
+            byte @Nullable [] lowerBound,
+            byte @Nullable [] upperBound,
+            int flags,
+            Predicate<SearchRow> filter
+    ) throws StorageException {
+        var range = new KeyRange(lowerBound, upperBound, flags);
+
+        byte[] upperKey = range.upperKey() == null ? partitionEndPrefix() : partitionKey(range.upperKey());
+
+        var upperSlice = new Slice(upperKey);
 
-        var options = new ReadOptions().setIterateUpperBound(upperBound);
+        // Iteration stops at the upper bound inside RocksDB, the rows past the range are not read at all.
+        var options = new ReadOptions().setIterateUpperBound(upperSlice);
 
         RocksIterator it = data.newIterator(options);
 
-        it.seek(partitionStartPrefix());
+        if (range.isEmpty()) {
+            it.seek(upperKey);
+        } else {
+            it.seek(range.lowerKey() == null ? partitionStartPrefix() : partitionKey(range.lowerKey()));
+        }
 
         return new ScanCursor(it, filter) {
             @Override
             public void close() throws Exception {
                 super.close();
 
-                IgniteUtils.closeAll(options, upperBound);
+                IgniteUtils.closeAll(options, upperSlice);
             }
         };
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The snapshot is a RocksDB checkpoint of the table: the live SST files of the database are hard-linked into the snapshot
+     * directory, so no rows are read or written and the cost of a snapshot doesn't depend on the amount of data. The checkpoint flushes
+     * the memtables first, which makes the applied data durable even if the writes bypass the write-ahead log. It is created
+     * synchronously, because it captures the state of the database at the moment of the call, which matches the applied index.
+     *
+     * <p>The checkpoint holds the files of all the partitions of the table, since RocksDB can neither export a single column family nor
+     * ingest the files it has written itself.
+     */
     @Override
     public @NotNull CompletableFuture<Void> snapshot(Path snapshotPath) {
         Path tempPath = Paths.get(snapshotPath.toString() + TMP_SUFFIX);
 
-        // Create a RocksDB point-in-time snapshot
-        Snapshot snapshot = db.getSnapshot();
+        // Commands are applied by the same thread that creates the snapshot, so the index matches the snapshot.
+        long snapshotAppliedIndex = lastAppliedIndex;
 
-        return CompletableFuture.runAsync(() -> {
-            // (Re)create the temporary directory
+        try {
+            // A checkpoint is created in a directory that doesn't exist.
             IgniteUtils.deleteIfExists(tempPath);
 
-            try {
-                Files.createDirectories(tempPath);
-            } catch (IOException e) {
-                throw new IgniteInternalException("Failed to create directory: " + tempPath, e);
-            }
-        }, threadPool)
-            .thenRunAsync(() -> createSstFile(data, snapshot, tempPath), threadPool)
-            .whenComplete((nothing, throwable) -> {
-                // Release a snapshot
-                db.releaseSnapshot(snapshot);
-
-                // Snapshot is not actually closed here, because a Snapshot instance doesn't own a pointer, the
-                // database does. Calling close to maintain the AutoCloseable semantics
-                snapshot.close();
-
-                if (throwable != null) {
-                    return;
-                }
+            createCheckpoint(tempPath);
+        } catch (IgniteInternalException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-                // Delete snapshot directory if it already exists
-                IgniteUtils.deleteIfExists(snapshotPath);
+        return CompletableFuture.runAsync(() -> {
+            writeAppliedIndex(tempPath, snapshotAppliedIndex);
 
-                try {
-                    // Rename the temporary directory
-                    Files.move(tempPath, snapshotPath);
-                } catch (IOException e) {
-                    throw new IgniteInternalException("Failed to rename: " + tempPath + " to " + snapshotPath, e);
-                }
-            });
+            replaceDirectory(tempPath, snapshotPath);
+        }, threadPool);
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Only the key range of the partition is restored from a checkpoint: the checkpoint is opened read-only with the column family
+     * that holds the data of the partition only, the range is written to a temporary SST file, and the file is moved into the database.
+     * The snapshots made as a single SST file of the partition are ingested as is, from a hard link to the file.
+     */
     @Override
     public void restoreSnapshot(Path path) {
+        Path sstPath = path.resolve(SST_FILE_NAME);
+        Path appliedIndexPath = path.resolve(APPLIED_INDEX_FILE_NAME);
+
+        boolean hasCheckpoint = Files.exists(path.resolve(CHECKPOINT_CURRENT_FILE_NAME));
+        boolean hasSstFile = Files.exists(sstPath);
+        boolean hasAppliedIndex = Files.exists(appliedIndexPath);
+
+        if (!hasCheckpoint && !hasSstFile && !hasAppliedIndex) {
+            throw new IgniteInternalException("Snapshot not found: " + path);
+        }
+
+        long snapshotAppliedIndex = hasAppliedIndex ? readAppliedIndex(appliedIndexPath) : 0;
+
+        // The storage already has all the data of the snapshot, which is the case when the snapshot is loaded on a restart. Commands
+        // applied after the snapshot are preserved and are not replayed from the Raft log.
+        if (snapshotAppliedIndex != 0 && snapshotAppliedIndex <= lastAppliedIndex) {
+            return;
+        }
+
+        Path tempSstPath = Paths.get(sstPath.toString() + TMP_SUFFIX);
+
         try (IngestExternalFileOptions ingestOptions = new IngestExternalFileOptions()) {
-            Path snapshotPath = path.resolve(data.name());
+            data.deleteRange(partitionStartPrefix(), partitionEndPrefix());
 
-            if (!Files.exists(snapshotPath)) {
-                throw new IgniteInternalException("Snapshot not found: " + snapshotPath);
-            }
+            if (hasCheckpoint) {
+                if (createSstFileFromCheckpoint(path, tempSstPath)) {
+                    // The temporary file is moved into the database rather than copied.
+                    ingestOptions.setMoveFiles(true);
 
-            data.ingestExternalFile(Collections.singletonList(snapshotPath.toString()), ingestOptions);
+                    data.ingestExternalFile(Collections.singletonList(tempSstPath.toString()), ingestOptions);
+                }
+            } else if (hasSstFile) {
+                // A hard link to the file is moved into the database, so that the snapshot stays intact. The file is copied if it can't
+                // be linked.
+                boolean linked = createLink(tempSstPath, sstPath);
+
+                ingestOptions.setMoveFiles(linked);
+
+                data.ingestExternalFile(Collections.singletonList((linked ? tempSstPath : sstPath).toString()), ingestOptions);
+            }
         } catch (RocksDBException e) {
             throw new IgniteInternalException("Fail to ingest sst file at path: " + path, e);
+        } finally {
+            IgniteUtils.deleteIfExists(tempSstPath);
         }
+
+        lastAppliedIndex(snapshotAppliedIndex);
     }
 
     /** {@inheritDoc} */
     @Override
     public void close() throws Exception {
-        // nothing to do
+        batchReadOpts.close();
+
+        if (dedicatedColumnFamily) {
+            data.close();
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>A dedicated column family is dropped along with its files. Otherwise the key range of the partition is deleted from the shared
+     * column family and compacted right away, so that the space is reclaimed without a long background compaction of the tombstones.
+     */
     @Override
     public void destroy() {
         try {
-            data.deleteRange(partitionStartPrefix(), partitionEndPrefix());
-        } catch (RocksDBException e) {
+            if (dedicatedColumnFamily) {
+                data.destroy();
+            } else {
+                data.deleteRangeAndCompact(partitionStartPrefix(), partitionEndPrefix());
+            }
+        } catch (Exception e) {
             throw new StorageException("Unable to delete partition " + partId, e);
         }
+
+        meta.removeAppliedIndex(partId);
+
+        lastAppliedIndex = 0;
+
+        batchReadOpts.close();
+    }
+
+    /**
+     * Returns the write batch of the current {@link #runConsistently} closure.
+     */
+    private WriteBatchWithIndex writeBatch() {
+        WriteBatchWithIndex batch = threadLocalWriteBatch.get();
+
+        assert batch != null : "Must be called from a runConsistently closure";
+
+        return batch;
+    }
+
+    /**
+     * Reads a value, taking into account the writes of the current {@link #runConsistently} closure, if any.
+     */
+    private byte @Nullable [] get(byte[] partitionKey) throws RocksDBException {
+        WriteBatchWithIndex batch = threadLocalWriteBatch.get();
+
+        return batch == null ? data.get(partitionKey) : batch.getFromBatchAndDB(db, data.handle(), batchReadOpts, partitionKey);
+    }
+
+    /**
+     * Reads multiple values, taking into account the writes of the current {@link #runConsistently} closure, if any.
+     */
+    private List<byte[]> multiGet(List<byte[]> partitionKeys) throws RocksDBException {
+        WriteBatchWithIndex batch = threadLocalWriteBatch.get();
+
+        if (batch == null) {
+            return db.multiGetAsList(nCopies(partitionKeys.size(), data.handle()), partitionKeys);
+        }
+
+        List<byte[]> values = new ArrayList<>(partitionKeys.size());
+
+        for (byte[] partitionKey : partitionKeys) {
+            values.add(batch.getFromBatchAndDB(db, data.handle(), batchReadOpts, partitionKey));
+        }
+
+        return values;
+    }
+
+    /**
+     * Writes the data of the partition into an SST file, does nothing if there's no data.
+     *
+     * @param db Database to read the data from.
+     * @param cf Column family of the partition data.
+     * @param sstPath Path of the SST file.
+     * @return {@code True} if the file has been written.
+     */
+    private boolean createSstFile(RocksDB db, ColumnFamilyHandle cf, Path sstPath) {
+        try (
+                var upperBound = new Slice(partitionEndPrefix());
+                var readOptions = new ReadOptions().setIterateUpperBound(upperBound);
+                RocksIterator it = db.newIterator(cf, readOptions);
+                var envOptions = new EnvOptions();
+                var options = new Options();
+                var sstFileWriter = new SstFileWriter(envOptions, options)
+        ) {
+            it.seek(partitionStartPrefix());
+
+            if (!it.isValid()) {
+                RocksUtils.checkIterator(it);
+
+                return false;
+            }
+
+            sstFileWriter.open(sstPath.toString());
+
+            RocksUtils.forEach(it, sstFileWriter::put);
+
+            sstFileWriter.finish();
+
+            return true;
+        } catch (Throwable t) {
+            throw new IgniteInternalException("Failed to write snapshot: " + t.getMessage(), t);
+        }
+    }
+
+    /**
+     * Creates a RocksDB checkpoint of the table, hard-linking its live SST files.
+     *
+     * @param checkpointPath Checkpoint directory, must not exist.
+     */
+    private void createCheckpoint(Path checkpointPath) {
+        try (Checkpoint checkpoint = Checkpoint.create(db)) {
+            checkpoint.createCheckpoint(checkpointPath.toString());
+        } catch (RocksDBException e) {
+            throw new IgniteInternalException("Failed to create checkpoint: " + checkpointPath, e);
+        }
+    }
+
+    /**
+     * Writes the data of the partition from a RocksDB checkpoint of a table into an SST file, does nothing if there's no data. Only the
+     * meta column family and the column family with the data of the partition are opened, the dedicated one if the checkpoint has it.
+     *
+     * @param checkpointPath Checkpoint directory.
+     * @param sstPath Path of the SST file.
+     * @return {@code True} if the file has been written.
+     */
+    private boolean createSstFileFromCheckpoint(Path checkpointPath, Path sstPath) {
+        try (var options = new Options(); var cfOptions = new ColumnFamilyOptions(); var dbOptions = new DBOptions()) {
+            List<byte[]> cfNames = RocksDB.listColumnFamilies(options, checkpointPath.toString());
+
+            byte[] dedicatedCfName = partitionCfName(partId).getBytes(StandardCharsets.UTF_8);
+            byte[] sharedCfName = PARTITION_CF_NAME.getBytes(StandardCharsets.UTF_8);
+
+            boolean dedicated = cfNames.stream().anyMatch(name -> Arrays.equals(name, dedicatedCfName));
+
+            if (!dedicated && cfNames.stream().noneMatch(name -> Arrays.equals(name, sharedCfName))) {
+                return false;
+            }
+
+            List<ColumnFamilyDescriptor> cfDescriptors = List.of(
+                    new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, cfOptions),
+                    new ColumnFamilyDescriptor(dedicated ? dedicatedCfName : sharedCfName, cfOptions)
+            );
+
+            List<ColumnFamilyHandle> cfHandles = new ArrayList<>(cfDescriptors.size());
+
+            try (RocksDB checkpointDb = RocksDB.openReadOnly(dbOptions, checkpointPath.toString(), cfDescriptors, cfHandles)) {
+                try {
+                    return createSstFile(checkpointDb, cfHandles.get(1), sstPath);
+                } finally {
+                    cfHandles.forEach(ColumnFamilyHandle::close);
+                }
+            }
+        } catch (RocksDBException e) {
+            throw new IgniteInternalException("Failed to read checkpoint: " + checkpointPath, e);
+        }
+    }
+
+    /**
+     * Creates a hard link to the file, replacing the existing one.
+     *
+     * @return {@code False} if the file system doesn't support hard links.
+     */
+    private static boolean createLink(Path link, Path existing) {
+        IgniteUtils.deleteIfExists(link);
+
+        try {
+            Files.createLink(link, existing);
+
+            return true;
+        } catch (UnsupportedOperationException | IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the snapshot directory with the temporary one.
+     */
+    private static void replaceDirectory(Path tempPath, Path snapshotPath) {
+        // Delete snapshot directory if it already exists
+        IgniteUtils.deleteIfExists(snapshotPath);
+
+        try {
+            // Rename the temporary directory
+            Files.move(tempPath, snapshotPath);
+        } catch (IOException e) {
+            throw new IgniteInternalException("Failed to rename: " + tempPath + " to " + snapshotPath, e);
+        }
+    }
+
+    private static void writeAppliedIndex(Path snapshotPath, long appliedIndex) {
+        Path appliedIndexPath = snapshotPath.resolve(APPLIED_INDEX_FILE_NAME);
+
+        try {
+            Files.write(appliedIndexPath, ByteBuffer.allocate(Long.BYTES).order(ByteOrder.BIG_ENDIAN).putLong(appliedIndex).array());
+        } catch (IOException e) {
+            throw new IgniteInternalException("Failed to write snapshot: " + appliedIndexPath, e);
+        }
+    }
+
+    private static long readAppliedIndex(Path appliedIndexPath) {
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(appliedIndexPath)).order(ByteOrder.BIG_ENDIAN).getLong();
+        } catch (IOException e) {
+            throw new IgniteInternalException("Failed to read snapshot: " + appliedIndexPath, e);
+        }
     }
 
     /**
@@ -455,11 +846,15 @@ class RocksDbPartitionStorage implements PartitionStorage {
         return result;
     }
 
-    /** Cursor wrapper over the RocksIterator object with custom filter. */
+    /** Cursor wrapper over the RocksIterator object with custom filter, the filter is applied before the value of a row is read. */
     private static class ScanCursor extends RocksIteratorAdapter<DataRow> {
         /** Custom filter predicate. */
         private final Predicate<SearchRow> filter;
 
+        /** Current row, if it has been read and matches the filter. Its value is not read yet. */
+        @Nullable
+        private ScanRow row;
+
         /**
          * Constructor.
          *
@@ -475,31 +870,106 @@ class RocksDbPartitionStorage implements PartitionStorage {
         /** {@inheritDoc} */
         @Override
         public boolean hasNext() {
-            while (super.hasNext() && !filter.test(decodeEntry(it.key(), it.value()))) {
-                it.next();
+            while (row == null && super.hasNext()) {
+                var row0 = new ScanRow(it.key());
+
+                if (filter.test(row0)) {
+                    row = row0;
+                } else {
+                    it.next();
+                }
             }
 
-            return super.hasNext();
+            return row != null;
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public DataRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            ScanRow res = row;
+
+            res.value = it.value();
+
+            row = null;
+
+            it.next();
+
+            return res;
+        }
+
+        /** {@inheritDoc} */
         @Override
         protected DataRow decodeEntry(byte[] key, byte[] value) {
-            byte[] rowKey = Arrays.copyOfRange(key, PARTITION_KEY_PREFIX_SIZE, key.length);
+            ScanRow res = new ScanRow(key);
+
+            res.value = value;
+
+            return res;
+        }
+    }
+
+    /**
+     * Row of a scan. The key is a slice of the partition key read from RocksDB, it is copied only if requested as an array.
+     */
+    private static class ScanRow implements DataRow {
+        /** Partition key. */
+        private final byte[] partitionKey;
+
+        /** Key, copied from the partition key on demand. */
+        private byte @Nullable [] key;
+
+        /** Value, {@code null} while the row is being filtered. */
+        private byte[] value;
+
+        /**
+         * Constructor.
+         *
+         * @param partitionKey Partition key.
+         */
+        private ScanRow(byte[] partitionKey) {
+            this.partitionKey = partitionKey;
+        }
 
-            return new SimpleDataRow(rowKey, value);
+        /** {@inheritDoc} */
+        @Override
+        public byte @NotNull [] keyBytes() {
+            if (key == null) {
+                key = Arrays.copyOfRange(partitionKey, PARTITION_KEY_PREFIX_SIZE, partitionKey.length);
+            }
+
+            return key;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public @NotNull ByteBuffer key() {
+            return ByteBuffer.wrap(partitionKey, PARTITION_KEY_PREFIX_SIZE, partitionKey.length - PARTITION_KEY_PREFIX_SIZE).slice();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public byte[] valueBytes() {
+            return value;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ByteBuffer value() {
+            return ByteBuffer.wrap(value);
         }
     }
 
     /**
-     * Creates a key used in this partition storage by prepending a partition ID (to distinguish between different partition data)
-     * and the key's hash (an optimisation).
+     * Creates a key used in this partition storage by prepending a partition ID (to distinguish between different partition data).
      */
     private byte[] partitionKey(byte[] key) {
         return ByteBuffer.allocate(PARTITION_KEY_PREFIX_SIZE + key.length)
                 .order(ByteOrder.BIG_ENDIAN)
                 .putShort((short) partId)
-                // TODO: use precomputed hash, see https://issues.apache.org/jira/browse/IGNITE-16370
-                .putInt(Arrays.hashCode(key))
                 .put(key)
                 .array();
     }
@@ -46,6 +46,13 @@ public class RocksDbStorageEngine implements StorageEngine {
     private final ExecutorService threadPool = Executors.newFixedThreadPool(
             Runtime.getRuntime().availableProcessors(), new NamedThreadFactory("rocksdb-storage-engine-pool"));
 
+    /**
+     * Storage I/O pool for the asynchronous reads, so that the reads that miss the block cache and go to the disk don't block the threads
+     * applying the Raft commands. The pool is bounded, the reads are queued when all of its threads are busy.
+     */
+    private final ExecutorService ioPool = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), new NamedThreadFactory("rocksdb-storage-io"));
+
     /** {@inheritDoc} */
     @Override
     public void start() {
@@ -55,6 +62,7 @@ public class RocksDbStorageEngine implements StorageEngine {
     @Override
     public void stop() throws StorageException {
         IgniteUtils.shutdownAndAwaitTermination(threadPool, 10, TimeUnit.SECONDS);
+        IgniteUtils.shutdownAndAwaitTermination(ioPool, 10, TimeUnit.SECONDS);
     }
 
     /** {@inheritDoc} */
@@ -74,6 +82,7 @@ public class RocksDbStorageEngine implements StorageEngine {
                 tablePath,
                 tableCfg,
                 threadPool,
+                ioPool,
                 (RocksDbDataRegion) dataRegion
         );
     }
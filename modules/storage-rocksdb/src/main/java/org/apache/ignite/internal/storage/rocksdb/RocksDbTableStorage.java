@@ -19,6 +19,10 @@ package org.apache.ignite.internal.storage.rocksdb;
 
 import static org.apache.ignite.internal.storage.rocksdb.ColumnFamilyUtils.PARTITION_CF_NAME;
 import static org.apache.ignite.internal.storage.rocksdb.ColumnFamilyUtils.columnFamilyType;
+import static org.apache.ignite.internal.storage.rocksdb.ColumnFamilyUtils.hashIndexCfName;
+import static org.apache.ignite.internal.storage.rocksdb.ColumnFamilyUtils.hashIndexName;
+import static org.apache.ignite.internal.storage.rocksdb.ColumnFamilyUtils.partitionCfName;
+import static org.apache.ignite.internal.storage.rocksdb.ColumnFamilyUtils.partitionId;
 import static org.apache.ignite.internal.storage.rocksdb.ColumnFamilyUtils.sortedIndexCfName;
 import static org.apache.ignite.internal.storage.rocksdb.ColumnFamilyUtils.sortedIndexName;
 
@@ -35,31 +39,49 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
 import org.apache.ignite.configuration.schemas.table.TableConfiguration;
+import org.apache.ignite.configuration.schemas.table.TableStorageConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.TableStorageView;
 import org.apache.ignite.internal.rocksdb.ColumnFamily;
 import org.apache.ignite.internal.storage.PartitionStorage;
 import org.apache.ignite.internal.storage.StorageException;
 import org.apache.ignite.internal.storage.engine.DataRegion;
 import org.apache.ignite.internal.storage.engine.TableStorage;
+import org.apache.ignite.internal.storage.index.HashIndexDescriptor;
+import org.apache.ignite.internal.storage.index.HashIndexStorage;
 import org.apache.ignite.internal.storage.index.SortedIndexDescriptor;
 import org.apache.ignite.internal.storage.index.SortedIndexStorage;
 import org.apache.ignite.internal.storage.rocksdb.index.BinaryRowComparator;
+import org.apache.ignite.internal.storage.rocksdb.index.RocksDbHashIndexStorage;
 import org.apache.ignite.internal.storage.rocksdb.index.RocksDbSortedIndexStorage;
 import org.apache.ignite.internal.tostring.S;
 import org.apache.ignite.internal.util.IgniteUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompressionOptions;
+import org.rocksdb.CompressionType;
 import org.rocksdb.DBOptions;
 import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.TableProperties;
+import org.rocksdb.WriteBatchWithIndex;
+import org.rocksdb.WriteOptions;
 
 /**
  * Table storage implementation based on {@link RocksDB} instance.
  */
 class RocksDbTableStorage implements TableStorage {
+    /** Number of bits per key of the prefix bloom filters of the hash indexes, gives about 1% of false positives. */
+    private static final int HASH_INDEX_BLOOM_BITS_PER_KEY = 10;
+
+    /** Share of the memtable size used by the prefix bloom filter of the memtables of the hash indexes. */
+    private static final double HASH_INDEX_MEMTABLE_BLOOM_RATIO = 0.1;
+
     /** Path for the directory that stores table data. */
     private final Path tablePath;
 
@@ -69,6 +91,9 @@ class RocksDbTableStorage implements TableStorage {
     /** Thread pool for async operations. */
     private final Executor threadPool;
 
+    /** Storage I/O pool for the asynchronous reads. */
+    private final Executor ioPool;
+
     /** Data region for the table. */
     private final RocksDbDataRegion dataRegion;
 
@@ -84,12 +109,33 @@ class RocksDbTableStorage implements TableStorage {
     /** Column Family handle for partition data. */
     private volatile ColumnFamily partitionCf;
 
+    /** Dedicated partition column families by partition IDs, these are owned by the partition storages. */
+    private final Map<Integer, ColumnFamily> dedicatedPartitionCfs = new ConcurrentHashMap<>();
+
+    /** Storage options of the table, read on start. */
+    private volatile TableStorageView storageOptions;
+
+    /** Compression options of the last level. */
+    private volatile CompressionOptions bottommostCompressionOptions;
+
+    /** Write options for partition data. */
+    private volatile WriteOptions partitionWriteOpts;
+
     /** Partition storages. */
     private volatile AtomicReferenceArray<PartitionStorage> partitions;
 
+    /**
+     * Write batch of the partition storage closure executed by the current thread. Shared by the partitions and the indexes, so that the
+     * index updates made by the closure are written atomically with the partition data.
+     */
+    private final ThreadLocal<WriteBatchWithIndex> threadLocalWriteBatch = new ThreadLocal<>();
+
     /** Column families for indexes by their names. */
     private final Map<String, RocksDbSortedIndexStorage> sortedIndices = new ConcurrentHashMap<>();
 
+    /** Column families for hash indexes by their names. */
+    private final Map<String, RocksDbHashIndexStorage> hashIndices = new ConcurrentHashMap<>();
+
     /** Flag indicating if the storage has been stopped. */
     private volatile boolean stopped = false;
 
@@ -99,17 +145,20 @@ class RocksDbTableStorage implements TableStorage {
      * @param tablePath  Path for the directory that stores table data.
      * @param tableCfg   Table configuration.
      * @param threadPool Thread pool for async operations.
+     * @param ioPool     Storage I/O pool for the asynchronous reads.
      * @param dataRegion Data region for the table.
      */
     RocksDbTableStorage(
             Path tablePath,
             TableConfiguration tableCfg,
             Executor threadPool,
+            Executor ioPool,
             RocksDbDataRegion dataRegion
     ) {
         this.tablePath = tablePath;
         this.tableCfg = tableCfg;
         this.threadPool = threadPool;
+        this.ioPool = ioPool;
         this.dataRegion = dataRegion;
     }
 
@@ -134,13 +183,30 @@ class RocksDbTableStorage implements TableStorage {
             throw new StorageException("Failed to create a directory for the table storage", e);
         }
 
+        storageOptions = tableCfg.value().storage();
+
+        // The dictionary only pays off for the large files of the last level, the files of the upper levels are soon rewritten.
+        bottommostCompressionOptions = addToCloseableResources(new CompressionOptions()
+                .setMaxDictBytes(storageOptions.zstdDictionarySize())
+                .setZStdMaxTrainBytes(storageOptions.zstdTrainingSize())
+                .setEnabled(true));
+
         List<ColumnFamilyDescriptor> cfDescriptors = getExistingCfDescriptors();
 
         List<ColumnFamilyHandle> cfHandles = new ArrayList<>(cfDescriptors.size());
 
-        DBOptions dbOptions = new DBOptions()
+        boolean disableWal = dataRegion.disableWal();
+
+        DBOptions dbOptions = addToCloseableResources(new DBOptions()
                 .setCreateIfMissing(true)
-                .setWriteBufferManager(dataRegion.writeBufferManager());
+                // Partition data and its applied index live in different column families, they must be flushed together if there's no
+                // write-ahead log to recover them from.
+                .setAtomicFlush(disableWal)
+                .setWriteBufferManager(dataRegion.writeBufferManager()));
+
+        if (dataRegion.rateLimiter() != null) {
+            dbOptions.setRateLimiter(dataRegion.rateLimiter());
+        }
 
         try {
             db = RocksDB.open(dbOptions, tablePath.toAbsolutePath().toString(), cfDescriptors, cfHandles);
@@ -150,6 +216,8 @@ class RocksDbTableStorage implements TableStorage {
 
         addToCloseableResources(db::closeE);
 
+        partitionWriteOpts = addToCloseableResources(new WriteOptions().setDisableWAL(disableWal));
+
         // read all existing Column Families from the db and parse them according to type: meta, partition data or index.
         for (int i = 0; i < cfHandles.size(); i++) {
             ColumnFamilyHandle cfHandle = cfHandles.get(i);
@@ -171,12 +239,26 @@ class RocksDbTableStorage implements TableStorage {
 
                     break;
 
+                case DEDICATED_PARTITION:
+                    dedicatedPartitionCfs.put(partitionId(handleName), cf);
+
+                    break;
+
                 case SORTED_INDEX:
                     String indexName = sortedIndexName(handleName);
 
                     var indexDescriptor = new SortedIndexDescriptor(indexName, tableCfg.value());
 
-                    sortedIndices.put(indexName, new RocksDbSortedIndexStorage(cf, indexDescriptor));
+                    sortedIndices.put(indexName, new RocksDbSortedIndexStorage(cf, indexDescriptor, threadLocalWriteBatch));
+
+                    break;
+
+                case HASH_INDEX:
+                    String hashIndexName = hashIndexName(handleName);
+
+                    var hashIndexDescriptor = new HashIndexDescriptor(hashIndexName, tableCfg.value());
+
+                    hashIndices.put(hashIndexName, new RocksDbHashIndexStorage(cf, hashIndexDescriptor, threadLocalWriteBatch));
 
                     break;
 
@@ -192,7 +274,16 @@ class RocksDbTableStorage implements TableStorage {
         partitions = new AtomicReferenceArray<>(tableCfg.value().partitions());
 
         for (int partId : meta.getPartitionIds()) {
-            partitions.set(partId, new RocksDbPartitionStorage(threadPool, partId, db, partitionCf));
+            partitions.set(partId, createPartitionStorage(partId, dedicatedPartitionCfs.get(partId)));
+        }
+
+        // A dedicated column family is created before the partition ID is put to the meta, adopt the ones left by a crash in between.
+        for (Map.Entry<Integer, ColumnFamily> e : dedicatedPartitionCfs.entrySet()) {
+            if (partitions.get(e.getKey()) == null) {
+                partitions.set(e.getKey(), createPartitionStorage(e.getKey(), e.getValue()));
+
+                meta.putPartitionId(e.getKey());
+            }
         }
     }
 
@@ -218,6 +309,8 @@ class RocksDbTableStorage implements TableStorage {
 
         resources.addAll(sortedIndices.values());
 
+        resources.addAll(hashIndices.values());
+
         for (int i = 0; i < partitions.length(); i++) {
             PartitionStorage partition = partitions.get(i);
 
@@ -252,9 +345,29 @@ class RocksDbTableStorage implements TableStorage {
             return storage;
         }
 
-        // Possible races when creating the partitions with the same ID are safe, since both the storage creation and the meta update
-        // are cheap and idempotent.
-        storage = new RocksDbPartitionStorage(threadPool, partId, db, partitionCf);
+        return createPartition(partId);
+    }
+
+    /**
+     * Creates a storage of the given partition if it doesn't exist yet. Synchronized, since a dedicated column family of the partition
+     * can only be created once.
+     */
+    private synchronized PartitionStorage createPartition(int partId) {
+        PartitionStorage storage = partitions.get(partId);
+
+        if (storage != null) {
+            return storage;
+        }
+
+        ColumnFamily dedicatedCf = null;
+
+        if (dataRegion.partitionColumnFamilies()) {
+            dedicatedCf = createColumnFamily(partitionCfName(partId), dedicatedPartitionCfDescriptor(partId));
+
+            dedicatedPartitionCfs.put(partId, dedicatedCf);
+        }
+
+        storage = createPartitionStorage(partId, dedicatedCf);
 
         partitions.set(partId, storage);
 
@@ -276,7 +389,7 @@ class RocksDbTableStorage implements TableStorage {
 
     /** {@inheritDoc} */
     @Override
-    public void dropPartition(int partId) throws StorageException {
+    public synchronized void dropPartition(int partId) throws StorageException {
         PartitionStorage partition = getPartition(partId);
 
         if (partition != null) {
@@ -284,10 +397,42 @@ class RocksDbTableStorage implements TableStorage {
 
             partition.destroy();
 
+            dedicatedPartitionCfs.remove(partId);
+
             meta.removePartitionId(partId);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The ratio is computed from the properties of the SST files of the partition data, the data in the memtables is not counted.
+     */
+    @Override
+    public double compressionRatio() {
+        assert !stopped : "Storage has been stopped";
+
+        List<ColumnFamily> dataCfs = new ArrayList<>(dedicatedPartitionCfs.values());
+
+        dataCfs.add(partitionCf);
+
+        long rawSize = 0;
+        long dataSize = 0;
+
+        try {
+            for (ColumnFamily cf : dataCfs) {
+                for (TableProperties props : db.getPropertiesOfAllTables(cf.handle()).values()) {
+                    rawSize += props.getRawKeySize() + props.getRawValueSize();
+                    dataSize += props.getDataSize();
+                }
+            }
+        } catch (RocksDBException e) {
+            throw new StorageException("Failed to read the table properties [table=" + tableCfg.name().value() + ']', e);
+        }
+
+        return dataSize == 0 ? 1.0 : (double) rawSize / dataSize;
+    }
+
     @Override
     public SortedIndexStorage getOrCreateSortedIndex(String indexName) {
         assert !stopped : "Storage has been stopped";
@@ -299,7 +444,20 @@ class RocksDbTableStorage implements TableStorage {
 
             ColumnFamily cf = createColumnFamily(sortedIndexCfName(name), cfDescriptor);
 
-            return new RocksDbSortedIndexStorage(cf, indexDescriptor);
+            return new RocksDbSortedIndexStorage(cf, indexDescriptor, threadLocalWriteBatch);
+        });
+    }
+
+    @Override
+    public HashIndexStorage getOrCreateHashIndex(String indexName) {
+        assert !stopped : "Storage has been stopped";
+
+        return hashIndices.computeIfAbsent(indexName, name -> {
+            var indexDescriptor = new HashIndexDescriptor(name, tableCfg.value());
+
+            ColumnFamily cf = createColumnFamily(hashIndexCfName(name), hashIndexCfDescriptor(name));
+
+            return new RocksDbHashIndexStorage(cf, indexDescriptor, threadLocalWriteBatch);
         });
     }
 
@@ -312,6 +470,12 @@ class RocksDbTableStorage implements TableStorage {
 
             return null;
         });
+
+        hashIndices.computeIfPresent(indexName, (name, indexStorage) -> {
+            indexStorage.destroy();
+
+            return null;
+        });
     }
 
     /**
@@ -389,13 +553,17 @@ class RocksDbTableStorage implements TableStorage {
         switch (columnFamilyType(cfName)) {
             case META:
             case PARTITION:
-                return new ColumnFamilyDescriptor(cfName.getBytes(StandardCharsets.UTF_8), new ColumnFamilyOptions());
+            case DEDICATED_PARTITION:
+                return new ColumnFamilyDescriptor(cfName.getBytes(StandardCharsets.UTF_8), columnFamilyOptions());
 
             case SORTED_INDEX:
                 var indexDescriptor = new SortedIndexDescriptor(sortedIndexName(cfName), tableCfg.value());
 
                 return sortedIndexCfDescriptor(indexDescriptor);
 
+            case HASH_INDEX:
+                return hashIndexCfDescriptor(hashIndexName(cfName));
+
             default:
                 throw new StorageException("Unidentified column family [name=" + cfName + ", table=" + tableCfg.name() + ']');
         }
@@ -404,21 +572,114 @@ class RocksDbTableStorage implements TableStorage {
     /**
      * Creates a descriptor of the "partition" Column Family.
      */
-    private static ColumnFamilyDescriptor partitionCfDescriptor() {
-        return new ColumnFamilyDescriptor(PARTITION_CF_NAME.getBytes(StandardCharsets.UTF_8), new ColumnFamilyOptions());
+    private ColumnFamilyDescriptor partitionCfDescriptor() {
+        return new ColumnFamilyDescriptor(PARTITION_CF_NAME.getBytes(StandardCharsets.UTF_8), columnFamilyOptions());
+    }
+
+    /**
+     * Creates a descriptor of the Column Family that stores the data of the given partition only.
+     */
+    private ColumnFamilyDescriptor dedicatedPartitionCfDescriptor(int partId) {
+        return new ColumnFamilyDescriptor(partitionCfName(partId).getBytes(StandardCharsets.UTF_8), columnFamilyOptions());
     }
 
     /**
      * Creates a Column Family descriptor for a Sorted Index.
      */
-    private static ColumnFamilyDescriptor sortedIndexCfDescriptor(SortedIndexDescriptor descriptor) {
+    private ColumnFamilyDescriptor sortedIndexCfDescriptor(SortedIndexDescriptor descriptor) {
         String cfName = sortedIndexCfName(descriptor.name());
 
-        ColumnFamilyOptions options = new ColumnFamilyOptions().setComparator(new BinaryRowComparator(descriptor));
+        ColumnFamilyOptions options = columnFamilyOptions().setComparator(new BinaryRowComparator(descriptor));
+
+        return new ColumnFamilyDescriptor(cfName.getBytes(StandardCharsets.UTF_8), options);
+    }
+
+    /**
+     * Creates a Column Family descriptor for a Hash Index. The keys of the index start with the hash of the indexed values, which is used
+     * as the prefix for the bloom filters of both the SST files and the memtables, so lookups of absent values are served from memory.
+     */
+    private ColumnFamilyDescriptor hashIndexCfDescriptor(String indexName) {
+        String cfName = hashIndexCfName(indexName);
+
+        BlockBasedTableConfig tableConfig = blockBasedTableConfig()
+                .setFilterPolicy(new BloomFilter(HASH_INDEX_BLOOM_BITS_PER_KEY, false))
+                .setWholeKeyFiltering(false);
+
+        ColumnFamilyOptions options = columnFamilyOptions()
+                .setTableFormatConfig(tableConfig)
+                .useFixedLengthPrefixExtractor(RocksDbHashIndexStorage.PREFIX_LENGTH)
+                .setMemtablePrefixBloomSizeRatio(HASH_INDEX_MEMTABLE_BLOOM_RATIO);
 
         return new ColumnFamilyDescriptor(cfName.getBytes(StandardCharsets.UTF_8), options);
     }
 
+    /**
+     * Creates Column Family options that read the data blocks through the block cache of the data region. Index and filter blocks are
+     * stored in the cache as well, so that their memory is bounded by the region size no matter how many tables there are. The data
+     * blocks are compressed according to the storage options of the table.
+     */
+    private ColumnFamilyOptions columnFamilyOptions() {
+        return new ColumnFamilyOptions()
+                .setTableFormatConfig(blockBasedTableConfig())
+                .setCompressionType(compressionType(storageOptions.compression()))
+                .setBottommostCompressionType(compressionType(storageOptions.bottommostCompression()))
+                .setBottommostCompressionOptions(bottommostCompressionOptions);
+    }
+
+    /**
+     * Converts a compression name from the table storage options to the RocksDB compression type.
+     */
+    private static CompressionType compressionType(String compression) {
+        switch (compression) {
+            case TableStorageConfigurationSchema.NO_COMPRESSION:
+                return CompressionType.NO_COMPRESSION;
+
+            case TableStorageConfigurationSchema.SNAPPY_COMPRESSION:
+                return CompressionType.SNAPPY_COMPRESSION;
+
+            case TableStorageConfigurationSchema.LZ4_COMPRESSION:
+                return CompressionType.LZ4_COMPRESSION;
+
+            case TableStorageConfigurationSchema.ZSTD_COMPRESSION:
+                return CompressionType.ZSTD_COMPRESSION;
+
+            default:
+                throw new StorageException("Unknown compression [name=" + compression + ']');
+        }
+    }
+
+    /**
+     * Creates a table format config that uses the block cache of the data region for the data, index and filter blocks.
+     */
+    private BlockBasedTableConfig blockBasedTableConfig() {
+        return new BlockBasedTableConfig()
+                .setBlockSize(storageOptions.blockSize())
+                .setBlockCache(dataRegion.cache())
+                .setCacheIndexAndFilterBlocks(true)
+                .setPinL0FilterAndIndexBlocksInCache(true);
+    }
+
+    /**
+     * Creates a storage of the given partition.
+     *
+     * @param partId Partition ID.
+     * @param dedicatedCf Column family that stores the data of this partition only, {@code null} if the data is stored in the shared
+     *      partition column family.
+     */
+    private RocksDbPartitionStorage createPartitionStorage(int partId, @Nullable ColumnFamily dedicatedCf) {
+        return new RocksDbPartitionStorage(
+                threadPool,
+                ioPool,
+                partId,
+                db,
+                dedicatedCf == null ? partitionCf : dedicatedCf,
+                dedicatedCf != null,
+                meta,
+                partitionWriteOpts,
+                threadLocalWriteBatch
+        );
+    }
+
     /**
      * Adds resource to the {@link #autoCloseables} list.
      *
@@ -45,4 +45,14 @@ class BinaryIndexRowDeserializer implements IndexRowDeserializer {
                 .map(column -> column.type().spec().objectValue(row, column.schemaIndex()))
                 .toArray();
     }
+
+    @Override
+    public Object[] indexRowColumnValues(IndexRow indexRow) {
+        var row = new Row(descriptor.asSchemaDescriptor(), new ByteBufferRow(indexRow.rowBytes()));
+
+        return descriptor.indexRowColumns().stream()
+                .map(ColumnDescriptor::column)
+                .map(column -> column.type().spec().objectValue(row, column.schemaIndex()))
+                .toArray();
+    }
 }
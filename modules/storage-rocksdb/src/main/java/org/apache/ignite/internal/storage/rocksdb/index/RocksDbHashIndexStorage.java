@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.storage.rocksdb.index;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import org.apache.ignite.internal.rocksdb.ColumnFamily;
+import org.apache.ignite.internal.rocksdb.RocksIteratorAdapter;
+import org.apache.ignite.internal.schema.BinaryRow;
+import org.apache.ignite.internal.storage.SearchRow;
+import org.apache.ignite.internal.storage.StorageException;
+import org.apache.ignite.internal.storage.index.HashIndexDescriptor;
+import org.apache.ignite.internal.storage.index.HashIndexStorage;
+import org.apache.ignite.internal.util.Cursor;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatchWithIndex;
+
+/**
+ * {@link HashIndexStorage} implementation based on RocksDB.
+ *
+ * <p>The entries are stored as keys with empty values, every key has the following format:
+ * <pre>
+ * [hash of the index key (4 bytes)][length of the index key (4 bytes)][index key][primary key]
+ * </pre>
+ * The Column Family of the index is expected to be configured with a fixed-length prefix extractor of {@link #PREFIX_LENGTH} bytes and
+ * prefix bloom filters, so a lookup of the values that are not present in the index doesn't read any data blocks, and the lookup of the
+ * present ones only reads the entries with the same hash.
+ */
+public class RocksDbHashIndexStorage implements HashIndexStorage {
+    /** Length of the key prefix covered by the bloom filters: the hash of the index key. */
+    public static final int PREFIX_LENGTH = Integer.BYTES;
+
+    /** Value of all the entries. */
+    private static final byte[] EMPTY_VALUE = new byte[0];
+
+    private final ColumnFamily indexCf;
+
+    /** Write batch of the partition storage closure executed by the current thread, see {@code PartitionStorage#runConsistently}. */
+    private final ThreadLocal<WriteBatchWithIndex> threadLocalWriteBatch;
+
+    private final HashIndexDescriptor descriptor;
+
+    /**
+     * Creates a new Index storage.
+     *
+     * @param indexCf Column Family for storing the data.
+     * @param descriptor Index descriptor.
+     * @param threadLocalWriteBatch Write batch of the partition storage closure executed by the current thread, shared by all the
+     *      partitions and indexes of the table.
+     */
+    public RocksDbHashIndexStorage(
+            ColumnFamily indexCf,
+            HashIndexDescriptor descriptor,
+            ThreadLocal<WriteBatchWithIndex> threadLocalWriteBatch
+    ) {
+        this.indexCf = indexCf;
+        this.descriptor = descriptor;
+        this.threadLocalWriteBatch = threadLocalWriteBatch;
+    }
+
+    @Override
+    public HashIndexDescriptor indexDescriptor() {
+        return descriptor;
+    }
+
+    @Override
+    public void put(Object[] columnValues, SearchRow primaryKey) {
+        byte[] key = entryKey(columnValues, primaryKey);
+
+        try {
+            WriteBatchWithIndex batch = threadLocalWriteBatch.get();
+
+            if (batch == null) {
+                indexCf.put(key, EMPTY_VALUE);
+            } else {
+                batch.put(indexCf.handle(), key, EMPTY_VALUE);
+            }
+        } catch (RocksDBException e) {
+            throw new StorageException("Error while adding data to Rocks DB", e);
+        }
+    }
+
+    @Override
+    public void remove(Object[] columnValues, SearchRow primaryKey) {
+        byte[] key = entryKey(columnValues, primaryKey);
+
+        try {
+            WriteBatchWithIndex batch = threadLocalWriteBatch.get();
+
+            if (batch == null) {
+                indexCf.delete(key);
+            } else {
+                batch.delete(indexCf.handle(), key);
+            }
+        } catch (RocksDBException e) {
+            throw new StorageException("Error while removing data from Rocks DB", e);
+        }
+    }
+
+    @Override
+    public Cursor<SearchRow> get(Object[] columnValues) {
+        byte[] prefix = keyPrefix(descriptor.indexKey(columnValues));
+
+        // The iteration is bounded by the hash, so the prefix bloom filters are used to skip the files without the hash.
+        var options = new ReadOptions().setPrefixSameAsStart(true);
+
+        RocksIterator it = indexCf.newIterator(options);
+
+        it.seek(prefix);
+
+        return new RocksIteratorAdapter<>(it) {
+            @Override
+            public boolean hasNext() {
+                // The entries with the same hash but different index keys are skipped by the rest of the prefix.
+                return super.hasNext() && startsWith(it.key(), prefix);
+            }
+
+            @Override
+            protected SearchRow decodeEntry(byte[] key, byte[] value) {
+                return new ByteArraySearchRow(Arrays.copyOfRange(key, prefix.length, key.length));
+            }
+
+            @Override
+            public void close() throws Exception {
+                super.close();
+
+                IgniteUtils.closeAll(options);
+            }
+        };
+    }
+
+    @Override
+    public void close() throws Exception {
+        indexCf.close();
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            indexCf.destroy();
+        } catch (Exception e) {
+            throw new StorageException(String.format("Failed to destroy index \"%s\"", descriptor.name()), e);
+        }
+    }
+
+    /**
+     * Creates the key of an index entry.
+     */
+    private byte[] entryKey(Object[] columnValues, SearchRow primaryKey) {
+        byte[] prefix = keyPrefix(descriptor.indexKey(columnValues));
+        byte[] primaryKeyBytes = primaryKey.keyBytes();
+
+        byte[] key = Arrays.copyOf(prefix, prefix.length + primaryKeyBytes.length);
+
+        System.arraycopy(primaryKeyBytes, 0, key, prefix.length, primaryKeyBytes.length);
+
+        return key;
+    }
+
+    /**
+     * Creates the common prefix of the keys of all the entries of the given index key.
+     */
+    private static byte[] keyPrefix(BinaryRow indexKey) {
+        byte[] keyBytes = indexKey.bytes();
+
+        return ByteBuffer.allocate(PREFIX_LENGTH + Integer.BYTES + keyBytes.length)
+                .order(ByteOrder.BIG_ENDIAN)
+                .putInt(indexKey.hash())
+                .putInt(keyBytes.length)
+                .put(keyBytes)
+                .array();
+    }
+
+    /**
+     * Checks if the given key starts with the given prefix.
+     */
+    private static boolean startsWith(byte[] key, byte[] prefix) {
+        return key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+    }
+}
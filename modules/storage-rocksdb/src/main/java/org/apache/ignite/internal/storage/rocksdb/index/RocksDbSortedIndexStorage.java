@@ -31,6 +31,7 @@ import org.apache.ignite.internal.util.Cursor;
 import org.jetbrains.annotations.Nullable;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatchWithIndex;
 
 /**
  * {@link SortedIndexStorage} implementation based on RocksDB.
@@ -38,6 +39,9 @@ import org.rocksdb.RocksIterator;
 public class RocksDbSortedIndexStorage implements SortedIndexStorage {
     private final ColumnFamily indexCf;
 
+    /** Write batch of the partition storage closure executed by the current thread, see {@code PartitionStorage#runConsistently}. */
+    private final ThreadLocal<WriteBatchWithIndex> threadLocalWriteBatch;
+
     private final SortedIndexDescriptor descriptor;
 
     private final IndexRowFactory indexRowFactory;
@@ -49,9 +53,16 @@ public class RocksDbSortedIndexStorage implements SortedIndexStorage {
      *
      * @param indexCf Column Family for storing the data.
      * @param descriptor Index descriptor.
+     * @param threadLocalWriteBatch Write batch of the partition storage closure executed by the current thread, shared by all the
+     *      partitions and indexes of the table.
      */
-    public RocksDbSortedIndexStorage(ColumnFamily indexCf, SortedIndexDescriptor descriptor) {
+    public RocksDbSortedIndexStorage(
+            ColumnFamily indexCf,
+            SortedIndexDescriptor descriptor,
+            ThreadLocal<WriteBatchWithIndex> threadLocalWriteBatch
+    ) {
         this.indexCf = indexCf;
+        this.threadLocalWriteBatch = threadLocalWriteBatch;
         this.descriptor = descriptor;
         this.indexRowFactory = new BinaryIndexRowFactory(descriptor);
         this.indexRowDeserializer = new BinaryIndexRowDeserializer(descriptor);
@@ -78,7 +89,13 @@ public class RocksDbSortedIndexStorage implements SortedIndexStorage {
         assert row.primaryKey().keyBytes().length > 0;
 
         try {
-            indexCf.put(row.rowBytes(), row.primaryKey().keyBytes());
+            WriteBatchWithIndex batch = threadLocalWriteBatch.get();
+
+            if (batch == null) {
+                indexCf.put(row.rowBytes(), row.primaryKey().keyBytes());
+            } else {
+                batch.put(indexCf.handle(), row.rowBytes(), row.primaryKey().keyBytes());
+            }
         } catch (RocksDBException e) {
             throw new StorageException("Error while adding data to Rocks DB", e);
         }
@@ -87,7 +104,13 @@ public class RocksDbSortedIndexStorage implements SortedIndexStorage {
     @Override
     public void remove(IndexRow key) {
         try {
-            indexCf.delete(key.rowBytes());
+            WriteBatchWithIndex batch = threadLocalWriteBatch.get();
+
+            if (batch == null) {
+                indexCf.delete(key.rowBytes());
+            } else {
+                batch.delete(indexCf.handle(), key.rowBytes());
+            }
         } catch (RocksDBException e) {
             throw new StorageException("Error while removing data from Rocks DB", e);
         }
@@ -17,12 +17,23 @@
 
 package org.apache.ignite.internal.storage.rocksdb;
 
+import static java.util.stream.Collectors.toSet;
 import static org.apache.ignite.internal.configuration.ConfigurationTestUtils.fixConfiguration;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
-
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import org.apache.ignite.configuration.schemas.store.DataRegionConfiguration;
 import org.apache.ignite.configuration.schemas.store.RocksDbDataRegionChange;
 import org.apache.ignite.configuration.schemas.store.RocksDbDataRegionConfigurationSchema;
@@ -31,6 +42,9 @@ import org.apache.ignite.configuration.schemas.table.TableConfiguration;
 import org.apache.ignite.internal.configuration.testframework.ConfigurationExtension;
 import org.apache.ignite.internal.configuration.testframework.InjectConfiguration;
 import org.apache.ignite.internal.storage.AbstractPartitionStorageTest;
+import org.apache.ignite.internal.storage.DataRow;
+import org.apache.ignite.internal.storage.PartitionStorage;
+import org.apache.ignite.internal.storage.basic.SimpleDataRow;
 import org.apache.ignite.internal.storage.engine.DataRegion;
 import org.apache.ignite.internal.storage.engine.StorageEngine;
 import org.apache.ignite.internal.storage.engine.TableStorage;
@@ -39,6 +53,7 @@ import org.apache.ignite.internal.testframework.WorkDirectoryExtension;
 import org.apache.ignite.internal.util.IgniteUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 /**
@@ -97,4 +112,87 @@ public class RocksDbPartitionStorageTest extends AbstractPartitionStorageTest {
                 engine::stop
         );
     }
+
+    /**
+     * Tests that a snapshot of a partition is a checkpoint of the table, which is restored into another table without the data of the
+     * other partitions, and that the snapshot is left intact by the restore.
+     */
+    @Test
+    void testCheckpointSnapshot(
+            @WorkDirectory Path workDir,
+            @InjectConfiguration(polymorphicExtensions = HashIndexConfigurationSchema.class) TableConfiguration tableCfg
+    ) throws Exception {
+        TableStorage srcTable = engine.createTable(workDir.resolve("src"), tableCfg, dataRegion);
+        TableStorage dstTable = engine.createTable(workDir.resolve("dst"), tableCfg, dataRegion);
+
+        try {
+            srcTable.start();
+            dstTable.start();
+
+            PartitionStorage srcPartition = srcTable.getOrCreatePartition(1);
+
+            DataRow row = dataRow("key", "value");
+            DataRow otherRow = dataRow("otherKey", "otherValue");
+
+            srcPartition.write(row);
+            srcTable.getOrCreatePartition(2).write(otherRow);
+
+            srcPartition.lastAppliedIndex(10);
+
+            Path snapshotDir = workDir.resolve("snapshot");
+
+            srcPartition.snapshot(snapshotDir).get(1, TimeUnit.SECONDS);
+
+            Set<String> snapshotFiles;
+
+            try (Stream<Path> files = Files.list(snapshotDir)) {
+                snapshotFiles = files.map(file -> file.getFileName().toString()).collect(toSet());
+            }
+
+            // The live files of the database are linked, the rows are not rewritten into a file of the partition.
+            assertTrue(snapshotFiles.contains("CURRENT"), snapshotFiles.toString());
+            assertTrue(snapshotFiles.stream().anyMatch(name -> name.endsWith(".sst")), snapshotFiles.toString());
+            assertFalse(snapshotFiles.contains(ColumnFamilyUtils.PARTITION_CF_NAME), snapshotFiles.toString());
+
+            PartitionStorage dstPartition = dstTable.getOrCreatePartition(1);
+
+            dstPartition.restoreSnapshot(snapshotDir);
+
+            assertArrayEquals(row.valueBytes(), dstPartition.read(row).valueBytes());
+            assertNull(dstPartition.read(otherRow));
+            assertNull(dstTable.getOrCreatePartition(2).read(otherRow));
+
+            assertThat(dstPartition.lastAppliedIndex(), is(10L));
+
+            try (Stream<Path> files = Files.list(snapshotDir)) {
+                assertThat(files.map(file -> file.getFileName().toString()).collect(toSet()), is(snapshotFiles));
+            }
+        } finally {
+            IgniteUtils.closeAll(dstTable::stop, srcTable::stop);
+        }
+    }
+
+    /**
+     * Tests that the last applied index is not updated by a {@link PartitionStorage#runConsistently} closure that fails, since its write
+     * batch is not committed.
+     */
+    @Test
+    void testAppliedIndexNotUpdatedOnFailure() {
+        storage.lastAppliedIndex(10);
+
+        assertThrows(IllegalStateException.class, () -> storage.runConsistently(() -> {
+            storage.write(dataRow("key", "value"));
+
+            storage.lastAppliedIndex(20);
+
+            throw new IllegalStateException("Failed to apply a command");
+        }));
+
+        assertThat(storage.lastAppliedIndex(), is(10L));
+        assertNull(storage.read(dataRow("key", "value")));
+    }
+
+    private static DataRow dataRow(String key, String value) {
+        return new SimpleDataRow(key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -17,6 +17,8 @@
 
 package org.apache.ignite.internal.storage.rocksdb;
 
+import static org.apache.ignite.configuration.schemas.table.TableStorageConfigurationSchema.LZ4_COMPRESSION;
+import static org.apache.ignite.configuration.schemas.table.TableStorageConfigurationSchema.ZSTD_COMPRESSION;
 import static org.apache.ignite.internal.configuration.ConfigurationTestUtils.fixConfiguration;
 import static org.apache.ignite.internal.testframework.matchers.CompletableFutureMatcher.willBe;
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -26,6 +28,7 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
@@ -206,4 +209,129 @@ public class RocksDbTableStorageTest {
         assertThat(storage.getPartition(1), is(nullValue()));
         assertThat(storage.getPartition(0).read(testData), is(equalTo(testData)));
     }
+
+    /**
+     * Tests that the last applied index of a partition is persisted along with the data and is not shared between partitions.
+     */
+    @Test
+    void testAppliedIndexRestart(
+            @InjectConfiguration(polymorphicExtensions = HashIndexConfigurationSchema.class) TableConfiguration tableCfg
+    ) {
+        var testData = new SimpleDataRow("foo".getBytes(StandardCharsets.UTF_8), "bar".getBytes(StandardCharsets.UTF_8));
+
+        PartitionStorage partitionStorage = storage.getOrCreatePartition(0);
+
+        partitionStorage.runConsistently(() -> {
+            partitionStorage.write(testData);
+
+            partitionStorage.lastAppliedIndex(42);
+
+            return null;
+        });
+
+        storage.getOrCreatePartition(1);
+
+        storage.stop();
+
+        storage = engine.createTable(workDir, tableCfg, dataRegion);
+
+        storage.start();
+
+        assertThat(storage.getPartition(0).lastAppliedIndex(), is(42L));
+        assertThat(storage.getPartition(0).read(testData), is(equalTo(testData)));
+        assertThat(storage.getPartition(1).lastAppliedIndex(), is(0L));
+    }
+
+    /**
+     * Tests the partitions stored in dedicated column families: independence, drop and restart.
+     */
+    @Test
+    void testDedicatedPartitionColumnFamilies(
+            @InjectConfiguration(polymorphicExtensions = RocksDbDataRegionConfigurationSchema.class) DataRegionConfiguration dataRegionCfg,
+            @InjectConfiguration(polymorphicExtensions = HashIndexConfigurationSchema.class) TableConfiguration tableCfg
+    ) throws Exception {
+        CompletableFuture<Void> changeFuture = dataRegionCfg.change(cfg ->
+                cfg.convert(RocksDbDataRegionChange.class).changeSize(16 * 1024).changeWriteBufferSize(16 * 1024)
+                        .changePartitionColumnFamilies(true)
+        );
+
+        assertThat(changeFuture, willBe(nullValue(Void.class)));
+
+        DataRegion cfDataRegion = engine.createDataRegion(fixConfiguration(dataRegionCfg));
+
+        cfDataRegion.start();
+
+        Path tablePath = workDir.resolve("cf-table");
+
+        TableStorage cfStorage = engine.createTable(tablePath, tableCfg, cfDataRegion);
+
+        try {
+            cfStorage.start();
+
+            var testData = new SimpleDataRow("foo".getBytes(StandardCharsets.UTF_8), "bar".getBytes(StandardCharsets.UTF_8));
+            var testData2 = new SimpleDataRow("baz".getBytes(StandardCharsets.UTF_8), "quux".getBytes(StandardCharsets.UTF_8));
+
+            cfStorage.getOrCreatePartition(0).write(testData);
+            cfStorage.getOrCreatePartition(1).write(testData2);
+            cfStorage.getOrCreatePartition(2).write(testData);
+
+            assertThat(toList(cfStorage.getPartition(0).scan(row -> true)), contains(testData));
+            assertThat(toList(cfStorage.getPartition(1).scan(row -> true)), contains(testData2));
+
+            cfStorage.dropPartition(2);
+
+            assertThat(cfStorage.getPartition(2), is(nullValue()));
+            assertThat(cfStorage.getOrCreatePartition(2).read(testData), is(nullValue()));
+
+            cfStorage.stop();
+
+            cfStorage = engine.createTable(tablePath, tableCfg, cfDataRegion);
+
+            cfStorage.start();
+
+            assertThat(cfStorage.getPartition(0).read(testData), is(equalTo(testData)));
+            assertThat(cfStorage.getPartition(1).read(testData2), is(equalTo(testData2)));
+            assertThat(cfStorage.getPartition(2), is(notNullValue()));
+            assertThat(cfStorage.getPartition(3), is(nullValue()));
+        } finally {
+            IgniteUtils.closeAll(cfStorage::stop, cfDataRegion::stop);
+        }
+    }
+
+    /**
+     * Tests that the table data is compressed according to the storage options of the table.
+     */
+    @Test
+    void testCompressionRatio(
+            @InjectConfiguration(polymorphicExtensions = HashIndexConfigurationSchema.class) TableConfiguration tableCfg
+    ) {
+        CompletableFuture<Void> changeFuture = tableCfg.change(cfg -> cfg.changeStorage(storageCfg ->
+                storageCfg.changeCompression(LZ4_COMPRESSION).changeBottommostCompression(ZSTD_COMPRESSION).changeZstdDictionarySize(4096)
+        ));
+
+        assertThat(changeFuture, willBe(nullValue(Void.class)));
+
+        storage.stop();
+
+        storage = engine.createTable(workDir, tableCfg, dataRegion);
+
+        storage.start();
+
+        PartitionStorage partitionStorage = storage.getOrCreatePartition(0);
+
+        byte[] value = "{\"name\":\"value\",\"tags\":[\"a\",\"b\",\"c\"]}".repeat(10).getBytes(StandardCharsets.UTF_8);
+
+        for (int i = 0; i < 1000; i++) {
+            partitionStorage.write(new SimpleDataRow(("key" + i).getBytes(StandardCharsets.UTF_8), value));
+        }
+
+        // The memtables are flushed to the SST files on restart.
+        storage.stop();
+
+        storage = engine.createTable(workDir, tableCfg, dataRegion);
+
+        storage.start();
+
+        assertThat(storage.compressionRatio(), is(greaterThan(2.0)));
+    }
 }
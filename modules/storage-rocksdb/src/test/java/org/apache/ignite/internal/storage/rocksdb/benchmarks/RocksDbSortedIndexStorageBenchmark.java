@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.storage.rocksdb.benchmarks;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import org.apache.ignite.configuration.schemas.store.DataRegionChange;
+import org.apache.ignite.configuration.schemas.store.RocksDbDataRegionChange;
+import org.apache.ignite.configuration.schemas.store.RocksDbDataRegionConfigurationSchema;
+import org.apache.ignite.internal.storage.benchmarks.AbstractSortedIndexStorageBenchmark;
+import org.apache.ignite.internal.storage.engine.StorageEngine;
+import org.apache.ignite.internal.storage.rocksdb.RocksDbStorageEngine;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Sorted index storage benchmark for {@link org.apache.ignite.internal.storage.rocksdb.index.RocksDbSortedIndexStorage}.
+ */
+public class RocksDbSortedIndexStorageBenchmark extends AbstractSortedIndexStorageBenchmark {
+    /**
+     * Runner.
+     */
+    public static void main(String[] args) throws RunnerException {
+        run(RocksDbSortedIndexStorageBenchmark.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected StorageEngine createEngine(Path workDir) {
+        return new RocksDbStorageEngine();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Collection<Class<?>> polymorphicSchemaExtensions() {
+        return List.of(RocksDbDataRegionConfigurationSchema.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void changeDataRegion(DataRegionChange regionChange) {
+        regionChange.convert(RocksDbDataRegionChange.class)
+                .changeSize(256L * 1024 * 1024)
+                .changeWriteBufferSize(64L * 1024 * 1024);
+    }
+}
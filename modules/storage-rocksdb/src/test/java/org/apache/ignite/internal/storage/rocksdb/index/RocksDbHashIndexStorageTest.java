@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.storage.rocksdb.index;
+
+import static org.apache.ignite.internal.configuration.ConfigurationTestUtils.fixConfiguration;
+import static org.apache.ignite.internal.testframework.matchers.CompletableFutureMatcher.willBe;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.ignite.configuration.schemas.store.DataRegionConfiguration;
+import org.apache.ignite.configuration.schemas.store.RocksDbDataRegionChange;
+import org.apache.ignite.configuration.schemas.store.RocksDbDataRegionConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.HashIndexConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.SortedIndexConfigurationSchema;
+import org.apache.ignite.configuration.schemas.table.TableConfiguration;
+import org.apache.ignite.internal.configuration.testframework.ConfigurationExtension;
+import org.apache.ignite.internal.configuration.testframework.InjectConfiguration;
+import org.apache.ignite.internal.storage.engine.DataRegion;
+import org.apache.ignite.internal.storage.index.AbstractHashIndexStorageTest;
+import org.apache.ignite.internal.storage.rocksdb.RocksDbStorageEngine;
+import org.apache.ignite.internal.testframework.WorkDirectory;
+import org.apache.ignite.internal.testframework.WorkDirectoryExtension;
+import org.apache.ignite.internal.util.IgniteUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test class for the {@link RocksDbHashIndexStorage}.
+ */
+@ExtendWith(WorkDirectoryExtension.class)
+@ExtendWith(ConfigurationExtension.class)
+public class RocksDbHashIndexStorageTest extends AbstractHashIndexStorageTest {
+    /**
+     * List of resources that need to be closed at the end of each test.
+     */
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @BeforeEach
+    void setUp(
+            @WorkDirectory Path workDir,
+            @InjectConfiguration(polymorphicExtensions = RocksDbDataRegionConfigurationSchema.class) DataRegionConfiguration dataRegionCfg,
+            @InjectConfiguration(polymorphicExtensions = {
+                    HashIndexConfigurationSchema.class,
+                    SortedIndexConfigurationSchema.class
+            }) TableConfiguration tableCfg
+    ) {
+        CompletableFuture<Void> dataRegionChangeFuture = dataRegionCfg
+                .change(cfg -> cfg.convert(RocksDbDataRegionChange.class).changeSize(16 * 1024).changeWriteBufferSize(16 * 1024));
+
+        assertThat(dataRegionChangeFuture, willBe(nullValue(Void.class)));
+
+        dataRegionCfg = fixConfiguration(dataRegionCfg);
+
+        configureTable(tableCfg);
+
+        var engine = new RocksDbStorageEngine();
+
+        engine.start();
+
+        resources.add(engine::stop);
+
+        DataRegion dataRegion = engine.createDataRegion(dataRegionCfg);
+
+        dataRegion.start();
+
+        resources.add(() -> {
+            dataRegion.beforeNodeStop();
+            dataRegion.stop();
+        });
+
+        this.tableCfg = tableCfg;
+
+        tableStorage = engine.createTable(workDir, tableCfg, dataRegion);
+
+        tableStorage.start();
+
+        resources.add(tableStorage::stop);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Collections.reverse(resources);
+
+        IgniteUtils.closeAll(resources);
+    }
+
+    /**
+     * Tests that the index storage is created by the RocksDB table storage.
+     */
+    @Test
+    void testStorageType() {
+        assertThat(createIndex("idx"), is(instanceOf(RocksDbHashIndexStorage.class)));
+    }
+}
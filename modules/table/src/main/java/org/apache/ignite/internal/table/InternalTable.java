@@ -210,6 +210,25 @@ public interface InternalTable extends AutoCloseable {
      */
     @NotNull Publisher<BinaryRow> scan(int p, @Nullable InternalTransaction tx);
 
+    /**
+     * Begins a read-only transaction, its reads see the rows committed as of its start and take no locks.
+     *
+     * @return The transaction.
+     */
+    InternalTransaction beginReadOnly();
+
+    /**
+     * Synchronizes the replica of the partition on the given node for a read-only transaction that reads the local data of the replica,
+     * e.g. its local indexes: the future completes once the replica has applied all the commands committed by the partition before the
+     * call, so the local data contains all the writes acknowledged before the transaction has begun.
+     *
+     * @param p The partition.
+     * @param nodeId Id of the node of the replica.
+     * @param tx The read-only transaction.
+     * @return Future that completes when the replica is synchronized.
+     */
+    CompletableFuture<Void> syncReplica(int p, String nodeId, InternalTransaction tx);
+
     /**
      * Gets a count of partitions of the table.
      *
@@ -18,14 +18,18 @@
 package org.apache.ignite.internal.table.distributed;
 
 import static org.apache.ignite.configuration.schemas.store.DataStorageConfigurationSchema.DEFAULT_DATA_REGION_NAME;
+import static org.apache.ignite.configuration.schemas.store.PageMemoryDataRegionConfigurationSchema.PAGE_MEMORY_DATA_REGION_TYPE;
+import static org.apache.ignite.configuration.schemas.store.RocksDbDataRegionConfigurationSchema.ROCKSDB_DATA_REGION_TYPE;
 import static org.apache.ignite.internal.configuration.util.ConfigurationUtil.directProxy;
 import static org.apache.ignite.internal.configuration.util.ConfigurationUtil.getByInternalId;
+import static org.apache.ignite.internal.table.distributed.storage.VersionedRowStore.DFLT_VERSION_RETENTION;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +40,9 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -46,9 +53,13 @@ import org.apache.ignite.configuration.ConfigurationChangeException;
 import org.apache.ignite.configuration.NamedListView;
 import org.apache.ignite.configuration.notifications.ConfigurationNamedListListener;
 import org.apache.ignite.configuration.notifications.ConfigurationNotificationEvent;
+import org.apache.ignite.configuration.schemas.store.DataRegionConfiguration;
 import org.apache.ignite.configuration.schemas.store.DataStorageConfiguration;
 import org.apache.ignite.configuration.schemas.table.TableChange;
+import org.apache.ignite.configuration.schemas.table.HashIndexView;
+import org.apache.ignite.configuration.schemas.table.SortedIndexView;
 import org.apache.ignite.configuration.schemas.table.TableConfiguration;
+import org.apache.ignite.configuration.schemas.table.TableIndexView;
 import org.apache.ignite.configuration.schemas.table.TableView;
 import org.apache.ignite.configuration.schemas.table.TablesConfiguration;
 import org.apache.ignite.configuration.validation.ConfigurationValidationException;
@@ -71,19 +82,25 @@ import org.apache.ignite.internal.schema.registry.SchemaRegistryImpl;
 import org.apache.ignite.internal.storage.engine.DataRegion;
 import org.apache.ignite.internal.storage.engine.StorageEngine;
 import org.apache.ignite.internal.storage.engine.TableStorage;
+import org.apache.ignite.internal.storage.index.HashIndexStorage;
+import org.apache.ignite.internal.storage.index.SortedIndexStorage;
+import org.apache.ignite.internal.storage.pagememory.PageMemoryStorageEngine;
 import org.apache.ignite.internal.storage.rocksdb.RocksDbStorageEngine;
 import org.apache.ignite.internal.table.IgniteTablesInternal;
 import org.apache.ignite.internal.table.InternalTable;
 import org.apache.ignite.internal.table.TableImpl;
 import org.apache.ignite.internal.table.distributed.raft.PartitionListener;
 import org.apache.ignite.internal.table.distributed.storage.InternalTableImpl;
+import org.apache.ignite.internal.table.distributed.storage.TableIndexes;
 import org.apache.ignite.internal.table.distributed.storage.VersionedRowStore;
 import org.apache.ignite.internal.table.event.TableEvent;
 import org.apache.ignite.internal.table.event.TableEventParameters;
+import org.apache.ignite.internal.thread.NamedThreadFactory;
 import org.apache.ignite.internal.tx.TxManager;
 import org.apache.ignite.internal.util.ByteUtils;
 import org.apache.ignite.internal.util.IgniteObjectName;
 import org.apache.ignite.internal.util.IgniteSpinBusyLock;
+import org.apache.ignite.internal.util.IgniteUtils;
 import org.apache.ignite.lang.IgniteException;
 import org.apache.ignite.lang.IgniteInternalException;
 import org.apache.ignite.lang.IgniteLogger;
@@ -122,8 +139,8 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
     /** Baseline manager. */
     private final BaselineManager baselineMgr;
 
-    /** Storage engine instance. Only one type is available right now, which is the {@link RocksDbStorageEngine}. */
-    private final StorageEngine engine;
+    /** Storage engine instances by the type of the data region they serve. */
+    private final Map<String, StorageEngine> engines;
 
     /** Transaction manager. */
     private final TxManager txManager;
@@ -143,6 +160,12 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
     /** Data region instances. */
     private final Map<String, DataRegion> dataRegions = new ConcurrentHashMap<>();
 
+    /** Indexes of the tables by table ids. */
+    private final Map<UUID, TableIndexes> tableIndexes = new ConcurrentHashMap<>();
+
+    /** Executor of the builds of the indexes created on the existing tables, one index is built at a time. */
+    private final ExecutorService indexBuildExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("index-build", true));
+
     /** Busy lock to stop synchronously. */
     private final IgniteSpinBusyLock busyLock = new IgniteSpinBusyLock();
 
@@ -185,7 +208,10 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
             return node.id();
         };
 
-        engine = new RocksDbStorageEngine();
+        engines = Map.of(
+                ROCKSDB_DATA_REGION_TYPE, new RocksDbStorageEngine(),
+                PAGE_MEMORY_DATA_REGION_TYPE, new PageMemoryStorageEngine(partitionsStoreDir)
+        );
     }
 
     /** {@inheritDoc} */
@@ -266,6 +292,33 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
                                     }
                                 });
 
+                        // TODO: IGNITE-16369 Listener with any placeholder should be used instead.
+                        tablesCfg.tables().get(tblName).indices()
+                                .listenElements(new ConfigurationNamedListListener<>() {
+                                    @Override
+                                    public CompletableFuture<?> onCreate(ConfigurationNotificationEvent<TableIndexView> indicesCtx) {
+                                        // The indexes created along with the table are started with it.
+                                        if (ctx.storageRevision() != indicesCtx.storageRevision()) {
+                                            createIndex(tblId, indicesCtx.newValue());
+                                        }
+
+                                        return CompletableFuture.completedFuture(null);
+                                    }
+
+                                    @Override
+                                    public CompletableFuture<?> onDelete(ConfigurationNotificationEvent<TableIndexView> indicesCtx) {
+                                        TableIndexes indexes = tableIndexes.get(tblId);
+
+                                        if (indexes != null && isMaintained(indicesCtx.oldValue())) {
+                                            indexes.dropIndex(indicesCtx.oldValue().name());
+
+                                            fireIndexesChanged(tblId);
+                                        }
+
+                                        return CompletableFuture.completedFuture(null);
+                                    }
+                                });
+
                         ((ExtendedTableConfiguration) tablesCfg.tables().get(tblName)).assignments()
                                 .listen(assignmentsCtx -> {
                                     if (!busyLock.enterBusy()) {
@@ -329,7 +382,9 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
                                         newPartitionAssignment,
                                         toAdd,
                                         () -> new PartitionListener(tblId,
-                                                new VersionedRowStore(internalTable.storage().getOrCreatePartition(partId), txManager))
+                                                new VersionedRowStore(internalTable.storage().getOrCreatePartition(partId), txManager,
+                                                        tableIndexes.get(tblId), DFLT_VERSION_RETENTION,
+                                                        internalTable.storage().configuration().ttl().value()))
                                 ).thenAccept(
                                         updatedRaftGroupService -> ((InternalTableImpl) internalTable).updateInternalTableRaftGroupService(
                                                 partId, updatedRaftGroupService)
@@ -382,9 +437,9 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
                     }
                 });
 
-        engine.start();
+        engines.values().forEach(StorageEngine::start);
 
-        DataRegion defaultDataRegion = engine.createDataRegion(dataStorageCfg.defaultRegion());
+        DataRegion defaultDataRegion = engine(dataStorageCfg.defaultRegion()).createDataRegion(dataStorageCfg.defaultRegion());
 
         dataRegions.put(DEFAULT_DATA_REGION_NAME, defaultDataRegion);
 
@@ -400,6 +455,9 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
 
         busyLock.block();
 
+        // The builds are stopped between the batches, before the storages are.
+        IgniteUtils.shutdownAndAwaitTermination(indexBuildExecutor, 10, TimeUnit.SECONDS);
+
         for (TableImpl table : tables.values()) {
             try {
                 table.internalTable().storage().stop();
@@ -422,7 +480,44 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
             }
         }
 
-        engine.stop();
+        for (StorageEngine engine : engines.values()) {
+            try {
+                engine.stop();
+            } catch (Exception e) {
+                LOG.error("Failed to stop storage engine " + engine.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the storage engine that serves data regions of the given configuration type.
+     *
+     * @param dataRegionCfg Data region configuration.
+     * @return Storage engine.
+     * @throws IgniteInternalException If there is no storage engine for the data region type.
+     */
+    private StorageEngine engine(DataRegionConfiguration dataRegionCfg) {
+        String type = dataRegionCfg.type().value();
+
+        StorageEngine engine = engines.get(type);
+
+        if (engine == null) {
+            throw new IgniteInternalException("Unknown data region type: " + type);
+        }
+
+        return engine;
+    }
+
+    /**
+     * Returns the configuration of the data region with the given name.
+     *
+     * @param dataRegionName Data region name.
+     * @return Data region configuration.
+     */
+    private DataRegionConfiguration dataRegionConfiguration(String dataRegionName) {
+        return DEFAULT_DATA_REGION_NAME.equals(dataRegionName)
+                ? dataStorageCfg.defaultRegion()
+                : dataStorageCfg.regions().get(dataRegionName);
     }
 
     /**
@@ -455,8 +550,12 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
 
         TableConfiguration tableCfg = tablesCfg.tables().get(name);
 
+        DataRegionConfiguration dataRegionCfg = dataRegionConfiguration(tableCfg.dataRegion().value());
+
+        StorageEngine engine = engine(dataRegionCfg);
+
         DataRegion dataRegion = dataRegions.computeIfAbsent(tableCfg.dataRegion().value(), dataRegionName -> {
-            DataRegion newDataRegion = engine.createDataRegion(dataStorageCfg.regions().get(dataRegionName));
+            DataRegion newDataRegion = engine.createDataRegion(dataRegionCfg);
 
             try {
                 newDataRegion.start();
@@ -477,6 +576,42 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
 
         tableStorage.start();
 
+        var schemaRegistry = new SchemaRegistryImpl(v -> {
+            if (!busyLock.enterBusy()) {
+                throw new IgniteException(new NodeStoppingException());
+            }
+
+            try {
+                return tableSchema(tblId, v);
+            } finally {
+                busyLock.leaveBusy();
+            }
+        }, () -> {
+            if (!busyLock.enterBusy()) {
+                throw new IgniteException(new NodeStoppingException());
+            }
+
+            try {
+                return latestSchemaVersion(tblId);
+            } finally {
+                busyLock.leaveBusy();
+            }
+        });
+
+        schemaRegistry.onSchemaRegistered(schemaDesc);
+
+        TableIndexes indexes = new TableIndexes(tableStorage, schemaRegistry);
+
+        NamedListView<TableIndexView> indices = tableCfg.value().indices();
+
+        for (String indexName : indices.namedListKeys()) {
+            startIndex(indexes, indices.get(indexName));
+        }
+
+        tableIndexes.put(tblId, indexes);
+
+        long ttl = tableCfg.value().ttl();
+
         for (int p = 0; p < partitions; p++) {
             int partId = p;
 
@@ -486,7 +621,8 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
                                 raftGroupName(tblId, p),
                                 assignment.get(p),
                                 () -> new PartitionListener(tblId,
-                                        new VersionedRowStore(tableStorage.getOrCreatePartition(partId), txManager))
+                                        new VersionedRowStore(tableStorage.getOrCreatePartition(partId), txManager, indexes,
+                                                DFLT_VERSION_RETENTION, ttl))
                         )
                 );
             } catch (NodeStoppingException e) {
@@ -511,30 +647,6 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
                 InternalTableImpl internalTable = new InternalTableImpl(name, tblId, partitionMap, partitions, netAddrResolver,
                         txManager, tableStorage);
 
-                var schemaRegistry = new SchemaRegistryImpl(v -> {
-                    if (!busyLock.enterBusy()) {
-                        throw new IgniteException(new NodeStoppingException());
-                    }
-
-                    try {
-                        return tableSchema(tblId, v);
-                    } finally {
-                        busyLock.leaveBusy();
-                    }
-                }, () -> {
-                    if (!busyLock.enterBusy()) {
-                        throw new IgniteException(new NodeStoppingException());
-                    }
-
-                    try {
-                        return latestSchemaVersion(tblId);
-                    } finally {
-                        busyLock.leaveBusy();
-                    }
-                });
-
-                schemaRegistry.onSchemaRegistered(schemaDesc);
-
                 var table = new TableImpl(
                         internalTable,
                         schemaRegistry
@@ -642,6 +754,7 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
 
             tables.remove(name);
             tablesById.remove(tblId);
+            tableIndexes.remove(tblId);
 
             table.internalTable().storage().destroy();
 
@@ -651,6 +764,98 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
         }
     }
 
+    /**
+     * Returns {@code true} if the indexes of the given type are maintained by the tables.
+     *
+     * @param index Index configuration.
+     */
+    private static boolean isMaintained(TableIndexView index) {
+        return index instanceof SortedIndexView || index instanceof HashIndexView;
+    }
+
+    /**
+     * Starts maintaining an index created along with the table, does nothing if the storage of the table doesn't support indexes of its
+     * type.
+     *
+     * @param indexes Indexes of the table.
+     * @param index Index configuration.
+     */
+    private void startIndex(TableIndexes indexes, TableIndexView index) {
+        try {
+            if (index instanceof SortedIndexView) {
+                indexes.startSortedIndex(index.name());
+            } else if (index instanceof HashIndexView) {
+                indexes.startHashIndex(index.name());
+            }
+        } catch (UnsupportedOperationException e) {
+            LOG.warn("Index is not supported by the table storage [index={}, reason={}]", index.name(), e.getMessage());
+        }
+    }
+
+    /**
+     * Creates an index on an existing table in the background: the index is maintained by the new writes right away, and the rows of the
+     * local partitions are added to it by the {@link #indexBuildExecutor}.
+     *
+     * @param tblId Table id.
+     * @param index Index configuration.
+     */
+    private void createIndex(UUID tblId, TableIndexView index) {
+        TableIndexes indexes = tableIndexes.get(tblId);
+
+        if (indexes == null || !isMaintained(index)) {
+            return;
+        }
+
+        String indexName = index.name();
+
+        if (!busyLock.enterBusy()) {
+            return;
+        }
+
+        CompletableFuture<?> buildFut;
+
+        try {
+            buildFut = index instanceof SortedIndexView
+                    ? indexes.createSortedIndex(indexName, indexBuildExecutor)
+                    : indexes.createHashIndex(indexName, indexBuildExecutor);
+        } catch (UnsupportedOperationException e) {
+            LOG.warn("Index is not supported by the table storage [index={}, reason={}]", indexName, e.getMessage());
+
+            return;
+        } finally {
+            busyLock.leaveBusy();
+        }
+
+        buildFut.whenComplete((res, e) -> {
+            if (!busyLock.enterBusy()) {
+                return;
+            }
+
+            try {
+                if (e == null) {
+                    fireIndexesChanged(tblId);
+                } else {
+                    LOG.error(IgniteStringFormatter.format("Failed to build index [table={}, index={}]", tblId, indexName), e);
+                }
+            } finally {
+                busyLock.leaveBusy();
+            }
+        });
+    }
+
+    /**
+     * Notifies the listeners of the table changes that the set of the built indexes of a table has changed.
+     *
+     * @param tblId Table id.
+     */
+    private void fireIndexesChanged(UUID tblId) {
+        TableImpl table = tablesById.get(tblId);
+
+        if (table != null) {
+            fireEvent(TableEvent.ALTER, new TableEventParameters(table), null);
+        }
+    }
+
     /**
      * Compounds a RAFT group unique name.
      *
@@ -1134,6 +1339,30 @@ public class TableManager extends Producer<TableEvent, TableEventParameters> imp
         }
     }
 
+    /**
+     * Returns the local storages of the sorted indexes of a table that have been built, so they may be used for reads.
+     *
+     * @param id Table id.
+     * @return Index storages, empty if the table is not started on this node.
+     */
+    public Collection<SortedIndexStorage> sortedIndexes(UUID id) {
+        TableIndexes indexes = tableIndexes.get(id);
+
+        return indexes == null ? List.of() : indexes.builtSortedIndexes();
+    }
+
+    /**
+     * Returns the local storages of the hash indexes of a table that have been built, so they may be used for reads.
+     *
+     * @param id Table id.
+     * @return Index storages, empty if the table is not started on this node.
+     */
+    public Collection<HashIndexStorage> hashIndexes(UUID id) {
+        TableIndexes indexes = tableIndexes.get(id);
+
+        return indexes == null ? List.of() : indexes.builtHashIndexes();
+    }
+
     /**
      * Internal method for getting table by id.
      *
@@ -17,8 +17,10 @@
 
 package org.apache.ignite.internal.table.distributed;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import org.apache.ignite.internal.table.distributed.command.FinishTxCommand;
+import org.apache.ignite.internal.tx.HybridClock;
 import org.apache.ignite.internal.tx.LockManager;
 import org.apache.ignite.internal.tx.Timestamp;
 import org.apache.ignite.internal.tx.impl.TxManagerImpl;
@@ -29,7 +31,8 @@ import org.apache.ignite.raft.jraft.rpc.ActionRequest;
 /**
  * Transaction manager extension for Ignite tables.
  *
- * <p>Uses raft protocol to replicate tx finish state for a partition group.
+ * <p>Uses raft protocol to replicate tx finish state for a partition group, by a single command for all the transactions finished on the
+ * group at once.
  */
 public class TableTxManagerImpl extends TxManagerImpl {
     private static final RaftMessagesFactory FACTORY = new RaftMessagesFactory();
@@ -46,10 +49,45 @@ public class TableTxManagerImpl extends TxManagerImpl {
         super(clusterService, lockManager);
     }
 
+    /**
+     * The constructor.
+     *
+     * @param clusterService Cluster service.
+     * @param lockManager    Lock manager.
+     * @param clock          Clock of the transaction timestamps.
+     */
+    public TableTxManagerImpl(ClusterService clusterService, LockManager lockManager, HybridClock clock) {
+        super(clusterService, lockManager, clock);
+    }
+
+    /**
+     * The constructor.
+     *
+     * @param clusterService          Cluster service.
+     * @param lockManager             Lock manager.
+     * @param clock                   Clock of the transaction timestamps.
+     * @param stateRetention          Minimal time the states of the finished transactions are kept for, in milliseconds.
+     * @param lockEscalationThreshold Number of key locks a transaction may hold in a partition, the whole partition is locked instead
+     *                                of the next keys.
+     */
+    public TableTxManagerImpl(
+            ClusterService clusterService,
+            LockManager lockManager,
+            HybridClock clock,
+            long stateRetention,
+            int lockEscalationThreshold
+    ) {
+        super(clusterService, lockManager, clock, stateRetention, lockEscalationThreshold);
+    }
+
     /** {@inheritDoc} */
     @Override
-    protected CompletableFuture<?> finish(String groupId, Timestamp ts, boolean commit) {
-        ActionRequest req = FACTORY.actionRequest().command(new FinishTxCommand(ts, commit)).groupId(groupId).readOnlySafe(true).build();
+    protected CompletableFuture<?> finish(String groupId, List<Timestamp> timestamps, List<Timestamp> commitTimestamps) {
+        ActionRequest req = FACTORY.actionRequest()
+                .command(new FinishTxCommand(timestamps, commitTimestamps))
+                .groupId(groupId)
+                .readOnlySafe(true)
+                .build();
 
         return clusterService.messagingService().invoke(clusterService.topologyService().localMember(), req, FINISH_TIMEOUT);
     }
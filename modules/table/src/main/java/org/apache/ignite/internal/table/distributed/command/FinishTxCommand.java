@@ -17,43 +17,76 @@
 
 package org.apache.ignite.internal.table.distributed.command;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.ignite.internal.tx.Timestamp;
 import org.apache.ignite.raft.client.WriteCommand;
+import org.jetbrains.annotations.Nullable;
 
-/** State machine command to finish a transaction. */
+/**
+ * State machine command to finish transactions. The transactions of a partition group that are finished concurrently are finished by a
+ * single command.
+ */
 public class FinishTxCommand implements WriteCommand {
-    /** The timestamp. */
-    private final Timestamp timestamp;
+    /** The timestamps. */
+    private final List<Timestamp> timestamps;
+
+    /** Commit timestamps, in the order of the timestamps, {@code null} for a rollback. */
+    private final List<Timestamp> commitTimestamps;
+
+    /**
+     * The constructor.
+     *
+     * @param timestamp       The timestamp.
+     * @param commitTimestamp The commit timestamp, {@code null} for a rollback.
+     */
+    public FinishTxCommand(Timestamp timestamp, @Nullable Timestamp commitTimestamp) {
+        this.timestamps = List.of(timestamp);
+        this.commitTimestamps = new ArrayList<>(1);
 
-    /** Commit or rollback state. */
-    private final boolean finish;
+        this.commitTimestamps.add(commitTimestamp);
+    }
 
     /**
      * The constructor.
      *
-     * @param timestamp The timestamp.
-     * @param finish    Commit or rollback state {@code True} to commit.
+     * @param timestamps       The timestamps.
+     * @param commitTimestamps Commit timestamps, in the order of the timestamps, {@code null} for a rollback.
      */
-    public FinishTxCommand(Timestamp timestamp, boolean finish) {
-        this.timestamp = timestamp;
-        this.finish = finish;
+    public FinishTxCommand(List<Timestamp> timestamps, List<Timestamp> commitTimestamps) {
+        assert !timestamps.isEmpty();
+        assert timestamps.size() == commitTimestamps.size();
+
+        this.timestamps = timestamps;
+        this.commitTimestamps = commitTimestamps;
     }
 
     /**
-     * Returns a timestamp.
+     * Returns the timestamps.
      *
-     * @return The timestamp.
+     * @return The timestamps.
      */
-    public Timestamp timestamp() {
-        return timestamp;
+    public List<Timestamp> timestamps() {
+        return timestamps;
     }
 
     /**
-     * Returns commit or rollback state.
+     * Returns commit or rollback state of a transaction.
      *
+     * @param idx Index of the transaction in the {@link #timestamps()}.
      * @return Commit or rollback state.
      */
-    public boolean finish() {
-        return finish;
+    public boolean finish(int idx) {
+        return commitTimestamps.get(idx) != null;
+    }
+
+    /**
+     * Returns the commit timestamp of a transaction.
+     *
+     * @param idx Index of the transaction in the {@link #timestamps()}.
+     * @return The commit timestamp, {@code null} for a rollback.
+     */
+    public @Nullable Timestamp commitTimestamp(int idx) {
+        return commitTimestamps.get(idx);
     }
 }
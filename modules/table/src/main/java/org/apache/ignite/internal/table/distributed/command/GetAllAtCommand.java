@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.table.distributed.command;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import org.apache.ignite.internal.schema.BinaryRow;
+import org.apache.ignite.internal.tx.Timestamp;
+import org.apache.ignite.raft.client.ReadCommand;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The command gets values by keys as of a read timestamp, for a read-only transaction.
+ *
+ * @see GetAtCommand
+ */
+public class GetAllAtCommand implements ReadCommand, Serializable {
+    /** Binary key rows. */
+    private transient Collection<BinaryRow> keyRows;
+
+    /** The read timestamp. */
+    private @NotNull final Timestamp readTimestamp;
+
+    /*
+     * Row bytes.
+     * It is a temporary solution, before network have not implement correct serialization BinaryRow.
+     * TODO: Remove the field after (IGNITE-14793).
+     */
+    private byte[] keyRowsBytes;
+
+    /**
+     * The constructor.
+     *
+     * @param keyRows       Binary key rows.
+     * @param readTimestamp The read timestamp.
+     */
+    public GetAllAtCommand(@NotNull Collection<BinaryRow> keyRows, @NotNull Timestamp readTimestamp) {
+        assert keyRows != null && !keyRows.isEmpty();
+
+        this.keyRows = keyRows;
+        this.readTimestamp = readTimestamp;
+
+        keyRowsBytes = CommandUtils.rowsToBytes(keyRows);
+    }
+
+    /**
+     * Gets a collection of binary key rows.
+     *
+     * @return Binary keys.
+     */
+    public Collection<BinaryRow> getRows() {
+        if (keyRows == null && keyRowsBytes != null) {
+            keyRows = new ArrayList<>();
+
+            CommandUtils.readRows(keyRowsBytes, keyRows::add);
+        }
+
+        return keyRows;
+    }
+
+    /**
+     * Returns the read timestamp.
+     *
+     * @return The read timestamp.
+     */
+    @NotNull
+    public Timestamp readTimestamp() {
+        return readTimestamp;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.table.distributed.command;
+
+import java.io.Serializable;
+import org.apache.ignite.internal.schema.BinaryRow;
+import org.apache.ignite.internal.schema.ByteBufferRow;
+import org.apache.ignite.internal.tx.Timestamp;
+import org.apache.ignite.raft.client.ReadCommand;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The command gets a value by key as of a read timestamp, for a read-only transaction.
+ *
+ * <p>It is not a {@link TransactionalCommand}: it takes no locks and is not enlisted into any transaction, the versions committed as of
+ * the read timestamp are read.
+ */
+public class GetAtCommand implements ReadCommand, Serializable {
+    /** Binary key row. */
+    private transient BinaryRow keyRow;
+
+    /** The read timestamp. */
+    private @NotNull final Timestamp readTimestamp;
+
+    /*
+     * Row bytes.
+     * It is a temporary solution, before network have not implement correct serialization BinaryRow.
+     * TODO: Remove the field after (IGNITE-14793).
+     */
+    private byte[] keyRowBytes;
+
+    /**
+     * The constructor.
+     *
+     * @param keyRow        Binary key row.
+     * @param readTimestamp The read timestamp.
+     */
+    public GetAtCommand(@NotNull BinaryRow keyRow, @NotNull Timestamp readTimestamp) {
+        assert keyRow != null;
+
+        this.keyRow = keyRow;
+        this.readTimestamp = readTimestamp;
+
+        keyRowBytes = CommandUtils.rowToBytes(keyRow);
+    }
+
+    /**
+     * Gets a binary key row.
+     *
+     * @return Binary key.
+     */
+    public BinaryRow getRow() {
+        if (keyRow == null) {
+            keyRow = new ByteBufferRow(keyRowBytes);
+        }
+
+        return keyRow;
+    }
+
+    /**
+     * Returns the read timestamp.
+     *
+     * @return The read timestamp.
+     */
+    @NotNull
+    public Timestamp readTimestamp() {
+        return readTimestamp;
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.ignite.internal.schema.BinaryRow;
 import org.apache.ignite.internal.schema.ByteBufferRow;
 import org.apache.ignite.internal.tx.Timestamp;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A single key transactional command.
@@ -33,6 +34,12 @@ public abstract class SingleKeyCommand implements TransactionalCommand, Serializ
     /** The timestamp. */
     private @NotNull final Timestamp timestamp;
 
+    /** {@code True} if the command is a one-phase transaction. */
+    private boolean onePhase;
+
+    /** The commit timestamp of a one-phase transaction, assigned by the leader of the partition. */
+    private @Nullable Timestamp commitTimestamp;
+
     /*
      * Row bytes.
      * It is a temporary solution, before network have not implement correct serialization BinaryRow.
@@ -78,4 +85,28 @@ public abstract class SingleKeyCommand implements TransactionalCommand, Serializ
     public Timestamp getTimestamp() {
         return timestamp;
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isOnePhase() {
+        return onePhase;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setOnePhase(boolean onePhase) {
+        this.onePhase = onePhase;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @Nullable Timestamp getCommitTimestamp() {
+        return commitTimestamp;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setCommitTimestamp(Timestamp commitTimestamp) {
+        this.commitTimestamp = commitTimestamp;
+    }
 }
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.table.distributed.command;
+
+import java.io.Serializable;
+import org.apache.ignite.internal.tx.Timestamp;
+import org.apache.ignite.raft.client.ReadCommand;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The command synchronizes a replica of a partition for a read-only transaction that reads the local data of the replica, e.g. its local
+ * indexes. Being sent to the replica as a safe read, it is executed only after the replica has applied all the commands committed by the
+ * partition before it was sent.
+ *
+ * <p>It is not a {@link TransactionalCommand}: it takes no locks and reads nothing.
+ */
+public class SyncAtCommand implements ReadCommand, Serializable {
+    /** The read timestamp. */
+    private @NotNull final Timestamp readTimestamp;
+
+    /**
+     * The constructor.
+     *
+     * @param readTimestamp The read timestamp.
+     */
+    public SyncAtCommand(@NotNull Timestamp readTimestamp) {
+        this.readTimestamp = readTimestamp;
+    }
+
+    /**
+     * Returns the read timestamp.
+     *
+     * @return The read timestamp.
+     */
+    @NotNull
+    public Timestamp readTimestamp() {
+        return readTimestamp;
+    }
+}
@@ -19,12 +19,16 @@ package org.apache.ignite.internal.table.distributed.command;
 
 import org.apache.ignite.internal.tx.Timestamp;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A marker interface for a transactional command.
  *
  * <p>Each transactional command contains a timestamp, bounding it to a specific transaction.
  *
+ * <p>A one-phase command is a whole transaction by itself: it is applied and committed at once by a single Raft entry, there is neither
+ * a transaction state nor a finish command for it.
+ *
  * @see Timestamp
  */
 public interface TransactionalCommand {
@@ -35,4 +39,32 @@ public interface TransactionalCommand {
      */
     @NotNull
     public Timestamp getTimestamp();
+
+    /**
+     * Returns {@code true} if the command is a one-phase transaction.
+     *
+     * @return {@code True} if the command is committed along with being applied.
+     */
+    public boolean isOnePhase();
+
+    /**
+     * Sets whether the command is a one-phase transaction, must be called before the command is sent.
+     *
+     * @param onePhase {@code True} if the command is committed along with being applied.
+     */
+    public void setOnePhase(boolean onePhase);
+
+    /**
+     * Returns the commit timestamp of a one-phase command.
+     *
+     * @return The commit timestamp, {@code null} if the command is not a one-phase transaction or the timestamp hasn't been assigned.
+     */
+    public @Nullable Timestamp getCommitTimestamp();
+
+    /**
+     * Sets the commit timestamp of a one-phase command, it is assigned by the leader of the partition before the command is replicated.
+     *
+     * @param commitTimestamp The commit timestamp.
+     */
+    public void setCommitTimestamp(Timestamp commitTimestamp);
 }
@@ -18,13 +18,13 @@
 package org.apache.ignite.internal.table.distributed.command.scan;
 
 import org.apache.ignite.lang.IgniteUuid;
-import org.apache.ignite.raft.client.WriteCommand;
+import org.apache.ignite.raft.client.ReadCommand;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * Scan close command for PartitionListener that closes scan with given id.
  */
-public class ScanCloseCommand implements WriteCommand {
+public class ScanCloseCommand implements ReadCommand {
     /** Id of scan that is associated with the current command. */
     @NotNull
     private final IgniteUuid scanId;
@@ -17,14 +17,22 @@
 
 package org.apache.ignite.internal.table.distributed.command.scan;
 
+import org.apache.ignite.internal.tx.Timestamp;
 import org.apache.ignite.lang.IgniteUuid;
-import org.apache.ignite.raft.client.WriteCommand;
+import org.apache.ignite.raft.client.ReadCommand;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Scan init command for PartitionListener that prepares server-side scan for further iteration over it.
+ *
+ * <p>Scan commands are read commands, so they never go through the raft log: the cursor is opened over the local storage of the
+ * peer that handles the init command, and all further {@link ScanRetrieveBatchCommand}s and {@link ScanCloseCommand} of the scan
+ * must be sent to that very peer.
+ *
+ * <p>A scan of a read-only transaction has a read timestamp, the rows committed as of that timestamp are returned then.
  */
-public class ScanInitCommand implements WriteCommand {
+public class ScanInitCommand implements ReadCommand {
     /** Id of the node that requests scan. */
     @NotNull
     private final String requesterNodeId;
@@ -33,6 +41,10 @@ public class ScanInitCommand implements WriteCommand {
     @NotNull
     private final IgniteUuid scanId;
 
+    /** Read timestamp of a read-only transaction, {@code null} for the latest rows. */
+    @Nullable
+    private final Timestamp readTimestamp;
+
     /**
      * Constructor.
      *
@@ -42,9 +54,25 @@ public class ScanInitCommand implements WriteCommand {
     public ScanInitCommand(
             @NotNull String requesterNodeId,
             @NotNull IgniteUuid scanId
+    ) {
+        this(requesterNodeId, scanId, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param requesterNodeId Id of the node that requests scan.
+     * @param scanId          Id of scan that is associated with the current command.
+     * @param readTimestamp   Read timestamp of a read-only transaction, {@code null} for the latest rows.
+     */
+    public ScanInitCommand(
+            @NotNull String requesterNodeId,
+            @NotNull IgniteUuid scanId,
+            @Nullable Timestamp readTimestamp
     ) {
         this.requesterNodeId = requesterNodeId;
         this.scanId = scanId;
+        this.readTimestamp = readTimestamp;
     }
 
     /**
@@ -61,4 +89,11 @@ public class ScanInitCommand implements WriteCommand {
     public IgniteUuid scanId() {
         return scanId;
     }
+
+    /**
+     * Returns the read timestamp of a read-only transaction, {@code null} for the latest rows.
+     */
+    public @Nullable Timestamp readTimestamp() {
+        return readTimestamp;
+    }
 }
@@ -18,14 +18,14 @@
 package org.apache.ignite.internal.table.distributed.command.scan;
 
 import org.apache.ignite.lang.IgniteUuid;
-import org.apache.ignite.raft.client.WriteCommand;
+import org.apache.ignite.raft.client.ReadCommand;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * Scan retrieve batch command for PartitionListener that retrieves batch of data from previously prepared server scan, see {@link
  * ScanInitCommand} for more details.
  */
-public class ScanRetrieveBatchCommand implements WriteCommand {
+public class ScanRetrieveBatchCommand implements ReadCommand {
     /** Amount of items to retrieve. */
     private final int itemsToRetrieveCnt;
 
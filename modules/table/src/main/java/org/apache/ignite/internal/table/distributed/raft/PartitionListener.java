@@ -19,6 +19,7 @@ package org.apache.ignite.internal.table.distributed.raft;
 
 import static org.apache.ignite.lang.IgniteStringFormatter.format;
 
+import java.io.Serializable;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -28,8 +29,12 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import org.apache.ignite.internal.schema.BinaryRow;
 import org.apache.ignite.internal.storage.DataRow;
@@ -40,10 +45,12 @@ import org.apache.ignite.internal.table.distributed.command.DeleteCommand;
 import org.apache.ignite.internal.table.distributed.command.DeleteExactAllCommand;
 import org.apache.ignite.internal.table.distributed.command.DeleteExactCommand;
 import org.apache.ignite.internal.table.distributed.command.FinishTxCommand;
+import org.apache.ignite.internal.table.distributed.command.GetAllAtCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAllCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAndDeleteCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAndReplaceCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAndUpsertCommand;
+import org.apache.ignite.internal.table.distributed.command.GetAtCommand;
 import org.apache.ignite.internal.table.distributed.command.GetCommand;
 import org.apache.ignite.internal.table.distributed.command.InsertAllCommand;
 import org.apache.ignite.internal.table.distributed.command.InsertCommand;
@@ -51,6 +58,7 @@ import org.apache.ignite.internal.table.distributed.command.MultiKeyCommand;
 import org.apache.ignite.internal.table.distributed.command.ReplaceCommand;
 import org.apache.ignite.internal.table.distributed.command.ReplaceIfExistCommand;
 import org.apache.ignite.internal.table.distributed.command.SingleKeyCommand;
+import org.apache.ignite.internal.table.distributed.command.SyncAtCommand;
 import org.apache.ignite.internal.table.distributed.command.TransactionalCommand;
 import org.apache.ignite.internal.table.distributed.command.UpsertAllCommand;
 import org.apache.ignite.internal.table.distributed.command.UpsertCommand;
@@ -73,15 +81,39 @@ import org.apache.ignite.raft.client.service.CommandClosure;
 import org.apache.ignite.raft.client.service.RaftGroupListener;
 import org.apache.ignite.tx.TransactionException;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
 /**
  * Partition command handler.
+ *
+ * <p>The read commands are completed asynchronously: the storage is read with its
+ * {@link org.apache.ignite.internal.storage.PartitionStorage#readExecutor() read executor}, so that the reads that go to the disk don't
+ * block the thread applying the commands of the Raft group.
+ *
+ * <p>A {@link TransactionalCommand#isOnePhase() one-phase} command is committed along with being applied, no transaction state is kept
+ * for it. Its locks are released right after its result is known: once it is applied, or once it has failed before it reached the Raft
+ * log. The locks of a command whose outcome is unknown, e.g. the leadership has been lost after it was appended to the log, are kept
+ * until its index is applied: by then the command either has been applied by the new leader, or has been replaced in the log.
+ *
+ * <p>The reads of a read-only transaction ({@link GetAtCommand}, {@link GetAllAtCommand} and a {@link ScanInitCommand} with a read
+ * timestamp) are not transactional commands: they take no locks and read the versions committed as of their read timestamp. A
+ * {@link SyncAtCommand} reads nothing, it only completes once the replica has applied the commands that precede it.
+ *
+ * <p>The keys of a transactional command are locked under the intention locks of the partition and the table, see
+ * {@link TxManager#writeLock}. A batch of more keys than the {@link TxManager#lockEscalationThreshold() lock escalation threshold} locks
+ * the whole partition instead of every key.
  */
 public class PartitionListener implements RaftGroupListener {
+    /** Maximum number of keys checked by the vacuum of the old row versions per batch of commands. */
+    private static final int VACUUM_BATCH_SIZE = 100;
+
     /** Lock id. */
     private final IgniteUuid lockId;
 
+    /** Partition id. */
+    private final int partId;
+
     /** The versioned storage. */
     private final VersionedRowStore storage;
 
@@ -91,6 +123,9 @@ public class PartitionListener implements RaftGroupListener {
     /** Transaction manager. */
     private final TxManager txManager;
 
+    /** Timestamps of the one-phase commands with unknown outcome, by the indexes of their log entries. */
+    private final ConcurrentNavigableMap<Long, Timestamp> unknownOutcomes = new ConcurrentSkipListMap<>();
+
     /**
      * The constructor.
      *
@@ -99,6 +134,7 @@ public class PartitionListener implements RaftGroupListener {
      */
     public PartitionListener(UUID tableId, VersionedRowStore store) {
         this.lockId = new IgniteUuid(tableId, 0);
+        this.partId = store.delegate().partitionId();
         this.storage = store;
         this.txManager = store.txManager();
         this.cursors = new ConcurrentHashMap<>();
@@ -107,8 +143,10 @@ public class PartitionListener implements RaftGroupListener {
     /** {@inheritDoc} */
     @Override
     public void onRead(Iterator<CommandClosure<ReadCommand>> iterator) {
-        iterator.forEachRemaining((CommandClosure<? extends ReadCommand> clo) -> {
-            Command command = clo.command();
+        iterator.forEachRemaining((CommandClosure<? extends ReadCommand> clo0) -> {
+            Command command = clo0.command();
+
+            CommandClosure<? extends ReadCommand> clo = isOnePhase(command) ? new OnePhaseReadClosure<>(clo0) : clo0;
 
             if (!tryEnlistIntoTransaction(command, clo)) {
                 return;
@@ -118,6 +156,18 @@ public class PartitionListener implements RaftGroupListener {
                 handleGetCommand((CommandClosure<GetCommand>) clo);
             } else if (command instanceof GetAllCommand) {
                 handleGetAllCommand((CommandClosure<GetAllCommand>) clo);
+            } else if (command instanceof GetAtCommand) {
+                handleGetAtCommand((CommandClosure<GetAtCommand>) clo);
+            } else if (command instanceof GetAllAtCommand) {
+                handleGetAllAtCommand((CommandClosure<GetAllAtCommand>) clo);
+            } else if (command instanceof SyncAtCommand) {
+                handleSyncAtCommand((CommandClosure<SyncAtCommand>) clo);
+            } else if (command instanceof ScanInitCommand) {
+                handleScanInitCommand((CommandClosure<ScanInitCommand>) clo);
+            } else if (command instanceof ScanRetrieveBatchCommand) {
+                handleScanRetrieveBatchCommand((CommandClosure<ScanRetrieveBatchCommand>) clo);
+            } else if (command instanceof ScanCloseCommand) {
+                handleScanCloseCommand((CommandClosure<ScanCloseCommand>) clo);
             } else {
                 assert false : "Command was not found [cmd=" + clo.command() + ']';
             }
@@ -127,51 +177,109 @@ public class PartitionListener implements RaftGroupListener {
     /** {@inheritDoc} */
     @Override
     public void onWrite(Iterator<CommandClosure<WriteCommand>> iterator) {
-        iterator.forEachRemaining((CommandClosure<? extends WriteCommand> clo) -> {
-            Command command = clo.command();
+        List<DeferredResultClosure<WriteCommand>> resultClos = new ArrayList<>();
 
-            if (!tryEnlistIntoTransaction(command, clo)) {
-                return;
+        // The whole batch of commands is written to the storage at once, along with the index of the last one.
+        storage.runConsistently(() -> {
+            long lastAppliedIndex = storage.lastAppliedIndex();
+
+            long lastIndex = 0;
+
+            while (iterator.hasNext()) {
+                var resultClo = new DeferredResultClosure<WriteCommand>(iterator.next());
+
+                resultClos.add(resultClo);
+
+                long commandIndex = resultClo.index();
+
+                // The command has been persisted before a restart, the Raft log is replayed starting from the last Raft snapshot.
+                if (commandIndex != 0 && commandIndex <= lastAppliedIndex) {
+                    continue;
+                }
+
+                handleWriteCommand(resultClo);
+
+                lastIndex = Math.max(lastIndex, commandIndex);
             }
 
-            if (command instanceof InsertCommand) {
-                handleInsertCommand((CommandClosure<InsertCommand>) clo);
-            } else if (command instanceof DeleteCommand) {
-                handleDeleteCommand((CommandClosure<DeleteCommand>) clo);
-            } else if (command instanceof ReplaceCommand) {
-                handleReplaceCommand((CommandClosure<ReplaceCommand>) clo);
-            } else if (command instanceof UpsertCommand) {
-                handleUpsertCommand((CommandClosure<UpsertCommand>) clo);
-            } else if (command instanceof InsertAllCommand) {
-                handleInsertAllCommand((CommandClosure<InsertAllCommand>) clo);
-            } else if (command instanceof UpsertAllCommand) {
-                handleUpsertAllCommand((CommandClosure<UpsertAllCommand>) clo);
-            } else if (command instanceof DeleteAllCommand) {
-                handleDeleteAllCommand((CommandClosure<DeleteAllCommand>) clo);
-            } else if (command instanceof DeleteExactCommand) {
-                handleDeleteExactCommand((CommandClosure<DeleteExactCommand>) clo);
-            } else if (command instanceof DeleteExactAllCommand) {
-                handleDeleteExactAllCommand((CommandClosure<DeleteExactAllCommand>) clo);
-            } else if (command instanceof ReplaceIfExistCommand) {
-                handleReplaceIfExistsCommand((CommandClosure<ReplaceIfExistCommand>) clo);
-            } else if (command instanceof GetAndDeleteCommand) {
-                handleGetAndDeleteCommand((CommandClosure<GetAndDeleteCommand>) clo);
-            } else if (command instanceof GetAndReplaceCommand) {
-                handleGetAndReplaceCommand((CommandClosure<GetAndReplaceCommand>) clo);
-            } else if (command instanceof GetAndUpsertCommand) {
-                handleGetAndUpsertCommand((CommandClosure<GetAndUpsertCommand>) clo);
-            } else if (command instanceof ScanInitCommand) {
-                handleScanInitCommand((CommandClosure<ScanInitCommand>) clo);
-            } else if (command instanceof ScanRetrieveBatchCommand) {
-                handleScanRetrieveBatchCommand((CommandClosure<ScanRetrieveBatchCommand>) clo);
-            } else if (command instanceof ScanCloseCommand) {
-                handleScanCloseCommand((CommandClosure<ScanCloseCommand>) clo);
-            } else if (command instanceof FinishTxCommand) {
-                handleFinishTxCommand((CommandClosure<FinishTxCommand>) clo);
-            } else {
-                assert false : "Command was not found [cmd=" + command + ']';
+            // The vacuum writes along with the commands, the old versions are removed gradually as the partition is updated.
+            storage.vacuum(VACUUM_BATCH_SIZE);
+
+            if (lastIndex != 0) {
+                storage.lastAppliedIndex(lastIndex);
             }
+
+            return null;
         });
+
+        // The results are reported only after the commands have been written to the storage.
+        for (DeferredResultClosure<WriteCommand> resultClo : resultClos) {
+            Command command = resultClo.command();
+
+            if (isOnePhase(command)) {
+                txManager.finishOnePhase(((TransactionalCommand) command).getTimestamp());
+            }
+
+            resultClo.reportResult();
+        }
+
+        releaseAppliedUnknownOutcomes();
+    }
+
+    /**
+     * Handles a write command.
+     *
+     * @param clo Command closure.
+     */
+    private void handleWriteCommand(CommandClosure<? extends WriteCommand> clo) {
+        Command command = clo.command();
+
+        if (!tryEnlistIntoTransaction(command, clo)) {
+            return;
+        }
+
+        if (command instanceof InsertCommand) {
+            handleInsertCommand((CommandClosure<InsertCommand>) clo);
+        } else if (command instanceof DeleteCommand) {
+            handleDeleteCommand((CommandClosure<DeleteCommand>) clo);
+        } else if (command instanceof ReplaceCommand) {
+            handleReplaceCommand((CommandClosure<ReplaceCommand>) clo);
+        } else if (command instanceof UpsertCommand) {
+            handleUpsertCommand((CommandClosure<UpsertCommand>) clo);
+        } else if (command instanceof InsertAllCommand) {
+            handleInsertAllCommand((CommandClosure<InsertAllCommand>) clo);
+        } else if (command instanceof UpsertAllCommand) {
+            handleUpsertAllCommand((CommandClosure<UpsertAllCommand>) clo);
+        } else if (command instanceof DeleteAllCommand) {
+            handleDeleteAllCommand((CommandClosure<DeleteAllCommand>) clo);
+        } else if (command instanceof DeleteExactCommand) {
+            handleDeleteExactCommand((CommandClosure<DeleteExactCommand>) clo);
+        } else if (command instanceof DeleteExactAllCommand) {
+            handleDeleteExactAllCommand((CommandClosure<DeleteExactAllCommand>) clo);
+        } else if (command instanceof ReplaceIfExistCommand) {
+            handleReplaceIfExistsCommand((CommandClosure<ReplaceIfExistCommand>) clo);
+        } else if (command instanceof GetAndDeleteCommand) {
+            handleGetAndDeleteCommand((CommandClosure<GetAndDeleteCommand>) clo);
+        } else if (command instanceof GetAndReplaceCommand) {
+            handleGetAndReplaceCommand((CommandClosure<GetAndReplaceCommand>) clo);
+        } else if (command instanceof GetAndUpsertCommand) {
+            handleGetAndUpsertCommand((CommandClosure<GetAndUpsertCommand>) clo);
+        } else if (command instanceof FinishTxCommand) {
+            handleFinishTxCommand((CommandClosure<FinishTxCommand>) clo);
+        } else {
+            assert false : "Command was not found [cmd=" + command + ']';
+        }
+
+        if (isOnePhase(command)) {
+            TransactionalCommand cmd = (TransactionalCommand) command;
+
+            // The commit timestamp is assigned by the leader, the commands of the older leaders are committed at their begin timestamps.
+            Timestamp commitTs = cmd.getCommitTimestamp() == null ? cmd.getTimestamp() : cmd.getCommitTimestamp();
+
+            txManager.updateClock(commitTs);
+
+            storage.finish(cmd.getTimestamp(), commitTs);
+        }
     }
 
     /**
@@ -182,7 +290,8 @@ public class PartitionListener implements RaftGroupListener {
      * @return {@code true} if a command is compatible with a transaction state or a command is not transactional.
      */
     private boolean tryEnlistIntoTransaction(Command command, CommandClosure<?> clo) {
-        if (command instanceof TransactionalCommand) {
+        // A one-phase command is a whole transaction by itself, there is nothing to enlist it into.
+        if (command instanceof TransactionalCommand && !((TransactionalCommand) command).isOnePhase()) {
             Timestamp ts = ((TransactionalCommand) command).getTimestamp();
 
             TxState state = txManager.getOrCreateTransaction(ts);
@@ -197,6 +306,16 @@ public class PartitionListener implements RaftGroupListener {
         return true;
     }
 
+    /**
+     * Checks whether a command is a one-phase transaction.
+     *
+     * @param command The command.
+     * @return {@code True} if the command is committed along with being applied.
+     */
+    private static boolean isOnePhase(Command command) {
+        return command instanceof TransactionalCommand && ((TransactionalCommand) command).isOnePhase();
+    }
+
     /**
      * Handler for the {@link GetCommand}.
      *
@@ -205,7 +324,8 @@ public class PartitionListener implements RaftGroupListener {
     private void handleGetCommand(CommandClosure<GetCommand> clo) {
         GetCommand cmd = clo.command();
 
-        clo.result(new SingleRowResponse(storage.get(cmd.getRow(), cmd.getTimestamp())));
+        storage.getAsync(cmd.getRow(), cmd.getTimestamp()).whenComplete((row, err) ->
+                clo.result(err == null ? new SingleRowResponse(row) : unwrapCause(err)));
     }
 
     /**
@@ -220,8 +340,53 @@ public class PartitionListener implements RaftGroupListener {
 
         assert keyRows != null && !keyRows.isEmpty();
 
-        // TODO asch IGNITE-15934 all reads are sequential, can be parallelized ?
-        clo.result(new MultiRowsResponse(storage.getAll(keyRows, cmd.getTimestamp())));
+        storage.getAllAsync(keyRows, cmd.getTimestamp()).whenComplete((rows, err) ->
+                clo.result(err == null ? new MultiRowsResponse(rows) : unwrapCause(err)));
+    }
+
+    /**
+     * Handler for the {@link GetAtCommand}.
+     *
+     * @param clo Command closure.
+     */
+    private void handleGetAtCommand(CommandClosure<GetAtCommand> clo) {
+        GetAtCommand cmd = clo.command();
+
+        // The transactions committed by this node from now on are committed after the read.
+        txManager.updateClock(cmd.readTimestamp());
+
+        storage.getAtAsync(cmd.getRow(), cmd.readTimestamp()).whenComplete((row, err) ->
+                clo.result(err == null ? new SingleRowResponse(row) : unwrapCause(err)));
+    }
+
+    /**
+     * Handler for the {@link GetAllAtCommand}.
+     *
+     * @param clo Command closure.
+     */
+    private void handleGetAllAtCommand(CommandClosure<GetAllAtCommand> clo) {
+        GetAllAtCommand cmd = clo.command();
+
+        Collection<BinaryRow> keyRows = cmd.getRows();
+
+        assert keyRows != null && !keyRows.isEmpty();
+
+        txManager.updateClock(cmd.readTimestamp());
+
+        storage.getAllAtAsync(keyRows, cmd.readTimestamp()).whenComplete((rows, err) ->
+                clo.result(err == null ? new MultiRowsResponse(rows) : unwrapCause(err)));
+    }
+
+    /**
+     * Handler for the {@link SyncAtCommand}.
+     *
+     * @param clo Command closure.
+     */
+    private void handleSyncAtCommand(CommandClosure<SyncAtCommand> clo) {
+        // The local data is read as of the read timestamp, so the replica must not commit the following writes before it.
+        txManager.updateClock(clo.command().readTimestamp());
+
+        clo.result(null);
     }
 
     /**
@@ -416,10 +581,25 @@ public class PartitionListener implements RaftGroupListener {
     private void handleFinishTxCommand(CommandClosure<FinishTxCommand> clo) {
         FinishTxCommand cmd = clo.command();
 
-        Timestamp ts = cmd.timestamp();
-        boolean commit = cmd.finish();
+        List<Timestamp> timestamps = cmd.timestamps();
+
+        boolean changed = false;
+
+        for (int i = 0; i < timestamps.size(); i++) {
+            Timestamp ts = timestamps.get(i);
+            Timestamp commitTs = cmd.commitTimestamp(i);
+
+            if (commitTs != null) {
+                txManager.updateClock(commitTs);
+            }
+
+            changed |= txManager.changeState(ts, TxState.PENDING, commitTs != null ? TxState.COMMITED : TxState.ABORTED);
+
+            // The state may have been changed by another partition of the transaction on the same node, the versions are resolved anyway.
+            storage.finish(ts, commitTs);
+        }
 
-        clo.result(txManager.changeState(ts, TxState.PENDING, commit ? TxState.COMMITED : TxState.ABORTED));
+        clo.result(changed);
     }
 
     /**
@@ -432,8 +612,14 @@ public class PartitionListener implements RaftGroupListener {
 
         IgniteUuid cursorId = rangeCmd.scanId();
 
+        Timestamp readTs = rangeCmd.readTimestamp();
+
+        if (readTs != null) {
+            txManager.updateClock(readTs);
+        }
+
         try {
-            Cursor<BinaryRow> cursor = storage.scan(key -> true);
+            Cursor<BinaryRow> cursor = readTs == null ? storage.scan(key -> true) : storage.scanAt(key -> true, readTs);
 
             cursors.put(
                     cursorId,
@@ -443,8 +629,10 @@ public class PartitionListener implements RaftGroupListener {
                             new AtomicInteger(0)
                     )
             );
-        } catch (StorageException e) {
+        } catch (StorageException | IgniteInternalException e) {
             clo.result(e);
+
+            return;
         }
 
         clo.result(null);
@@ -472,17 +660,19 @@ public class PartitionListener implements RaftGroupListener {
                     "Counters from received scan command and handled scan command in partition listener are inconsistent");
         }
 
-        List<BinaryRow> res = new ArrayList<>();
+        int maxRows = clo.command().itemsToRetrieveCount();
 
-        try {
-            for (int i = 0; i < clo.command().itemsToRetrieveCount() && cursorDesc.cursor().hasNext(); i++) {
-                res.add(cursorDesc.cursor().next());
-            }
-        } catch (NoSuchElementException e) {
-            clo.result(e);
-        }
+        // The batches are read one after another, the cursor is not thread-safe. The commands of a scan are not replicated, so they may
+        // be handled by different threads concurrently.
+        CompletableFuture<Void> batchFut = new CompletableFuture<>();
 
-        clo.result(new MultiRowsResponse(res));
+        cursorDesc.lastOperation().getAndSet(batchFut)
+                .thenCompose(unused -> storage.readBatchAsync(cursorDesc.cursor(), maxRows))
+                .whenComplete((rows, err) -> {
+                    batchFut.complete(null);
+
+                    clo.result(err == null ? new MultiRowsResponse(rows) : unwrapCause(err));
+                });
     }
 
     /**
@@ -499,13 +689,32 @@ public class PartitionListener implements RaftGroupListener {
             return;
         }
 
-        try {
-            cursorDesc.cursor().close();
-        } catch (Exception e) {
-            throw new IgniteInternalException(e);
-        }
+        CompletableFuture<Void> closeFut = new CompletableFuture<>();
 
-        clo.result(null);
+        // The cursor is closed after the batch being read, if any.
+        cursorDesc.lastOperation().getAndSet(closeFut).thenRun(() -> {
+            try {
+                cursorDesc.cursor().close();
+            } catch (Exception e) {
+                clo.result(new IgniteInternalException(e));
+
+                return;
+            } finally {
+                closeFut.complete(null);
+            }
+
+            clo.result(null);
+        });
+    }
+
+    /**
+     * Unwraps the cause of an exception of an asynchronous operation.
+     *
+     * @param err Exception.
+     * @return Cause of the {@link CompletionException}, the exception itself otherwise.
+     */
+    private static Throwable unwrapCause(Throwable err) {
+        return err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
     }
 
     /** {@inheritDoc} */
@@ -521,6 +730,8 @@ public class PartitionListener implements RaftGroupListener {
     public boolean onSnapshotLoad(Path path) {
         storage.restoreSnapshot(path);
 
+        releaseAppliedUnknownOutcomes();
+
         return true;
     }
 
@@ -540,29 +751,128 @@ public class PartitionListener implements RaftGroupListener {
         if (command instanceof SingleKeyCommand) {
             SingleKeyCommand cmd0 = (SingleKeyCommand) command;
 
-            return cmd0 instanceof ReadCommand ? txManager.readLock(lockId, cmd0.getRow().keySlice(), cmd0.getTimestamp()) :
-                    txManager.writeLock(lockId, cmd0.getRow().keySlice(), cmd0.getTimestamp());
+            CompletableFuture<Void> fut = cmd0 instanceof ReadCommand
+                    ? txManager.readLock(lockId, partId, cmd0.getRow().keySlice(), cmd0.getTimestamp()) :
+                    txManager.writeLock(lockId, partId, cmd0.getRow().keySlice(), cmd0.getTimestamp());
+
+            return cmd0.isOnePhase() ? onePhaseLocked(cmd0, fut, new CompletableFuture[] {fut}) : fut;
         } else if (command instanceof MultiKeyCommand) {
             MultiKeyCommand cmd0 = (MultiKeyCommand) command;
 
             Collection<BinaryRow> rows = cmd0.getRows();
 
+            boolean read = cmd0 instanceof ReadCommand;
+
+            if (rows.size() > txManager.lockEscalationThreshold()) {
+                // A batch that exceeds the escalation threshold by itself locks the whole partition right away.
+                CompletableFuture<Void> fut = txManager.partitionLock(lockId, partId, read, cmd0.getTimestamp());
+
+                return cmd0.isOnePhase() ? onePhaseLocked(cmd0, fut, new CompletableFuture[] {fut}) : fut;
+            }
+
             CompletableFuture<Void>[] futs = new CompletableFuture[rows.size()];
 
             int i = 0;
-            boolean read = cmd0 instanceof ReadCommand;
 
             for (BinaryRow row : rows) {
-                futs[i++] = read ? txManager.readLock(lockId, row.keySlice(), cmd0.getTimestamp()) :
-                        txManager.writeLock(lockId, row.keySlice(), cmd0.getTimestamp());
+                futs[i++] = read ? txManager.readLock(lockId, partId, row.keySlice(), cmd0.getTimestamp()) :
+                        txManager.writeLock(lockId, partId, row.keySlice(), cmd0.getTimestamp());
             }
 
-            return CompletableFuture.allOf(futs);
+            CompletableFuture<Void> fut = CompletableFuture.allOf(futs);
+
+            return cmd0.isOnePhase() ? onePhaseLocked(cmd0, fut, futs) : fut;
         }
 
         return null;
     }
 
+    /**
+     * Completes the locking of a one-phase command: assigns the commit timestamp of a write once the locks are acquired, so that the
+     * command is committed after the reads at the timestamps this node has served, and releases the locks on failure.
+     *
+     * @param cmd The command.
+     * @param fut Future of all the locks.
+     * @param lockFuts Futures of the locks.
+     * @return Future of all the locks.
+     */
+    private CompletableFuture<Void> onePhaseLocked(TransactionalCommand cmd, CompletableFuture<Void> fut, CompletableFuture<?>[] lockFuts) {
+        CompletableFuture<Void> locked = releaseOnFailure(fut, lockFuts, cmd.getTimestamp());
+
+        if (cmd instanceof ReadCommand) {
+            return locked;
+        }
+
+        return locked.thenRun(() -> {
+            txManager.updateClock(cmd.getTimestamp());
+
+            cmd.setCommitTimestamp(txManager.commitTimestamp());
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onApplyFailure(Command command) {
+        // The command has not reached the log, so it is never applied and there is no rollback to release its locks.
+        if (isOnePhase(command)) {
+            txManager.finishOnePhase(((TransactionalCommand) command).getTimestamp());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onApplyUnknown(Command command, long index) {
+        if (!isOnePhase(command)) {
+            return;
+        }
+
+        unknownOutcomes.put(index, ((TransactionalCommand) command).getTimestamp());
+
+        // The index may have been applied while the failure was being reported.
+        releaseAppliedUnknownOutcomes();
+    }
+
+    /**
+     * Releases the locks of the one-phase commands with unknown outcome whose indexes have been applied: the command has been applied
+     * with its index and its locks have already been released, or another command has been applied instead of it.
+     */
+    private void releaseAppliedUnknownOutcomes() {
+        Map<Long, Timestamp> applied = unknownOutcomes.headMap(storage.lastAppliedIndex(), true);
+
+        for (Map.Entry<Long, Timestamp> e : applied.entrySet()) {
+            if (applied.remove(e.getKey(), e.getValue())) {
+                txManager.finishOnePhase(e.getValue());
+            }
+        }
+    }
+
+    /**
+     * Releases the locks of a one-phase transaction if some of them can't be acquired: the command is not applied then, and there is no
+     * rollback to release the others. The locks of a command that fails after they have been acquired are released by
+     * {@link #onApplyFailure} or, if the command may have reached the log, once its index is applied.
+     *
+     * @param fut Future of all the locks.
+     * @param lockFuts Futures of the locks.
+     * @param ts The timestamp of the transaction.
+     * @return Future of all the locks.
+     */
+    private CompletableFuture<Void> releaseOnFailure(CompletableFuture<Void> fut, CompletableFuture<?>[] lockFuts, Timestamp ts) {
+        return fut.whenComplete((ignored, err) -> {
+            if (err == null) {
+                return;
+            }
+
+            CompletableFuture<?>[] settled = new CompletableFuture[lockFuts.length];
+
+            for (int i = 0; i < lockFuts.length; i++) {
+                settled[i] = lockFuts[i].handle((ignored0, err0) -> null);
+            }
+
+            // The locks that are still waited for are released once they are acquired.
+            CompletableFuture.allOf(settled).thenRun(() -> txManager.finishOnePhase(ts));
+        });
+    }
+
     /**
      * Extracts a key and a value from the {@link BinaryRow} and wraps it in a {@link DataRow}.
      *
@@ -586,6 +896,93 @@ public class PartitionListener implements RaftGroupListener {
         return storage;
     }
 
+    /**
+     * Closure of a one-phase read command, finishes the transaction before the result is reported.
+     *
+     * @param <R> Command type.
+     */
+    private class OnePhaseReadClosure<R extends ReadCommand> implements CommandClosure<R> {
+        /** Original closure. */
+        private final CommandClosure<? extends R> delegate;
+
+        /**
+         * The constructor.
+         *
+         * @param delegate Original closure.
+         */
+        OnePhaseReadClosure(CommandClosure<? extends R> delegate) {
+            this.delegate = delegate;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public R command() {
+            return delegate.command();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long index() {
+            return delegate.index();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void result(@Nullable Serializable res) {
+            txManager.finishOnePhase(((TransactionalCommand) delegate.command()).getTimestamp());
+
+            delegate.result(res);
+        }
+    }
+
+    /**
+     * Command closure that holds the result of a command until it can be reported.
+     *
+     * @param <R> Command type.
+     */
+    private static class DeferredResultClosure<R extends Command> implements CommandClosure<R> {
+        /** Original closure. */
+        private final CommandClosure<? extends R> delegate;
+
+        /** Result. */
+        @Nullable
+        private Serializable result;
+
+        /**
+         * The constructor.
+         *
+         * @param delegate Original closure.
+         */
+        DeferredResultClosure(CommandClosure<? extends R> delegate) {
+            this.delegate = delegate;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public R command() {
+            return delegate.command();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long index() {
+            return delegate.index();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void result(@Nullable Serializable res) {
+            result = res;
+        }
+
+        /**
+         * Reports the result to the original closure.
+         */
+        void reportResult() {
+            delegate.result(result);
+        }
+    }
+
     /**
      * Cursor meta information: origin node id and type.
      */
@@ -599,6 +996,10 @@ public class PartitionListener implements RaftGroupListener {
         /** Batch counter of a cursor. */
         private final AtomicInteger batchCounter;
 
+        /** Future of the last operation on the cursor, completed once it is done, successfully or not. */
+        private final AtomicReference<CompletableFuture<Void>> lastOperation =
+                new AtomicReference<>(CompletableFuture.completedFuture(null));
+
         /**
          * The constructor.
          *
@@ -625,5 +1026,10 @@ public class PartitionListener implements RaftGroupListener {
         public AtomicInteger batchCounter() {
             return batchCounter;
         }
+
+        /** Returns the future of the last operation on the cursor, the operations replace it to be executed one after another. */
+        public AtomicReference<CompletableFuture<Void>> lastOperation() {
+            return lastOperation;
+        }
     }
 }
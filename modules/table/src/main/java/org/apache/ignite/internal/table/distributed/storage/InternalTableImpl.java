@@ -18,6 +18,7 @@
 package org.apache.ignite.internal.table.distributed.storage;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
@@ -43,15 +44,19 @@ import org.apache.ignite.internal.table.distributed.command.DeleteAllCommand;
 import org.apache.ignite.internal.table.distributed.command.DeleteCommand;
 import org.apache.ignite.internal.table.distributed.command.DeleteExactAllCommand;
 import org.apache.ignite.internal.table.distributed.command.DeleteExactCommand;
+import org.apache.ignite.internal.table.distributed.command.GetAllAtCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAllCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAndDeleteCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAndReplaceCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAndUpsertCommand;
+import org.apache.ignite.internal.table.distributed.command.GetAtCommand;
 import org.apache.ignite.internal.table.distributed.command.GetCommand;
 import org.apache.ignite.internal.table.distributed.command.InsertAllCommand;
 import org.apache.ignite.internal.table.distributed.command.InsertCommand;
 import org.apache.ignite.internal.table.distributed.command.ReplaceCommand;
 import org.apache.ignite.internal.table.distributed.command.ReplaceIfExistCommand;
+import org.apache.ignite.internal.table.distributed.command.SyncAtCommand;
+import org.apache.ignite.internal.table.distributed.command.TransactionalCommand;
 import org.apache.ignite.internal.table.distributed.command.UpsertAllCommand;
 import org.apache.ignite.internal.table.distributed.command.UpsertCommand;
 import org.apache.ignite.internal.table.distributed.command.response.MultiRowsResponse;
@@ -60,7 +65,9 @@ import org.apache.ignite.internal.table.distributed.command.scan.ScanCloseComman
 import org.apache.ignite.internal.table.distributed.command.scan.ScanInitCommand;
 import org.apache.ignite.internal.table.distributed.command.scan.ScanRetrieveBatchCommand;
 import org.apache.ignite.internal.tx.InternalTransaction;
+import org.apache.ignite.internal.tx.Timestamp;
 import org.apache.ignite.internal.tx.TxManager;
+import org.apache.ignite.lang.IgniteInternalException;
 import org.apache.ignite.lang.IgniteLogger;
 import org.apache.ignite.lang.IgniteStringFormatter;
 import org.apache.ignite.lang.IgniteUuid;
@@ -68,7 +75,9 @@ import org.apache.ignite.lang.IgniteUuidGenerator;
 import org.apache.ignite.network.NetworkAddress;
 import org.apache.ignite.raft.client.Command;
 import org.apache.ignite.raft.client.Peer;
+import org.apache.ignite.raft.client.ReadCommand;
 import org.apache.ignite.raft.client.service.RaftGroupService;
+import org.apache.ignite.tx.TransactionException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
@@ -160,7 +169,7 @@ public class InternalTableImpl implements InternalTable {
      * Enlists multiple rows into a transaction.
      *
      * @param keyRows Rows.
-     * @param tx The transaction.
+     * @param tx The transaction, {@code null} for an implicit one.
      * @param op Command factory.
      * @param reducer The reducer.
      * @param <R> Reducer's input.
@@ -170,15 +179,28 @@ public class InternalTableImpl implements InternalTable {
     private <R, T> CompletableFuture<T> enlistInTx(
             Collection<BinaryRow> keyRows,
             InternalTransaction tx,
-            BiFunction<Collection<BinaryRow>, InternalTransaction, Command> op,
+            BiFunction<Collection<BinaryRow>, Timestamp, Command> op,
             Function<CompletableFuture<R>[], CompletableFuture<T>> reducer
     ) {
+        if (tx != null && tx.isReadOnly()) {
+            return failedFuture(readOnlyWriteException());
+        }
+
+        Int2ObjectOpenHashMap<List<BinaryRow>> keyRowsByPartition = mapRowsToPartitions(keyRows);
+
+        // An implicit transaction of a single partition is committed in one phase, along with the command.
+        if (tx == null && keyRowsByPartition.size() == 1) {
+            Int2ObjectOpenHashMap.Entry<List<BinaryRow>> partToRows = keyRowsByPartition.int2ObjectEntrySet().iterator().next();
+
+            CompletableFuture<R> fut = runOnePhase(partToRows.getIntKey(), op.apply(partToRows.getValue(), txManager.beginOnePhase()));
+
+            return reducer.apply(new CompletableFuture[] {fut});
+        }
+
         final boolean implicit = tx == null;
 
         final InternalTransaction tx0 = implicit ? txManager.begin() : tx;
 
-        Int2ObjectOpenHashMap<List<BinaryRow>> keyRowsByPartition = mapRowsToPartitions(keyRows);
-
         CompletableFuture<R>[] futures = new CompletableFuture[keyRowsByPartition.size()];
 
         int batchNum = 0;
@@ -186,7 +208,7 @@ public class InternalTableImpl implements InternalTable {
         for (Int2ObjectOpenHashMap.Entry<List<BinaryRow>> partToRows : keyRowsByPartition.int2ObjectEntrySet()) {
             CompletableFuture<RaftGroupService> fut = enlist(partToRows.getIntKey(), tx0);
 
-            futures[batchNum++] = fut.thenCompose(svc -> svc.run(op.apply(partToRows.getValue(), tx0)));
+            futures[batchNum++] = fut.thenCompose(svc -> svc.run(op.apply(partToRows.getValue(), tx0.timestamp())));
         }
 
         CompletableFuture<T> fut = reducer.apply(futures);
@@ -198,7 +220,7 @@ public class InternalTableImpl implements InternalTable {
      * Enlists a single row into a transaction.
      *
      * @param row The row.
-     * @param tx The transaction.
+     * @param tx The transaction, {@code null} for an implicit one.
      * @param op Command factory.
      * @param trans Transform closure.
      * @param <R> Transform input.
@@ -208,18 +230,68 @@ public class InternalTableImpl implements InternalTable {
     private <R, T> CompletableFuture<T> enlistInTx(
             BinaryRow row,
             InternalTransaction tx,
-            Function<InternalTransaction, Command> op,
+            Function<Timestamp, Command> op,
             Function<R, T> trans
     ) {
-        final boolean implicit = tx == null;
-
-        final InternalTransaction tx0 = implicit ? txManager.begin() : tx;
+        if (tx != null && tx.isReadOnly()) {
+            return failedFuture(readOnlyWriteException());
+        }
 
         int partId = partId(row);
 
-        CompletableFuture<T> fut = enlist(partId, tx0).thenCompose(svc -> svc.<R>run(op.apply(tx0)).thenApply(trans::apply));
+        // An implicit transaction of a single row is committed in one phase, along with the command.
+        if (tx == null) {
+            return this.<R>runOnePhase(partId, op.apply(txManager.beginOnePhase())).thenApply(trans);
+        }
 
-        return postEnlist(fut, implicit, tx0);
+        CompletableFuture<T> fut = enlist(partId, tx).thenCompose(svc -> svc.<R>run(op.apply(tx.timestamp())).thenApply(trans::apply));
+
+        return postEnlist(fut, false, tx);
+    }
+
+    /**
+     * Runs a command as a one-phase transaction: the command is applied and committed at once by a partition, so there is nothing to
+     * finish afterwards.
+     *
+     * @param partId Partition id.
+     * @param cmd The command.
+     * @param <R> Command result.
+     * @return The future.
+     */
+    private <R> CompletableFuture<R> runOnePhase(int partId, Command cmd) {
+        ((TransactionalCommand) cmd).setOnePhase(true);
+
+        RaftGroupService svc = partitionMap.get(partId);
+
+        CompletableFuture<Void> fut0 = svc.leader() == null ? svc.refreshLeader() : completedFuture(null);
+
+        return fut0.thenCompose(ignored -> svc.run(cmd));
+    }
+
+    /**
+     * Runs a read of a read-only transaction on the leader of a partition: the versions committed as of the read timestamp are read
+     * without any locks, the transaction is not enlisted.
+     *
+     * @param partId Partition id.
+     * @param cmd The command.
+     * @param <R> Command result.
+     * @return The future.
+     */
+    private <R> CompletableFuture<R> runReadOnly(int partId, ReadCommand cmd) {
+        RaftGroupService svc = partitionMap.get(partId);
+
+        CompletableFuture<Void> fut0 = svc.leader() == null ? svc.refreshLeader() : completedFuture(null);
+
+        return fut0.thenCompose(ignored -> svc.run(cmd));
+    }
+
+    /**
+     * Creates the exception of an attempt to write within a read-only transaction.
+     *
+     * @return The exception.
+     */
+    private static TransactionException readOnlyWriteException() {
+        return new TransactionException("Failed to enlist a write operation into a read-only transaction");
     }
 
     /**
@@ -253,85 +325,104 @@ public class InternalTableImpl implements InternalTable {
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<BinaryRow> get(BinaryRow keyRow, InternalTransaction tx) {
-        return enlistInTx(keyRow, tx, tx0 -> new GetCommand(keyRow, tx0.timestamp()), SingleRowResponse::getValue);
+        if (tx != null && tx.isReadOnly()) {
+            return this.<SingleRowResponse>runReadOnly(partId(keyRow), new GetAtCommand(keyRow, tx.timestamp()))
+                    .thenApply(SingleRowResponse::getValue);
+        }
+
+        return enlistInTx(keyRow, tx, ts -> new GetCommand(keyRow, ts), SingleRowResponse::getValue);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<Collection<BinaryRow>> getAll(Collection<BinaryRow> keyRows, InternalTransaction tx) {
-        return enlistInTx(keyRows, tx, (rows0, tx0) -> new GetAllCommand(rows0, tx0.timestamp()), this::collectMultiRowsResponses);
+        if (tx != null && tx.isReadOnly()) {
+            Int2ObjectOpenHashMap<List<BinaryRow>> keyRowsByPartition = mapRowsToPartitions(keyRows);
+
+            CompletableFuture<?>[] futures = new CompletableFuture[keyRowsByPartition.size()];
+
+            int batchNum = 0;
+
+            for (Int2ObjectOpenHashMap.Entry<List<BinaryRow>> partToRows : keyRowsByPartition.int2ObjectEntrySet()) {
+                futures[batchNum++] = runReadOnly(partToRows.getIntKey(), new GetAllAtCommand(partToRows.getValue(), tx.timestamp()));
+            }
+
+            return collectMultiRowsResponses(futures);
+        }
+
+        return enlistInTx(keyRows, tx, (rows0, ts) -> new GetAllCommand(rows0, ts), this::collectMultiRowsResponses);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<Void> upsert(BinaryRow row, InternalTransaction tx) {
-        return enlistInTx(row, tx, tx0 -> new UpsertCommand(row, tx0.timestamp()), ignored -> null);
+        return enlistInTx(row, tx, ts -> new UpsertCommand(row, ts), ignored -> null);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<Void> upsertAll(Collection<BinaryRow> rows, InternalTransaction tx) {
-        return enlistInTx(rows, tx, (rows0, tx0) -> new UpsertAllCommand(rows0, tx0.timestamp()), CompletableFuture::allOf);
+        return enlistInTx(rows, tx, (rows0, ts) -> new UpsertAllCommand(rows0, ts), CompletableFuture::allOf);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<BinaryRow> getAndUpsert(BinaryRow row, InternalTransaction tx) {
-        return enlistInTx(row, tx, tx0 -> new GetAndUpsertCommand(row, tx0.timestamp()), SingleRowResponse::getValue);
+        return enlistInTx(row, tx, ts -> new GetAndUpsertCommand(row, ts), SingleRowResponse::getValue);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<Boolean> insert(BinaryRow row, InternalTransaction tx) {
-        return enlistInTx(row, tx, tx0 -> new InsertCommand(row, tx0.timestamp()), r -> (Boolean) r);
+        return enlistInTx(row, tx, ts -> new InsertCommand(row, ts), r -> (Boolean) r);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<Collection<BinaryRow>> insertAll(Collection<BinaryRow> rows, InternalTransaction tx) {
-        return enlistInTx(rows, tx, (rows0, tx0) -> new InsertAllCommand(rows0, tx0.timestamp()), this::collectMultiRowsResponses);
+        return enlistInTx(rows, tx, (rows0, ts) -> new InsertAllCommand(rows0, ts), this::collectMultiRowsResponses);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<Boolean> replace(BinaryRow row, InternalTransaction tx) {
-        return enlistInTx(row, tx, tx0 -> new ReplaceIfExistCommand(row, tx0.timestamp()), r -> (Boolean) r);
+        return enlistInTx(row, tx, ts -> new ReplaceIfExistCommand(row, ts), r -> (Boolean) r);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<Boolean> replace(BinaryRow oldRow, BinaryRow newRow, InternalTransaction tx) {
-        return enlistInTx(oldRow, tx, tx0 -> new ReplaceCommand(oldRow, newRow, tx0.timestamp()), r -> (Boolean) r);
+        return enlistInTx(oldRow, tx, ts -> new ReplaceCommand(oldRow, newRow, ts), r -> (Boolean) r);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<BinaryRow> getAndReplace(BinaryRow row, InternalTransaction tx) {
-        return enlistInTx(row, tx, tx0 -> new GetAndReplaceCommand(row, tx0.timestamp()), SingleRowResponse::getValue);
+        return enlistInTx(row, tx, ts -> new GetAndReplaceCommand(row, ts), SingleRowResponse::getValue);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<Boolean> delete(BinaryRow keyRow, InternalTransaction tx) {
-        return enlistInTx(keyRow, tx, tx0 -> new DeleteCommand(keyRow, tx0.timestamp()), r -> (Boolean) r);
+        return enlistInTx(keyRow, tx, ts -> new DeleteCommand(keyRow, ts), r -> (Boolean) r);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<Boolean> deleteExact(BinaryRow oldRow, InternalTransaction tx) {
-        return enlistInTx(oldRow, tx, tx0 -> new DeleteExactCommand(oldRow, tx0.timestamp()), r -> (Boolean) r);
+        return enlistInTx(oldRow, tx, ts -> new DeleteExactCommand(oldRow, ts), r -> (Boolean) r);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<BinaryRow> getAndDelete(BinaryRow row, InternalTransaction tx) {
-        return enlistInTx(row, tx, tx0 -> new GetAndDeleteCommand(row, tx0.timestamp()), SingleRowResponse::getValue);
+        return enlistInTx(row, tx, ts -> new GetAndDeleteCommand(row, ts), SingleRowResponse::getValue);
     }
 
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<Collection<BinaryRow>> deleteAll(Collection<BinaryRow> rows, InternalTransaction tx) {
-        return enlistInTx(rows, tx, (rows0, tx0) -> new DeleteAllCommand(rows0, tx0.timestamp()), this::collectMultiRowsResponses);
+        return enlistInTx(rows, tx, (rows0, ts) -> new DeleteAllCommand(rows0, ts), this::collectMultiRowsResponses);
     }
 
     /** {@inheritDoc} */
@@ -340,7 +431,7 @@ public class InternalTableImpl implements InternalTable {
             Collection<BinaryRow> rows,
             InternalTransaction tx
     ) {
-        return enlistInTx(rows, tx, (rows0, tx0) -> new DeleteExactAllCommand(rows0, tx0.timestamp()), this::collectMultiRowsResponses);
+        return enlistInTx(rows, tx, (rows0, ts) -> new DeleteExactAllCommand(rows0, ts), this::collectMultiRowsResponses);
     }
 
     /** {@inheritDoc} */
@@ -357,7 +448,7 @@ public class InternalTableImpl implements InternalTable {
             );
         }
 
-        return new PartitionScanPublisher(partitionMap.get(p));
+        return new PartitionScanPublisher(partitionMap.get(p), tx != null && tx.isReadOnly() ? tx.timestamp() : null);
     }
 
     /**
@@ -421,6 +512,42 @@ public class InternalTableImpl implements InternalTable {
         return (partId < 0) ? -partId : partId;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public InternalTransaction beginReadOnly() {
+        return txManager.beginReadOnly();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> syncReplica(int p, String nodeId, InternalTransaction tx) {
+        assert tx.isReadOnly() : tx;
+
+        RaftGroupService svc = partitionMap.get(p);
+
+        Peer replica = null;
+
+        for (Peer peer : svc.peers()) {
+            try {
+                if (nodeId.equals(netAddrResolver.apply(peer.address()))) {
+                    replica = peer;
+
+                    break;
+                }
+            } catch (IllegalStateException ignored) {
+                // The peer has left the topology.
+            }
+        }
+
+        if (replica == null) {
+            return failedFuture(new IgniteInternalException(IgniteStringFormatter.format(
+                    "No replica of the partition on the node [table={}, part={}, node={}]", tableName, p, nodeId)));
+        }
+
+        // The safe read is executed by the replica once it has applied the read index of the group.
+        return svc.run(replica, new SyncAtCommand(tx.timestamp()), true);
+    }
+
     /**
      * Returns a transaction manager.
      *
@@ -494,15 +621,21 @@ public class InternalTableImpl implements InternalTable {
         /** {@link Publisher} that relatively notifies about partition rows. */
         private final RaftGroupService raftGrpSvc;
 
+        /** Read timestamp of a read-only transaction, {@code null} for the latest rows. */
+        @Nullable
+        private final Timestamp readTs;
+
         private AtomicBoolean subscribed;
 
         /**
          * The constructor.
          *
          * @param raftGrpSvc {@link RaftGroupService} to run corresponding raft commands.
+         * @param readTs Read timestamp of a read-only transaction, {@code null} for the latest rows.
          */
-        PartitionScanPublisher(RaftGroupService raftGrpSvc) {
+        PartitionScanPublisher(RaftGroupService raftGrpSvc, @Nullable Timestamp readTs) {
             this.raftGrpSvc = raftGrpSvc;
+            this.readTs = readTs;
             this.subscribed = new AtomicBoolean(false);
         }
 
@@ -536,9 +669,14 @@ public class InternalTableImpl implements InternalTable {
             private final IgniteUuid scanId;
 
             /**
-             * Scan initial operation that created server cursor.
+             * Scan initial operation that created server cursor. Completes with the peer that holds the cursor, all subsequent scan
+             * commands are sent directly to that peer and are never replicated through the raft log. The peer is the leader known at the
+             * moment the scan is started, it is pinned before the cursor is created, so the cursor and the batches are served by the same
+             * node even if the leadership changes in between. The cursor is created by a read index request, so the peer opens it only
+             * after it has applied all the entries committed by the group, and a read-only scan at {@code readTs} sees every write the
+             * group has acknowledged before the scan was started, even if the peer is not a leader anymore.
              */
-            private final CompletableFuture<Void> scanInitOp;
+            private final CompletableFuture<Peer> scanInitOp;
 
             private AtomicInteger scanCounter = new AtomicInteger(1);
 
@@ -552,7 +690,13 @@ public class InternalTableImpl implements InternalTable {
                 this.canceled = new AtomicBoolean(false);
                 this.scanId = UUID_GENERATOR.randomUuid();
                 // TODO: IGNITE-15544 Close partition scans on node left.
-                this.scanInitOp = raftGrpSvc.run(new ScanInitCommand("", scanId));
+                CompletableFuture<Void> leaderFut = raftGrpSvc.leader() == null ? raftGrpSvc.refreshLeader() : completedFuture(null);
+
+                this.scanInitOp = leaderFut.thenCompose(ignored -> {
+                    Peer peer = raftGrpSvc.leader();
+
+                    return raftGrpSvc.<Void>run(peer, new ScanInitCommand("", scanId, readTs), true).thenApply(ignored0 -> peer);
+                });
             }
 
             /** {@inheritDoc} */
@@ -596,7 +740,7 @@ public class InternalTableImpl implements InternalTable {
                 }
 
                 if (closeCursor) {
-                    scanInitOp.thenRun(() -> raftGrpSvc.run(new ScanCloseCommand(scanId))).exceptionally(closeT -> {
+                    scanInitOp.thenCompose(peer -> raftGrpSvc.run(peer, new ScanCloseCommand(scanId))).exceptionally(closeT -> {
                         LOG.warn("Unable to close scan.", closeT);
 
                         return null;
@@ -614,8 +758,8 @@ public class InternalTableImpl implements InternalTable {
                     return;
                 }
 
-                scanInitOp.thenCompose((none) -> raftGrpSvc.<MultiRowsResponse>run(
-                                new ScanRetrieveBatchCommand(n, scanId, scanCounter.getAndIncrement())))
+                scanInitOp.thenCompose(peer -> raftGrpSvc.<MultiRowsResponse>run(
+                                peer, new ScanRetrieveBatchCommand(n, scanId, scanCounter.getAndIncrement())))
                         .thenAccept(
                                 res -> {
                                     if (res.getValues() == null) {
@@ -0,0 +1,730 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.table.distributed.storage;
+
+import static java.util.stream.Collectors.toList;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import org.apache.ignite.internal.schema.BinaryRow;
+import org.apache.ignite.internal.schema.Column;
+import org.apache.ignite.internal.schema.Columns;
+import org.apache.ignite.internal.schema.SchemaDescriptor;
+import org.apache.ignite.internal.schema.SchemaRegistry;
+import org.apache.ignite.internal.schema.row.Row;
+import org.apache.ignite.internal.schema.row.RowAssembler;
+import org.apache.ignite.internal.storage.DataRow;
+import org.apache.ignite.internal.storage.PartitionStorage;
+import org.apache.ignite.internal.storage.SearchRow;
+import org.apache.ignite.internal.storage.StorageException;
+import org.apache.ignite.internal.storage.basic.BinarySearchRow;
+import org.apache.ignite.internal.storage.engine.TableStorage;
+import org.apache.ignite.internal.storage.index.HashIndexStorage;
+import org.apache.ignite.internal.storage.index.IndexRow;
+import org.apache.ignite.internal.storage.index.SortedIndexDescriptor.ColumnDescriptor;
+import org.apache.ignite.internal.storage.index.SortedIndexStorage;
+import org.apache.ignite.internal.util.Cursor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Sorted and hash indexes of a table, maintained by the {@link VersionedRowStore}s of its partitions. An index has an entry for every
+ * version of a row kept in a partition, so that it may be used by the reads as of a timestamp too, and the entries are removed along with
+ * the versions. The index updates made by a write are persisted atomically with it.
+ *
+ * <p>Since an entry may be of a version other than the one visible to a read, the rows found with an index must be checked against the
+ * search bounds or the looked up values.
+ */
+public class TableIndexes {
+    /** Number of the rows added to an index being built at once, the writes of the table wait for a batch to be added. */
+    private static final int BUILD_BATCH_SIZE = 1_000;
+
+    /** Table storage. */
+    private final TableStorage tableStorage;
+
+    /** Schema registry of the table. */
+    private final SchemaRegistry schemaRegistry;
+
+    /** Lock that makes the set of indexes change only between the writes of the partitions, the writes hold the read lock. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Maintained indexes, copied on write. */
+    private volatile List<MaintainedIndex<?>> indexes = List.of();
+
+    /** Maintained sorted indexes that have been built, by name. */
+    private final Map<String, SortedIndexStorage> builtSortedIndexes = new ConcurrentHashMap<>();
+
+    /** Maintained hash indexes that have been built, by name. */
+    private final Map<String, HashIndexStorage> builtHashIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * The constructor.
+     *
+     * @param tableStorage Table storage.
+     * @param schemaRegistry Schema registry of the table.
+     */
+    public TableIndexes(TableStorage tableStorage, SchemaRegistry schemaRegistry) {
+        this.tableStorage = tableStorage;
+        this.schemaRegistry = schemaRegistry;
+    }
+
+    /**
+     * Starts maintaining a sorted index that already has the entries of all the rows of the table, like the one created along with the
+     * table.
+     *
+     * @param name Index name.
+     * @return Index storage.
+     * @throws StorageException If the index is not configured as a sorted one.
+     */
+    public SortedIndexStorage startSortedIndex(String name) {
+        SortedIndexStorage index = maintainIndex(tableStorage.getOrCreateSortedIndex(name), SortedIndex::new).storage;
+
+        builtSortedIndexes.put(name, index);
+
+        return index;
+    }
+
+    /**
+     * Starts maintaining a hash index that already has the entries of all the rows of the table, like the one created along with the
+     * table.
+     *
+     * @param name Index name.
+     * @return Index storage.
+     * @throws StorageException If the index is not configured as a hash one.
+     */
+    public HashIndexStorage startHashIndex(String name) {
+        HashIndexStorage index = maintainIndex(tableStorage.getOrCreateHashIndex(name), HashIndex::new).storage;
+
+        builtHashIndexes.put(name, index);
+
+        return index;
+    }
+
+    /**
+     * Creates a sorted index on a table that may already have rows. The index is maintained by the writes started after the index is
+     * registered, and then the rows of all the local partitions are added to it in the background, see {@link IndexBuild}.
+     *
+     * @param name Index name.
+     * @param executor Executor of the build.
+     * @return Future of the index storage, completed once the index is built.
+     * @throws StorageException If the index is not configured as a sorted one.
+     */
+    public CompletableFuture<SortedIndexStorage> createSortedIndex(String name, Executor executor) {
+        SortedIndex index = maintainIndex(tableStorage.getOrCreateSortedIndex(name), SortedIndex::new);
+
+        return new IndexBuild<>(index, executor).start().thenApply(nothing -> {
+            builtSortedIndexes.put(name, index.storage);
+
+            return index.storage;
+        });
+    }
+
+    /**
+     * Creates a hash index on a table that may already have rows, the same way as {@link #createSortedIndex}.
+     *
+     * @param name Index name.
+     * @param executor Executor of the build.
+     * @return Future of the index storage, completed once the index is built.
+     * @throws StorageException If the index is not configured as a hash one.
+     */
+    public CompletableFuture<HashIndexStorage> createHashIndex(String name, Executor executor) {
+        HashIndex index = maintainIndex(tableStorage.getOrCreateHashIndex(name), HashIndex::new);
+
+        return new IndexBuild<>(index, executor).start().thenApply(nothing -> {
+            builtHashIndexes.put(name, index.storage);
+
+            return index.storage;
+        });
+    }
+
+    /**
+     * Stops maintaining an index of any type and destroys it.
+     *
+     * @param name Index name.
+     */
+    public void dropIndex(String name) {
+        builtSortedIndexes.remove(name);
+        builtHashIndexes.remove(name);
+
+        lock.writeLock().lock();
+
+        try {
+            List<MaintainedIndex<?>> newIndexes = new ArrayList<>(indexes);
+
+            newIndexes.removeIf(index -> index.name().equals(name));
+
+            indexes = List.copyOf(newIndexes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        tableStorage.dropIndex(name);
+    }
+
+    /**
+     * Returns the sorted indexes that have the entries of all the rows of the local partitions, so they may be used for reads.
+     */
+    public Collection<SortedIndexStorage> builtSortedIndexes() {
+        return Collections.unmodifiableCollection(builtSortedIndexes.values());
+    }
+
+    /**
+     * Returns the hash indexes that have the entries of all the rows of the local partitions, so they may be used for reads.
+     */
+    public Collection<HashIndexStorage> builtHashIndexes() {
+        return Collections.unmodifiableCollection(builtHashIndexes.values());
+    }
+
+    /**
+     * Makes the writes of the partitions maintain an index.
+     *
+     * @param storage Index storage.
+     * @param factory Factory of the maintained index over the storage.
+     * @param <S> Type of the index storage.
+     * @param <I> Type of the maintained index.
+     * @return Maintained index.
+     */
+    @SuppressWarnings("unchecked")
+    private <S, I extends MaintainedIndex<?>> I maintainIndex(S storage, Function<S, I> factory) {
+        lock.writeLock().lock();
+
+        try {
+            for (MaintainedIndex<?> index : indexes) {
+                if (index.storage() == storage) {
+                    return (I) index;
+                }
+            }
+
+            I index = factory.apply(storage);
+
+            List<MaintainedIndex<?>> newIndexes = new ArrayList<>(indexes);
+
+            newIndexes.add(index);
+
+            indexes = List.copyOf(newIndexes);
+
+            return index;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Executes a closure that writes to a partition, the set of indexes doesn't change while it is executed.
+     *
+     * @param storage Partition storage.
+     * @param closure The closure.
+     * @param <V> Type of the result.
+     * @return The result of the closure.
+     * @see PartitionStorage#runConsistently
+     */
+    <V> V runConsistently(PartitionStorage storage, PartitionStorage.WriteClosure<V> closure) {
+        lock.readLock().lock();
+
+        try {
+            return storage.runConsistently(closure);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns {@code true} if there are indexes to maintain.
+     */
+    boolean isEmpty() {
+        return indexes.isEmpty();
+    }
+
+    /**
+     * Updates the indexes after the versions of a row have changed: the entries of the versions that have been removed are removed and
+     * the entries of the new ones are added.
+     *
+     * @param oldRows Row versions before the update, tombstones excluded.
+     * @param newRows Row versions after the update, tombstones excluded.
+     */
+    void update(Collection<BinaryRow> oldRows, Collection<BinaryRow> newRows) {
+        for (MaintainedIndex<?> index : indexes) {
+            update(index, oldRows, newRows);
+        }
+    }
+
+    /**
+     * Updates an index after the versions of a row have changed.
+     *
+     * @param index Index.
+     * @param oldRows Row versions before the update, tombstones excluded.
+     * @param newRows Row versions after the update, tombstones excluded.
+     * @param <E> Type of the index entries.
+     */
+    private static <E> void update(MaintainedIndex<E> index, Collection<BinaryRow> oldRows, Collection<BinaryRow> newRows) {
+        Map<Object, E> oldEntries = entries(index, oldRows);
+        Map<Object, E> newEntries = entries(index, newRows);
+
+        for (Map.Entry<Object, E> e : oldEntries.entrySet()) {
+            if (!newEntries.containsKey(e.getKey())) {
+                index.remove(e.getValue());
+            }
+        }
+
+        for (Map.Entry<Object, E> e : newEntries.entrySet()) {
+            if (!oldEntries.containsKey(e.getKey())) {
+                index.put(e.getValue());
+            }
+        }
+    }
+
+    /**
+     * Adds the entries of all the rows of a partition to all the indexes, like after the data of the partition has been replaced by a
+     * snapshot. Must be called by the thread that writes to the partition.
+     *
+     * @param partition Partition storage.
+     */
+    void buildIndexes(PartitionStorage partition) {
+        for (MaintainedIndex<?> index : indexes) {
+            buildIndex(index, partition);
+        }
+    }
+
+    /**
+     * Adds the entries of all the rows of a partition to an index.
+     *
+     * @param index Index.
+     * @param partition Partition storage.
+     * @param <E> Type of the index entries.
+     */
+    private static <E> void buildIndex(MaintainedIndex<E> index, PartitionStorage partition) {
+        try (Cursor<DataRow> cursor = partition.scan(key -> true)) {
+            while (cursor.hasNext()) {
+                for (BinaryRow row : VersionedRowStore.versionRows(cursor.next())) {
+                    index.put(index.entry(row));
+                }
+            }
+        } catch (StorageException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new StorageException("Failed to build index " + index.name(), e);
+        }
+    }
+
+    /**
+     * Adds the entries of the current rows of the given keys to an index, atomically with respect to the writes of the table: they wait for
+     * the entries to be added, and the entries are persisted atomically with the partition.
+     *
+     * @param index Index.
+     * @param partition Partition storage.
+     * @param keys Keys of the rows, the rows that no longer exist are skipped.
+     * @param <E> Type of the index entries.
+     */
+    private <E> void buildIndex(MaintainedIndex<E> index, PartitionStorage partition, List<? extends SearchRow> keys) {
+        lock.writeLock().lock();
+
+        try {
+            partition.runConsistently(() -> {
+                for (DataRow row : partition.readAll(keys)) {
+                    for (BinaryRow version : VersionedRowStore.versionRows(row)) {
+                        index.put(index.entry(version));
+                    }
+                }
+
+                return null;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Creates the index entries of row versions, by their keys. The versions that have the same indexed values share the entry.
+     *
+     * @param index Index.
+     * @param rows Row versions.
+     * @param <E> Type of the index entries.
+     * @return Index entries.
+     */
+    private static <E> Map<Object, E> entries(MaintainedIndex<E> index, Collection<BinaryRow> rows) {
+        Map<Object, E> entries = new HashMap<>();
+
+        for (BinaryRow row : rows) {
+            E entry = index.entry(row);
+
+            entries.put(index.entryKey(entry), entry);
+        }
+
+        return entries;
+    }
+
+    /**
+     * Reads the values of the given columns from a row.
+     *
+     * @param tableRow The row.
+     * @param columns Columns, only their names are used, so they may be of another schema.
+     * @return Column values.
+     */
+    private static Object[] columnValues(Row tableRow, List<Column> columns) {
+        Object[] values = new Object[columns.size()];
+
+        for (int i = 0; i < values.length; i++) {
+            Column column = tableRow.schema().column(columns.get(i).name());
+
+            assert column != null : columns.get(i).name();
+
+            values[i] = tableRow.value(column.schemaIndex());
+        }
+
+        return values;
+    }
+
+    /**
+     * Creates a row that consists of the key columns of a row only, like the rows used to look up or delete the rows of a table.
+     *
+     * @param tableRow The row.
+     * @return Key row.
+     */
+    private static BinaryRow keyRow(Row tableRow) {
+        SchemaDescriptor schema = tableRow.schema();
+
+        Columns keyColumns = schema.keyColumns();
+
+        int nonNullVarlenKeyCols = 0;
+
+        for (int i = 0; i < keyColumns.length(); i++) {
+            Column column = keyColumns.column(i);
+
+            if (!column.type().spec().fixedLength() && tableRow.value(column.schemaIndex()) != null) {
+                nonNullVarlenKeyCols++;
+            }
+        }
+
+        var rowAssembler = new RowAssembler(schema, nonNullVarlenKeyCols, 0);
+
+        for (int i = 0; i < keyColumns.length(); i++) {
+            Column column = keyColumns.column(i);
+
+            RowAssembler.writeValue(rowAssembler, column, tableRow.value(column.schemaIndex()));
+        }
+
+        return rowAssembler.build();
+    }
+
+    /**
+     * Build of an index that is already maintained by the writes: the rows of the local partitions are added to it in batches, a task of
+     * the executor per batch. The keys of a batch are taken from a scan of a partition, and the rows are read again while the writes of
+     * the table wait, see {@link #buildIndex(MaintainedIndex, PartitionStorage, List)}. So the entries of the versions removed by the
+     * writes made during the build are not added back, and the rows written after the scan has started are indexed by the writes.
+     *
+     * @param <E> Type of the index entries.
+     */
+    private class IndexBuild<E> implements Runnable {
+        /** Index. */
+        private final MaintainedIndex<E> index;
+
+        /** Executor of the build. */
+        private final Executor executor;
+
+        /** Future that is completed once the index is built. */
+        private final CompletableFuture<Void> fut = new CompletableFuture<>();
+
+        /** Partition being scanned, {@code null} before the first one. */
+        private @Nullable PartitionStorage partition;
+
+        /** Scan of the partition, {@code null} between the partitions. */
+        private @Nullable Cursor<DataRow> cursor;
+
+        /** ID of the next partition to scan. */
+        private int nextPartId;
+
+        IndexBuild(MaintainedIndex<E> index, Executor executor) {
+            this.index = index;
+            this.executor = executor;
+        }
+
+        /**
+         * Starts the build.
+         *
+         * @return Future that is completed once the index is built.
+         */
+        CompletableFuture<Void> start() {
+            executor.execute(this);
+
+            return fut;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            try {
+                if (buildNextBatch()) {
+                    executor.execute(this);
+                } else {
+                    fut.complete(null);
+                }
+            } catch (Throwable e) {
+                closeCursor();
+
+                fut.completeExceptionally(
+                        e instanceof StorageException ? e : new StorageException("Failed to build index " + index.name(), e)
+                );
+            }
+        }
+
+        /**
+         * Adds the rows of the next batch of keys to the index.
+         *
+         * @return {@code False} if all the partitions have been scanned.
+         */
+        private boolean buildNextBatch() {
+            while (true) {
+                if (cursor == null) {
+                    partition = nextPartition();
+
+                    if (partition == null) {
+                        return false;
+                    }
+
+                    cursor = partition.scan(key -> true);
+                }
+
+                List<DataRow> keys = new ArrayList<>(BUILD_BATCH_SIZE);
+
+                while (keys.size() < BUILD_BATCH_SIZE && cursor.hasNext()) {
+                    keys.add(cursor.next());
+                }
+
+                if (keys.isEmpty()) {
+                    closeCursor();
+
+                    continue;
+                }
+
+                buildIndex(index, partition, keys);
+
+                return true;
+            }
+        }
+
+        /**
+         * Returns the next local partition, {@code null} if there are no more.
+         */
+        private @Nullable PartitionStorage nextPartition() {
+            int partitions = tableStorage.configuration().value().partitions();
+
+            while (nextPartId < partitions) {
+                PartitionStorage partition = tableStorage.getPartition(nextPartId++);
+
+                if (partition != null) {
+                    return partition;
+                }
+            }
+
+            return null;
+        }
+
+        private void closeCursor() {
+            if (cursor != null) {
+                try {
+                    cursor.close();
+                } catch (Exception ignored) {
+                    // No-op.
+                }
+
+                cursor = null;
+            }
+        }
+    }
+
+    /**
+     * Index maintained by the writes of the partitions.
+     *
+     * @param <E> Type of the index entries.
+     */
+    private interface MaintainedIndex<E> {
+        /** Returns the index name. */
+        String name();
+
+        /** Returns the index storage. */
+        Object storage();
+
+        /** Creates the entry of a row version. */
+        E entry(BinaryRow row);
+
+        /** Returns the key of an entry, equal for the entries of the versions that share the entry. */
+        Object entryKey(E entry);
+
+        /** Adds an entry to the index. */
+        void put(E entry);
+
+        /** Removes an entry from the index. */
+        void remove(E entry);
+    }
+
+    /**
+     * Maintained sorted index, the entries are the index rows.
+     */
+    private class SortedIndex implements MaintainedIndex<IndexRow> {
+        /** Index storage. */
+        private final SortedIndexStorage storage;
+
+        /** Index row columns. */
+        private final List<Column> columns;
+
+        SortedIndex(SortedIndexStorage storage) {
+            this.storage = storage;
+
+            columns = storage.indexDescriptor().indexRowColumns().stream()
+                    .map(ColumnDescriptor::column)
+                    .collect(toList());
+        }
+
+        @Override
+        public String name() {
+            return storage.indexDescriptor().name();
+        }
+
+        @Override
+        public Object storage() {
+            return storage;
+        }
+
+        @Override
+        public IndexRow entry(BinaryRow row) {
+            Object[] values = columnValues(schemaRegistry.resolve(row), columns);
+
+            return storage.indexRowFactory().createIndexRow(values, new BinarySearchRow(row));
+        }
+
+        @Override
+        public Object entryKey(IndexRow entry) {
+            return ByteBuffer.wrap(entry.rowBytes());
+        }
+
+        @Override
+        public void put(IndexRow entry) {
+            storage.put(entry);
+        }
+
+        @Override
+        public void remove(IndexRow entry) {
+            storage.remove(entry);
+        }
+    }
+
+    /**
+     * Maintained hash index, the entries are the indexed values along with the primary key. Unlike the sorted index rows, the entries
+     * don't have the values of the primary key columns, so the primary key is stored as a key-only row that may be looked up in the table
+     * as is.
+     */
+    private class HashIndex implements MaintainedIndex<HashIndexEntry> {
+        /** Index storage. */
+        private final HashIndexStorage storage;
+
+        HashIndex(HashIndexStorage storage) {
+            this.storage = storage;
+        }
+
+        @Override
+        public String name() {
+            return storage.indexDescriptor().name();
+        }
+
+        @Override
+        public Object storage() {
+            return storage;
+        }
+
+        @Override
+        public HashIndexEntry entry(BinaryRow row) {
+            Row tableRow = schemaRegistry.resolve(row);
+
+            Object[] values = columnValues(tableRow, storage.indexDescriptor().indexColumns());
+
+            return new HashIndexEntry(values, new KeyRow(keyRow(tableRow)));
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>All the versions of a row have the same primary key, so the entries only differ by the values. Byte arrays are compared by
+         * their contents.
+         */
+        @Override
+        public Object entryKey(HashIndexEntry entry) {
+            return Arrays.stream(entry.values)
+                    .map(value -> value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : value)
+                    .collect(toList());
+        }
+
+        @Override
+        public void put(HashIndexEntry entry) {
+            storage.put(entry.values, entry.primaryKey);
+        }
+
+        @Override
+        public void remove(HashIndexEntry entry) {
+            storage.remove(entry.values, entry.primaryKey);
+        }
+    }
+
+    /**
+     * Entry of a hash index.
+     */
+    private static class HashIndexEntry {
+        /** Values of the indexed columns. */
+        private final Object[] values;
+
+        /** Primary key of the row. */
+        private final SearchRow primaryKey;
+
+        HashIndexEntry(Object[] values, SearchRow primaryKey) {
+            this.values = values;
+            this.primaryKey = primaryKey;
+        }
+    }
+
+    /**
+     * Primary key of a hash index entry: the bytes of a key-only row.
+     */
+    private static class KeyRow implements SearchRow {
+        /** Row bytes. */
+        private final byte[] bytes;
+
+        KeyRow(BinaryRow row) {
+            bytes = row.bytes();
+        }
+
+        @Override
+        public byte @NotNull [] keyBytes() {
+            return bytes;
+        }
+
+        @Override
+        public @NotNull ByteBuffer key() {
+            return ByteBuffer.wrap(bytes);
+        }
+    }
+}
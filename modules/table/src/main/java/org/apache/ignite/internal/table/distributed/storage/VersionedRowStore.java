@@ -18,20 +18,28 @@
 package org.apache.ignite.internal.table.distributed.storage;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import org.apache.ignite.internal.schema.BinaryRow;
 import org.apache.ignite.internal.schema.ByteBufferRow;
 import org.apache.ignite.internal.storage.DataRow;
 import org.apache.ignite.internal.storage.PartitionStorage;
 import org.apache.ignite.internal.storage.SearchRow;
+import org.apache.ignite.internal.storage.StorageException;
 import org.apache.ignite.internal.storage.basic.BinarySearchRow;
 import org.apache.ignite.internal.storage.basic.SimpleDataRow;
 import org.apache.ignite.internal.tx.Timestamp;
@@ -39,21 +47,100 @@ import org.apache.ignite.internal.tx.TxManager;
 import org.apache.ignite.internal.tx.TxState;
 import org.apache.ignite.internal.util.Cursor;
 import org.apache.ignite.internal.util.Pair;
+import org.apache.ignite.lang.IgniteInternalException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * TODO asch IGNITE-15934 use read only buffers ? replace Pair from ignite-schema
+ * Multi-versioned row store on top of a partition storage. Every key is mapped to a chain of the row versions written by transactions,
+ * from the newest to the oldest. Only the newest version may belong to a transaction that is not finished yet. The versions that are not
+ * visible at the {@link #lowWatermark() low watermark} anymore are removed by {@link #vacuum}.
+ *
+ * <p>Transactional operations read the newest version under the locks of the transaction, while {@link #getAt} and {@link #scanAt} read
+ * the versions committed as of a timestamp without any locks. The versions are ordered by their commit timestamps, a read at a timestamp
+ * waits for the intent of a transaction that has started before the timestamp, since the transaction may still commit before it.
+ *
+ * <p>The versions written by a transaction are stored as intents until the transaction is {@link #finish finished} on the partition:
+ * the intents of a committed transaction are marked committed in place, the ones of an aborted transaction are removed. The marks are
+ * persisted with the versions, so they survive restarts and are carried by snapshots, and a chain is always resolved from the bytes read
+ * at once. Only the states of the transactions that have intents are looked up in the transaction manager, an intent of a transaction
+ * with an unknown state is never considered committed.
+ *
+ * <p>The {@link TableIndexes indexes} of the table, if any, are updated along with the versions.
+ *
+ * <p>If the rows of the table have a time-to-live, a row expires when its newest committed version gets older than that, as of the
+ * timestamps of the commands rather than the wall clock, so that all the replicas agree on it. Expired rows are invisible to all the reads
+ * right away and are removed from the storage by {@link #vacuum} of every replica on its own, no delete commands are replicated for them.
+ *
+ * <p>TODO asch IGNITE-15934 replace Pair from ignite-schema
  * TODO asch IGNITE-15935 can use some sort of a cache on tx coordinator to avoid network IO.
  * TODO asch IGNITE-15934 invokes on storage not used for now, can it be changed ?
  */
 public class VersionedRowStore {
+    /** Default time the row versions are kept for after being overwritten, in milliseconds. */
+    public static final long DFLT_VERSION_RETENTION = TimeUnit.MINUTES.toMillis(10);
+
     /** Storage delegate. */
     private final PartitionStorage storage;
 
     /** Transaction manager. */
     private TxManager txManager;
 
+    /** Time the row versions are kept for after being overwritten, in milliseconds. */
+    private final long versionRetention;
+
+    /** Time-to-live of the rows since the commit of their newest version, in milliseconds, {@code 0} if the rows never expire. */
+    private final long ttl;
+
+    /** Indexes of the table, {@code null} if the indexes are not maintained. */
+    @Nullable
+    private final TableIndexes indexes;
+
+    /**
+     * Keys of the intents of the transactions that haven't been finished on the partition yet, by the timestamps of the transactions.
+     * Rebuilt from the storage after a restart or a snapshot installation. Only accessed by the writing thread.
+     */
+    private final Map<Timestamp, List<SearchRow>> pendingWrites = new HashMap<>();
+
+    /** {@code True} if {@link #pendingWrites} has been rebuilt from the storage. Only accessed by the writing thread. */
+    private boolean pendingWritesRecovered;
+
+    /**
+     * Futures of the finishes of the transactions that have intents in the partition, by the timestamps of the transactions. A future is
+     * completed once the finish is visible to the reads.
+     */
+    private final ConcurrentHashMap<Timestamp, CompletableFuture<Void>> finishFutures = new ConcurrentHashMap<>();
+
+    /**
+     * Future that is completed the next time the finishes of transactions become visible to the reads, and is replaced then. Waited for
+     * the intents that have no futures of their own, which haven't been recovered yet.
+     */
+    private volatile CompletableFuture<Void> nextFinishes = new CompletableFuture<>();
+
+    /** Transactions finished since their finishes have been made visible to the reads. Only accessed by the writing thread. */
+    private final List<Timestamp> finishedTxs = new ArrayList<>();
+
+    /** {@code True} while a {@link #runConsistently} closure is executed. Only accessed by the writing thread. */
+    private boolean inClosure;
+
+    /** Cursor of the current vacuum pass, {@code null} if there is no pass in progress. Only accessed by the writing thread. */
+    @Nullable
+    private Cursor<DataRow> vacuumCursor;
+
+    /**
+     * Newest timestamp of the commands applied to the store, {@code null} if none is known yet. The low watermark follows it rather than
+     * the wall clock, so that the replicas that have applied the same commands remove the same versions. Only written by the writing
+     * thread.
+     */
+    @Nullable
+    private volatile Timestamp appliedTs;
+
+    /**
+     * Wall clock time of the applied timestamp at the start of the last vacuum pass, see {@link Timestamp#physicalTime()}. Only accessed
+     * by the writing thread.
+     */
+    private long vacuumPassStart;
+
     /**
      * The constructor.
      *
@@ -61,8 +148,61 @@ public class VersionedRowStore {
      * @param txManager The TX manager.
      */
     public VersionedRowStore(@NotNull PartitionStorage storage, @NotNull TxManager txManager) {
+        this(storage, txManager, null, DFLT_VERSION_RETENTION);
+    }
+
+    /**
+     * The constructor.
+     *
+     * @param storage The storage.
+     * @param txManager The TX manager.
+     * @param indexes Indexes of the table, {@code null} if the indexes are not maintained.
+     */
+    public VersionedRowStore(@NotNull PartitionStorage storage, @NotNull TxManager txManager, @Nullable TableIndexes indexes) {
+        this(storage, txManager, indexes, DFLT_VERSION_RETENTION);
+    }
+
+    /**
+     * The constructor.
+     *
+     * @param storage The storage.
+     * @param txManager The TX manager.
+     * @param indexes Indexes of the table, {@code null} if the indexes are not maintained.
+     * @param versionRetention Time the row versions are kept for after being overwritten, in milliseconds.
+     */
+    public VersionedRowStore(
+            @NotNull PartitionStorage storage,
+            @NotNull TxManager txManager,
+            @Nullable TableIndexes indexes,
+            long versionRetention
+    ) {
+        this(storage, txManager, indexes, versionRetention, 0);
+    }
+
+    /**
+     * The constructor.
+     *
+     * @param storage The storage.
+     * @param txManager The TX manager.
+     * @param indexes Indexes of the table, {@code null} if the indexes are not maintained.
+     * @param versionRetention Time the row versions are kept for after being overwritten, in milliseconds.
+     * @param ttl Time-to-live of the rows since the commit of their newest version, in milliseconds, {@code 0} if the rows never expire.
+     */
+    public VersionedRowStore(
+            @NotNull PartitionStorage storage,
+            @NotNull TxManager txManager,
+            @Nullable TableIndexes indexes,
+            long versionRetention,
+            long ttl
+    ) {
+        assert versionRetention > 0 : versionRetention;
+        assert ttl >= 0 : ttl;
+
         this.storage = Objects.requireNonNull(storage);
         this.txManager = Objects.requireNonNull(txManager);
+        this.indexes = indexes;
+        this.versionRetention = versionRetention;
+        this.ttl = ttl;
     }
 
     /**
@@ -113,6 +253,200 @@ public class VersionedRowStore {
         return res;
     }
 
+    /**
+     * Asynchronously gets a row, the storage is read with its {@link PartitionStorage#readExecutor() read executor}.
+     *
+     * @param row The search row.
+     * @param ts The timestamp.
+     * @return Future of the result row.
+     */
+    public CompletableFuture<BinaryRow> getAsync(@NotNull BinaryRow row, Timestamp ts) {
+        assert row != null;
+
+        return storage.readAsync(new BinarySearchRow(row)).thenApply(readValue -> versionedRow(readValue, ts).getFirst());
+    }
+
+    /**
+     * Asynchronously gets multiple rows with a single read of the storage, which is made with its
+     * {@link PartitionStorage#readExecutor() read executor}.
+     *
+     * @param keyRows Search rows.
+     * @param ts The timestamp.
+     * @return Future of the result rows, in the order of the search rows.
+     */
+    public CompletableFuture<List<BinaryRow>> getAllAsync(Collection<BinaryRow> keyRows, Timestamp ts) {
+        return readAllAsync(keyRows).thenApply(readValues -> {
+            List<BinaryRow> res = new ArrayList<>(readValues.size());
+
+            for (DataRow readValue : readValues) {
+                res.add(versionedRow(readValue, ts).getFirst());
+            }
+
+            return res;
+        });
+    }
+
+    /**
+     * Reads multiple raw values with a single read of the storage, which is made with its {@link PartitionStorage#readExecutor() read
+     * executor}.
+     *
+     * @param keyRows Search rows.
+     * @return Future of the values, in the order of the search rows, {@code null} for the missing ones.
+     */
+    private CompletableFuture<List<DataRow>> readAllAsync(Collection<BinaryRow> keyRows) {
+        assert keyRows != null && !keyRows.isEmpty();
+
+        List<BinarySearchRow> keys = new ArrayList<>(keyRows.size());
+
+        for (BinaryRow keyRow : keyRows) {
+            keys.add(new BinarySearchRow(keyRow));
+        }
+
+        return storage.readAllAsync(keys).thenApply(readValues -> {
+            // The storage returns the found rows only, they are matched with the keys by the key bytes.
+            Map<ByteBuffer, DataRow> readValuesByKey = new HashMap<>(readValues.size());
+
+            for (DataRow readValue : readValues) {
+                readValuesByKey.put(ByteBuffer.wrap(readValue.keyBytes()), readValue);
+            }
+
+            List<DataRow> res = new ArrayList<>(keys.size());
+
+            for (BinarySearchRow key : keys) {
+                res.add(readValuesByKey.get(ByteBuffer.wrap(key.keyBytes())));
+            }
+
+            return res;
+        });
+    }
+
+    /**
+     * Gets a row as of a timestamp, without any locks. The newest version committed at a timestamp not greater than the read timestamp is
+     * returned. If the newest version is an intent of a transaction that has started at the read timestamp or before it, the read waits
+     * for the transaction to be finished on the partition, so the reads at the same timestamp are repeatable.
+     *
+     * @param row The search row.
+     * @param readTs The read timestamp, must not be below the {@link #lowWatermark() low watermark}.
+     * @return The result row.
+     * @throws IgniteInternalException If the read timestamp is below the low watermark.
+     */
+    public @Nullable BinaryRow getAt(@NotNull BinaryRow row, Timestamp readTs) {
+        assert row != null;
+
+        checkReadTimestamp(readTs);
+
+        var key = new BinarySearchRow(row);
+
+        return readAt(key, storage.read(key), readTs).join();
+    }
+
+    /**
+     * Asynchronously gets a row as of a timestamp, without any locks, the storage is read with its
+     * {@link PartitionStorage#readExecutor() read executor}.
+     *
+     * @param row The search row.
+     * @param readTs The read timestamp, must not be below the {@link #lowWatermark() low watermark}.
+     * @return Future of the result row, it fails with {@link IgniteInternalException} if the read timestamp is below the low watermark.
+     * @see #getAt
+     */
+    public CompletableFuture<BinaryRow> getAtAsync(@NotNull BinaryRow row, Timestamp readTs) {
+        assert row != null;
+
+        var key = new BinarySearchRow(row);
+
+        return storage.readAsync(key).thenCompose(readValue -> readAt(key, readValue, readTs));
+    }
+
+    /**
+     * Asynchronously gets multiple rows as of a timestamp, without any locks, with a single read of the storage, which is made with its
+     * {@link PartitionStorage#readExecutor() read executor}.
+     *
+     * @param keyRows Search rows.
+     * @param readTs The read timestamp, must not be below the {@link #lowWatermark() low watermark}.
+     * @return Future of the result rows, in the order of the search rows. It fails with {@link IgniteInternalException} if the read
+     *      timestamp is below the low watermark.
+     * @see #getAt
+     */
+    public CompletableFuture<List<BinaryRow>> getAllAtAsync(Collection<BinaryRow> keyRows, Timestamp readTs) {
+        return readAllAsync(keyRows).thenCompose(readValues -> {
+            CompletableFuture<BinaryRow>[] futs = new CompletableFuture[readValues.size()];
+
+            int i = 0;
+
+            for (BinaryRow keyRow : keyRows) {
+                futs[i] = readAt(new BinarySearchRow(keyRow), readValues.get(i), readTs);
+
+                i++;
+            }
+
+            return CompletableFuture.allOf(futs).thenApply(ignored -> {
+                List<BinaryRow> res = new ArrayList<>(futs.length);
+
+                for (CompletableFuture<BinaryRow> fut : futs) {
+                    res.add(fut.join());
+                }
+
+                return res;
+            });
+        });
+    }
+
+    /**
+     * Resolves a multi-versioned value as of a timestamp. If the newest version is an intent the read must wait for, the value is read
+     * again once the transaction is finished.
+     *
+     * @param key The key.
+     * @param readValue The value read from the storage.
+     * @param readTs The read timestamp.
+     * @return Future of the row visible at the timestamp, of {@code null} if there is none. It fails with {@link IgniteInternalException}
+     *      if the read timestamp is below the low watermark.
+     * @see #getAt
+     */
+    private CompletableFuture<BinaryRow> readAt(SearchRow key, @Nullable DataRow readValue, Timestamp readTs) {
+        checkReadTimestamp(readTs);
+
+        Value val = unpack(readValue);
+
+        Timestamp intentTs = unresolvedIntent(val.versions, readTs);
+
+        if (intentTs == null) {
+            return CompletableFuture.completedFuture(resolveAt(val, readTs));
+        }
+
+        CompletableFuture<Void> finishFut = finishFutures.getOrDefault(intentTs, nextFinishes);
+
+        // The value is read again after the future is taken, in case the transaction has been finished in between.
+        return storage.readAsync(key).thenCompose(readValue0 -> {
+            if (!intentTs.equals(unresolvedIntent(unpack(readValue0).versions, readTs))) {
+                return readAt(key, readValue0, readTs);
+            }
+
+            return finishFut.thenCompose(ignored -> storage.readAsync(key)).thenCompose(readValue1 -> readAt(key, readValue1, readTs));
+        });
+    }
+
+    /**
+     * Returns the intent a read at a timestamp must wait for: the intent of a transaction that has started at the timestamp or before it,
+     * so it may be committed before the timestamp too, unless the transaction is known to be aborted.
+     *
+     * @param versions Versions.
+     * @param readTs The read timestamp.
+     * @return Timestamp of the transaction of the intent, {@code null} if there is nothing to wait for.
+     */
+    private @Nullable Timestamp unresolvedIntent(List<Version> versions, Timestamp readTs) {
+        if (versions.isEmpty()) {
+            return null;
+        }
+
+        Version head = versions.get(0);
+
+        if (head.commitTimestamp != null || head.timestamp.compareTo(readTs) > 0 || txManager.state(head.timestamp) == TxState.ABORTED) {
+            return null;
+        }
+
+        return head.timestamp;
+    }
+
     /**
      * Upserts a row.
      *
@@ -124,9 +458,7 @@ public class VersionedRowStore {
 
         var key = new BinarySearchRow(row);
 
-        Pair<BinaryRow, BinaryRow> pair = resolve(unpack(storage.read(key)), ts);
-
-        storage.write(pack(key, new Value(row, pair.getSecond(), ts)));
+        write(key, unpack(storage.read(key)), row, ts);
     }
 
     /**
@@ -159,14 +491,14 @@ public class VersionedRowStore {
 
         var key = new BinarySearchRow(row);
 
-        Pair<BinaryRow, BinaryRow> pair = resolve(unpack(storage.read(key)), ts);
+        Value val = unpack(storage.read(key));
 
-        if (pair.getFirst() == null) {
+        if (resolve(val, ts).getFirst() == null) {
             return false;
         }
 
         // Write a tombstone.
-        storage.write(pack(key, new Value(null, pair.getSecond(), ts)));
+        write(key, val, null, ts);
 
         return true;
     }
@@ -197,13 +529,13 @@ public class VersionedRowStore {
 
         var key = new BinarySearchRow(row);
 
-        Pair<BinaryRow, BinaryRow> pair = resolve(unpack(storage.read(key)), ts);
+        Value val = unpack(storage.read(key));
 
-        if (pair.getFirst() != null) {
+        if (resolve(val, ts).getFirst() != null) {
             return false;
         }
 
-        storage.write(pack(key, new Value(row, null, ts)));
+        write(key, val, row, ts);
 
         return true;
     }
@@ -393,200 +725,767 @@ public class VersionedRowStore {
      * @throws Exception If failed.
      */
     public void close() throws Exception {
+        closeVacuumCursor();
+
         storage.close();
     }
 
     /**
-     * Unpacks a raw value into (cur, old, ts) triplet. TODO asch IGNITE-15934 not very efficient.
+     * Writes an intent of a transaction. Replaces the newest version if it is an intent of the same transaction or of an aborted one.
      *
-     * @param row The row.
-     * @return The value.
+     * @param key The key.
+     * @param val The current value.
+     * @param row The row, {@code null} for a tombstone.
+     * @param ts The timestamp of the transaction.
      */
-    private static Value unpack(@Nullable DataRow row) {
-        if (row == null) {
-            return new Value(null, null, null);
+    private void write(SearchRow key, Value val, @Nullable BinaryRow row, Timestamp ts) {
+        List<Version> versions = val.versions;
+
+        List<BinaryRow> oldRows = indexedRows(versions);
+
+        recoverPendingWrites();
+
+        advanceAppliedTimestamp(ts);
+
+        if (!versions.isEmpty() && versions.get(0).commitTimestamp == null) {
+            Version head = versions.get(0);
+
+            // The locks let another transaction write the key only after the previous writer has been finished on the partition. An
+            // intent of another transaction can only be left by a transaction that has lost its locks, it is kept only if committed.
+            if (!head.timestamp.equals(ts) && txManager.state(head.timestamp) == TxState.COMMITED) {
+                versions.set(0, new Version(head.row, head.timestamp, head.timestamp));
+            } else {
+                versions.remove(0);
+            }
         }
 
-        ByteBuffer buf = row.value();
+        versions.add(0, new Version(row, ts, null));
 
-        BinaryRow newVal = null;
-        BinaryRow oldVal = null;
+        addPendingWrite(ts, key);
 
-        int l1 = buf.asIntBuffer().get();
+        // The new version is not committed yet, so only the older ones can be removed.
+        removeInvisible(versions, 1, lowWatermark());
 
-        int pos = 4;
+        storage.write(pack(key, versions));
 
-        buf.position(pos);
+        updateIndexes(oldRows, versions);
+    }
 
-        if (l1 != 0) {
-            // TODO asch IGNITE-15934 get rid of copying
-            byte[] tmp = new byte[l1];
+    /**
+     * Finishes a transaction on the partition: marks the intents of the transaction committed at the commit timestamp if it is committed,
+     * removes them otherwise, so that the versions of the transaction are resolved without its state from now on. Must be called by the
+     * thread that writes to the store, after the state of the transaction has been changed.
+     *
+     * @param ts The timestamp of the transaction.
+     * @param commitTs The commit timestamp, {@code null} if the transaction is aborted.
+     */
+    public void finish(Timestamp ts, @Nullable Timestamp commitTs) {
+        recoverPendingWrites();
 
-            buf.get(tmp);
+        advanceAppliedTimestamp(commitTs == null ? ts : commitTs);
 
-            newVal = new ByteBufferRow(tmp);
+        List<SearchRow> keys = pendingWrites.remove(ts);
 
-            pos += l1;
+        if (keys == null) {
+            return;
         }
 
-        buf.position(pos);
+        finishedTxs.add(ts);
 
-        int l2 = buf.asIntBuffer().get();
+        for (SearchRow key : keys) {
+            List<Version> versions = unpack(storage.read(key)).versions;
 
-        pos += 4;
+            // The intent has already been resolved or replaced, or the key has been written twice.
+            if (versions.isEmpty() || versions.get(0).commitTimestamp != null || !versions.get(0).timestamp.equals(ts)) {
+                continue;
+            }
+
+            if (commitTs != null) {
+                Version head = versions.get(0);
 
-        buf.position(pos);
+                versions.set(0, new Version(head.row, ts, commitTs));
 
-        if (l2 != 0) {
-            // TODO asch get rid of copying
-            byte[] tmp = new byte[l2];
+                // The rows are the same, the indexes don't change.
+                storage.write(pack(key, versions));
 
-            buf.get(tmp);
+                continue;
+            }
 
-            oldVal = new ByteBufferRow(tmp);
+            List<BinaryRow> oldRows = indexedRows(versions);
 
-            pos += l2;
-        }
+            versions.remove(0);
 
-        buf.position(pos);
+            if (versions.isEmpty()) {
+                storage.remove(key);
+            } else {
+                storage.write(pack(key, versions));
+            }
 
-        long ts = buf.getLong();
-        long nodeId = buf.getLong();
+            updateIndexes(oldRows, versions);
+        }
 
-        return new Value(newVal, oldVal, new Timestamp(ts, nodeId));
+        if (!inClosure) {
+            publishFinishes();
+        }
     }
 
     /**
-     * Packs a multi-versioned value.
+     * Adds a key to the intents of a transaction.
      *
+     * @param ts The timestamp of the transaction.
      * @param key The key.
-     * @param value The value.
-     * @return Data row.
      */
-    private static DataRow pack(SearchRow key, Value value) {
-        byte[] b1 = null;
-        byte[] b2 = null;
+    private void addPendingWrite(Timestamp ts, SearchRow key) {
+        pendingWrites.computeIfAbsent(ts, k -> {
+            finishFutures.computeIfAbsent(ts, k0 -> new CompletableFuture<>());
 
-        int l1 = value.newRow == null ? 0 : (b1 = value.newRow.bytes()).length;
-        int l2 = value.oldRow == null ? 0 : (b2 = value.oldRow.bytes()).length;
-
-        // TODO asch write only values.
-        ByteBuffer buf = ByteBuffer.allocate(4 + l1 + 4 + l2 + 16);
+            return new ArrayList<>();
+        }).add(key);
+    }
 
-        buf.asIntBuffer().put(l1);
+    /**
+     * Makes the finishes of the transactions visible to the reads waiting for them, must be called once the finishes are persisted.
+     */
+    private void publishFinishes() {
+        if (finishedTxs.isEmpty()) {
+            return;
+        }
 
-        buf.position(4);
+        for (Timestamp ts : finishedTxs) {
+            CompletableFuture<Void> fut = finishFutures.remove(ts);
 
-        if (l1 > 0) {
-            buf.put(b1);
+            if (fut != null) {
+                fut.complete(null);
+            }
         }
 
-        buf.asIntBuffer().put(l2);
-
-        buf.position(buf.position() + 4);
+        finishedTxs.clear();
 
-        if (l2 > 0) {
-            buf.put(b2);
-        }
+        CompletableFuture<Void> fut = nextFinishes;
 
-        buf.putLong(value.timestamp.getTimestamp());
-        buf.putLong(value.timestamp.getNodeId());
+        nextFinishes = new CompletableFuture<>();
 
-        return new SimpleDataRow(key.keyBytes(), buf.array());
+        fut.complete(null);
     }
 
     /**
-     * Resolves a multi-versioned value depending on a viewer's timestamp.
+     * Advances the applied timestamp.
      *
-     * @param val        The value.
-     * @param timestamp  The timestamp
-     * @return New and old rows pair.
-     * @see #versionedRow
+     * @param ts Timestamp of an applied command.
      */
-    private Pair<BinaryRow, BinaryRow> resolve(Value val, Timestamp timestamp) {
-        if (val.timestamp == null) { // New or after reset.
-            assert val.oldRow == null : val;
+    private void advanceAppliedTimestamp(Timestamp ts) {
+        Timestamp appliedTs = this.appliedTs;
 
-            return new Pair<>(val.newRow, null);
+        if (appliedTs == null || ts.compareTo(appliedTs) > 0) {
+            this.appliedTs = ts;
         }
+    }
 
-        // Checks "inTx" condition. Will be false if this is a first transactional op.
-        if (val.timestamp.equals(timestamp)) {
-            return new Pair<>(val.newRow, val.oldRow);
+    /**
+     * Rebuilds the keys of the intents of the unfinished transactions from the storage, once after the store is created or a snapshot is
+     * restored, so that the intents persisted before a restart or received with a snapshot are resolved by {@link #finish} too. The
+     * applied timestamp is advanced to the newest timestamp of the stored versions.
+     */
+    private void recoverPendingWrites() {
+        if (pendingWritesRecovered) {
+            return;
         }
 
-        TxState state = txManager.state(val.timestamp);
+        pendingWritesRecovered = true;
 
-        BinaryRow cur;
+        try (Cursor<DataRow> cursor = storage.scan(key -> true)) {
+            for (DataRow row : cursor) {
+                List<Version> versions = unpack(row).versions;
 
-        if (state == TxState.ABORTED) { // Was aborted and had written a temp value.
-            cur = val.oldRow;
-        } else {
-            cur = val.newRow;
+                if (!versions.isEmpty() && versions.get(0).commitTimestamp == null) {
+                    addPendingWrite(versions.get(0).timestamp, new KeyRow(row.keyBytes()));
+                }
+
+                for (Version version : versions) {
+                    advanceAppliedTimestamp(version.commitTimestamp == null ? version.timestamp : version.commitTimestamp);
+                }
+            }
+        } catch (Exception e) {
+            throw new IgniteInternalException("Failed to recover the intents of the unfinished transactions", e);
         }
+    }
 
-        return new Pair<>(cur, cur);
+    /**
+     * Returns the state of the transaction that has written a version.
+     *
+     * @param version The version.
+     * @return The state, {@link TxState#COMMITED} for a version that is marked committed, the state looked up in the transaction manager
+     *      for an intent, {@code null} if the state of the transaction is unknown, which is never considered committed.
+     */
+    private @Nullable TxState txState(Version version) {
+        return version.commitTimestamp != null ? TxState.COMMITED : txManager.state(version.timestamp);
     }
 
     /**
-     * Takes a snapshot.
+     * Returns the rows of the versions, if the indexes must be updated when the versions are changed.
      *
-     * @param path The path.
-     * @return Snapshot future.
+     * @param versions Versions.
+     * @return Rows of the versions, tombstones excluded, or {@code null} if there are no indexes to update.
      */
-    public CompletionStage<Void> snapshot(Path path) {
-        return storage.snapshot(path);
+    private @Nullable List<BinaryRow> indexedRows(List<Version> versions) {
+        return indexes == null || indexes.isEmpty() ? null : rows(versions);
     }
 
     /**
-     * Restores a snapshot.
+     * Updates the indexes after the versions of a row have changed.
      *
-     * @param path The path.
+     * @param oldRows Rows of the versions before the change, as returned by {@link #indexedRows}.
+     * @param versions Versions after the change.
      */
-    public void restoreSnapshot(Path path) {
-        storage.restoreSnapshot(path);
+    private void updateIndexes(@Nullable List<BinaryRow> oldRows, List<Version> versions) {
+        if (oldRows != null) {
+            indexes.update(oldRows, rows(versions));
+        }
     }
 
     /**
-     * Executes a scan.
+     * Removes the committed versions that are not visible at the low watermark. The newest version that is not newer than the low
+     * watermark is kept, unless it is a tombstone, which isn't needed then.
      *
-     * @param pred The predicate.
-     * @return The cursor.
+     * @param versions Versions, from the newest to the oldest.
+     * @param firstCommitted Index of the first version that is known to be committed.
+     * @param lowWatermark The low watermark.
+     * @return {@code True} if any version has been removed.
      */
-    public Cursor<BinaryRow> scan(Predicate<SearchRow> pred) {
-        Cursor<DataRow> delegate = storage.scan(pred);
+    private static boolean removeInvisible(List<Version> versions, int firstCommitted, Timestamp lowWatermark) {
+        for (int i = firstCommitted; i < versions.size(); i++) {
+            if (versions.get(i).commitTimestamp.compareTo(lowWatermark) <= 0) {
+                int size = versions.get(i).row == null ? i : i + 1;
 
-        // TODO asch add tx support IGNITE-15087.
-        return new Cursor<BinaryRow>() {
-            private @Nullable BinaryRow cur = null;
+                if (size == versions.size()) {
+                    return false;
+                }
 
-            @Override
-            public void close() throws Exception {
-                delegate.close();
-            }
+                versions.subList(size, versions.size()).clear();
 
-            @NotNull
-            @Override
-            public Iterator<BinaryRow> iterator() {
-                return this;
+                return true;
             }
+        }
 
-            @Override
-            public boolean hasNext() {
-                if (cur != null) {
-                    return true;
-                }
-
-                if (delegate.hasNext()) {
-                    DataRow row = delegate.next();
-
-                    cur = versionedRow(row, null).getFirst();
+        return false;
+    }
 
-                    return cur != null ? true : hasNext(); // Skip tombstones.
-                }
+    /**
+     * Returns the low watermark: the versions that are not visible at this timestamp are removed, and the reads at the older timestamps
+     * are not allowed. It lags the version retention behind the newest timestamp of the applied commands, so it is the same on all the
+     * replicas at the same command and doesn't advance while no commands are applied.
+     *
+     * @return The low watermark.
+     */
+    public Timestamp lowWatermark() {
+        Timestamp appliedTs = this.appliedTs;
 
-                return false;
-            }
+        return Timestamp.minForTime(appliedTs == null ? 0 : appliedTs.physicalTime() - versionRetention);
+    }
+
+    /**
+     * Returns the expiry threshold as of a timestamp: the rows with the newest committed version older than the returned timestamp are
+     * expired. The time-to-live is counted back from the newer of the given timestamp and the applied one, so the rows expire as of the
+     * replicated commands and never come back to life.
+     *
+     * @param ts Timestamp of the command, {@code null} to only take the applied timestamp.
+     * @return The threshold, {@code null} if the rows never expire.
+     */
+    private @Nullable Timestamp expiryThreshold(@Nullable Timestamp ts) {
+        if (ttl == 0) {
+            return null;
+        }
+
+        Timestamp appliedTs = this.appliedTs;
+
+        if (ts == null || (appliedTs != null && appliedTs.compareTo(ts) > 0)) {
+            ts = appliedTs;
+        }
+
+        return Timestamp.minForTime(ts == null ? 0 : ts.physicalTime() - ttl);
+    }
+
+    /**
+     * Checks whether a committed version has expired.
+     *
+     * @param version The version.
+     * @param expiryThreshold The expiry threshold, {@code null} if the rows never expire.
+     * @return {@code True} if the version is older than the threshold.
+     */
+    private static boolean expired(Version version, @Nullable Timestamp expiryThreshold) {
+        if (expiryThreshold == null) {
+            return false;
+        }
+
+        // An intent of a committed transaction that hasn't been finished on the partition yet has no commit timestamp.
+        Timestamp commitTs = version.commitTimestamp == null ? version.timestamp : version.commitTimestamp;
+
+        return commitTs.compareTo(expiryThreshold) < 0;
+    }
+
+    /**
+     * Checks that a timestamp is not below the low watermark.
+     *
+     * @param readTs The read timestamp.
+     * @throws IgniteInternalException If the timestamp is below the low watermark.
+     */
+    private void checkReadTimestamp(Timestamp readTs) {
+        Timestamp lowWatermark = lowWatermark();
+
+        if (readTs.compareTo(lowWatermark) < 0) {
+            throw new IgniteInternalException(
+                    "Read timestamp is below the low watermark [readTs=" + readTs + ", lowWatermark=" + lowWatermark + ']');
+        }
+    }
+
+    /**
+     * Removes the row versions that are not visible at the low watermark anymore from a bounded number of keys. Each call continues the
+     * pass over the partition started by the previous ones, a new pass is started when the applied timestamp has advanced by the retention
+     * time since the start of the previous one. Must be called by the thread that writes to the store.
+     *
+     * @param maxKeys Maximum number of keys to check.
+     * @throws StorageException If failed to read or write the data.
+     */
+    public void vacuum(int maxKeys) {
+        recoverPendingWrites();
+
+        Timestamp appliedTs = this.appliedTs;
+
+        // Nothing is below the low watermark before any command is applied.
+        if (appliedTs == null) {
+            return;
+        }
+
+        if (vacuumCursor == null) {
+            // The expired rows are removed at most a time-to-live after their expiry.
+            long passInterval = ttl == 0 ? versionRetention : Math.min(versionRetention, ttl);
+
+            if (appliedTs.physicalTime() - vacuumPassStart < passInterval) {
+                return;
+            }
+
+            vacuumPassStart = appliedTs.physicalTime();
+
+            vacuumCursor = storage.scan(key -> true);
+        }
+
+        Timestamp lowWatermark = lowWatermark();
+
+        Timestamp expiryThreshold = expiryThreshold(null);
+
+        for (int i = 0; i < maxKeys; i++) {
+            if (!vacuumCursor.hasNext()) {
+                closeVacuumCursor();
+
+                return;
+            }
+
+            // The scanned value may be stale, so only the key is taken from it.
+            SearchRow key = vacuumCursor.next();
+
+            List<Version> versions = unpack(storage.read(key)).versions;
+
+            if (versions.isEmpty()) {
+                continue;
+            }
+
+            List<BinaryRow> oldRows = indexedRows(versions);
+
+            // An intent is only resolved by the finish of its transaction.
+            int firstCommitted = versions.get(0).commitTimestamp == null ? 1 : 0;
+
+            boolean changed = removeInvisible(versions, firstCommitted, lowWatermark);
+
+            // The committed versions of an expired row are not visible to any read.
+            if (firstCommitted < versions.size() && expired(versions.get(firstCommitted), expiryThreshold)) {
+                versions.subList(firstCommitted, versions.size()).clear();
+
+                changed = true;
+            }
+
+            if (!changed) {
+                continue;
+            }
+
+            if (versions.isEmpty()) {
+                storage.remove(key);
+            } else {
+                storage.write(pack(key, versions));
+            }
+
+            updateIndexes(oldRows, versions);
+        }
+    }
+
+    /**
+     * Closes the cursor of the current vacuum pass, if any.
+     */
+    private void closeVacuumCursor() {
+        if (vacuumCursor != null) {
+            try {
+                vacuumCursor.close();
+            } catch (Exception e) {
+                throw new IgniteInternalException("Failed to close a vacuum cursor", e);
+            } finally {
+                vacuumCursor = null;
+            }
+        }
+    }
+
+    /**
+     * Unpacks a raw value into a chain of versions. The rows are slices of the buffer of the storage row, they aren't copied.
+     *
+     * @param row The row.
+     * @return The value.
+     * @see #pack
+     */
+    private static Value unpack(@Nullable DataRow row) {
+        if (row == null) {
+            return new Value(new ArrayList<>(1));
+        }
+
+        ByteBuffer buf = row.value();
+
+        int pos = buf.position();
+
+        int cnt = buf.getInt(pos);
+
+        pos += 4;
+
+        List<Version> versions = new ArrayList<>(cnt + 1);
+
+        for (int i = 0; i < cnt; i++) {
+            var ts = new Timestamp(buf.getLong(pos), buf.getLong(pos + 8));
+
+            long commitTime = buf.getLong(pos + 16);
+            long commitNodeId = buf.getLong(pos + 24);
+
+            Timestamp commitTs = commitTime == 0 && commitNodeId == 0 ? null : new Timestamp(commitTime, commitNodeId);
+
+            int len = buf.getInt(pos + 32);
+
+            pos += 36;
+
+            versions.add(new Version(len == 0 ? null : new ByteBufferRow(slice(buf, pos, len)), ts, commitTs));
+
+            pos += len;
+        }
+
+        return new Value(versions);
+    }
+
+    /**
+     * Returns the rows of the versions stored in a raw value.
+     *
+     * @param row The row.
+     * @return Rows of the versions, from the newest to the oldest, tombstones excluded.
+     */
+    static List<BinaryRow> versionRows(@Nullable DataRow row) {
+        return rows(unpack(row).versions);
+    }
+
+    /**
+     * Returns the rows of the versions.
+     *
+     * @param versions Versions.
+     * @return Rows of the versions, tombstones excluded.
+     */
+    private static List<BinaryRow> rows(List<Version> versions) {
+        List<BinaryRow> rows = new ArrayList<>(versions.size());
+
+        for (Version version : versions) {
+            if (version.row != null) {
+                rows.add(version.row);
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Creates a little-endian slice of a buffer, the position and the limit of the buffer are not changed.
+     *
+     * @param buf The buffer.
+     * @param off Offset of the slice in the buffer.
+     * @param len Length of the slice.
+     * @return The slice.
+     */
+    private static ByteBuffer slice(ByteBuffer buf, int off, int len) {
+        return buf.duplicate().limit(off + len).position(off).slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Packs a multi-versioned value. The format is: the number of versions, then the versions from the newest to the oldest, each being
+     * the timestamp, the commit timestamp, the length of the row and the row. The commit timestamp is zero for an intent, the length is
+     * {@code 0} for a tombstone.
+     *
+     * @param key The key.
+     * @param versions The versions, from the newest to the oldest.
+     * @return Data row.
+     */
+    private static DataRow pack(SearchRow key, List<Version> versions) {
+        int size = 4;
+
+        ByteBuffer[] rowBufs = new ByteBuffer[versions.size()];
+
+        for (int i = 0; i < versions.size(); i++) {
+            BinaryRow row = versions.get(i).row;
+
+            rowBufs[i] = row == null ? null : row.byteBuffer();
+
+            size += 36 + (row == null ? 0 : rowBufs[i].remaining());
+        }
+
+        // The rows are written right into the array passed to the storage, so that it is the only allocation of the value.
+        // TODO asch write only values.
+        ByteBuffer buf = ByteBuffer.wrap(new byte[size]);
+
+        buf.putInt(versions.size());
+
+        for (int i = 0; i < versions.size(); i++) {
+            Timestamp ts = versions.get(i).timestamp;
+            Timestamp commitTs = versions.get(i).commitTimestamp;
+
+            buf.putLong(ts.getTimestamp());
+            buf.putLong(ts.getNodeId());
+
+            buf.putLong(commitTs == null ? 0 : commitTs.getTimestamp());
+            buf.putLong(commitTs == null ? 0 : commitTs.getNodeId());
+
+            if (rowBufs[i] == null) {
+                buf.putInt(0);
+            } else {
+                buf.putInt(rowBufs[i].remaining());
+                buf.put(rowBufs[i]);
+            }
+        }
+
+        return new SimpleDataRow(key.keyBytes(), buf.array());
+    }
+
+    /**
+     * Resolves a multi-versioned value depending on a viewer's timestamp.
+     *
+     * @param val        The value.
+     * @param timestamp  The timestamp
+     * @return New and old rows pair.
+     * @see #versionedRow
+     */
+    private Pair<BinaryRow, BinaryRow> resolve(Value val, Timestamp timestamp) {
+        List<Version> versions = val.versions;
+
+        if (versions.isEmpty()) {
+            return new Pair<>(null, null);
+        }
+
+        Version head = versions.get(0);
+
+        Timestamp expiryThreshold = expiryThreshold(timestamp);
+
+        // The version before the newest one is committed.
+        BinaryRow oldRow = versions.size() > 1 && !expired(versions.get(1), expiryThreshold) ? versions.get(1).row : null;
+
+        // Checks "inTx" condition. Will be false if this is a first transactional op.
+        if (head.timestamp.equals(timestamp)) {
+            return new Pair<>(head.row, oldRow);
+        }
+
+        TxState state = txState(head);
+
+        BinaryRow cur;
+
+        if (state == TxState.ABORTED) { // Was aborted and had written a temp value.
+            cur = oldRow;
+        } else if (state == TxState.COMMITED && expired(head, expiryThreshold)) {
+            cur = null;
+        } else {
+            cur = head.row;
+        }
+
+        return new Pair<>(cur, cur);
+    }
+
+    /**
+     * Resolves a multi-versioned value as of a timestamp.
+     *
+     * @param val The value.
+     * @param readTs The read timestamp.
+     * @return The row visible at the timestamp, {@code null} if there is none.
+     * @see #getAt
+     */
+    private @Nullable BinaryRow resolveAt(Value val, Timestamp readTs) {
+        List<Version> versions = val.versions;
+
+        // Only the newest version may be an intent, it is not visible to the reads at a timestamp until its transaction is finished.
+        int newestCommitted = !versions.isEmpty() && versions.get(0).commitTimestamp == null ? 1 : 0;
+
+        // An expired row is not visible at any timestamp, even if its older versions are still kept.
+        if (newestCommitted < versions.size() && expired(versions.get(newestCommitted), expiryThreshold(readTs))) {
+            return null;
+        }
+
+        for (int i = newestCommitted; i < versions.size(); i++) {
+            Version version = versions.get(i);
+
+            if (version.commitTimestamp.compareTo(readTs) <= 0) {
+                return version.row;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Takes a snapshot.
+     *
+     * @param path The path.
+     * @return Snapshot future.
+     */
+    public CompletionStage<Void> snapshot(Path path) {
+        return storage.snapshot(path);
+    }
+
+    /**
+     * Restores a snapshot.
+     *
+     * @param path The path.
+     */
+    public void restoreSnapshot(Path path) {
+        closeVacuumCursor();
+
+        long lastAppliedIndex = storage.lastAppliedIndex();
+
+        storage.restoreSnapshot(path);
+
+        // The intents are rebuilt from the restored data, the reads waiting for the replaced ones read the restored data.
+        pendingWrites.clear();
+
+        pendingWritesRecovered = false;
+
+        finishedTxs.addAll(finishFutures.keySet());
+
+        publishFinishes();
+
+        // The snapshot has replaced the data, unless the storage already had it.
+        if (indexes != null && (lastAppliedIndex == 0 || storage.lastAppliedIndex() != lastAppliedIndex)) {
+            indexes.buildIndexes(storage);
+        }
+    }
+
+    /**
+     * Executes a closure so that all of its modifications and the applied index update are persisted atomically.
+     *
+     * @param closure The closure.
+     * @param <V> Type of the result.
+     * @return The result of the closure.
+     * @see PartitionStorage#runConsistently
+     */
+    public <V> V runConsistently(PartitionStorage.WriteClosure<V> closure) {
+        inClosure = true;
+
+        try {
+            return indexes == null ? storage.runConsistently(closure) : indexes.runConsistently(storage, closure);
+        } finally {
+            inClosure = false;
+
+            // The finishes are visible to the reads once the closure is persisted.
+            publishFinishes();
+        }
+    }
+
+    /**
+     * Returns the index of the last Raft command applied to the storage.
+     *
+     * @return The index, {@code 0} if unknown.
+     */
+    public long lastAppliedIndex() {
+        return storage.lastAppliedIndex();
+    }
+
+    /**
+     * Sets the index of the last Raft command applied to the storage.
+     *
+     * @param lastAppliedIndex The index.
+     */
+    public void lastAppliedIndex(long lastAppliedIndex) {
+        storage.lastAppliedIndex(lastAppliedIndex);
+    }
+
+    /**
+     * Executes a scan.
+     *
+     * @param pred The predicate.
+     * @return The cursor.
+     */
+    public Cursor<BinaryRow> scan(Predicate<SearchRow> pred) {
+        // TODO asch add tx support IGNITE-15087.
+        return scan(pred, row -> versionedRow(row, null).getFirst());
+    }
+
+    /**
+     * Asynchronously reads the next batch of rows from a cursor of {@link #scan} or {@link #scanAt}, the storage is read with its
+     * {@link PartitionStorage#readExecutor() read executor}. The batches of the same cursor must not be read concurrently.
+     *
+     * @param cursor The cursor.
+     * @param maxRows Maximum number of rows in the batch.
+     * @return Future of the rows, fewer than {@code maxRows} only if the cursor has been exhausted.
+     */
+    public CompletableFuture<List<BinaryRow>> readBatchAsync(Cursor<BinaryRow> cursor, int maxRows) {
+        if (cursor instanceof SnapshotCursor) {
+            return ((SnapshotCursor) cursor).readBatchAsync(maxRows);
+        }
+
+        return storage.readBatchAsync(cursor, maxRows);
+    }
+
+    /**
+     * Executes a scan as of a timestamp, without any locks. The rows are resolved the same way as by {@link #getAt}.
+     *
+     * @param pred The predicate.
+     * @param readTs The read timestamp, must not be below the {@link #lowWatermark() low watermark} during the whole scan.
+     * @return The cursor.
+     * @throws IgniteInternalException If the read timestamp is below the low watermark, the cursor throws it too when the low watermark
+     *      passes the read timestamp.
+     */
+    public Cursor<BinaryRow> scanAt(Predicate<SearchRow> pred, Timestamp readTs) {
+        checkReadTimestamp(readTs);
+
+        return new SnapshotCursor(storage.scan(pred), readTs);
+    }
+
+    /**
+     * Executes a scan.
+     *
+     * @param pred The predicate.
+     * @param resolver Resolver of the visible rows, returns {@code null} for the rows that are not visible.
+     * @return The cursor.
+     */
+    private Cursor<BinaryRow> scan(Predicate<SearchRow> pred, Function<DataRow, BinaryRow> resolver) {
+        Cursor<DataRow> delegate = storage.scan(pred);
+
+        return new Cursor<BinaryRow>() {
+            private @Nullable BinaryRow cur = null;
+
+            @Override
+            public void close() throws Exception {
+                delegate.close();
+            }
+
+            @NotNull
+            @Override
+            public Iterator<BinaryRow> iterator() {
+                return this;
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (cur == null && delegate.hasNext()) {
+                    // Skips tombstones.
+                    cur = resolver.apply(delegate.next());
+                }
+
+                return cur != null;
+            }
 
             @Override
             public BinaryRow next() {
@@ -601,30 +1500,184 @@ public class VersionedRowStore {
         };
     }
 
+    /**
+     * Cursor of a scan as of a timestamp. The rows are resolved the same way as by {@link #getAt}: the iteration blocks while an intent
+     * is waited for, while {@link #readBatchAsync} doesn't.
+     */
+    private class SnapshotCursor implements Cursor<BinaryRow> {
+        /** Cursor of the storage. */
+        private final Cursor<DataRow> delegate;
+
+        /** The read timestamp. */
+        private final Timestamp readTs;
+
+        /** The next row, {@code null} if it hasn't been read yet. */
+        private @Nullable BinaryRow cur;
+
+        /**
+         * The constructor.
+         *
+         * @param delegate Cursor of the storage.
+         * @param readTs The read timestamp.
+         */
+        SnapshotCursor(Cursor<DataRow> delegate, Timestamp readTs) {
+            this.delegate = delegate;
+            this.readTs = readTs;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() throws Exception {
+            delegate.close();
+        }
+
+        /** {@inheritDoc} */
+        @NotNull
+        @Override
+        public Iterator<BinaryRow> iterator() {
+            return this;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            while (cur == null && delegate.hasNext()) {
+                DataRow row = delegate.next();
+
+                // Skips tombstones and the rows that are not visible.
+                cur = readAt(new KeyRow(row.keyBytes()), row, readTs).join();
+            }
+
+            return cur != null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public BinaryRow next() {
+            BinaryRow next = cur;
+
+            cur = null;
+
+            assert next != null;
+
+            return next;
+        }
+
+        /**
+         * Asynchronously reads the next batch of rows, the storage is read with its read executor.
+         *
+         * @param maxRows Maximum number of rows in the batch.
+         * @return Future of the rows, fewer than {@code maxRows} only if the cursor has been exhausted.
+         */
+        CompletableFuture<List<BinaryRow>> readBatchAsync(int maxRows) {
+            List<BinaryRow> batch = new ArrayList<>(maxRows);
+
+            if (cur != null) {
+                batch.add(cur);
+
+                cur = null;
+            }
+
+            return readBatchAsync(batch, maxRows);
+        }
+
+        /**
+         * Asynchronously reads rows into a batch until it is full or the cursor is exhausted.
+         *
+         * @param batch The batch.
+         * @param maxRows Maximum number of rows in the batch.
+         * @return Future of the batch.
+         */
+        private CompletableFuture<List<BinaryRow>> readBatchAsync(List<BinaryRow> batch, int maxRows) {
+            int toRead = maxRows - batch.size();
+
+            if (toRead == 0) {
+                return CompletableFuture.completedFuture(batch);
+            }
+
+            return storage.readBatchAsync(delegate, toRead).thenCompose(rows -> {
+                CompletableFuture<Void> fut = CompletableFuture.completedFuture(null);
+
+                // The rows are added in the order of the keys, each one once it is resolved.
+                for (DataRow row : rows) {
+                    fut = fut.thenCompose(ignored -> readAt(new KeyRow(row.keyBytes()), row, readTs)).thenAccept(visibleRow -> {
+                        if (visibleRow != null) {
+                            batch.add(visibleRow);
+                        }
+                    });
+                }
+
+                return fut.thenCompose(ignored -> rows.size() < toRead ? CompletableFuture.completedFuture(batch)
+                        : readBatchAsync(batch, maxRows));
+            });
+        }
+    }
+
     /**
      * Versioned value.
      */
     private static class Value {
-        /** Current value. */
-        BinaryRow newRow;
+        /** Versions, from the newest to the oldest. Only the newest one may be uncommitted. */
+        final List<Version> versions;
 
-        /** The value for rollback. */
-        @Nullable BinaryRow oldRow;
+        /**
+         * The constructor.
+         *
+         * @param versions Versions, from the newest to the oldest.
+         */
+        Value(List<Version> versions) {
+            this.versions = versions;
+        }
+    }
 
-        /** Transaction's timestamp. */
-        Timestamp timestamp;
+    /**
+     * Version of a row.
+     */
+    private static class Version {
+        /** The row, {@code null} for a tombstone. */
+        @Nullable
+        final BinaryRow row;
+
+        /** Timestamp of the transaction that has written the version. */
+        final Timestamp timestamp;
+
+        /** Timestamp the version has been committed at, {@code null} for an intent of a transaction not finished on the partition. */
+        @Nullable
+        final Timestamp commitTimestamp;
 
         /**
          * The constructor.
          *
-         * @param newRow New row.
-         * @param oldRow Old row.
+         * @param row The row, {@code null} for a tombstone.
          * @param timestamp The timestamp.
+         * @param commitTimestamp The commit timestamp, {@code null} for an intent.
          */
-        Value(@Nullable BinaryRow newRow, @Nullable BinaryRow oldRow, Timestamp timestamp) {
-            this.newRow = newRow;
-            this.oldRow = oldRow;
+        Version(@Nullable BinaryRow row, Timestamp timestamp, @Nullable Timestamp commitTimestamp) {
+            this.row = row;
             this.timestamp = timestamp;
+            this.commitTimestamp = commitTimestamp;
+        }
+    }
+
+    /**
+     * Key of a row read from the storage.
+     */
+    private static class KeyRow implements SearchRow {
+        /** Key bytes. */
+        private final byte[] bytes;
+
+        KeyRow(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public byte @NotNull [] keyBytes() {
+            return bytes;
+        }
+
+        @Override
+        public @NotNull ByteBuffer key() {
+            return ByteBuffer.wrap(bytes);
         }
     }
 
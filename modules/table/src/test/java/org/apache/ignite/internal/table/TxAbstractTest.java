@@ -191,7 +191,8 @@ public abstract class TxAbstractTest extends IgniteAbstractTest {
         assertEquals(BALANCE_1 - DELTA, view.get(null, makeKey(1)).doubleValue("balance"));
         assertEquals(BALANCE_2 + DELTA, view.get(null, makeKey(2)).doubleValue("balance"));
 
-        assertEquals(5, txManager(accounts).finished());
+        // The implicit transactions are committed in one phase, no states are kept for them.
+        assertEquals(1, txManager(accounts).finished());
     }
 
     /**
@@ -215,7 +216,8 @@ public abstract class TxAbstractTest extends IgniteAbstractTest {
         assertEquals(BALANCE_1 - DELTA, accounts.recordView().get(null, makeKey(1)).doubleValue("balance"));
         assertEquals(BALANCE_2 + DELTA, accounts.recordView().get(null, makeKey(2)).doubleValue("balance"));
 
-        assertEquals(5, txManager(accounts).finished());
+        // The implicit transactions are committed in one phase, no states are kept for them.
+        assertEquals(1, txManager(accounts).finished());
     }
 
     /**
@@ -328,6 +330,35 @@ public abstract class TxAbstractTest extends IgniteAbstractTest {
         assertEquals(COMMITED, txManager(accounts).state(tx.timestamp()));
     }
 
+    /**
+     * Checks that a read-only transaction reads the data committed as of its start without waiting for the locks of the writers.
+     */
+    @Test
+    public void testReadOnlyTransaction() throws TransactionException {
+        Tuple key = makeKey(1);
+
+        accounts.recordView().upsert(null, makeValue(1, 100.));
+
+        Transaction readOnlyTx = igniteTransactions.beginReadOnly();
+
+        Transaction tx = igniteTransactions.begin();
+
+        accounts.recordView().upsert(tx, makeValue(1, 200.));
+
+        // The key is locked by the writer.
+        assertEquals(100., accounts.recordView().get(readOnlyTx, key).doubleValue("balance"));
+
+        tx.commit();
+
+        // The version committed after the start of the read-only transaction is not visible to it.
+        assertEquals(100., accounts.recordView().get(readOnlyTx, key).doubleValue("balance"));
+        assertEquals(200., accounts.recordView().get(null, key).doubleValue("balance"));
+
+        assertThrows(Exception.class, () -> accounts.recordView().upsert(readOnlyTx, makeValue(1, 300.)));
+
+        readOnlyTx.commit();
+    }
+
     @Test
     public void testAbort() throws TransactionException {
         InternalTransaction tx = (InternalTransaction) igniteTransactions.begin();
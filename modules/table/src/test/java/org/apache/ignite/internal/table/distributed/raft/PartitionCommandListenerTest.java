@@ -18,6 +18,7 @@
 package org.apache.ignite.internal.table.distributed.raft;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -31,6 +32,8 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -45,10 +48,13 @@ import org.apache.ignite.internal.table.distributed.command.DeleteAllCommand;
 import org.apache.ignite.internal.table.distributed.command.DeleteCommand;
 import org.apache.ignite.internal.table.distributed.command.DeleteExactAllCommand;
 import org.apache.ignite.internal.table.distributed.command.DeleteExactCommand;
+import org.apache.ignite.internal.table.distributed.command.FinishTxCommand;
+import org.apache.ignite.internal.table.distributed.command.GetAllAtCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAllCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAndDeleteCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAndReplaceCommand;
 import org.apache.ignite.internal.table.distributed.command.GetAndUpsertCommand;
+import org.apache.ignite.internal.table.distributed.command.GetAtCommand;
 import org.apache.ignite.internal.table.distributed.command.GetCommand;
 import org.apache.ignite.internal.table.distributed.command.InsertAllCommand;
 import org.apache.ignite.internal.table.distributed.command.InsertCommand;
@@ -88,6 +94,9 @@ public class PartitionCommandListenerTest {
     /** Table command listener. */
     private PartitionListener commandListener;
 
+    /** Transaction manager. */
+    private TxManagerImpl txManager;
+
     /**
      * Initializes a table listener before tests.
      */
@@ -97,8 +106,10 @@ public class PartitionCommandListenerTest {
         NetworkAddress addr = new NetworkAddress("127.0.0.1", 5003);
         Mockito.when(clusterService.topologyService().localMember().address()).thenReturn(addr);
 
+        txManager = new TxManagerImpl(clusterService, new HeapLockManager());
+
         commandListener = new PartitionListener(UUID.randomUUID(),
-                new VersionedRowStore(new ConcurrentHashMapPartitionStorage(), new TxManagerImpl(clusterService, new HeapLockManager())));
+                new VersionedRowStore(new ConcurrentHashMapPartitionStorage(), txManager));
     }
 
     /**
@@ -119,6 +130,218 @@ public class PartitionCommandListenerTest {
         delete(true);
     }
 
+    /**
+     * Checks that the commands already applied to the storage are skipped when the Raft log is replayed.
+     */
+    @Test
+    public void testAppliedCommandsSkippedOnReplay() {
+        Timestamp ts = Timestamp.nextVersion();
+
+        commandListener.onWrite(iterator((i, clo) -> {
+            when(clo.index()).thenReturn(i + 1L);
+            when(clo.command()).thenReturn(new UpsertCommand(getTestRow(i, i), ts));
+        }));
+
+        assertEquals(KEY_COUNT, commandListener.getStorage().lastAppliedIndex());
+
+        // Replay of the log: deletes have the same indexes as the upserts, so they must not be applied.
+        commandListener.onWrite(iterator((i, clo) -> {
+            when(clo.index()).thenReturn(i + 1L);
+            when(clo.command()).thenReturn(new DeleteCommand(getTestKey(i), Timestamp.nextVersion()));
+
+            doAnswer(invocation -> {
+                assertNull(invocation.getArgument(0));
+
+                return null;
+            }).when(clo).result(any());
+        }));
+
+        readAndCheck(true);
+
+        assertEquals(KEY_COUNT, commandListener.getStorage().lastAppliedIndex());
+    }
+
+    /**
+     * Checks that the results of a batch of commands are reported only after the whole batch is applied.
+     */
+    @Test
+    public void testBatchResultsReportedAfterApply() {
+        Timestamp ts = Timestamp.nextVersion();
+
+        AtomicInteger taken = new AtomicInteger();
+
+        commandListener.onWrite(iterator((i, clo) -> {
+            taken.incrementAndGet();
+
+            when(clo.index()).thenReturn(i + 1L);
+            when(clo.command()).thenReturn(new UpsertCommand(getTestRow(i, i), ts));
+
+            doAnswer(invocation -> {
+                assertEquals(KEY_COUNT, taken.get());
+                assertEquals(KEY_COUNT, commandListener.getStorage().lastAppliedIndex());
+
+                return null;
+            }).when(clo).result(any());
+        }));
+
+        readAndCheck(true);
+    }
+
+    /**
+     * Checks that one-phase commands are committed along with being applied: no transaction states are kept and the locks are released.
+     */
+    @Test
+    public void testOnePhaseCommands() {
+        Timestamp[] timestamps = new Timestamp[KEY_COUNT];
+
+        commandListener.onWrite(iterator((i, clo) -> {
+            timestamps[i] = Timestamp.nextVersion();
+
+            UpsertCommand cmd = new UpsertCommand(getTestRow(i, i), timestamps[i]);
+
+            cmd.setOnePhase(true);
+
+            assertTrue(commandListener.onBeforeApply(cmd).isDone());
+
+            when(clo.command()).thenReturn(cmd);
+        }));
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertNull(txManager.state(timestamps[i]));
+
+            // The lock of the key is free for the other transactions.
+            CompletableFuture<Void> lockFut = commandListener.onBeforeApply(
+                    new UpsertCommand(getTestRow(i, i + 1), Timestamp.nextVersion()));
+
+            assertTrue(lockFut.isDone() && !lockFut.isCompletedExceptionally());
+
+            BinaryRow row = commandListener.getStorage().getAt(getTestKey(i), Timestamp.nextVersion());
+
+            assertNotNull(row);
+            assertEquals(i, new Row(SCHEMA, row).intValue(1));
+        }
+
+        assertEquals(0, txManager.finished());
+    }
+
+    /**
+     * Checks that the locks of a one-phase command are released if the command fails to be replicated after they have been acquired.
+     */
+    @Test
+    public void testOnePhaseLocksReleasedOnReplicationFailure() {
+        UpsertCommand cmd = new UpsertCommand(getTestRow(1, 1), Timestamp.nextVersion());
+
+        cmd.setOnePhase(true);
+
+        assertTrue(commandListener.onBeforeApply(cmd).isDone());
+
+        CompletableFuture<Void> lockFut = commandListener.onBeforeApply(new UpsertCommand(getTestRow(1, 2), Timestamp.nextVersion()));
+
+        assertFalse(lockFut.isDone());
+
+        // The command is never applied, e.g. the node has lost the leadership before the command reached the log.
+        commandListener.onApplyFailure(cmd);
+
+        assertTrue(lockFut.isDone() && !lockFut.isCompletedExceptionally());
+
+        assertNull(commandListener.getStorage().get(getTestKey(1), Timestamp.nextVersion()));
+    }
+
+    /**
+     * Checks that the locks of a one-phase command that may have reached the log are kept until the command is applied.
+     */
+    @Test
+    public void testOnePhaseLocksKeptUntilUnknownOutcomeApplied() {
+        UpsertCommand cmd = new UpsertCommand(getTestRow(1, 1), Timestamp.nextVersion());
+
+        cmd.setOnePhase(true);
+
+        assertTrue(commandListener.onBeforeApply(cmd).isDone());
+
+        CompletableFuture<Void> lockFut = commandListener.onBeforeApply(new UpsertCommand(getTestRow(1, 2), Timestamp.nextVersion()));
+
+        // The leadership is lost after the command is appended to the log.
+        commandListener.onApplyUnknown(cmd, 1);
+
+        assertFalse(lockFut.isDone());
+
+        // The new leader has committed the command.
+        commandListener.onWrite(batchIterator(clo -> {
+            when(clo.index()).thenReturn(1L);
+            when(clo.command()).thenReturn(cmd);
+        }));
+
+        assertTrue(lockFut.isDone() && !lockFut.isCompletedExceptionally());
+
+        assertNotNull(commandListener.getStorage().get(getTestKey(1), Timestamp.nextVersion()));
+    }
+
+    /**
+     * Checks that the locks of a one-phase command that may have reached the log are released once another command is applied with its
+     * index.
+     */
+    @Test
+    public void testOnePhaseLocksReleasedWhenUnknownOutcomeReplaced() {
+        UpsertCommand cmd = new UpsertCommand(getTestRow(1, 1), Timestamp.nextVersion());
+
+        cmd.setOnePhase(true);
+
+        assertTrue(commandListener.onBeforeApply(cmd).isDone());
+
+        CompletableFuture<Void> lockFut = commandListener.onBeforeApply(new UpsertCommand(getTestRow(1, 2), Timestamp.nextVersion()));
+
+        commandListener.onApplyUnknown(cmd, 1);
+
+        assertFalse(lockFut.isDone());
+
+        // The command has not reached the new leader, the index is taken by another command.
+        UpsertCommand other = new UpsertCommand(getTestRow(2, 2), Timestamp.nextVersion());
+
+        other.setOnePhase(true);
+
+        commandListener.onWrite(batchIterator(clo -> {
+            when(clo.index()).thenReturn(1L);
+            when(clo.command()).thenReturn(other);
+        }));
+
+        assertTrue(lockFut.isDone() && !lockFut.isCompletedExceptionally());
+
+        assertNull(commandListener.getStorage().get(getTestKey(1), Timestamp.nextVersion()));
+    }
+
+    /**
+     * Checks that the reads of a read-only transaction take no locks and see the rows committed as of the read timestamp.
+     */
+    @Test
+    public void testReadOnlyReads() {
+        Timestamp ts1 = Timestamp.nextVersion();
+
+        commandListener.onWrite(iterator((i, clo) -> when(clo.command()).thenReturn(new UpsertCommand(getTestRow(i, i), ts1))));
+        commandListener.onWrite(batchIterator(clo -> when(clo.command()).thenReturn(new FinishTxCommand(ts1, Timestamp.nextVersion()))));
+
+        Timestamp readTs = Timestamp.nextVersion();
+
+        Timestamp ts2 = Timestamp.nextVersion();
+
+        // The transaction in progress holds the write locks of all the keys.
+        commandListener.onWrite(iterator((i, clo) -> {
+            UpsertCommand cmd = new UpsertCommand(getTestRow(i, i + 1), ts2);
+
+            assertTrue(commandListener.onBeforeApply(cmd).isDone());
+
+            when(clo.command()).thenReturn(cmd);
+        }));
+
+        readAtAndCheck(readTs, i -> i);
+
+        commandListener.onWrite(batchIterator(clo -> when(clo.command()).thenReturn(new FinishTxCommand(ts2, Timestamp.nextVersion()))));
+
+        // The reads at the same timestamp are repeatable.
+        readAtAndCheck(readTs, i -> i);
+
+        readAtAndCheck(Timestamp.nextVersion(), i -> i + 1);
+    }
+
     /**
      * Upserts rows and checks them.
      */
@@ -515,6 +738,65 @@ public class PartitionCommandListenerTest {
         }));
     }
 
+    /**
+     * Reads rows as of a timestamp without locks, one by one and all at once, and checks values as expected by a mapper.
+     *
+     * @param readTs         The read timestamp.
+     * @param keyValueMapper Mapper a key to the value which will be expected.
+     */
+    private void readAtAndCheck(Timestamp readTs, Function<Integer, Integer> keyValueMapper) {
+        AtomicInteger checked = new AtomicInteger();
+
+        commandListener.onRead(iterator((i, clo) -> {
+            GetAtCommand cmd = new GetAtCommand(getTestKey(i), readTs);
+
+            assertNull(commandListener.onBeforeApply(cmd));
+
+            when(clo.command()).thenReturn(cmd);
+
+            doAnswer(invocation -> {
+                SingleRowResponse resp = invocation.getArgument(0);
+
+                assertNotNull(resp.getValue());
+                assertEquals(keyValueMapper.apply(i), new Row(SCHEMA, resp.getValue()).intValue(1));
+
+                checked.incrementAndGet();
+
+                return null;
+            }).when(clo).result(any(SingleRowResponse.class));
+        }));
+
+        assertEquals(KEY_COUNT, checked.get());
+
+        commandListener.onRead(batchIterator(clo -> {
+            Set<BinaryRow> keyRows = new HashSet<>(KEY_COUNT);
+
+            for (int i = 0; i < KEY_COUNT; i++) {
+                keyRows.add(getTestKey(i));
+            }
+
+            when(clo.command()).thenReturn(new GetAllAtCommand(keyRows, readTs));
+
+            doAnswer(invocation -> {
+                MultiRowsResponse resp = invocation.getArgument(0);
+
+                assertEquals(KEY_COUNT, resp.getValues().size());
+
+                for (BinaryRow binaryRow : resp.getValues()) {
+                    Row row = new Row(SCHEMA, binaryRow);
+
+                    assertEquals(keyValueMapper.apply(row.intValue(0)), row.intValue(1));
+                }
+
+                checked.incrementAndGet();
+
+                return null;
+            }).when(clo).result(any(MultiRowsResponse.class));
+        }));
+
+        assertEquals(KEY_COUNT + 1, checked.get());
+    }
+
     /**
      * Inserts row.
      *
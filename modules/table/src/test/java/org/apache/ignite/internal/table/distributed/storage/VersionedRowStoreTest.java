@@ -0,0 +1,930 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.table.distributed.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.internal.schema.BinaryRow;
+import org.apache.ignite.internal.schema.Column;
+import org.apache.ignite.internal.schema.NativeTypes;
+import org.apache.ignite.internal.schema.SchemaDescriptor;
+import org.apache.ignite.internal.schema.SchemaRegistry;
+import org.apache.ignite.internal.schema.row.Row;
+import org.apache.ignite.internal.schema.row.RowAssembler;
+import org.apache.ignite.internal.storage.DataRow;
+import org.apache.ignite.internal.storage.SearchRow;
+import org.apache.ignite.internal.storage.basic.BinarySearchRow;
+import org.apache.ignite.internal.storage.basic.ConcurrentHashMapPartitionStorage;
+import org.apache.ignite.internal.storage.engine.TableStorage;
+import org.apache.ignite.internal.storage.index.HashIndexDescriptor;
+import org.apache.ignite.internal.storage.index.HashIndexStorage;
+import org.apache.ignite.internal.storage.index.IndexRow;
+import org.apache.ignite.internal.storage.index.IndexRowDeserializer;
+import org.apache.ignite.internal.storage.index.IndexRowFactory;
+import org.apache.ignite.internal.storage.index.IndexRowPrefix;
+import org.apache.ignite.internal.storage.index.SortedIndexDescriptor;
+import org.apache.ignite.internal.storage.index.SortedIndexDescriptor.ColumnDescriptor;
+import org.apache.ignite.internal.storage.index.SortedIndexStorage;
+import org.apache.ignite.internal.testframework.WorkDirectory;
+import org.apache.ignite.internal.testframework.WorkDirectoryExtension;
+import org.apache.ignite.internal.tx.Timestamp;
+import org.apache.ignite.internal.tx.TxManager;
+import org.apache.ignite.internal.tx.TxState;
+import org.apache.ignite.internal.tx.impl.HeapLockManager;
+import org.apache.ignite.internal.tx.impl.TxManagerImpl;
+import org.apache.ignite.internal.util.Cursor;
+import org.apache.ignite.lang.IgniteInternalException;
+import org.apache.ignite.network.ClusterService;
+import org.apache.ignite.network.NetworkAddress;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Tests for the row versions of {@link VersionedRowStore}.
+ */
+@ExtendWith(WorkDirectoryExtension.class)
+public class VersionedRowStoreTest {
+    /** Schema. */
+    private static final SchemaDescriptor SCHEMA = new SchemaDescriptor(
+            1,
+            new Column[]{new Column("key", NativeTypes.INT32, false)},
+            new Column[]{new Column("value", NativeTypes.INT32, false)}
+    );
+
+    /** Transaction manager. */
+    private TxManager txManager;
+
+    /**
+     * Creates a transaction manager before each test.
+     */
+    @BeforeEach
+    public void before() {
+        ClusterService clusterService = mock(ClusterService.class, RETURNS_DEEP_STUBS);
+
+        when(clusterService.topologyService().localMember().address()).thenReturn(new NetworkAddress("127.0.0.1", 5003));
+
+        txManager = new TxManagerImpl(clusterService, new HeapLockManager());
+    }
+
+    /**
+     * Checks that the reads at a timestamp see the versions committed as of the timestamp.
+     */
+    @Test
+    public void testReadAtTimestamp() {
+        VersionedRowStore store = new VersionedRowStore(new ConcurrentHashMapPartitionStorage(), txManager);
+
+        Timestamp beforeAll = Timestamp.nextVersion();
+
+        Timestamp tx1 = begin();
+
+        store.upsert(row(1, 1), tx1);
+
+        finish(store, tx1, true);
+
+        Timestamp afterTx1 = Timestamp.nextVersion();
+
+        Timestamp beforeTx2 = Timestamp.nextVersion();
+
+        Timestamp tx2 = begin();
+
+        store.upsert(row(1, 2), tx2);
+
+        // The version of the transaction in progress is not visible at the timestamps it has started after.
+        assertEquals(1, value(store.getAt(key(1), beforeTx2)));
+
+        finish(store, tx2, true);
+
+        assertNull(store.getAt(key(1), beforeAll));
+        assertEquals(1, value(store.getAt(key(1), afterTx1)));
+        assertEquals(1, value(store.getAt(key(1), beforeTx2)));
+        assertEquals(2, value(store.getAt(key(1), Timestamp.nextVersion())));
+
+        Timestamp tx3 = begin();
+
+        store.delete(key(1), tx3);
+
+        finish(store, tx3, false);
+
+        // The tombstone of the aborted transaction is not visible.
+        assertEquals(2, value(store.getAt(key(1), Timestamp.nextVersion())));
+        assertEquals(1, value(store.getAt(key(1), afterTx1)));
+
+        Timestamp tx4 = begin();
+
+        store.delete(key(1), tx4);
+
+        finish(store, tx4, true);
+
+        assertNull(store.getAt(key(1), Timestamp.nextVersion()));
+        assertEquals(1, value(store.getAt(key(1), afterTx1)));
+
+        assertFalse(store.scanAt(row -> true, Timestamp.nextVersion()).iterator().hasNext());
+        assertEquals(1, value(store.scanAt(row -> true, afterTx1).iterator().next()));
+    }
+
+    /**
+     * Checks that a read at a timestamp waits for the intent of a transaction that has started before the timestamp, and sees its version
+     * if it is committed before the timestamp.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testReadAtWaitsForIntent() throws Exception {
+        VersionedRowStore store = new VersionedRowStore(new ConcurrentHashMapPartitionStorage(), txManager);
+
+        Timestamp tx1 = begin();
+
+        store.upsert(row(1, 1), tx1);
+        store.upsert(row(2, 1), tx1);
+
+        finish(store, tx1, true);
+
+        Timestamp tx2 = begin();
+
+        store.upsert(row(1, 2), tx2);
+
+        Timestamp readTs = Timestamp.nextVersion();
+
+        CompletableFuture<BinaryRow> getFut = store.getAtAsync(key(1), readTs);
+        CompletableFuture<List<BinaryRow>> getAllFut = store.getAllAtAsync(List.of(key(2), key(1)), readTs);
+
+        Cursor<BinaryRow> cursor = store.scanAt(row -> true, readTs);
+
+        CompletableFuture<List<BinaryRow>> batchFut = store.readBatchAsync(cursor, 10);
+
+        assertFalse(getFut.isDone());
+        assertFalse(getAllFut.isDone());
+        assertFalse(batchFut.isDone());
+
+        // The transaction is committed before the read timestamp.
+        changeState(tx2, true);
+
+        store.finish(tx2, readTs);
+
+        assertEquals(2, value(getFut.join()));
+        assertEquals(1, value(getAllFut.join().get(0)));
+        assertEquals(2, value(getAllFut.join().get(1)));
+        assertEquals(2, batchFut.join().size());
+
+        cursor.close();
+
+        Timestamp tx3 = begin();
+
+        store.upsert(row(1, 3), tx3);
+
+        readTs = Timestamp.nextVersion();
+
+        getFut = store.getAtAsync(key(1), readTs);
+
+        assertFalse(getFut.isDone());
+
+        // The transaction is committed after the read timestamp.
+        finish(store, tx3, true);
+
+        assertEquals(2, value(getFut.join()));
+        assertEquals(3, value(store.getAt(key(1), Timestamp.nextVersion())));
+
+        Timestamp tx4 = begin();
+
+        store.upsert(row(1, 4), tx4);
+
+        getFut = store.getAtAsync(key(1), Timestamp.nextVersion());
+
+        finish(store, tx4, false);
+
+        assertEquals(3, value(getFut.join()));
+    }
+
+    /**
+     * Checks that the asynchronous reads resolve the versions the same way as the synchronous ones.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testAsyncReads() throws Exception {
+        VersionedRowStore store = new VersionedRowStore(new ConcurrentHashMapPartitionStorage(), txManager);
+
+        Timestamp tx1 = begin();
+
+        store.upsert(row(1, 10), tx1);
+        store.upsert(row(3, 30), tx1);
+
+        finish(store, tx1, true);
+
+        Timestamp tx2 = begin();
+
+        store.upsert(row(3, 31), tx2);
+
+        assertEquals(10, value(store.getAsync(key(1), tx2).join()));
+        assertNull(store.getAsync(key(2), tx2).join());
+        assertEquals(31, value(store.getAsync(key(3), tx2).join()));
+
+        // The rows are returned in the order of the keys, with nulls for the missing ones.
+        List<BinaryRow> rows = store.getAllAsync(List.of(key(3), key(2), key(1)), tx2).join();
+
+        assertEquals(3, rows.size());
+        assertEquals(31, value(rows.get(0)));
+        assertNull(rows.get(1));
+        assertEquals(10, value(rows.get(2)));
+
+        finish(store, tx2, false);
+
+        assertEquals(30, value(store.getAsync(key(3), Timestamp.nextVersion()).join()));
+
+        try (Cursor<BinaryRow> cursor = store.scan(row -> true)) {
+            assertEquals(1, store.readBatchAsync(cursor, 1).join().size());
+            assertEquals(1, store.readBatchAsync(cursor, 10).join().size());
+            assertTrue(store.readBatchAsync(cursor, 10).join().isEmpty());
+        }
+    }
+
+    /**
+     * Checks that the versions of the finished transactions are resolved without their states.
+     */
+    @Test
+    public void testFinish() {
+        ConcurrentHashMapPartitionStorage storage = new ConcurrentHashMapPartitionStorage();
+
+        VersionedRowStore store = new VersionedRowStore(storage, txManager);
+
+        Timestamp tx1 = begin();
+
+        store.upsert(row(1, 10), tx1);
+        store.upsert(row(2, 20), tx1);
+
+        finish(store, tx1, true);
+
+        Timestamp tx2 = begin();
+
+        store.upsert(row(1, 11), tx2);
+        store.upsert(row(1, 12), tx2);
+        store.delete(key(2), tx2);
+        store.upsert(row(3, 30), tx2);
+
+        finish(store, tx2, false);
+
+        // The versions of the aborted transaction are removed.
+        assertEquals(1, VersionedRowStore.versionRows(storage.read(new BinarySearchRow(key(1)))).size());
+        assertNull(storage.read(new BinarySearchRow(key(3))));
+
+        txManager.forget(tx1);
+        txManager.forget(tx2);
+
+        assertEquals(10, value(store.get(key(1), Timestamp.nextVersion())));
+        assertEquals(20, value(store.getAt(key(2), Timestamp.nextVersion())));
+        assertNull(store.getAt(key(3), Timestamp.nextVersion()));
+    }
+
+    /**
+     * Checks that the intents of the unfinished transactions are persisted with the versions: after a restart or a snapshot installation
+     * they are not visible while the states of their transactions are unknown, and are resolved by the finishes applied afterwards.
+     *
+     * @param workDir Work directory.
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testIntentsRecovery(@WorkDirectory Path workDir) throws Exception {
+        ConcurrentHashMapPartitionStorage storage = new ConcurrentHashMapPartitionStorage();
+
+        VersionedRowStore store = new VersionedRowStore(storage, txManager);
+
+        Timestamp tx1 = begin();
+
+        store.upsert(row(1, 10), tx1);
+
+        finish(store, tx1, true);
+
+        Timestamp beforeTx2 = Timestamp.nextVersion();
+
+        // A pending write.
+        Timestamp tx2 = begin();
+
+        store.upsert(row(1, 11), tx2);
+
+        // An aborted write, the finish of which hasn't been applied to the partition yet.
+        Timestamp tx3 = begin();
+
+        store.upsert(row(2, 20), tx3);
+
+        changeState(tx3, false);
+
+        store.snapshot(workDir).toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+        // The states of the transactions are lost with a restart.
+        before();
+
+        VersionedRowStore restarted = new VersionedRowStore(storage, txManager);
+
+        var restored = new VersionedRowStore(new ConcurrentHashMapPartitionStorage(), txManager);
+
+        restored.restoreSnapshot(workDir);
+
+        for (VersionedRowStore recovered : List.of(restarted, restored)) {
+            assertEquals(10, value(recovered.getAt(key(1), beforeTx2)));
+            assertNull(recovered.getAt(key(2), beforeTx2));
+            assertEquals(10, value(recovered.get(key(1), Timestamp.nextVersion())));
+
+            try (Cursor<BinaryRow> cursor = recovered.scanAt(row -> true, beforeTx2)) {
+                assertTrue(cursor.hasNext());
+                assertEquals(10, value(cursor.next()));
+                assertFalse(cursor.hasNext());
+            }
+        }
+
+        txManager.getOrCreateTransaction(tx2);
+        txManager.getOrCreateTransaction(tx3);
+
+        changeState(tx2, true);
+        changeState(tx3, false);
+
+        Timestamp commitTs = Timestamp.nextVersion();
+
+        for (VersionedRowStore recovered : List.of(restarted, restored)) {
+            recovered.finish(tx2, commitTs);
+            recovered.finish(tx3, null);
+        }
+
+        txManager.forget(tx2);
+        txManager.forget(tx3);
+
+        for (VersionedRowStore recovered : List.of(restarted, restored)) {
+            assertEquals(11, value(recovered.getAt(key(1), Timestamp.nextVersion())));
+            assertEquals(11, value(recovered.get(key(1), Timestamp.nextVersion())));
+            assertNull(recovered.get(key(2), Timestamp.nextVersion()));
+            assertNull(recovered.delegate().read(new BinarySearchRow(key(2))));
+        }
+    }
+
+    /**
+     * Checks that the versions which are not visible at the low watermark are removed by the vacuum.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testVacuum() throws Exception {
+        ConcurrentHashMapPartitionStorage storage = new ConcurrentHashMapPartitionStorage();
+
+        VersionedRowStore store = new VersionedRowStore(storage, txManager, null, 1);
+
+        for (int i = 0; i < 3; i++) {
+            Timestamp tx = begin();
+
+            store.upsert(row(1, i), tx);
+            store.upsert(row(2, i), tx);
+
+            finish(store, tx, true);
+        }
+
+        Timestamp tx = begin();
+
+        store.delete(key(2), tx);
+
+        finish(store, tx, true);
+
+        DataRow before = storage.read(new BinarySearchRow(key(1)));
+
+        assertNotNull(before);
+
+        Thread.sleep(10);
+
+        // The low watermark follows the timestamps of the applied commands, not the wall clock.
+        Timestamp tx2 = begin();
+
+        store.upsert(row(3, 3), tx2);
+
+        finish(store, tx2, true);
+
+        assertTrue(store.lowWatermark().compareTo(tx) > 0);
+
+        store.vacuum(10);
+
+        DataRow after = storage.read(new BinarySearchRow(key(1)));
+
+        assertNotNull(after);
+        assertTrue(after.valueBytes().length < before.valueBytes().length);
+
+        assertEquals(2, value(store.getAt(key(1), Timestamp.nextVersion())));
+
+        // The key that has been deleted before the low watermark is removed completely.
+        assertNull(storage.read(new BinarySearchRow(key(2))));
+
+        assertThrows(IgniteInternalException.class, () -> store.getAt(key(1), tx));
+    }
+
+    /**
+     * Checks that the expired rows are invisible to the reads and are removed by the vacuum.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testTtl() throws Exception {
+        ConcurrentHashMapPartitionStorage storage = new ConcurrentHashMapPartitionStorage();
+
+        VersionedRowStore store = new VersionedRowStore(storage, txManager, null, VersionedRowStore.DFLT_VERSION_RETENTION, 50);
+
+        Timestamp tx1 = begin();
+
+        store.upsert(row(1, 10), tx1);
+        store.upsert(row(2, 20), tx1);
+
+        finish(store, tx1, true);
+
+        Thread.sleep(100);
+
+        // The rows expire as of the applied commands, not the wall clock, no command has been applied since.
+        store.vacuum(10);
+
+        assertNotNull(storage.read(new BinarySearchRow(key(1))));
+
+        // The update renews the row.
+        Timestamp tx2 = begin();
+
+        store.upsert(row(2, 21), tx2);
+
+        finish(store, tx2, true);
+
+        assertNull(store.get(key(1), Timestamp.nextVersion()));
+        assertNull(store.getAt(key(1), Timestamp.nextVersion()));
+        assertEquals(21, value(store.get(key(2), Timestamp.nextVersion())));
+        assertEquals(21, value(store.getAt(key(2), Timestamp.nextVersion())));
+
+        try (Cursor<BinaryRow> cursor = store.scan(row -> true)) {
+            assertEquals(21, value(cursor.next()));
+            assertFalse(cursor.hasNext());
+        }
+
+        store.vacuum(10);
+
+        assertNull(storage.read(new BinarySearchRow(key(1))));
+        assertNotNull(storage.read(new BinarySearchRow(key(2))));
+
+        // An expired row doesn't prevent an insert.
+        Timestamp tx3 = begin();
+
+        assertTrue(store.insert(row(1, 11), tx3));
+
+        finish(store, tx3, true);
+
+        assertEquals(11, value(store.get(key(1), Timestamp.nextVersion())));
+    }
+
+    /**
+     * Checks that a sorted index has the entries of all the row versions kept by the store.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testSortedIndex() throws Exception {
+        TestIndexStorage index = new TestIndexStorage();
+
+        TableStorage tableStorage = mock(TableStorage.class);
+
+        when(tableStorage.getOrCreateSortedIndex("idx")).thenReturn(index);
+
+        SchemaRegistry schemaRegistry = mock(SchemaRegistry.class);
+
+        when(schemaRegistry.resolve(any(BinaryRow.class))).then(invocation -> new Row(SCHEMA, invocation.getArgument(0)));
+
+        TableIndexes indexes = new TableIndexes(tableStorage, schemaRegistry);
+
+        indexes.startSortedIndex("idx");
+
+        ConcurrentHashMapPartitionStorage storage = new ConcurrentHashMapPartitionStorage();
+
+        VersionedRowStore store = new VersionedRowStore(storage, txManager, indexes);
+
+        Timestamp tx1 = begin();
+
+        store.upsert(row(1, 10), tx1);
+        store.upsert(row(1, 11), tx1);
+
+        finish(store, tx1, true);
+
+        // The version overwritten by the same transaction is removed from the index.
+        assertEquals(Set.of("11:1"), index.entries);
+
+        Timestamp tx2 = begin();
+
+        store.upsert(row(1, 20), tx2);
+
+        finish(store, tx2, true);
+
+        // The old version is kept for the reads as of a timestamp.
+        assertEquals(Set.of("11:1", "20:1"), index.entries);
+
+        Timestamp tx3 = begin();
+
+        store.upsert(row(1, 30), tx3);
+
+        finish(store, tx3, false);
+
+        Timestamp tx4 = begin();
+
+        store.delete(key(1), tx4);
+
+        finish(store, tx4, true);
+
+        // The version of the aborted transaction is removed.
+        assertEquals(Set.of("11:1", "20:1"), index.entries);
+
+        VersionedRowStore vacuumStore = new VersionedRowStore(storage, txManager, indexes, 1);
+
+        Thread.sleep(10);
+
+        Timestamp tx5 = begin();
+
+        vacuumStore.upsert(row(2, 50), tx5);
+
+        finish(vacuumStore, tx5, true);
+
+        vacuumStore.vacuum(10);
+
+        // The key that has been deleted before the low watermark is removed completely.
+        assertEquals(Set.of("50:2"), index.entries);
+
+        // An index created on a populated table gets the existing rows.
+        TestIndexStorage newIndex = new TestIndexStorage();
+
+        when(tableStorage.getOrCreateSortedIndex("newIdx")).thenReturn(newIndex);
+
+        indexes.startSortedIndex("newIdx");
+
+        indexes.buildIndexes(storage);
+
+        assertEquals(Set.of("50:2"), newIndex.entries);
+    }
+
+    /**
+     * Checks that an index created on a populated table is maintained by the writes right away, and is reported as built once the rows of
+     * the partitions are added to it in the background.
+     */
+    @Test
+    public void testCreateIndex() {
+        TableStorage tableStorage = mock(TableStorage.class, RETURNS_DEEP_STUBS);
+
+        SchemaRegistry schemaRegistry = mock(SchemaRegistry.class);
+
+        when(schemaRegistry.resolve(any(BinaryRow.class))).then(invocation -> new Row(SCHEMA, invocation.getArgument(0)));
+
+        TableIndexes indexes = new TableIndexes(tableStorage, schemaRegistry);
+
+        ConcurrentHashMapPartitionStorage storage = new ConcurrentHashMapPartitionStorage();
+
+        when(tableStorage.configuration().value().partitions()).thenReturn(1);
+        when(tableStorage.getPartition(0)).thenReturn(storage);
+
+        VersionedRowStore store = new VersionedRowStore(storage, txManager, indexes);
+
+        Timestamp tx1 = begin();
+
+        store.upsert(row(1, 10), tx1);
+        store.upsert(row(2, 20), tx1);
+
+        finish(store, tx1, true);
+
+        TestIndexStorage index = new TestIndexStorage();
+
+        when(tableStorage.getOrCreateSortedIndex("idx")).thenReturn(index);
+
+        Queue<Runnable> buildTasks = new ArrayDeque<>();
+
+        CompletableFuture<SortedIndexStorage> buildFut = indexes.createSortedIndex("idx", buildTasks::add);
+
+        Timestamp tx2 = begin();
+
+        store.upsert(row(3, 30), tx2);
+        store.delete(key(2), tx2);
+
+        finish(store, tx2, true);
+
+        // The writes made during the build are indexed right away, the index is not built yet.
+        assertEquals(Set.of("30:3"), index.entries);
+        assertFalse(buildFut.isDone());
+        assertTrue(indexes.builtSortedIndexes().isEmpty());
+
+        while (!buildTasks.isEmpty()) {
+            buildTasks.poll().run();
+        }
+
+        assertSame(index, buildFut.join());
+        assertEquals(Set.of("10:1", "20:2", "30:3"), index.entries);
+        assertTrue(indexes.builtSortedIndexes().contains(index));
+    }
+
+    /**
+     * Checks that a hash index has the entries of the versions kept in the partition and only them.
+     *
+     * @throws Exception If failed.
+     */
+    @Test
+    public void testHashIndex() throws Exception {
+        TestHashIndexStorage index = new TestHashIndexStorage();
+
+        TableStorage tableStorage = mock(TableStorage.class);
+
+        when(tableStorage.getOrCreateHashIndex("hashIdx")).thenReturn(index);
+
+        SchemaRegistry schemaRegistry = mock(SchemaRegistry.class);
+
+        when(schemaRegistry.resolve(any(BinaryRow.class))).then(invocation -> new Row(SCHEMA, invocation.getArgument(0)));
+
+        TableIndexes indexes = new TableIndexes(tableStorage, schemaRegistry);
+
+        ConcurrentHashMapPartitionStorage storage = new ConcurrentHashMapPartitionStorage();
+
+        VersionedRowStore store = new VersionedRowStore(storage, txManager, indexes);
+
+        Timestamp tx1 = begin();
+
+        store.upsert(row(1, 10), tx1);
+        store.upsert(row(2, 20), tx1);
+
+        finish(store, tx1, true);
+
+        // An index started on a populated table gets the existing rows.
+        indexes.startHashIndex("hashIdx");
+
+        indexes.buildIndexes(storage);
+
+        assertEquals(Set.of(10, 20), index.entries);
+
+        Timestamp tx2 = begin();
+
+        store.upsert(row(1, 11), tx2);
+
+        finish(store, tx2, true);
+
+        // The old version is kept for the reads as of a timestamp.
+        assertEquals(Set.of(10, 11, 20), index.entries);
+
+        Timestamp tx3 = begin();
+
+        store.upsert(row(2, 21), tx3);
+
+        finish(store, tx3, false);
+
+        // The version of the aborted transaction is removed.
+        assertEquals(Set.of(10, 11, 20), index.entries);
+
+        indexes.dropIndex("hashIdx");
+
+        Timestamp tx4 = begin();
+
+        store.upsert(row(3, 30), tx4);
+
+        finish(store, tx4, true);
+
+        // A dropped index is not maintained anymore.
+        assertEquals(Set.of(10, 11, 20), index.entries);
+    }
+
+    /**
+     * Starts a transaction.
+     *
+     * @return Timestamp of the transaction.
+     */
+    private Timestamp begin() {
+        Timestamp ts = Timestamp.nextVersion();
+
+        txManager.getOrCreateTransaction(ts);
+
+        return ts;
+    }
+
+    /**
+     * Finishes a transaction the way the finish is applied to a partition: changes its state and resolves its versions in the store.
+     *
+     * @param store The store.
+     * @param ts Timestamp of the transaction.
+     * @param commit {@code True} to commit the transaction, {@code false} to abort it.
+     */
+    private void finish(VersionedRowStore store, Timestamp ts, boolean commit) {
+        changeState(ts, commit);
+
+        store.finish(ts, commit ? Timestamp.nextVersion() : null);
+    }
+
+    /**
+     * Changes the state of a transaction, without resolving its versions.
+     *
+     * @param ts Timestamp of the transaction.
+     * @param commit {@code True} to commit the transaction, {@code false} to abort it.
+     */
+    private void changeState(Timestamp ts, boolean commit) {
+        assertTrue(txManager.changeState(ts, TxState.PENDING, commit ? TxState.COMMITED : TxState.ABORTED));
+    }
+
+    /**
+     * Returns the value of a row.
+     *
+     * @param row Row.
+     * @return Value.
+     */
+    private static int value(@Nullable BinaryRow row) {
+        assertNotNull(row);
+
+        return new Row(SCHEMA, row).intValue(1);
+    }
+
+    /**
+     * Creates a key row.
+     *
+     * @param key Key.
+     * @return Row.
+     */
+    private static Row key(int key) {
+        RowAssembler rowBuilder = new RowAssembler(SCHEMA, 0, 0);
+
+        rowBuilder.appendInt(key);
+
+        return new Row(SCHEMA, rowBuilder.build());
+    }
+
+    /**
+     * Creates a row.
+     *
+     * @param key Key.
+     * @param val Value.
+     * @return Row.
+     */
+    private static Row row(int key, int val) {
+        RowAssembler rowBuilder = new RowAssembler(SCHEMA, 0, 0);
+
+        rowBuilder.appendInt(key);
+        rowBuilder.appendInt(val);
+
+        return new Row(SCHEMA, rowBuilder.build());
+    }
+
+    /**
+     * Sorted index storage on the {@code value} column of the test schema, which holds the entries as strings.
+     */
+    private static class TestIndexStorage implements SortedIndexStorage {
+        /** Entries in the {@code value:key} format. */
+        final Set<String> entries = new HashSet<>();
+
+        /** Index descriptor. */
+        private final SortedIndexDescriptor descriptor = mock(SortedIndexDescriptor.class);
+
+        /**
+         * The constructor.
+         */
+        TestIndexStorage() {
+            ColumnDescriptor valueColumn = mock(ColumnDescriptor.class);
+            ColumnDescriptor keyColumn = mock(ColumnDescriptor.class);
+
+            when(valueColumn.column()).thenReturn(SCHEMA.column("value"));
+            when(keyColumn.column()).thenReturn(SCHEMA.column("key"));
+
+            when(descriptor.name()).thenReturn("idx");
+            when(descriptor.indexRowColumns()).thenReturn(List.of(valueColumn, keyColumn));
+        }
+
+        @Override
+        public SortedIndexDescriptor indexDescriptor() {
+            return descriptor;
+        }
+
+        @Override
+        public IndexRowFactory indexRowFactory() {
+            return new IndexRowFactory() {
+                @Override
+                public IndexRow createIndexRow(Object[] columnValues, SearchRow primaryKey) {
+                    byte[] bytes = (columnValues[0] + ":" + columnValues[1]).getBytes(StandardCharsets.UTF_8);
+
+                    return new IndexRow() {
+                        @Override
+                        public byte[] rowBytes() {
+                            return bytes;
+                        }
+
+                        @Override
+                        public SearchRow primaryKey() {
+                            return primaryKey;
+                        }
+                    };
+                }
+
+                @Override
+                public IndexRowPrefix createIndexRowPrefix(Object[] prefixColumnValues) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public IndexRowDeserializer indexRowDeserializer() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void put(IndexRow row) {
+            entries.add(new String(row.rowBytes(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void remove(IndexRow row) {
+            entries.remove(new String(row.rowBytes(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Cursor<IndexRow> range(IndexRowPrefix lowerBound, IndexRowPrefix upperBound) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            // No-op.
+        }
+
+        @Override
+        public void destroy() {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Hash index storage on the {@code value} column of the test schema, which holds the indexed values only.
+     */
+    private static class TestHashIndexStorage implements HashIndexStorage {
+        /** Indexed values. */
+        final Set<Object> entries = new HashSet<>();
+
+        /** Index descriptor. */
+        private final HashIndexDescriptor descriptor = mock(HashIndexDescriptor.class);
+
+        /**
+         * The constructor.
+         */
+        TestHashIndexStorage() {
+            when(descriptor.name()).thenReturn("hashIdx");
+            when(descriptor.indexColumns()).thenReturn(List.of(SCHEMA.column("value")));
+        }
+
+        @Override
+        public HashIndexDescriptor indexDescriptor() {
+            return descriptor;
+        }
+
+        @Override
+        public void put(Object[] columnValues, SearchRow primaryKey) {
+            entries.add(columnValues[0]);
+        }
+
+        @Override
+        public void remove(Object[] columnValues, SearchRow primaryKey) {
+            entries.remove(columnValues[0]);
+        }
+
+        @Override
+        public Cursor<SearchRow> get(Object[] columnValues) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            // No-op.
+        }
+
+        @Override
+        public void destroy() {
+            // No-op, the entries are checked after the index is dropped.
+        }
+    }
+}
@@ -31,8 +31,6 @@ import java.util.function.BiFunction;
 import javax.naming.OperationNotSupportedException;
 import org.apache.ignite.internal.schema.BinaryRow;
 import org.apache.ignite.internal.storage.engine.TableStorage;
-import org.apache.ignite.internal.table.distributed.command.GetAllCommand;
-import org.apache.ignite.internal.table.distributed.command.GetCommand;
 import org.apache.ignite.internal.table.distributed.raft.PartitionListener;
 import org.apache.ignite.internal.table.distributed.storage.InternalTableImpl;
 import org.apache.ignite.internal.table.distributed.storage.VersionedRowStore;
@@ -88,7 +86,7 @@ public class DummyInternalTableImpl extends InternalTableImpl {
                         @Override
                         public Void apply(Void ignored, Throwable err) {
                             if (err == null) {
-                                if (cmd instanceof GetCommand || cmd instanceof GetAllCommand) {
+                                if (cmd instanceof ReadCommand) {
                                     CommandClosure<ReadCommand> clo = new CommandClosure<>() {
                                         @Override
                                         public ReadCommand command() {
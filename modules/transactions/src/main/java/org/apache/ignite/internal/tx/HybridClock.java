@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.tx;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A hybrid logical clock, generates the {@link Timestamp}s of a node.
+ *
+ * <p>The physical part (the wall clock time in milliseconds since {@link Timestamp#EPOCH}, 48 bits) and the logical part (16 bits) of
+ * the clock are packed into a single {@code long}, which is advanced with a CAS, so the clock can be used by any number of threads
+ * without locking. The logical part counts the timestamps generated within the same millisecond, and its overflow carries into the
+ * physical part, so under a heavy load the clock can run slightly ahead of the wall clock until the wall clock catches up.
+ *
+ * <p>To keep the causality across the nodes, the clock must be {@link #update updated} with the timestamps received from other nodes:
+ * every timestamp generated after that is greater than the received one.
+ *
+ * <p>The timestamps identify the transactions, so the clocks of different nodes must never generate equal ones. The node id part of the
+ * timestamps of a clock created without an explicit id is unique within the JVM: its lower {@value #SEQ_BITS} bits are the sequence
+ * number of the clock in the JVM, the upper bits are taken from the consistent id of the node or from the host.
+ */
+public class HybridClock {
+    /** Number of bits of the logical part. */
+    static final int LOGICAL_BITS = 16;
+
+    /** Number of the lower bits of a node id that hold the sequence number of the clock in the JVM. */
+    static final int SEQ_BITS = 16;
+
+    /** Sequence of the clocks created in this JVM without an explicit node id. */
+    private static final AtomicInteger CLOCK_SEQ = new AtomicInteger();
+
+    /** Node id part of the generated timestamps. */
+    private final long nodeId;
+
+    /** Wall clock, returns the time in milliseconds since the Unix epoch. */
+    private final LongSupplier wallClock;
+
+    /** Latest generated or received timestamp, with the physical and logical parts packed together. */
+    private final AtomicLong latest = new AtomicLong();
+
+    /**
+     * Creates a clock with a node id derived from the host, unique within the JVM.
+     */
+    public HybridClock() {
+        this(uniqueNodeId(Timestamp.localNodeId()));
+    }
+
+    /**
+     * Creates a clock of a node with a node id derived from the consistent id of the node, unique within the JVM.
+     *
+     * @param consistentId Consistent id of the node.
+     */
+    public HybridClock(String consistentId) {
+        this(uniqueNodeId(UUID.nameUUIDFromBytes(consistentId.getBytes(UTF_8)).getMostSignificantBits()));
+    }
+
+    /**
+     * Creates a clock.
+     *
+     * @param nodeId Node id part of the generated timestamps.
+     */
+    public HybridClock(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a clock.
+     *
+     * @param nodeId Node id part of the generated timestamps.
+     * @param wallClock Wall clock, returns the time in milliseconds since the Unix epoch.
+     */
+    HybridClock(long nodeId, LongSupplier wallClock) {
+        this.nodeId = nodeId;
+        this.wallClock = wallClock;
+    }
+
+    /**
+     * Generates a new timestamp, which is greater than all the timestamps generated or received by this clock before.
+     *
+     * @return The timestamp.
+     */
+    public Timestamp now() {
+        return new Timestamp(reserve0(1), nodeId);
+    }
+
+    /**
+     * Generates the given number of consecutive timestamps at once, which is cheaper than generating them one by one under contention.
+     *
+     * @param count Number of timestamps.
+     * @return Timestamps in ascending order, greater than all the timestamps generated or received by this clock before.
+     */
+    public Timestamp[] reserve(int count) {
+        assert count > 0 : count;
+
+        long first = reserve0(count);
+
+        Timestamp[] res = new Timestamp[count];
+
+        for (int i = 0; i < count; i++) {
+            res[i] = new Timestamp(first + i, nodeId);
+        }
+
+        return res;
+    }
+
+    /**
+     * Advances the clock with a timestamp received from another node, so all the timestamps generated by this clock after that are
+     * greater than the received one.
+     *
+     * @param received The received timestamp.
+     */
+    public void update(Timestamp received) {
+        long receivedTs = received.getTimestamp();
+
+        while (true) {
+            long prev = latest.get();
+
+            if (receivedTs <= prev || latest.compareAndSet(prev, receivedTs)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Makes a node id unique within the JVM: replaces its lower bits with the next sequence number of the clocks.
+     *
+     * @param base Node id to take the upper bits from.
+     * @return The node id.
+     */
+    static long uniqueNodeId(long base) {
+        long seq = CLOCK_SEQ.getAndIncrement() & ((1L << SEQ_BITS) - 1);
+
+        return (base & (-1L << SEQ_BITS)) | seq;
+    }
+
+    /**
+     * Reserves the given number of consecutive packed timestamps.
+     *
+     * @param count Number of timestamps.
+     * @return First of the reserved timestamps.
+     */
+    private long reserve0(int count) {
+        long physical = (wallClock.getAsLong() - Timestamp.EPOCH) << LOGICAL_BITS;
+
+        while (true) {
+            long prev = latest.get();
+
+            long first = Math.max(prev + 1, physical);
+
+            if (latest.compareAndSet(prev, first + count - 1)) {
+                return first;
+            }
+        }
+    }
+}
@@ -34,6 +34,14 @@ public interface InternalTransaction extends Transaction {
      */
     @NotNull Timestamp timestamp();
 
+    /**
+     * Returns {@code true} for a read-only transaction, which reads the versions committed as of its {@link #timestamp()} without any
+     * locks and is never enlisted into the partitions.
+     *
+     * @return {@code True} if the transaction is read-only.
+     */
+    boolean isReadOnly();
+
     /**
      * Returns a set of enlisted partition groups.
      *
@@ -19,11 +19,15 @@ package org.apache.ignite.internal.tx;
 
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
 /**
  * Lock manager allows to acquire locks in shared and exclusive mode and supports deadlock prevention by timestamp ordering.
  *
+ * <p>Besides the locks of the keys, it keeps the hierarchical locks of the tables and the partitions in the {@link LockMode modes} of
+ * multiple granularity locking. They are kept apart from the locks of the keys, the same object may be used as a key of both kinds.
+ *
  * @see Timestamp
  */
 public interface LockManager {
@@ -65,6 +69,38 @@ public interface LockManager {
      */
     public void tryReleaseShared(Object key, Timestamp timestamp) throws LockException;
 
+    /**
+     * Attempts to acquire a hierarchical lock of a table or a partition in the given mode. If the lock is already held or requested by
+     * the timestamp, it is upgraded to the mode that {@link LockMode#upgrade covers} both modes.
+     *
+     * @param key       The key of a table or a partition.
+     * @param timestamp The timestamp.
+     * @param mode      Lock mode.
+     * @return The future that will be completed when a lock is successfully acquired.
+     * @throws LockException When a lock can't be taken due to possible deadlock.
+     */
+    public CompletableFuture<Void> tryAcquireHierarchical(Object key, Timestamp timestamp, LockMode mode);
+
+    /**
+     * Attempts to release a hierarchical lock of a table or a partition held in any mode. The pending request of the timestamp, if any,
+     * is denied.
+     *
+     * @param key       The key of a table or a partition.
+     * @param timestamp The timestamp.
+     * @throws LockException If the lock is neither held nor requested by the timestamp.
+     */
+    public void tryReleaseHierarchical(Object key, Timestamp timestamp) throws LockException;
+
+    /**
+     * Returns the mode a hierarchical lock is held in by the specified {@code timestamp}.
+     *
+     * @param key       The key of a table or a partition.
+     * @param timestamp The timestamp.
+     * @return The mode or {@code null} if the lock is not held.
+     */
+    @TestOnly
+    public @Nullable LockMode hierarchicalMode(Object key, Timestamp timestamp);
+
     /**
      * Returns a collection of timestamps that is associated with the specified {@code key}.
      *
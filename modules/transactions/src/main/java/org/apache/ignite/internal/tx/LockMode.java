@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.tx;
+
+/**
+ * Mode of a hierarchical lock of a table or a partition.
+ *
+ * <p>A transaction that locks the keys of a partition holds the intention locks of the partition and of its table first: {@link #IS}
+ * for the read locks and {@link #IX} for the write locks of the keys. A lock of the whole partition in the {@link #S} or the {@link #X}
+ * mode implies the locks of all the keys of the partition in the same mode, and conflicts with the intentions of the other transactions
+ * to lock them.
+ *
+ * <p>The compatibility of the modes:
+ * <pre>
+ *        IS   IX   S    X
+ *   IS   +    +    +    -
+ *   IX   +    +    -    -
+ *   S    +    -    +    -
+ *   X    -    -    -    -
+ * </pre>
+ */
+public enum LockMode {
+    /** Intention to lock some keys in the shared mode. */
+    IS,
+
+    /** Intention to lock some keys in the exclusive mode. */
+    IX,
+
+    /** Shared lock of all the keys. */
+    S,
+
+    /** Exclusive lock of all the keys. */
+    X;
+
+    /** Compatibility matrix, by the ordinals of the modes. */
+    private static final boolean[][] COMPATIBLE = {
+            {true, true, true, false},
+            {true, true, false, false},
+            {true, false, true, false},
+            {false, false, false, false}
+    };
+
+    /**
+     * Returns {@code true} if this mode may be held along with another mode by a different transaction.
+     *
+     * @param other The other mode.
+     * @return {@code True} if the modes are compatible.
+     */
+    public boolean isCompatible(LockMode other) {
+        return COMPATIBLE[ordinal()][other.ordinal()];
+    }
+
+    /**
+     * Returns {@code true} if a lock in this mode grants everything a lock in another mode grants.
+     *
+     * @param other The other mode.
+     * @return {@code True} if this mode covers the other one.
+     */
+    public boolean covers(LockMode other) {
+        return this == other || this == X || (this == S && other == IS) || (this == IX && other == IS);
+    }
+
+    /**
+     * Returns the weakest mode that covers both this and another mode, a lock is upgraded to it when it is requested again in a different
+     * mode.
+     *
+     * @param other The other mode.
+     * @return The mode that covers both modes.
+     */
+    public LockMode upgrade(LockMode other) {
+        if (covers(other)) {
+            return this;
+        }
+
+        // There is no SIX mode, so a shared lock with an intention to write is exclusive.
+        return other.covers(this) ? other : X;
+    }
+
+    /**
+     * Returns the intention mode of the parent of a lock in this mode.
+     *
+     * @return {@link #IS} for the shared modes, {@link #IX} for the exclusive ones.
+     */
+    public LockMode intention() {
+        return this == IS || this == S ? IS : IX;
+    }
+}
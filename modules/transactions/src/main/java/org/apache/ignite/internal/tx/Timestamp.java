@@ -21,7 +21,6 @@ import java.io.Serializable;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.nio.ByteBuffer;
-import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.UUID;
@@ -41,19 +40,16 @@ public class Timestamp implements Comparable<Timestamp>, Serializable {
     private static final long serialVersionUID = 1L;
 
     /** Epoch start for the generation purposes. */
-    private static final long EPOCH = LocalDateTime.of(2021, 1, 1, 0, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+    static final long EPOCH = LocalDateTime.of(2021, 1, 1, 0, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
 
     /** A max value for a counter before rollover. */
     public static final short MAX_CNT = Short.MAX_VALUE;
 
-    /** Local time. */
-    private static long localTime;
-
-    /** The counter. */
-    private static long cntr;
-
     /** Local node id. */
-    private static long localNodeId = getLocalNodeId();
+    private static final long LOCAL_NODE_ID = getLocalNodeId();
+
+    /** Clock of {@link #nextVersion()}, shared by all the nodes started in this JVM which are not given their own clocks. */
+    private static final HybridClock DEFAULT_CLOCK = new HybridClock();
 
     /** The offset and counter part of a timestamp. */
     private final long timestamp;
@@ -115,46 +111,40 @@ public class Timestamp implements Comparable<Timestamp>, Serializable {
     }
 
     /**
-     * Generates new monotonically increasing timestamp.
-     * TODO https://issues.apache.org/jira/browse/IGNITE-15129
+     * Generates new monotonically increasing timestamp with the {@link #defaultClock() default clock}.
      *
      * @return Next timestamp (monotonically increasing).
      */
-    public static synchronized Timestamp nextVersion() {
-        long timestamp = Clock.systemUTC().instant().toEpochMilli() - EPOCH;
-
-        long newTime = Math.max(localTime, timestamp);
-
-        if (newTime == localTime) {
-            cntr = (cntr + 1) & 0xFFFF;
-
-            if (cntr == 0) {
-                newTime = waitForNextMillisecond(newTime);
-            }
-        } else {
-            cntr = 0;
-        }
-
-        localTime = newTime;
-
-        // Will overflow in a late future.
-        return new Timestamp(newTime << 16 | cntr, localNodeId);
+    public static Timestamp nextVersion() {
+        return DEFAULT_CLOCK.now();
     }
 
     /**
-     * Waits until a time will pass after a timestamp.
+     * Returns the clock shared by all the nodes started in this JVM which are not given their own clocks.
      *
-     * @param lastTimestamp The timestamp.
-     * @return New timestamp.
+     * @return The clock.
      */
-    private static long waitForNextMillisecond(long lastTimestamp) {
-        long timestamp;
+    public static HybridClock defaultClock() {
+        return DEFAULT_CLOCK;
+    }
 
-        do {
-            timestamp = Clock.systemUTC().instant().toEpochMilli() - EPOCH;
-        } while (timestamp <= lastTimestamp); // Wall clock can go backward.
+    /**
+     * Returns a timestamp that is less than any timestamp generated at the given wall clock time or later.
+     *
+     * @param millis Wall clock time in milliseconds since the Unix epoch.
+     * @return The timestamp.
+     */
+    public static Timestamp minForTime(long millis) {
+        return new Timestamp(Math.max(millis - EPOCH, 0) << 16, Long.MIN_VALUE);
+    }
 
-        return timestamp;
+    /**
+     * Returns the wall clock time the timestamp has been generated at, the inverse of {@link #minForTime}.
+     *
+     * @return Wall clock time in milliseconds since the Unix epoch.
+     */
+    public long physicalTime() {
+        return (timestamp >>> 16) + EPOCH;
     }
 
     /** {@inheritDoc} */
@@ -163,6 +153,15 @@ public class Timestamp implements Comparable<Timestamp>, Serializable {
         return new UUID(timestamp, nodeId).toString();
     }
 
+    /**
+     * Returns the local node id.
+     *
+     * @return Local node id as a long value.
+     */
+    static long localNodeId() {
+        return LOCAL_NODE_ID;
+    }
+
     /**
      * Generates a local node id.
      *
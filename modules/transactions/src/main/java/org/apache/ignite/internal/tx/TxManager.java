@@ -37,6 +37,45 @@ public interface TxManager extends IgniteComponent {
      */
     InternalTransaction begin();
 
+    /**
+     * Starts a read-only transaction coordinated by a local node. Such a transaction reads the versions committed as of its timestamp
+     * without any locks, there is no state kept for it and no finish step.
+     *
+     * @return The transaction.
+     */
+    InternalTransaction beginReadOnly();
+
+    /**
+     * Starts a one-phase transaction coordinated by a local node. Such a transaction is a single command applied and committed at once by
+     * a single partition, so there is no state kept for it and no finish step.
+     *
+     * @return The timestamp of the transaction.
+     */
+    Timestamp beginOnePhase();
+
+    /**
+     * Finishes a one-phase transaction on a partition replica after its command has been applied or has failed to acquire the locks:
+     * releases the locks acquired by the transaction on a local node, if any.
+     *
+     * @param ts The timestamp.
+     */
+    void finishOnePhase(Timestamp ts);
+
+    /**
+     * Generates a commit timestamp on a local node: it is greater than all the timestamps the node has generated or seen so far, so a
+     * transaction committed with it comes after all the versions and the reads the node knows of.
+     *
+     * @return The commit timestamp.
+     */
+    Timestamp commitTimestamp();
+
+    /**
+     * Advances the clock of a local node past a timestamp the node has seen, so that the timestamps it generates later are greater.
+     *
+     * @param ts The timestamp.
+     */
+    void updateClock(Timestamp ts);
+
     /**
      * Returns a transaction state.
      *
@@ -79,26 +118,49 @@ public interface TxManager extends IgniteComponent {
     CompletableFuture<Void> rollbackAsync(Timestamp ts);
 
     /**
-     * Acqures a write lock.
+     * Acqures a write lock of a key of a partition, along with the intention locks of the partition and the table. Once the transaction
+     * holds more than {@link #lockEscalationThreshold()} key locks in the partition, the whole partition is locked instead.
      *
      * @param lockId  Table ID.
+     * @param partId  Partition ID.
      * @param keyData The key data.
      * @param ts      The timestamp.
      * @return The future.
      * @throws LockException When a lock can't be taken due to possible deadlock.
      */
-    public CompletableFuture<Void> writeLock(IgniteUuid lockId, ByteBuffer keyData, Timestamp ts);
+    public CompletableFuture<Void> writeLock(IgniteUuid lockId, int partId, ByteBuffer keyData, Timestamp ts);
 
     /**
-     * Acqures a read lock.
+     * Acqures a read lock of a key of a partition, along with the intention locks of the partition and the table. Once the transaction
+     * holds more than {@link #lockEscalationThreshold()} key locks in the partition, the whole partition is locked instead.
      *
      * @param lockId  Lock id.
+     * @param partId  Partition ID.
      * @param keyData The key data.
      * @param ts      The timestamp.
      * @return The future.
      * @throws LockException When a lock can't be taken due to possible deadlock.
      */
-    public CompletableFuture<Void> readLock(IgniteUuid lockId, ByteBuffer keyData, Timestamp ts);
+    public CompletableFuture<Void> readLock(IgniteUuid lockId, int partId, ByteBuffer keyData, Timestamp ts);
+
+    /**
+     * Acquires a lock of a whole partition, which implies the locks of all its keys, along with the intention lock of the table.
+     *
+     * @param lockId Lock id.
+     * @param partId Partition ID.
+     * @param read   {@code True} for a shared lock, {@code false} for an exclusive one.
+     * @param ts     The timestamp.
+     * @return The future.
+     * @throws LockException When a lock can't be taken due to possible deadlock.
+     */
+    public CompletableFuture<Void> partitionLock(IgniteUuid lockId, int partId, boolean read, Timestamp ts);
+
+    /**
+     * Returns the number of key locks a transaction may hold in a partition, the whole partition is locked instead of the next keys.
+     *
+     * @return Lock escalation threshold.
+     */
+    public int lockEscalationThreshold();
 
     /**
      * Returns a transaction state or starts a new in the PENDING state.
@@ -110,14 +172,16 @@ public interface TxManager extends IgniteComponent {
     TxState getOrCreateTransaction(Timestamp ts);
 
     /**
-     * Finishes a dependant remote transactions.
+     * Finishes a transaction on the partition groups led by a node, which may be the local one. The finishes of the transactions that
+     * are finished concurrently on the same node are coalesced into a single request.
      *
-     * @param ts     The timestamp.
-     * @param addr   The address.
-     * @param commit {@code True} if a commit requested.
-     * @param groups Enlisted partition groups.
+     * @param ts       The timestamp.
+     * @param addr     The address.
+     * @param commitTs The commit timestamp, {@code null} for a rollback.
+     * @param groups   Enlisted partition groups led by the node.
+     * @return The future.
      */
-    CompletableFuture<Void> finishRemote(NetworkAddress addr, Timestamp ts, boolean commit, Set<String> groups);
+    CompletableFuture<Void> finishRemote(NetworkAddress addr, Timestamp ts, @Nullable Timestamp commitTs, Set<String> groups);
 
     /**
      * Checks if a passed address belongs to a local node.
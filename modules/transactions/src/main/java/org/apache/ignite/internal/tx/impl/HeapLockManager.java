@@ -29,6 +29,7 @@ import org.apache.ignite.internal.tostring.IgniteToStringExclude;
 import org.apache.ignite.internal.tostring.S;
 import org.apache.ignite.internal.tx.LockException;
 import org.apache.ignite.internal.tx.LockManager;
+import org.apache.ignite.internal.tx.LockMode;
 import org.apache.ignite.internal.tx.Timestamp;
 import org.apache.ignite.internal.tx.Waiter;
 import org.jetbrains.annotations.NotNull;
@@ -60,6 +61,9 @@ import org.jetbrains.annotations.Nullable;
 public class HeapLockManager implements LockManager {
     private ConcurrentHashMap<Object, LockState> locks = new ConcurrentHashMap<>();
 
+    /** Hierarchical locks of the tables and the partitions. */
+    private final HierarchicalLocks hierarchicalLocks = new HierarchicalLocks();
+
     /** {@inheritDoc} */
     @Override
     public CompletableFuture<Void> tryAcquire(Object key, Timestamp timestamp) {
@@ -114,6 +118,24 @@ public class HeapLockManager implements LockManager {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> tryAcquireHierarchical(Object key, Timestamp timestamp, LockMode mode) {
+        return hierarchicalLocks.tryAcquire(key, timestamp, mode);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tryReleaseHierarchical(Object key, Timestamp timestamp) throws LockException {
+        hierarchicalLocks.tryRelease(key, timestamp);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @Nullable LockMode hierarchicalMode(Object key, Timestamp timestamp) {
+        return hierarchicalLocks.mode(key, timestamp);
+    }
+
     /**
      * Returns the lock state for the key.
      *
@@ -500,6 +522,6 @@ public class HeapLockManager implements LockManager {
     /** {@inheritDoc} */
     @Override
     public boolean isEmpty() {
-        return locks.isEmpty();
+        return locks.isEmpty() && hierarchicalLocks.isEmpty();
     }
 }
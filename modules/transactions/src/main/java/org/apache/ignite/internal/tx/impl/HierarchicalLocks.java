@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.tx.impl;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.ignite.internal.tx.LockException;
+import org.apache.ignite.internal.tx.LockManager;
+import org.apache.ignite.internal.tx.LockMode;
+import org.apache.ignite.internal.tx.Timestamp;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The hierarchical locks of the tables and the partitions, which are kept by the {@link LockManager} implementations apart from the locks
+ * of the keys. There are few of them, so every lock is a plain object in a concurrent map, guarded by its own monitor.
+ *
+ * <p>A timestamp holds a lock in a single {@link LockMode mode}, a repeated request in another mode upgrades the lock to the mode that
+ * covers both of them. The deadlocks are prevented by the same rule as for the locks of the keys: a request waits for the older holders
+ * of the conflicting modes and is denied if a conflicting mode is held by a younger one. A request doesn't overtake the older waiting
+ * requests of the conflicting modes.
+ */
+class HierarchicalLocks {
+    /** Future of the locks that are granted right away. */
+    private static final CompletableFuture<Void> GRANTED = completedFuture(null);
+
+    /** The locks. */
+    private final ConcurrentHashMap<Object, LockState> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Attempts to acquire a lock in the given mode.
+     *
+     * @param key The key of a table or a partition.
+     * @param timestamp The timestamp.
+     * @param mode Lock mode.
+     * @return The future that will be completed when the lock is acquired.
+     */
+    CompletableFuture<Void> tryAcquire(Object key, Timestamp timestamp, LockMode mode) {
+        while (true) {
+            LockState state = locks.computeIfAbsent(key, k -> new LockState());
+
+            Request granted = null;
+            CompletableFuture<Void> res;
+
+            synchronized (state) {
+                if (state.removed) {
+                    continue; // Obsolete state.
+                }
+
+                Request pending = state.waiters.get(timestamp);
+                LockMode held = state.holders.get(timestamp);
+
+                if (pending != null) {
+                    if (pending.mode.covers(mode)) {
+                        return pending.fut;
+                    }
+
+                    mode = pending.mode.upgrade(mode);
+                } else if (held != null) {
+                    if (held.covers(mode)) {
+                        return GRANTED;
+                    }
+
+                    mode = held.upgrade(mode);
+                }
+
+                boolean wait = false;
+
+                for (Map.Entry<Timestamp, LockMode> e : state.holders.entrySet()) {
+                    if (e.getKey().equals(timestamp) || e.getValue().isCompatible(mode)) {
+                        continue;
+                    }
+
+                    // If a younger holder has a conflicting mode, refuse to wait for the lock.
+                    if (e.getKey().compareTo(timestamp) > 0) {
+                        return failedFuture(new LockException("Failed to acquire a lock due to a conflict with: [timestamp="
+                                + e.getKey() + ", mode=" + e.getValue() + ']'));
+                    }
+
+                    wait = true;
+                }
+
+                if (!wait) {
+                    wait = !compatible(state.waiters.headMap(timestamp, false).values().iterator(), mode);
+                }
+
+                if (wait) {
+                    if (pending == null) {
+                        pending = new Request();
+
+                        state.waiters.put(timestamp, pending);
+                    }
+
+                    pending.mode = mode;
+
+                    return pending.fut;
+                }
+
+                state.holders.put(timestamp, mode);
+
+                if (pending != null) {
+                    state.waiters.remove(timestamp);
+
+                    granted = pending;
+                }
+
+                res = granted == null ? GRANTED : granted.fut;
+            }
+
+            // Notify outside the monitor.
+            if (granted != null) {
+                granted.fut.complete(null);
+            }
+
+            return res;
+        }
+    }
+
+    /**
+     * Releases a lock held in any mode, and denies the pending request of the timestamp, if any.
+     *
+     * @param key The key of a table or a partition.
+     * @param timestamp The timestamp.
+     * @throws LockException If the lock is neither held nor requested by the timestamp.
+     */
+    void tryRelease(Object key, Timestamp timestamp) throws LockException {
+        LockState state = locks.get(key);
+
+        if (state == null) {
+            throw new LockException("Not locked by " + timestamp);
+        }
+
+        List<Request> granted = new ArrayList<>();
+        Request denied;
+
+        synchronized (state) {
+            LockMode held = state.holders.remove(timestamp);
+
+            denied = state.waiters.remove(timestamp);
+
+            if (held == null && denied == null) {
+                throw new LockException("Not locked by " + timestamp);
+            }
+
+            // Grant the waiting requests that don't conflict with the holders and the older waiting requests.
+            for (Iterator<Map.Entry<Timestamp, Request>> it = state.waiters.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Timestamp, Request> e = it.next();
+
+                Request req = e.getValue();
+
+                if (compatible(state.holders, e.getKey(), req.mode)
+                        && compatible(state.waiters.headMap(e.getKey(), false).values().iterator(), req.mode)) {
+                    state.holders.put(e.getKey(), req.mode);
+
+                    it.remove();
+
+                    granted.add(req);
+                }
+            }
+
+            if (state.holders.isEmpty() && state.waiters.isEmpty()) {
+                state.removed = true;
+
+                locks.remove(key, state);
+            }
+        }
+
+        // Notify outside the monitor.
+        for (Request req : granted) {
+            req.fut.complete(null);
+        }
+
+        if (denied != null) {
+            denied.fut.completeExceptionally(new LockException("The lock request is released before being granted: " + timestamp));
+        }
+    }
+
+    /**
+     * Returns the mode a lock is held in.
+     *
+     * @param key The key of a table or a partition.
+     * @param timestamp The timestamp.
+     * @return The mode or {@code null} if the lock is not held by the timestamp.
+     */
+    @Nullable LockMode mode(Object key, Timestamp timestamp) {
+        LockState state = locks.get(key);
+
+        if (state == null) {
+            return null;
+        }
+
+        synchronized (state) {
+            return state.holders.get(timestamp);
+        }
+    }
+
+    /**
+     * Returns {@code true} if no locks are held or requested.
+     *
+     * @return {@code True} if there are no locks.
+     */
+    boolean isEmpty() {
+        return locks.isEmpty();
+    }
+
+    /**
+     * Checks a mode against the holders of a lock.
+     *
+     * @param holders The holders.
+     * @param timestamp The timestamp of the mode, its own holding is skipped.
+     * @param mode The mode.
+     * @return {@code True} if the mode is compatible with the modes of the other holders.
+     */
+    private static boolean compatible(Map<Timestamp, LockMode> holders, Timestamp timestamp, LockMode mode) {
+        for (Map.Entry<Timestamp, LockMode> e : holders.entrySet()) {
+            if (!e.getKey().equals(timestamp) && !e.getValue().isCompatible(mode)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks a mode against the waiting requests.
+     *
+     * @param waiters The waiting requests.
+     * @param mode The mode.
+     * @return {@code True} if the mode is compatible with the modes of all the requests.
+     */
+    private static boolean compatible(Iterator<Request> waiters, LockMode mode) {
+        while (waiters.hasNext()) {
+            if (!waiters.next().mode.isCompatible(mode)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * A lock state, guarded by its monitor.
+     */
+    private static class LockState {
+        /** Modes of the holders. */
+        private final Map<Timestamp, LockMode> holders = new TreeMap<>();
+
+        /** Waiting requests, ordered from oldest to youngest. */
+        private final TreeMap<Timestamp, Request> waiters = new TreeMap<>();
+
+        /** {@code True} if the state has been removed from the map and must not be used anymore. */
+        private boolean removed;
+    }
+
+    /**
+     * A waiting request.
+     */
+    private static class Request {
+        /** Future that is completed when the lock is granted. */
+        private final CompletableFuture<Void> fut = new CompletableFuture<>();
+
+        /** Requested mode, which covers the mode held by the same timestamp, if any. */
+        private LockMode mode;
+    }
+}
@@ -55,4 +55,16 @@ public class IgniteTransactionsImpl implements IgniteTransactions {
     public CompletableFuture<Transaction> beginAsync() {
         return CompletableFuture.completedFuture(txManager.begin());
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public Transaction beginReadOnly() {
+        return txManager.beginReadOnly();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Transaction> beginReadOnlyAsync() {
+        return CompletableFuture.completedFuture(txManager.beginReadOnly());
+    }
 }
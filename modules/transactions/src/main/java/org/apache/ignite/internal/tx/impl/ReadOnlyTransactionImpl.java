@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.tx.impl;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.apache.ignite.internal.tx.InternalTransaction;
+import org.apache.ignite.internal.tx.Timestamp;
+import org.apache.ignite.internal.tx.TxState;
+import org.apache.ignite.raft.client.service.RaftGroupService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A read-only transaction: reads the versions committed as of its timestamp without any locks.
+ *
+ * <p>It is never enlisted into the partitions and has no state, so its commit and rollback complete right away.
+ */
+public class ReadOnlyTransactionImpl implements InternalTransaction {
+    /** The read timestamp. */
+    private @NotNull final Timestamp timestamp;
+
+    /**
+     * The constructor.
+     *
+     * @param timestamp The read timestamp.
+     */
+    public ReadOnlyTransactionImpl(@NotNull Timestamp timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /** {@inheritDoc} */
+    @NotNull
+    @Override
+    public Timestamp timestamp() {
+        return timestamp;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<RaftGroupService> enlisted() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Returns {@code null}, no state is kept for a read-only transaction.
+     *
+     * @return {@code null}.
+     */
+    @Nullable
+    @Override
+    public TxState state() {
+        return null;
+    }
+
+    /**
+     * Does nothing, a read-only transaction is never enlisted.
+     *
+     * @param svc Partition service.
+     * @return {@code False}.
+     */
+    @Override
+    public boolean enlist(RaftGroupService svc) {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void commit() {
+        // No-op.
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> commitAsync() {
+        return completedFuture(null);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void rollback() {
+        // No-op.
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> rollbackAsync() {
+        return completedFuture(null);
+    }
+}
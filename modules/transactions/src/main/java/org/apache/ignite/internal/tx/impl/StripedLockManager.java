@@ -0,0 +1,766 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.tx.impl;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.ignite.internal.tostring.IgniteToStringExclude;
+import org.apache.ignite.internal.tostring.S;
+import org.apache.ignite.internal.tx.LockException;
+import org.apache.ignite.internal.tx.LockManager;
+import org.apache.ignite.internal.tx.LockMode;
+import org.apache.ignite.internal.tx.Timestamp;
+import org.apache.ignite.internal.tx.Waiter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link LockManager} implementation with the same locking rules as the {@link HeapLockManager}, which is optimized for a low
+ * allocation rate.
+ *
+ * <p>The keys are distributed between a fixed number of stripes, each stripe is an open-addressing hash table of the lock queues,
+ * which is guarded by the monitor of the stripe. A lock queue keeps its waiters in a sorted array, which holds a single waiter until
+ * there is a contention for the key. The lock queues and the waiters are pooled by the stripes, and the futures of the waiters are only
+ * created when the lock can't be granted right away.
+ */
+public class StripedLockManager implements LockManager {
+    /** Future of the locks that are granted right away. */
+    private static final CompletableFuture<Void> GRANTED = completedFuture(null);
+
+    /** Maximum number of the pooled lock queues and waiters of a stripe. */
+    private static final int POOL_SIZE = 64;
+
+    /** Initial capacity of the hash table of a stripe. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Stripes. */
+    private final Stripe[] stripes;
+
+    /** Number of bits of a key hash that select a stripe. */
+    private final int stripeBits;
+
+    /** Hierarchical locks of the tables and the partitions, there are few of them, so they are not striped. */
+    private final HierarchicalLocks hierarchicalLocks = new HierarchicalLocks();
+
+    /**
+     * Creates a lock manager with four stripes per processor.
+     */
+    public StripedLockManager() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a lock manager.
+     *
+     * @param stripes Number of stripes, is rounded up to a power of two.
+     */
+    public StripedLockManager(int stripes) {
+        assert stripes > 0 : stripes;
+
+        stripeBits = 32 - Integer.numberOfLeadingZeros(stripes - 1);
+
+        this.stripes = new Stripe[1 << stripeBits];
+
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> tryAcquire(Object key, Timestamp timestamp) {
+        int hash = hash(key);
+
+        Stripe stripe = stripe(hash);
+
+        synchronized (stripe) {
+            LockQueue queue = stripe.getOrCreate(key, hash);
+
+            int idx = queue.indexOf(timestamp);
+
+            WaiterImpl prev = idx >= 0 ? queue.waiters[idx] : null;
+
+            if (prev != null && !prev.locked) {
+                // Already waiting for the lock.
+                return prev.future();
+            }
+
+            if (prev != null && !prev.forRead) {
+                // Reenter.
+                return GRANTED;
+            }
+
+            WaiterImpl waiter = stripe.waiter(timestamp, false);
+
+            if (prev != null) {
+                // Upgrade.
+                waiter.upgraded = true;
+
+                queue.waiters[idx] = waiter;
+            } else {
+                idx = -idx - 1;
+
+                queue.insert(idx, waiter);
+            }
+
+            WaiterImpl next = idx + 1 < queue.size ? queue.waiters[idx + 1] : null;
+
+            // If we have a younger waiter in a locked state, when refuse to wait for lock.
+            if (next != null && next.locked) {
+                if (prev == null) {
+                    queue.removeAt(idx);
+                } else {
+                    queue.waiters[idx] = prev; // Restore old lock.
+                }
+
+                stripe.recycle(waiter);
+
+                return failedFuture(new LockException(next));
+            }
+
+            if (prev != null) {
+                stripe.recycle(prev);
+            }
+
+            // Lock if oldest.
+            if (idx == 0) {
+                waiter.locked = true;
+
+                return GRANTED;
+            }
+
+            return waiter.future();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tryRelease(Object key, Timestamp timestamp) throws LockException {
+        int hash = hash(key);
+
+        Stripe stripe = stripe(hash);
+
+        List<CompletableFuture<Void>> granted = null;
+        List<CompletableFuture<Void>> failed = null;
+
+        LockException failure = null;
+
+        synchronized (stripe) {
+            LockQueue queue = stripe.get(key, hash);
+
+            WaiterImpl first = queue == null ? null : queue.waiters[0];
+
+            if (first == null || !first.timestamp.equals(timestamp) || !first.locked || first.forRead) {
+                throw new LockException("Not exclusively locked by " + timestamp);
+            }
+
+            queue.removeAt(0);
+
+            if (queue.size == 0) {
+                stripe.release(queue);
+                stripe.recycle(first);
+
+                return;
+            }
+
+            // Lock next waiter(s).
+            WaiterImpl waiter = queue.waiters[0];
+
+            if (!waiter.forRead && !waiter.upgraded) {
+                waiter.locked = true;
+
+                granted = add(granted, waiter.fut);
+            } else {
+                // Grant lock to all adjacent readers.
+                for (int i = 0; i < queue.size; i++) {
+                    WaiterImpl tmp = queue.waiters[i];
+
+                    if (tmp.upgraded) {
+                        // Fail upgraded waiters because of write.
+                        assert !tmp.locked;
+
+                        // Downgrade to acquired read lock.
+                        tmp.upgraded = false;
+                        tmp.forRead = true;
+                        tmp.locked = true;
+
+                        if (failure == null) {
+                            failure = new LockException(first);
+                        }
+
+                        failed = add(failed, tmp.fut);
+
+                        tmp.fut = null;
+                    } else if (!tmp.forRead) {
+                        break;
+                    } else {
+                        tmp.locked = true;
+
+                        granted = add(granted, tmp.fut);
+                    }
+                }
+            }
+
+            stripe.recycle(first);
+        }
+
+        // Notify outside the monitor.
+        if (granted != null) {
+            for (CompletableFuture<Void> fut : granted) {
+                fut.complete(null);
+            }
+        }
+
+        if (failed != null) {
+            for (CompletableFuture<Void> fut : failed) {
+                fut.completeExceptionally(failure);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> tryAcquireShared(Object key, Timestamp timestamp) {
+        int hash = hash(key);
+
+        Stripe stripe = stripe(hash);
+
+        synchronized (stripe) {
+            LockQueue queue = stripe.getOrCreate(key, hash);
+
+            int idx = queue.indexOf(timestamp);
+
+            if (idx >= 0) {
+                WaiterImpl prev = queue.waiters[idx];
+
+                // Allow reenter. A write lock implies a read lock.
+                return prev.locked ? GRANTED : prev.future();
+            }
+
+            idx = -idx - 1;
+
+            WaiterImpl waiter = stripe.waiter(timestamp, true);
+
+            queue.insert(idx, waiter);
+
+            // Check lock compatibility.
+            WaiterImpl next = idx + 1 < queue.size ? queue.waiters[idx + 1] : null;
+
+            if (next != null && next.locked && !next.forRead) {
+                queue.removeAt(idx);
+
+                stripe.recycle(waiter);
+
+                return failedFuture(new LockException(next));
+            }
+
+            WaiterImpl prev = idx > 0 ? queue.waiters[idx - 1] : null;
+
+            // Grant read lock if previous entry is read-locked (by induction).
+            if (prev == null || (prev.forRead && prev.locked)) {
+                waiter.locked = true;
+
+                return GRANTED;
+            }
+
+            return waiter.future();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tryReleaseShared(Object key, Timestamp timestamp) throws LockException {
+        int hash = hash(key);
+
+        Stripe stripe = stripe(hash);
+
+        CompletableFuture<Void> granted = null;
+
+        synchronized (stripe) {
+            LockQueue queue = stripe.get(key, hash);
+
+            int idx = queue == null ? -1 : queue.indexOf(timestamp);
+
+            WaiterImpl waiter = idx >= 0 ? queue.waiters[idx] : null;
+
+            if (waiter == null || !waiter.locked || !waiter.forRead) {
+                throw new LockException("Not shared locked by " + timestamp);
+            }
+
+            queue.removeAt(idx);
+
+            stripe.recycle(waiter);
+
+            if (queue.size == 0) {
+                stripe.release(queue);
+            } else if (idx < queue.size) {
+                // Lock next exclusive waiter.
+                WaiterImpl next = queue.waiters[idx];
+
+                if (!next.forRead && idx == 0) {
+                    next.locked = true;
+
+                    granted = next.fut;
+                }
+            }
+        }
+
+        if (granted != null) {
+            granted.complete(null);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> tryAcquireHierarchical(Object key, Timestamp timestamp, LockMode mode) {
+        return hierarchicalLocks.tryAcquire(key, timestamp, mode);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void tryReleaseHierarchical(Object key, Timestamp timestamp) throws LockException {
+        hierarchicalLocks.tryRelease(key, timestamp);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @Nullable LockMode hierarchicalMode(Object key, Timestamp timestamp) {
+        return hierarchicalLocks.mode(key, timestamp);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Collection<Timestamp> queue(Object key) {
+        int hash = hash(key);
+
+        Stripe stripe = stripe(hash);
+
+        synchronized (stripe) {
+            LockQueue queue = stripe.get(key, hash);
+
+            List<Timestamp> res = new ArrayList<>(queue == null ? 0 : queue.size);
+
+            for (int i = 0; queue != null && i < queue.size; i++) {
+                res.add(queue.waiters[i].timestamp);
+            }
+
+            return res;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Waiter waiter(Object key, Timestamp timestamp) {
+        int hash = hash(key);
+
+        Stripe stripe = stripe(hash);
+
+        synchronized (stripe) {
+            LockQueue queue = stripe.get(key, hash);
+
+            int idx = queue == null ? -1 : queue.indexOf(timestamp);
+
+            // Return a copy, the waiters are reused after being released.
+            return idx >= 0 ? queue.waiters[idx].copy() : null;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isEmpty() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.size != 0) {
+                    return false;
+                }
+            }
+        }
+
+        return hierarchicalLocks.isEmpty();
+    }
+
+    /**
+     * Returns the stripe of a key hash.
+     *
+     * @param hash Key hash.
+     * @return The stripe.
+     */
+    private Stripe stripe(int hash) {
+        // The high bits select a stripe and the low bits select a slot of the hash table of the stripe.
+        return stripeBits == 0 ? stripes[0] : stripes[hash >>> (32 - stripeBits)];
+    }
+
+    /**
+     * Spreads the hash code of a key.
+     *
+     * @param key The key.
+     * @return Key hash.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Adds a future to a lazily created list, skipping the {@code null} futures of the waiters that have never waited.
+     */
+    private static List<CompletableFuture<Void>> add(@Nullable List<CompletableFuture<Void>> list, @Nullable CompletableFuture<Void> fut) {
+        if (fut == null) {
+            return list;
+        }
+
+        if (list == null) {
+            list = new ArrayList<>(1);
+        }
+
+        list.add(fut);
+
+        return list;
+    }
+
+    /**
+     * A stripe: open-addressing hash table of the lock queues with linear probing, and the pools of the lock queues and the waiters. All
+     * the methods must be called under the monitor of the stripe.
+     */
+    private static class Stripe {
+        /** Hash table. */
+        private LockQueue[] table = new LockQueue[INITIAL_CAPACITY];
+
+        /** Number of the lock queues in the table. */
+        private int size;
+
+        /** Pooled lock queues. */
+        private final LockQueue[] queuePool = new LockQueue[POOL_SIZE];
+
+        /** Number of the pooled lock queues. */
+        private int queuePoolSize;
+
+        /** Pooled waiters. */
+        private final WaiterImpl[] waiterPool = new WaiterImpl[POOL_SIZE];
+
+        /** Number of the pooled waiters. */
+        private int waiterPoolSize;
+
+        /**
+         * Returns the lock queue of a key.
+         *
+         * @param key The key.
+         * @param hash Key hash.
+         * @return The lock queue or {@code null} if the key is not locked.
+         */
+        @Nullable LockQueue get(Object key, int hash) {
+            int mask = table.length - 1;
+
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                LockQueue queue = table[i];
+
+                if (queue == null) {
+                    return null;
+                }
+
+                if (queue.hash == hash && queue.key.equals(key)) {
+                    return queue;
+                }
+            }
+        }
+
+        /**
+         * Returns the lock queue of a key, creating an empty one if the key is not locked.
+         *
+         * @param key The key.
+         * @param hash Key hash.
+         * @return The lock queue.
+         */
+        LockQueue getOrCreate(Object key, int hash) {
+            int mask = table.length - 1;
+
+            int i = hash & mask;
+
+            for (; table[i] != null; i = (i + 1) & mask) {
+                LockQueue queue = table[i];
+
+                if (queue.hash == hash && queue.key.equals(key)) {
+                    return queue;
+                }
+            }
+
+            LockQueue queue = queuePoolSize == 0 ? new LockQueue() : queuePool[--queuePoolSize];
+
+            queue.key = key;
+            queue.hash = hash;
+
+            table[i] = queue;
+
+            // Keep the load factor under 0.5, so the probe sequences stay short.
+            if (++size * 2 > table.length) {
+                resize();
+            }
+
+            return queue;
+        }
+
+        /**
+         * Removes an empty lock queue from the table and returns it to the pool.
+         *
+         * @param queue The lock queue.
+         */
+        void release(LockQueue queue) {
+            assert queue.size == 0;
+
+            int mask = table.length - 1;
+
+            int i = queue.hash & mask;
+
+            while (table[i] != queue) {
+                i = (i + 1) & mask;
+            }
+
+            // Shift back the following entries of the probe sequence, so no tombstones are needed.
+            for (int j = (i + 1) & mask; table[j] != null; j = (j + 1) & mask) {
+                int home = table[j].hash & mask;
+
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    table[i] = table[j];
+
+                    i = j;
+                }
+            }
+
+            table[i] = null;
+
+            size--;
+
+            queue.key = null;
+
+            if (queuePoolSize < POOL_SIZE) {
+                queuePool[queuePoolSize++] = queue;
+            }
+        }
+
+        /**
+         * Returns a waiter from the pool or a new one.
+         *
+         * @param timestamp The timestamp.
+         * @param forRead {@code True} to request a read lock.
+         * @return The waiter.
+         */
+        WaiterImpl waiter(Timestamp timestamp, boolean forRead) {
+            WaiterImpl waiter = waiterPoolSize == 0 ? new WaiterImpl() : waiterPool[--waiterPoolSize];
+
+            waiter.timestamp = timestamp;
+            waiter.forRead = forRead;
+
+            return waiter;
+        }
+
+        /**
+         * Returns a waiter, which has been removed from its lock queue, to the pool.
+         *
+         * @param waiter The waiter.
+         */
+        void recycle(WaiterImpl waiter) {
+            waiter.timestamp = null;
+            waiter.forRead = false;
+            waiter.upgraded = false;
+            waiter.locked = false;
+            waiter.fut = null;
+
+            if (waiterPoolSize < POOL_SIZE) {
+                waiterPool[waiterPoolSize++] = waiter;
+            }
+        }
+
+        /**
+         * Doubles the capacity of the hash table.
+         */
+        private void resize() {
+            LockQueue[] oldTable = table;
+
+            table = new LockQueue[oldTable.length * 2];
+
+            int mask = table.length - 1;
+
+            for (LockQueue queue : oldTable) {
+                if (queue != null) {
+                    int i = queue.hash & mask;
+
+                    while (table[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+
+                    table[i] = queue;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lock queue of a key: the waiters sorted from oldest to youngest.
+     */
+    private static class LockQueue {
+        /** The key. */
+        private Object key;
+
+        /** Key hash. */
+        private int hash;
+
+        /** Waiters, a single one in the common case of an uncontended key. */
+        private WaiterImpl[] waiters = new WaiterImpl[1];
+
+        /** Number of the waiters. */
+        private int size;
+
+        /**
+         * Looks for the waiter of a timestamp with a binary search.
+         *
+         * @param timestamp The timestamp.
+         * @return Index of the waiter or {@code -(insertion point) - 1} if there is no such waiter.
+         */
+        int indexOf(Timestamp timestamp) {
+            int lo = 0;
+            int hi = size - 1;
+
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+
+                int cmp = waiters[mid].timestamp.compareTo(timestamp);
+
+                if (cmp < 0) {
+                    lo = mid + 1;
+                } else if (cmp > 0) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+
+            return -(lo + 1);
+        }
+
+        /**
+         * Inserts a waiter.
+         *
+         * @param idx Index of the waiter.
+         * @param waiter The waiter.
+         */
+        void insert(int idx, WaiterImpl waiter) {
+            if (size == waiters.length) {
+                waiters = Arrays.copyOf(waiters, size * 2);
+            }
+
+            System.arraycopy(waiters, idx, waiters, idx + 1, size - idx);
+
+            waiters[idx] = waiter;
+
+            size++;
+        }
+
+        /**
+         * Removes a waiter.
+         *
+         * @param idx Index of the waiter.
+         */
+        void removeAt(int idx) {
+            size--;
+
+            System.arraycopy(waiters, idx + 1, waiters, idx, size - idx);
+
+            waiters[size] = null;
+        }
+    }
+
+    /**
+     * A waiter implementation.
+     */
+    private static class WaiterImpl implements Waiter {
+        /** Locked future, is only created if the waiter has to wait for the lock. */
+        @IgniteToStringExclude
+        private CompletableFuture<Void> fut;
+
+        /** Waiter timestamp. */
+        private Timestamp timestamp;
+
+        /** Upgraded lock. */
+        private boolean upgraded;
+
+        /** {@code True} if a read request. */
+        private boolean forRead;
+
+        /** The state. */
+        private boolean locked;
+
+        /**
+         * Returns the locked future, creating it if needed.
+         *
+         * @return The future.
+         */
+        CompletableFuture<Void> future() {
+            if (fut == null) {
+                fut = new CompletableFuture<>();
+            }
+
+            return fut;
+        }
+
+        /**
+         * Returns a copy of the state of this waiter.
+         *
+         * @return The copy.
+         */
+        WaiterImpl copy() {
+            WaiterImpl copy = new WaiterImpl();
+
+            copy.fut = fut;
+            copy.timestamp = timestamp;
+            copy.upgraded = upgraded;
+            copy.forRead = forRead;
+            copy.locked = locked;
+
+            return copy;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean locked() {
+            return locked;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Timestamp timestamp() {
+            return timestamp;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isForRead() {
+            return forRead;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return S.toString(WaiterImpl.class, this, "isDone", fut == null ? locked : fut.isDone());
+        }
+    }
+}
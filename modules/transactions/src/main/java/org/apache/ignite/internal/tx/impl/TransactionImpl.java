@@ -77,6 +77,12 @@ public class TransactionImpl implements InternalTransaction {
         return timestamp;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public boolean isReadOnly() {
+        return false;
+    }
+
     /** {@inheritDoc} */
     @Override
     public Set<RaftGroupService> enlisted() {
@@ -158,13 +164,17 @@ public class TransactionImpl implements InternalTransaction {
 
         CompletableFuture[] futs = new CompletableFuture[tmp.size() + 1];
 
+        // A single commit timestamp for all the partitions, so the transaction becomes visible to the reads at a timestamp atomically.
+        // It is taken after all the operations, so it is greater than the timestamps of the versions they have seen.
+        Timestamp commitTs = commit ? txManager.commitTimestamp() : null;
+
         int i = 0;
 
         for (Map.Entry<NetworkAddress, Set<String>> entry : tmp.entrySet()) {
             boolean local = address.equals(entry.getKey());
 
-            futs[i++] = local ? commit ? txManager.commitAsync(timestamp) : txManager.rollbackAsync(timestamp) :
-                    txManager.finishRemote(entry.getKey(), timestamp, commit, entry.getValue());
+            // All the nodes are finished in parallel, the groups led by the local node are finished the same way, only without requests.
+            futs[i++] = txManager.finishRemote(entry.getKey(), timestamp, commitTs, entry.getValue());
 
             LOG.debug("finish [addr={}, commit={}, ts={}, local={}, groupIds={}",
                     address, commit, timestamp, local, entry.getValue());
@@ -22,24 +22,37 @@ import static java.util.concurrent.CompletableFuture.failedFuture;
 import static org.apache.ignite.lang.IgniteStringFormatter.format;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiFunction;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.ignite.internal.thread.NamedThreadFactory;
+import org.apache.ignite.internal.tx.HybridClock;
 import org.apache.ignite.internal.tx.InternalTransaction;
 import org.apache.ignite.internal.tx.LockException;
 import org.apache.ignite.internal.tx.LockManager;
+import org.apache.ignite.internal.tx.LockMode;
 import org.apache.ignite.internal.tx.Timestamp;
 import org.apache.ignite.internal.tx.TxManager;
 import org.apache.ignite.internal.tx.TxState;
 import org.apache.ignite.internal.tx.message.TxFinishRequest;
 import org.apache.ignite.internal.tx.message.TxFinishResponse;
-import org.apache.ignite.internal.tx.message.TxFinishResponseBuilder;
 import org.apache.ignite.internal.tx.message.TxMessageGroup;
 import org.apache.ignite.internal.tx.message.TxMessagesFactory;
+import org.apache.ignite.internal.util.IgniteUtils;
 import org.apache.ignite.lang.IgniteUuid;
 import org.apache.ignite.network.ClusterService;
 import org.apache.ignite.network.NetworkAddress;
@@ -52,7 +65,12 @@ import org.jetbrains.annotations.TestOnly;
 /**
  * A transaction manager implementation.
  *
- * <p>Uses 2PC for atomic commitment and 2PL for concurrency control.
+ * <p>Uses 2PC for atomic commitment and 2PL for concurrency control. A transaction of a single command on a single partition is committed
+ * in one phase instead, along with the command. A read-only transaction takes no locks and reads the versions committed as of its
+ * timestamp.
+ *
+ * <p>The locks of the keys are taken under the intention locks of their partitions and tables. Once a transaction holds more than the
+ * lock escalation threshold of key locks in a partition, it locks the whole partition instead of the next keys.
  */
 public class TxManagerImpl implements TxManager, NetworkMessageHandler {
     /** Tx messages factory. */
@@ -61,47 +79,173 @@ public class TxManagerImpl implements TxManager, NetworkMessageHandler {
     /** Tx finish timeout. */
     private static final int TIMEOUT = 5_000;
 
+    /** Default minimal time the states of the finished transactions are kept for, in milliseconds. */
+    public static final long DFLT_STATE_RETENTION = TimeUnit.MINUTES.toMillis(10);
+
+    /** Maximum number of finish requests in flight to a node. */
+    public static final int MAX_FINISH_REQUESTS_IN_FLIGHT = 4;
+
+    /** Default number of key locks a transaction may hold in a partition, the whole partition is locked instead of the next keys. */
+    public static final int DFLT_LOCK_ESCALATION_THRESHOLD = 1_000;
+
     /** Cluster service. */
     protected final ClusterService clusterService;
 
     /** Lock manager. */
     private final LockManager lockManager;
 
+    /** Clock of the transaction timestamps. */
+    private final HybridClock clock;
+
     /**
-     * The storage for tx states.
+     * The storage for tx states. The states of the finished transactions are removed after the retention time, the partitions don't need
+     * them by then, since the versions written by the aborted transactions are removed when the transactions are finished.
      *
-     * <p>TODO IGNITE-15931 use Storage for states, implement max size, implement replication.
+     * <p>TODO IGNITE-15931 use Storage for states, implement replication.
      */
-    private final ConcurrentHashMap<Timestamp, TxState> states = new ConcurrentHashMap<>();
+    private final TxStateTable states = new TxStateTable();
+
+    /** Minimal time the states of the finished transactions are kept for, in nanoseconds. */
+    private final long stateRetention;
+
+    /** Number of key locks a transaction may hold in a partition, the whole partition is locked instead of the next keys. */
+    private final int lockEscalationThreshold;
+
+    /** Time of the last sweep of the finished states, as returned by {@link System#nanoTime()}. */
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
 
     /**
-     * The storage for locks acquired by transactions. Each key is mapped to lock type where true is for read.
+     * The storage for locks acquired by transactions.
      *
      * <p>TODO IGNITE-15932 use Storage for locks. Introduce limits, deny lock operation if the limit is exceeded.
      */
-    private final ConcurrentHashMap<Timestamp, Map<LockKey, Boolean>> locks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Timestamp, TxLocks> locks = new ConcurrentHashMap<>();
+
+    /** Senders of the transaction finishes, by the nodes that lead the partition groups of the transactions. */
+    private final ConcurrentHashMap<NetworkAddress, FinishSender> finishSenders = new ConcurrentHashMap<>();
 
     /**
-     * The constructor.
+     * Pool that completes the futures of the transaction finishes. The callers may block on the futures, so they are not completed by the
+     * network threads that receive the responses.
+     */
+    private final ThreadPoolExecutor finishCompletionPool;
+
+    /**
+     * The constructor, the transaction timestamps are generated by the {@link Timestamp#defaultClock() default clock}.
      *
      * @param clusterService Cluster service.
      * @param lockManager Lock manager.
      */
     public TxManagerImpl(ClusterService clusterService, LockManager lockManager) {
+        this(clusterService, lockManager, Timestamp.defaultClock());
+    }
+
+    /**
+     * The constructor.
+     *
+     * @param clusterService Cluster service.
+     * @param lockManager Lock manager.
+     * @param clock Clock of the transaction timestamps.
+     */
+    public TxManagerImpl(ClusterService clusterService, LockManager lockManager, HybridClock clock) {
+        this(clusterService, lockManager, clock, DFLT_STATE_RETENTION);
+    }
+
+    /**
+     * The constructor.
+     *
+     * @param clusterService Cluster service.
+     * @param lockManager Lock manager.
+     * @param clock Clock of the transaction timestamps.
+     * @param stateRetention Minimal time the states of the finished transactions are kept for, in milliseconds.
+     */
+    public TxManagerImpl(ClusterService clusterService, LockManager lockManager, HybridClock clock, long stateRetention) {
+        this(clusterService, lockManager, clock, stateRetention, DFLT_LOCK_ESCALATION_THRESHOLD);
+    }
+
+    /**
+     * The constructor.
+     *
+     * @param clusterService Cluster service.
+     * @param lockManager Lock manager.
+     * @param clock Clock of the transaction timestamps.
+     * @param stateRetention Minimal time the states of the finished transactions are kept for, in milliseconds.
+     * @param lockEscalationThreshold Number of key locks a transaction may hold in a partition, the whole partition is locked instead of
+     *      the next keys.
+     */
+    public TxManagerImpl(
+            ClusterService clusterService,
+            LockManager lockManager,
+            HybridClock clock,
+            long stateRetention,
+            int lockEscalationThreshold
+    ) {
+        assert stateRetention > 0 : stateRetention;
+        assert lockEscalationThreshold > 0 : lockEscalationThreshold;
+
         this.clusterService = clusterService;
         this.lockManager = lockManager;
+        this.clock = clock;
+        this.stateRetention = TimeUnit.MILLISECONDS.toNanos(stateRetention);
+        this.lockEscalationThreshold = lockEscalationThreshold;
+
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        finishCompletionPool = new ThreadPoolExecutor(
+                threads,
+                threads,
+                30,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamedThreadFactory("tx-finish-completion", true)
+        );
+
+        finishCompletionPool.allowCoreThreadTimeOut(true);
     }
 
     /** {@inheritDoc} */
     @Override
     public InternalTransaction begin() {
-        Timestamp ts = Timestamp.nextVersion();
+        Timestamp ts = clock.now();
 
         states.put(ts, TxState.PENDING);
 
         return new TransactionImpl(this, ts, clusterService.topologyService().localMember().address());
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public InternalTransaction beginReadOnly() {
+        return new ReadOnlyTransactionImpl(clock.now());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Timestamp beginOnePhase() {
+        return clock.now();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void finishOnePhase(Timestamp ts) {
+        // The transaction may come from another node, keep the timestamps of this node causally after it.
+        clock.update(ts);
+
+        unlockAll(ts);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Timestamp commitTimestamp() {
+        return clock.now();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void updateClock(Timestamp ts) {
+        clock.update(ts);
+    }
+
     /** {@inheritDoc} */
     @Override
     public TxState state(Timestamp ts) {
@@ -144,34 +288,98 @@ public class TxManagerImpl implements TxManager, NetworkMessageHandler {
      * @param ts The timestamp.
      */
     private void unlockAll(Timestamp ts) {
-        Map<LockKey, Boolean> locks = this.locks.remove(ts);
+        TxLocks locks = this.locks.remove(ts);
 
         if (locks == null) {
             return;
         }
 
-        for (Map.Entry<LockKey, Boolean> lock : locks.entrySet()) {
+        // No locks are requested or recorded after that, so the locks are released outside the monitor.
+        synchronized (locks) {
+            locks.released = true;
+        }
+
+        for (int i = 0; i < locks.size; i++) {
             try {
-                if (lock.getValue()) {
-                    lockManager.tryReleaseShared(lock.getKey(), ts);
-                } else {
-                    lockManager.tryRelease(lock.getKey(), ts);
-                }
+                release(locks.keys[i], locks.forRead[i], ts);
             } catch (LockException e) {
                 assert false; // This shouldn't happen during tx finish.
             }
         }
+
+        // The partitions are released before their tables.
+        for (int i = 0; i < locks.partitions.size(); i++) {
+            releaseHierarchical(locks.partitions.get(i), ts);
+        }
+
+        for (int i = 0; i < locks.tables.size(); i++) {
+            releaseHierarchical(locks.tables.get(i), ts);
+        }
+    }
+
+    /**
+     * Releases a lock of a key.
+     *
+     * @param key The key.
+     * @param read {@code True} for a read lock.
+     * @param ts The timestamp.
+     * @throws LockException If the key is not locked.
+     */
+    private void release(LockKey key, boolean read, Timestamp ts) throws LockException {
+        if (read) {
+            lockManager.tryReleaseShared(key, ts);
+        } else {
+            lockManager.tryRelease(key, ts);
+        }
+    }
+
+    /**
+     * Releases a hierarchical lock, if it has been requested.
+     *
+     * @param lock The lock.
+     * @param ts The timestamp.
+     */
+    private void releaseHierarchical(HierarchicalLock lock, Timestamp ts) {
+        if (lock.mode == null) {
+            return;
+        }
+
+        try {
+            lockManager.tryReleaseHierarchical(lock.key, ts);
+        } catch (LockException e) {
+            // The request has been denied or hasn't been made because the request of the parent has been denied, nothing is held.
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean changeState(Timestamp ts, TxState before, TxState after) {
-        return states.replace(ts, before, after);
+        if (!states.replace(ts, before, after)) {
+            return false;
+        }
+
+        sweepIfNeeded();
+
+        return true;
+    }
+
+    /**
+     * Removes the states of the finished transactions once per retention time: a state is removed by the second sweep after the
+     * transaction has been finished, so it is kept for the retention time at least.
+     */
+    private void sweepIfNeeded() {
+        long now = System.nanoTime();
+
+        long last = lastSweep.get();
+
+        if (now - last >= stateRetention && lastSweep.compareAndSet(last, now)) {
+            states.sweep();
+        }
     }
 
     /** {@inheritDoc} */
     @Override
-    public CompletableFuture<Void> writeLock(IgniteUuid lockId, ByteBuffer keyData, Timestamp ts) {
+    public CompletableFuture<Void> writeLock(IgniteUuid lockId, int partId, ByteBuffer keyData, Timestamp ts) {
         // TODO IGNITE-15933 process tx messages in striped fasion to avoid races. But locks can be acquired from any thread !
         TxState state = state(ts);
 
@@ -181,15 +389,25 @@ public class TxManagerImpl implements TxManager, NetworkMessageHandler {
         }
 
         // Should rollback tx on lock error.
-        LockKey key = new LockKey(lockId, keyData);
+        return lock(lockId, partId, keyData, ts, false);
+    }
 
-        return lockManager.tryAcquire(key, ts)
-                .thenAccept(ignored -> recordLock(key, ts, Boolean.FALSE));
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Void> readLock(IgniteUuid lockId, int partId, ByteBuffer keyData, Timestamp ts) {
+        TxState state = state(ts);
+
+        if (state != null && state != TxState.PENDING) {
+            return failedFuture(new TransactionException(
+                    "The operation is attempted for completed transaction"));
+        }
+
+        return lock(lockId, partId, keyData, ts, true);
     }
 
     /** {@inheritDoc} */
     @Override
-    public CompletableFuture<Void> readLock(IgniteUuid lockId, ByteBuffer keyData, Timestamp ts) {
+    public CompletableFuture<Void> partitionLock(IgniteUuid lockId, int partId, boolean read, Timestamp ts) {
         TxState state = state(ts);
 
         if (state != null && state != TxState.PENDING) {
@@ -197,45 +415,177 @@ public class TxManagerImpl implements TxManager, NetworkMessageHandler {
                     "The operation is attempted for completed transaction"));
         }
 
+        TxLocks txLocks = locks.computeIfAbsent(ts, ignored -> new TxLocks());
+
+        synchronized (txLocks) {
+            if (txLocks.released) {
+                return failedFuture(new TransactionException("The operation is attempted for completed transaction"));
+            }
+
+            PartitionLock part = txLocks.partition(lockId, partId);
+
+            return lockHierarchical(txLocks, part, part.table, read ? LockMode.S : LockMode.X, ts);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int lockEscalationThreshold() {
+        return lockEscalationThreshold;
+    }
+
+    /**
+     * Acquires a lock of a key under the intention locks of its partition and table, or a lock of the whole partition if the transaction
+     * already holds the escalation threshold of key locks in it.
+     *
+     * @param lockId Table ID.
+     * @param partId Partition ID.
+     * @param keyData The key data.
+     * @param ts The timestamp.
+     * @param read {@code True} for a read lock.
+     * @return The future.
+     */
+    private CompletableFuture<Void> lock(IgniteUuid lockId, int partId, ByteBuffer keyData, Timestamp ts, boolean read) {
+        TxLocks txLocks = locks.computeIfAbsent(ts, ignored -> new TxLocks());
+
+        PartitionLock part;
+        CompletableFuture<Void> intentionFut;
+
+        synchronized (txLocks) {
+            if (txLocks.released) {
+                return failedFuture(new TransactionException("The operation is attempted for completed transaction"));
+            }
+
+            part = txLocks.partition(lockId, partId);
+
+            LockMode mode = read ? LockMode.S : LockMode.X;
+
+            if (part.mode != null && part.mode.covers(mode)) {
+                // The key is locked along with the whole partition.
+                return part.fut;
+            }
+
+            if (part.keys >= lockEscalationThreshold) {
+                return lockHierarchical(txLocks, part, part.table, mode, ts);
+            }
+
+            intentionFut = lockHierarchical(txLocks, part, part.table, mode.intention(), ts);
+        }
+
         LockKey key = new LockKey(lockId, keyData);
 
-        return lockManager.tryAcquireShared(key, ts)
-                .thenAccept(ignored -> recordLock(key, ts, Boolean.TRUE));
+        if (intentionFut.isDone() && !intentionFut.isCompletedExceptionally()) {
+            return lockKey(txLocks, part, key, read, ts);
+        }
+
+        return intentionFut.thenCompose(ignored -> lockKey(txLocks, part, key, read, ts));
     }
 
     /**
-     * Records the acquired lock for further unlocking.
+     * Acquires a lock of a key and records it.
      *
+     * @param txLocks Locks of the transaction.
+     * @param part Partition of the key.
      * @param key The key.
-     * @param timestamp The tx timestamp.
-     * @param read Read lock.
+     * @param read {@code True} for a read lock.
+     * @param ts The timestamp.
+     * @return The future.
      */
-    private void recordLock(LockKey key, Timestamp timestamp, Boolean read) {
-        locks.compute(timestamp,
-                new BiFunction<Timestamp, Map<LockKey, Boolean>, Map<LockKey, Boolean>>() {
-                    @Override
-                    public Map<LockKey, Boolean> apply(Timestamp timestamp,
-                            Map<LockKey, Boolean> map) {
-                        if (map == null) {
-                            map = new HashMap<>();
-                        }
+    private CompletableFuture<Void> lockKey(TxLocks txLocks, PartitionLock part, LockKey key, boolean read, Timestamp ts) {
+        CompletableFuture<Void> fut = read ? lockManager.tryAcquireShared(key, ts) : lockManager.tryAcquire(key, ts);
 
-                        Boolean mode = map.get(key);
+        return fut.thenAccept(ignored -> recordLock(txLocks, part, key, read, ts));
+    }
 
-                        if (mode == null) {
-                            map.put(key, read);
-                        } else if (read == Boolean.FALSE && mode == Boolean.TRUE) { // Override read lock.
-                            map.put(key, Boolean.FALSE);
-                        }
+    /**
+     * Requests a hierarchical lock in a mode, after the intention lock of its parent, unless it has been requested in a mode that
+     * covers it. Must be called under the monitor of the locks of the transaction.
+     *
+     * @param txLocks Locks of the transaction.
+     * @param lock The lock.
+     * @param parent The parent lock, {@code null} for a table.
+     * @param mode Lock mode.
+     * @param ts The timestamp.
+     * @return The future of the lock.
+     */
+    private CompletableFuture<Void> lockHierarchical(
+            TxLocks txLocks,
+            HierarchicalLock lock,
+            @Nullable HierarchicalLock parent,
+            LockMode mode,
+            Timestamp ts
+    ) {
+        if (lock.mode != null && lock.mode.covers(mode)) {
+            return lock.fut;
+        }
 
-                        return map;
-                    }
-                });
+        LockMode upgraded = lock.mode == null ? mode : lock.mode.upgrade(mode);
+
+        CompletableFuture<Void> parentFut = parent == null ? null : lockHierarchical(txLocks, parent, null, upgraded.intention(), ts);
+
+        lock.mode = upgraded;
+
+        if (parentFut == null || (parentFut.isDone() && !parentFut.isCompletedExceptionally())) {
+            lock.fut = acquireHierarchical(txLocks, lock.key, upgraded, ts);
+        } else {
+            lock.fut = parentFut.thenCompose(ignored -> acquireHierarchical(txLocks, lock.key, upgraded, ts));
+        }
+
+        return lock.fut;
+    }
+
+    /**
+     * Acquires a hierarchical lock, unless the transaction is finished.
+     *
+     * @param txLocks Locks of the transaction.
+     * @param key The key of a table or a partition.
+     * @param mode Lock mode.
+     * @param ts The timestamp.
+     * @return The future of the lock.
+     */
+    private CompletableFuture<Void> acquireHierarchical(TxLocks txLocks, Object key, LockMode mode, Timestamp ts) {
+        synchronized (txLocks) {
+            if (txLocks.released) {
+                return failedFuture(new TransactionException("The operation is attempted for completed transaction"));
+            }
+
+            return lockManager.tryAcquireHierarchical(key, ts, mode);
+        }
+    }
+
+    /**
+     * Records the acquired lock for further unlocking, or releases it if the transaction has been finished while it was waited for.
+     *
+     * @param txLocks Locks of the transaction.
+     * @param part Partition of the key.
+     * @param key The key.
+     * @param read Read lock.
+     * @param ts The timestamp.
+     */
+    private void recordLock(TxLocks txLocks, PartitionLock part, LockKey key, boolean read, Timestamp ts) {
+        synchronized (txLocks) {
+            if (!txLocks.released) {
+                if (txLocks.add(key, read)) {
+                    part.keys++;
+                }
+
+                return;
+            }
+        }
+
+        try {
+            release(key, read, ts);
+        } catch (LockException e) {
+            assert false; // The lock has just been acquired.
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public TxState getOrCreateTransaction(Timestamp ts) {
+        // The transaction may come from another node, keep the timestamps of this node causally after it.
+        clock.update(ts);
+
         return states.putIfAbsent(ts, TxState.PENDING);
     }
 
@@ -244,20 +594,83 @@ public class TxManagerImpl implements TxManager, NetworkMessageHandler {
     public CompletableFuture<Void> finishRemote(
             NetworkAddress addr,
             Timestamp ts,
-            boolean commit,
+            @Nullable Timestamp commitTs,
             Set<String> groups
     ) {
         assert groups != null && !groups.isEmpty();
 
-        TxFinishRequest req = FACTORY.txFinishRequest().timestamp(ts).groups(groups)
-                .commit(commit).build();
+        PendingFinish finish = new PendingFinish(ts, commitTs, groups);
+
+        finishSenders.computeIfAbsent(addr, FinishSender::new).submit(finish);
+
+        return finish.fut;
+    }
+
+    /**
+     * Finishes a batch of transactions on the partition groups led by the local node. The transactions of a group are finished by a single
+     * call of {@link #finish(String, List, List)}, and each transaction is finished on the local node once all its groups are.
+     *
+     * @param timestamps The timestamps of the transactions.
+     * @param commitTimestamps The commit timestamps of the transactions, in the order of the timestamps, {@code null} for a rollback.
+     * @param groups The enlisted partition groups of the transactions, in the order of the timestamps.
+     * @return Future of the error messages of the transactions that have failed to finish, by their timestamps.
+     */
+    private CompletableFuture<Map<Timestamp, String>> finishLocal(
+            List<Timestamp> timestamps,
+            List<Timestamp> commitTimestamps,
+            List<Set<String>> groups
+    ) {
+        Map<String, List<Integer>> txsByGroup = new HashMap<>();
+
+        for (int i = 0; i < timestamps.size(); i++) {
+            Timestamp commitTs = commitTimestamps.get(i);
+
+            // The versions committed by the groups led by this node are ordered by the commit timestamps, keep the later ones after them.
+            clock.update(commitTs == null ? timestamps.get(i) : commitTs);
+
+            for (String grp : groups.get(i)) {
+                txsByGroup.computeIfAbsent(grp, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<String, CompletableFuture<?>> grpFuts = new HashMap<>(txsByGroup.size());
+
+        for (Map.Entry<String, List<Integer>> entry : txsByGroup.entrySet()) {
+            List<Integer> txs = entry.getValue();
+
+            List<Timestamp> grpTimestamps = new ArrayList<>(txs.size());
+            List<Timestamp> grpCommitTimestamps = new ArrayList<>(txs.size());
 
-        CompletableFuture<NetworkMessage> fut = clusterService.messagingService()
-                .invoke(addr, req, TIMEOUT);
+            for (int i = 0; i < txs.size(); i++) {
+                grpTimestamps.add(timestamps.get(txs.get(i)));
+                grpCommitTimestamps.add(commitTimestamps.get(txs.get(i)));
+            }
+
+            grpFuts.put(entry.getKey(), finish(entry.getKey(), grpTimestamps, grpCommitTimestamps));
+        }
+
+        Map<Timestamp, String> errors = new ConcurrentHashMap<>();
+
+        CompletableFuture<?>[] txFuts = new CompletableFuture[timestamps.size()];
+
+        for (int i = 0; i < timestamps.size(); i++) {
+            Timestamp ts = timestamps.get(i);
+            boolean commit = commitTimestamps.get(i) != null;
+
+            CompletableFuture<?>[] futs = groups.get(i).stream().map(grpFuts::get).toArray(CompletableFuture[]::new);
 
-        // Submit response to a dedicated pool to avoid deadlocks. TODO: IGNITE-15389
-        return fut.thenApplyAsync(resp -> ((TxFinishResponse) resp).errorMessage()).thenCompose(msg ->
-                msg == null ? completedFuture(null) : failedFuture(new TransactionException(msg)));
+            txFuts[i] = CompletableFuture.allOf(futs)
+                    .thenCompose(ignored -> commit ? commitAsync(ts) : rollbackAsync(ts))
+                    .whenComplete((ignored, err) -> {
+                        if (err != null) {
+                            Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+
+                            errors.put(ts, String.valueOf(cause.getMessage()));
+                        }
+                    });
+        }
+
+        return CompletableFuture.allOf(txFuts).handle((ignored, err) -> errors);
     }
 
     /** {@inheritDoc} */
@@ -281,7 +694,229 @@ public class TxManagerImpl implements TxManager, NetworkMessageHandler {
     /** {@inheritDoc} */
     @Override
     public void stop() throws Exception {
-        // No-op.
+        IgniteUtils.shutdownAndAwaitTermination(finishCompletionPool, 10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Locks acquired by a transaction, the locks of the keys are kept in parallel arrays to avoid allocating an entry per lock. Guarded by
+     * its monitor.
+     */
+    private static class TxLocks {
+        /** Number of locks after which a hash index of the keys is built to look for duplicates. */
+        private static final int INDEX_THRESHOLD = 16;
+
+        /** Locked keys. */
+        private LockKey[] keys = new LockKey[4];
+
+        /** Lock types, {@code true} is for read. */
+        private boolean[] forRead = new boolean[4];
+
+        /** Number of locks. */
+        private int size;
+
+        /** Positions of the keys, is only built for large transactions. */
+        private @Nullable Map<LockKey, Integer> index;
+
+        /** Hierarchical locks of the tables. */
+        private final List<HierarchicalLock> tables = new ArrayList<>(1);
+
+        /** Hierarchical locks of the partitions. */
+        private final List<PartitionLock> partitions = new ArrayList<>(1);
+
+        /** {@code True} if the locks have been released with the transaction finish. */
+        private boolean released;
+
+        /**
+         * Records a lock, a write lock overrides a read lock of the same key.
+         *
+         * @param key The key.
+         * @param read {@code True} for a read lock.
+         * @return {@code True} if the key hasn't been locked before.
+         */
+        boolean add(LockKey key, boolean read) {
+            int pos = indexOf(key);
+
+            if (pos >= 0) {
+                if (!read) { // Override read lock.
+                    forRead[pos] = false;
+                }
+
+                return false;
+            }
+
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                forRead = Arrays.copyOf(forRead, size * 2);
+            }
+
+            keys[size] = key;
+            forRead[size] = read;
+
+            if (index != null) {
+                index.put(key, size);
+            } else if (size == INDEX_THRESHOLD) {
+                index = new HashMap<>();
+
+                for (int i = 0; i <= size; i++) {
+                    index.put(keys[i], i);
+                }
+            }
+
+            size++;
+
+            return true;
+        }
+
+        /**
+         * Returns the hierarchical lock of a partition, creating it along with the lock of its table if the transaction hasn't locked any
+         * keys in the partition yet. A transaction touches a few partitions usually, so they are looked for with a linear search.
+         *
+         * @param tableId Table ID.
+         * @param partId Partition ID.
+         * @return The lock of the partition.
+         */
+        PartitionLock partition(IgniteUuid tableId, int partId) {
+            for (int i = 0; i < partitions.size(); i++) {
+                PartitionLock part = partitions.get(i);
+
+                if (part.partId == partId && part.table.key.equals(tableId)) {
+                    return part;
+                }
+            }
+
+            HierarchicalLock table = null;
+
+            for (int i = 0; i < tables.size() && table == null; i++) {
+                if (tables.get(i).key.equals(tableId)) {
+                    table = tables.get(i);
+                }
+            }
+
+            if (table == null) {
+                table = new HierarchicalLock(tableId);
+
+                tables.add(table);
+            }
+
+            PartitionLock part = new PartitionLock(table, partId);
+
+            partitions.add(part);
+
+            return part;
+        }
+
+        /**
+         * Returns the position of a key.
+         *
+         * @param key The key.
+         * @return Position of the key or {@code -1} if it is not locked.
+         */
+        private int indexOf(LockKey key) {
+            if (index != null) {
+                Integer pos = index.get(key);
+
+                return pos == null ? -1 : pos;
+            }
+
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+    }
+
+    /**
+     * A hierarchical lock of a table or a partition, requested by a transaction.
+     */
+    private static class HierarchicalLock {
+        /** The key of the table or the partition. */
+        final Object key;
+
+        /** Requested mode, {@code null} if the lock hasn't been requested. */
+        @Nullable LockMode mode;
+
+        /** Future of the request in the mode. */
+        CompletableFuture<Void> fut;
+
+        /**
+         * The constructor.
+         *
+         * @param key The key of the table or the partition.
+         */
+        HierarchicalLock(Object key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * A hierarchical lock of a partition, requested by a transaction.
+     */
+    private static class PartitionLock extends HierarchicalLock {
+        /** The lock of the table. */
+        private final HierarchicalLock table;
+
+        /** Partition ID. */
+        private final int partId;
+
+        /** Number of the keys of the partition locked by the transaction. */
+        private int keys;
+
+        /**
+         * The constructor.
+         *
+         * @param table The lock of the table.
+         * @param partId Partition ID.
+         */
+        PartitionLock(HierarchicalLock table, int partId) {
+            super(new PartitionLockKey((IgniteUuid) table.key, partId));
+
+            this.table = table;
+            this.partId = partId;
+        }
+    }
+
+    /**
+     * Lock key of a partition.
+     */
+    private static class PartitionLockKey {
+        /** Table ID. */
+        private final IgniteUuid tableId;
+
+        /** Partition ID. */
+        private final int partId;
+
+        /**
+         * The constructor.
+         *
+         * @param tableId Table ID.
+         * @param partId Partition ID.
+         */
+        PartitionLockKey(IgniteUuid tableId, int partId) {
+            this.tableId = tableId;
+            this.partId = partId;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PartitionLockKey key = (PartitionLockKey) o;
+            return partId == key.partId && tableId.equals(key.tableId);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return 31 * tableId.hashCode() + partId;
+        }
     }
 
     /**
@@ -336,14 +971,14 @@ public class TxManagerImpl implements TxManager, NetworkMessageHandler {
     }
 
     /**
-     * Finishes a transaction for a group.
+     * Finishes transactions for a group.
      *
      * @param groupId Group id.
-     * @param ts The timestamp.
-     * @param commit {@code True} to commit, false to abort.
+     * @param timestamps The timestamps.
+     * @param commitTimestamps The commit timestamps of the transactions, in the order of the timestamps, {@code null} for a rollback.
      * @return The future.
      */
-    protected CompletableFuture<?> finish(String groupId, Timestamp ts, boolean commit) {
+    protected CompletableFuture<?> finish(String groupId, List<Timestamp> timestamps, List<Timestamp> commitTimestamps) {
         return CompletableFuture.completedFuture(null);
     }
 
@@ -355,35 +990,186 @@ public class TxManagerImpl implements TxManager, NetworkMessageHandler {
         if (message instanceof TxFinishRequest) {
             TxFinishRequest req = (TxFinishRequest) message;
 
-            Set<String> groups = req.groups();
+            finishLocal(req.timestamps(), req.commitTimestamps(), req.groups()).thenAccept(errors -> {
+                TxFinishResponse resp = FACTORY.txFinishResponse().errors(errors).build();
 
-            CompletableFuture[] futs = new CompletableFuture[groups.size()];
+                clusterService.messagingService().respond(senderAddr, resp, correlationId);
+            });
+        }
+    }
+
+    /**
+     * Finish of a transaction on the partition groups led by a node, waiting to be sent.
+     */
+    private static class PendingFinish {
+        /** The timestamp. */
+        final Timestamp ts;
 
-            int i = 0;
+        /** The commit timestamp, {@code null} for a rollback. */
+        @Nullable
+        final Timestamp commitTs;
 
-            // Finish a tx for enlisted groups.
-            for (String grp : groups) {
-                futs[i++] = finish(grp, req.timestamp(), req.commit());
+        /** Enlisted partition groups led by the node. */
+        final Set<String> groups;
+
+        /** Future that is completed once the transaction is finished on the node. */
+        final CompletableFuture<Void> fut = new CompletableFuture<>();
+
+        /**
+         * The constructor.
+         *
+         * @param ts The timestamp.
+         * @param commitTs The commit timestamp, {@code null} for a rollback.
+         * @param groups Enlisted partition groups led by the node.
+         */
+        PendingFinish(Timestamp ts, @Nullable Timestamp commitTs, Set<String> groups) {
+            this.ts = ts;
+            this.commitTs = commitTs;
+            this.groups = groups;
+        }
+    }
+
+    /**
+     * Sends the transaction finishes to a node. There are at most {@link #MAX_FINISH_REQUESTS_IN_FLIGHT} requests to the node in flight,
+     * the finishes submitted meanwhile are coalesced into the next request, so the number of requests adapts to the round trip time while
+     * a slow request doesn't hold back the next ones. The finishes on the local node are handled without network requests. The futures of
+     * a request are completed in the {@link #finishCompletionPool}.
+     */
+    private class FinishSender {
+        /** The node. */
+        private final NetworkAddress addr;
+
+        /** Finishes waiting to be sent. */
+        private final ConcurrentLinkedQueue<PendingFinish> queue = new ConcurrentLinkedQueue<>();
+
+        /** Number of requests in flight. */
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        /**
+         * The constructor.
+         *
+         * @param addr The node.
+         */
+        FinishSender(NetworkAddress addr) {
+            this.addr = addr;
+        }
+
+        /**
+         * Submits a finish, it is sent right away if the number of requests in flight is below the limit.
+         *
+         * @param finish The finish.
+         */
+        void submit(PendingFinish finish) {
+            queue.add(finish);
+
+            sendNext();
+        }
+
+        /**
+         * Sends the waiting finishes if the number of requests in flight is below the limit.
+         */
+        private void sendNext() {
+            while (!queue.isEmpty() && acquire()) {
+                List<PendingFinish> batch = new ArrayList<>();
+
+                for (PendingFinish finish = queue.poll(); finish != null; finish = queue.poll()) {
+                    batch.add(finish);
+                }
+
+                if (batch.isEmpty()) {
+                    inFlight.decrementAndGet();
+
+                    continue;
+                }
+
+                CompletableFuture<Map<Timestamp, String>> fut;
+
+                try {
+                    fut = send(batch);
+                } catch (Throwable e) {
+                    fut = failedFuture(e);
+                }
+
+                fut.whenComplete((errors, err) -> {
+                    inFlight.decrementAndGet();
+
+                    sendNext();
+
+                    try {
+                        finishCompletionPool.execute(() -> complete(batch, errors, err));
+                    } catch (RejectedExecutionException e) {
+                        // The manager is stopped.
+                        complete(batch, errors, err);
+                    }
+                });
             }
+        }
 
-            CompletableFuture.allOf(futs).thenCompose(ignored -> req.commit()
-                    ? commitAsync(req.timestamp()) :
-                    rollbackAsync(req.timestamp()))
-                    .handle(new BiFunction<Void, Throwable, Void>() {
-                        @Override
-                        public Void apply(Void ignored, Throwable err) {
-                            TxFinishResponseBuilder resp = FACTORY.txFinishResponse();
+        /**
+         * Takes a slot for a request, if the number of requests in flight is below the limit.
+         *
+         * @return {@code True} if the slot is taken.
+         */
+        private boolean acquire() {
+            for (int n = inFlight.get(); n < MAX_FINISH_REQUESTS_IN_FLIGHT; n = inFlight.get()) {
+                if (inFlight.compareAndSet(n, n + 1)) {
+                    return true;
+                }
+            }
 
-                            if (err != null) {
-                                resp.errorMessage(err.getMessage());
-                            }
+            return false;
+        }
 
-                            clusterService.messagingService()
-                                    .respond(senderAddr, resp.build(), correlationId);
+        /**
+         * Completes the futures of the sent finishes.
+         *
+         * @param batch The finishes.
+         * @param errors The error messages of the transactions that have failed to finish, by their timestamps, {@code null} if the request
+         *      has failed.
+         * @param err The error of the request.
+         */
+        private void complete(List<PendingFinish> batch, @Nullable Map<Timestamp, String> errors, @Nullable Throwable err) {
+            for (PendingFinish finish : batch) {
+                String msg = err == null ? errors.get(finish.ts) : null;
 
-                            return null;
-                        }
-                    });
+                if (err != null) {
+                    finish.fut.completeExceptionally(err);
+                } else if (msg != null) {
+                    finish.fut.completeExceptionally(new TransactionException(msg));
+                } else {
+                    finish.fut.complete(null);
+                }
+            }
+        }
+
+        /**
+         * Sends a batch of finishes.
+         *
+         * @param batch The finishes.
+         * @return Future of the error messages of the transactions that have failed to finish, by their timestamps.
+         */
+        private CompletableFuture<Map<Timestamp, String>> send(List<PendingFinish> batch) {
+            List<Timestamp> timestamps = new ArrayList<>(batch.size());
+            List<Timestamp> commitTimestamps = new ArrayList<>(batch.size());
+            List<Set<String>> groups = new ArrayList<>(batch.size());
+
+            for (PendingFinish finish : batch) {
+                timestamps.add(finish.ts);
+                commitTimestamps.add(finish.commitTs);
+                groups.add(finish.groups);
+            }
+
+            if (isLocal(addr)) {
+                return finishLocal(timestamps, commitTimestamps, groups);
+            }
+
+            TxFinishRequest req = FACTORY.txFinishRequest()
+                    .timestamps(timestamps)
+                    .commitTimestamps(commitTimestamps)
+                    .groups(groups)
+                    .build();
+
+            return clusterService.messagingService().invoke(addr, req, TIMEOUT).thenApply(resp -> ((TxFinishResponse) resp).errors());
         }
     }
 }
@@ -0,0 +1,524 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.tx.impl;
+
+import java.util.concurrent.locks.StampedLock;
+import org.apache.ignite.internal.tx.Timestamp;
+import org.apache.ignite.internal.tx.TxState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Table of the transaction states keyed by the transaction timestamps.
+ *
+ * <p>The timestamps are distributed between a fixed number of stripes, each stripe is an open-addressing hash table, which keeps the two
+ * longs of a timestamp and the code of a state in primitive arrays, so an entry takes 17 bytes and no objects are allocated for it. The
+ * reads of a stripe are optimistic and don't block, the updates are exclusive.
+ *
+ * <p>The states of the finished transactions are removed by the {@link #sweep() sweeps}: a finished state is marked by the first sweep
+ * that sees it and is removed by the next one.
+ */
+class TxStateTable {
+    /** States by their ordinals. */
+    private static final TxState[] STATES = TxState.values();
+
+    /** Initial capacity of the hash table of a stripe. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Code of an empty slot. */
+    private static final byte EMPTY = 0;
+
+    /** Flag of a state code: the state has been seen finished by a sweep. */
+    private static final byte SWEPT = (byte) 0x80;
+
+    /** Stripes. */
+    private final Stripe[] stripes;
+
+    /** Number of bits of a timestamp hash that select a stripe. */
+    private final int stripeBits;
+
+    /**
+     * Creates a table with four stripes per processor.
+     */
+    TxStateTable() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a table.
+     *
+     * @param stripes Number of stripes, is rounded up to a power of two.
+     */
+    TxStateTable(int stripes) {
+        assert stripes > 0 : stripes;
+
+        stripeBits = 32 - Integer.numberOfLeadingZeros(stripes - 1);
+
+        this.stripes = new Stripe[1 << stripeBits];
+
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Returns the state of a transaction.
+     *
+     * @param ts The timestamp.
+     * @return The state, {@code null} if it is unknown.
+     */
+    @Nullable TxState get(Timestamp ts) {
+        int hash = hash(ts);
+
+        return decode(stripe(hash).get(ts.getTimestamp(), ts.getNodeId(), hash));
+    }
+
+    /**
+     * Sets the state of a transaction.
+     *
+     * @param ts The timestamp.
+     * @param state The state.
+     */
+    void put(Timestamp ts, TxState state) {
+        int hash = hash(ts);
+
+        stripe(hash).update(ts.getTimestamp(), ts.getNodeId(), hash, null, state, true);
+    }
+
+    /**
+     * Sets the state of a transaction, if it is unknown.
+     *
+     * @param ts The timestamp.
+     * @param state The state.
+     * @return The previous state, {@code null} if the state has been set.
+     */
+    @Nullable TxState putIfAbsent(Timestamp ts, TxState state) {
+        int hash = hash(ts);
+
+        Stripe stripe = stripe(hash);
+
+        long stamp = stripe.lock.writeLock();
+
+        try {
+            int i = stripe.indexOf(ts.getTimestamp(), ts.getNodeId(), hash);
+
+            if (i >= 0) {
+                return decode(stripe.codes[i]);
+            }
+
+            stripe.insert(-i - 1, ts.getTimestamp(), ts.getNodeId(), encode(state));
+
+            return null;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically changes the state of a transaction.
+     *
+     * @param ts The timestamp.
+     * @param before Expected state, {@code null} if the state is expected to be unknown.
+     * @param after New state.
+     * @return {@code True} if the state has been changed.
+     */
+    boolean replace(Timestamp ts, @Nullable TxState before, TxState after) {
+        int hash = hash(ts);
+
+        return stripe(hash).update(ts.getTimestamp(), ts.getNodeId(), hash, before, after, false);
+    }
+
+    /**
+     * Removes the state of a transaction.
+     *
+     * @param ts The timestamp.
+     */
+    void remove(Timestamp ts) {
+        int hash = hash(ts);
+
+        Stripe stripe = stripe(hash);
+
+        long stamp = stripe.lock.writeLock();
+
+        try {
+            int i = stripe.indexOf(ts.getTimestamp(), ts.getNodeId(), hash);
+
+            if (i >= 0) {
+                stripe.removeAt(i);
+            }
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of the states.
+     *
+     * @return Number of the states.
+     */
+    int size() {
+        int size = 0;
+
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Removes the states of the finished transactions that have been seen by the previous sweep and marks the others. The hash tables of
+     * the stripes are rebuilt, so they shrink after a spike of the transactions.
+     *
+     * @return Number of the removed states.
+     */
+    int sweep() {
+        int removed = 0;
+
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+
+            try {
+                removed += stripe.sweep();
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Returns the stripe of a timestamp hash.
+     *
+     * @param hash Timestamp hash.
+     * @return The stripe.
+     */
+    private Stripe stripe(int hash) {
+        // The high bits select a stripe and the low bits select a slot of the hash table of the stripe.
+        return stripeBits == 0 ? stripes[0] : stripes[hash >>> (32 - stripeBits)];
+    }
+
+    /**
+     * Mixes the parts of a timestamp into a hash.
+     *
+     * @param ts The timestamp.
+     * @return Timestamp hash.
+     */
+    private static int hash(Timestamp ts) {
+        return hash(ts.getTimestamp(), ts.getNodeId());
+    }
+
+    /**
+     * Mixes the parts of a timestamp into a hash.
+     *
+     * @param ts Time part of the timestamp.
+     * @param nodeId Node id of the timestamp.
+     * @return Timestamp hash.
+     */
+    private static int hash(long ts, long nodeId) {
+        long h = (ts ^ nodeId * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Encodes a state.
+     *
+     * @param state The state.
+     * @return State code.
+     */
+    private static byte encode(TxState state) {
+        return (byte) (state.ordinal() + 1);
+    }
+
+    /**
+     * Decodes a state.
+     *
+     * @param code State code.
+     * @return The state, {@code null} for an empty slot.
+     */
+    private static @Nullable TxState decode(byte code) {
+        return code == EMPTY ? null : STATES[(code & ~SWEPT) - 1];
+    }
+
+    /**
+     * Stripe of the table: an open-addressing hash table with linear probing.
+     */
+    private static class Stripe {
+        /** Lock of the stripe. */
+        private final StampedLock lock = new StampedLock();
+
+        /** Timestamps of the slots, two longs per slot. */
+        private long[] keys = new long[INITIAL_CAPACITY * 2];
+
+        /** State codes of the slots, {@link #EMPTY} for an empty slot. */
+        private byte[] codes = new byte[INITIAL_CAPACITY];
+
+        /** Number of the states. */
+        private int size;
+
+        /**
+         * Returns the state code of a timestamp without blocking, unless the stripe is being updated.
+         *
+         * @param ts Time part of the timestamp.
+         * @param nodeId Node id of the timestamp.
+         * @param hash Timestamp hash.
+         * @return State code.
+         */
+        byte get(long ts, long nodeId, int hash) {
+            long stamp = lock.tryOptimisticRead();
+
+            if (stamp != 0) {
+                byte code = find(ts, nodeId, hash);
+
+                if (lock.validate(stamp)) {
+                    return code;
+                }
+            }
+
+            stamp = lock.readLock();
+
+            try {
+                return find(ts, nodeId, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Looks for the state code of a timestamp, tolerates an inconsistent view of the table during an optimistic read.
+         *
+         * @param ts Time part of the timestamp.
+         * @param nodeId Node id of the timestamp.
+         * @param hash Timestamp hash.
+         * @return State code.
+         */
+        private byte find(long ts, long nodeId, int hash) {
+            long[] keys = this.keys;
+            byte[] codes = this.codes;
+
+            // The arrays are being replaced, the result will be discarded.
+            if (keys.length != codes.length * 2) {
+                return EMPTY;
+            }
+
+            int mask = codes.length - 1;
+
+            for (int n = 0, i = hash & mask; n < codes.length; n++, i = (i + 1) & mask) {
+                byte code = codes[i];
+
+                if (code == EMPTY) {
+                    return EMPTY;
+                }
+
+                if (keys[2 * i] == ts && keys[2 * i + 1] == nodeId) {
+                    return code;
+                }
+            }
+
+            return EMPTY;
+        }
+
+        /**
+         * Changes the state of a timestamp.
+         *
+         * @param ts Time part of the timestamp.
+         * @param nodeId Node id of the timestamp.
+         * @param hash Timestamp hash.
+         * @param before Expected state, {@code null} if the state is expected to be unknown.
+         * @param after New state.
+         * @param force {@code True} to change the state regardless of the expected one.
+         * @return {@code True} if the state has been changed.
+         */
+        boolean update(long ts, long nodeId, int hash, @Nullable TxState before, TxState after, boolean force) {
+            long stamp = lock.writeLock();
+
+            try {
+                int i = indexOf(ts, nodeId, hash);
+
+                if (i < 0) {
+                    if (!force && before != null) {
+                        return false;
+                    }
+
+                    insert(-i - 1, ts, nodeId, encode(after));
+
+                    return true;
+                }
+
+                if (!force && decode(codes[i]) != before) {
+                    return false;
+                }
+
+                codes[i] = encode(after);
+
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Returns the slot of a timestamp, must be called under the write lock.
+         *
+         * @param ts Time part of the timestamp.
+         * @param nodeId Node id of the timestamp.
+         * @param hash Timestamp hash.
+         * @return The slot of the timestamp or {@code -(insertion slot) - 1} if there is no state of the timestamp.
+         */
+        int indexOf(long ts, long nodeId, int hash) {
+            int mask = codes.length - 1;
+
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                if (codes[i] == EMPTY) {
+                    return -i - 1;
+                }
+
+                if (keys[2 * i] == ts && keys[2 * i + 1] == nodeId) {
+                    return i;
+                }
+            }
+        }
+
+        /**
+         * Inserts a state into an empty slot, must be called under the write lock.
+         *
+         * @param i The slot.
+         * @param ts Time part of the timestamp.
+         * @param nodeId Node id of the timestamp.
+         * @param code State code.
+         */
+        void insert(int i, long ts, long nodeId, byte code) {
+            keys[2 * i] = ts;
+            keys[2 * i + 1] = nodeId;
+            codes[i] = code;
+
+            // Keep the load factor under 0.5, so the probe sequences stay short.
+            if (++size * 2 > codes.length) {
+                rebuild(codes.length * 2);
+            }
+        }
+
+        /**
+         * Removes the state of a slot, must be called under the write lock.
+         *
+         * @param i The slot.
+         */
+        void removeAt(int i) {
+            int mask = codes.length - 1;
+
+            // Shift back the following entries of the probe sequence, so no tombstones are needed.
+            for (int j = (i + 1) & mask; codes[j] != EMPTY; j = (j + 1) & mask) {
+                int home = hash(keys[2 * j], keys[2 * j + 1]) & mask;
+
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    keys[2 * i] = keys[2 * j];
+                    keys[2 * i + 1] = keys[2 * j + 1];
+                    codes[i] = codes[j];
+
+                    i = j;
+                }
+            }
+
+            codes[i] = EMPTY;
+
+            size--;
+        }
+
+        /**
+         * Removes the finished states marked by the previous sweep and marks the other finished ones, must be called under the write
+         * lock.
+         *
+         * @return Number of the removed states.
+         */
+        int sweep() {
+            int removed = 0;
+
+            for (int i = 0; i < codes.length; i++) {
+                byte code = codes[i];
+
+                if (code == EMPTY || code == encode(TxState.PENDING)) {
+                    continue;
+                }
+
+                if ((code & SWEPT) != 0) {
+                    codes[i] = EMPTY;
+
+                    removed++;
+                } else {
+                    codes[i] = (byte) (code | SWEPT);
+                }
+            }
+
+            if (removed > 0) {
+                size -= removed;
+
+                // Keep the load factor of a shrunk table under 0.25, so it doesn't grow right away.
+                int capacity = INITIAL_CAPACITY;
+
+                while (capacity < size * 4 && capacity < codes.length) {
+                    capacity *= 2;
+                }
+
+                rebuild(capacity);
+            }
+
+            return removed;
+        }
+
+        /**
+         * Moves the states to new arrays.
+         *
+         * @param capacity New capacity.
+         */
+        private void rebuild(int capacity) {
+            long[] oldKeys = keys;
+            byte[] oldCodes = codes;
+
+            long[] newKeys = new long[capacity * 2];
+            byte[] newCodes = new byte[capacity];
+
+            int mask = capacity - 1;
+
+            for (int j = 0; j < oldCodes.length; j++) {
+                if (oldCodes[j] == EMPTY) {
+                    continue;
+                }
+
+                int i = hash(oldKeys[2 * j], oldKeys[2 * j + 1]) & mask;
+
+                while (newCodes[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+
+                newKeys[2 * i] = oldKeys[2 * j];
+                newKeys[2 * i + 1] = oldKeys[2 * j + 1];
+                newCodes[i] = oldCodes[j];
+            }
+
+            keys = newKeys;
+            codes = newCodes;
+        }
+    }
+}
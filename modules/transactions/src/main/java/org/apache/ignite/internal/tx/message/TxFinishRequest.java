@@ -18,6 +18,7 @@
 package org.apache.ignite.internal.tx.message;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Set;
 import org.apache.ignite.internal.tx.Timestamp;
 import org.apache.ignite.network.NetworkMessage;
@@ -25,30 +26,32 @@ import org.apache.ignite.network.annotations.Marshallable;
 import org.apache.ignite.network.annotations.Transferable;
 
 /**
- * Submit an action to a replication group.
+ * Finishes a batch of transactions on the partition groups led by the receiving node. The finishes of the transactions that are
+ * finished concurrently are coalesced into a single request per node.
  */
 @Transferable(value = TxMessageGroup.TX_FINISH_REQUEST)
 public interface TxFinishRequest extends NetworkMessage, Serializable {
     /**
-     * Returns the timestamp.
+     * Returns the timestamps of the transactions.
      *
-     * @return The timestamp.
+     * @return The timestamps.
      */
     @Marshallable
-    Timestamp timestamp();
+    List<Timestamp> timestamps();
 
     /**
-     * Returns {@code True} if a commit request.
+     * Returns the outcomes of the transactions, in the order of the timestamps.
      *
-     * @return {@code True} to commit.
+     * @return The commit timestamps of the transactions, {@code null} for a rollback.
      */
-    boolean commit();
+    @Marshallable
+    List<Timestamp> commitTimestamps();
 
     /**
-     * Returns enlisted partition groups.
+     * Returns the enlisted partition groups of the transactions, in the order of the timestamps.
      *
      * @return Enlisted partition groups.
      */
     @Marshallable
-    Set<String> groups();
+    List<Set<String>> groups();
 }
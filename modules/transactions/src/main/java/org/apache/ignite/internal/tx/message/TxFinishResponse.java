@@ -18,19 +18,22 @@
 package org.apache.ignite.internal.tx.message;
 
 import java.io.Serializable;
+import java.util.Map;
+import org.apache.ignite.internal.tx.Timestamp;
 import org.apache.ignite.network.NetworkMessage;
+import org.apache.ignite.network.annotations.Marshallable;
 import org.apache.ignite.network.annotations.Transferable;
-import org.jetbrains.annotations.Nullable;
 
 /**
- * The result of an action.
+ * The result of a {@link TxFinishRequest}.
  */
 @Transferable(value = TxMessageGroup.TX_FINISH_RESPONSE)
 public interface TxFinishResponse extends NetworkMessage, Serializable {
     /**
-     * Returns the error message.
+     * Returns the error messages of the transactions that have failed to finish.
      *
-     * @return Finish error message or null if finished normally.
+     * @return Finish error messages by the timestamps of the transactions, empty if all of them have finished normally.
      */
-    @Nullable String errorMessage();
+    @Marshallable
+    Map<Timestamp, String> errors();
 }
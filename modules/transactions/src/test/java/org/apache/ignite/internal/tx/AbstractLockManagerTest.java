@@ -17,6 +17,7 @@
 
 package org.apache.ignite.internal.tx;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -575,6 +576,65 @@ public abstract class AbstractLockManagerTest extends IgniteAbstractTest {
         assertTrue(lockManager.queue(key).isEmpty());
     }
 
+    @Test
+    public void testHierarchicalLocks() throws LockException {
+        Timestamp[] ts = generate(3);
+
+        Object key = new String("partition");
+
+        assertTrue(lockManager.tryAcquireHierarchical(key, ts[0], LockMode.IS).isDone());
+        assertTrue(lockManager.tryAcquireHierarchical(key, ts[1], LockMode.IX).isDone());
+
+        // Waits for the older holder of a conflicting mode.
+        CompletableFuture<Void> fut = lockManager.tryAcquireHierarchical(key, ts[2], LockMode.S);
+
+        assertFalse(fut.isDone());
+
+        // The upgrade is denied because of the younger holder of a conflicting mode.
+        expectConflict(lockManager.tryAcquireHierarchical(key, ts[0], LockMode.S));
+
+        assertEquals(LockMode.IS, lockManager.hierarchicalMode(key, ts[0]));
+
+        lockManager.tryReleaseHierarchical(key, ts[1]);
+
+        fut.join();
+
+        assertEquals(LockMode.S, lockManager.hierarchicalMode(key, ts[2]));
+
+        lockManager.tryReleaseHierarchical(key, ts[0]);
+        lockManager.tryReleaseHierarchical(key, ts[2]);
+
+        assertTrue(lockManager.isEmpty());
+    }
+
+    @Test
+    public void testHierarchicalLockUpgrade() throws LockException {
+        Timestamp ts1 = Timestamp.nextVersion();
+        Timestamp ts2 = Timestamp.nextVersion();
+
+        Object key = new String("table");
+
+        lockManager.tryAcquireHierarchical(key, ts1, LockMode.IS).join();
+        lockManager.tryAcquireHierarchical(key, ts1, LockMode.IX).join();
+        lockManager.tryAcquireHierarchical(key, ts1, LockMode.IS).join();
+
+        assertEquals(LockMode.IX, lockManager.hierarchicalMode(key, ts1));
+
+        // There is no SIX mode.
+        lockManager.tryAcquireHierarchical(key, ts1, LockMode.S).join();
+
+        assertEquals(LockMode.X, lockManager.hierarchicalMode(key, ts1));
+
+        // The hierarchical locks are kept apart from the locks of the keys.
+        lockManager.tryAcquire(key, ts2).join();
+        lockManager.tryRelease(key, ts2);
+
+        lockManager.tryReleaseHierarchical(key, ts1);
+
+        assertNull(lockManager.hierarchicalMode(key, ts1));
+        assertTrue(lockManager.isEmpty());
+    }
+
     private Timestamp[] generate(int num) {
         Timestamp[] tmp = new Timestamp[num];
 
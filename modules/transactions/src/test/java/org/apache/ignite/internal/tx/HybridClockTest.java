@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ignite.internal.tx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.ignite.internal.testframework.IgniteTestUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link HybridClock}.
+ */
+public class HybridClockTest {
+    /** Wall clock of the tests. */
+    private final AtomicLong wallClock = new AtomicLong(Timestamp.EPOCH + 1_000);
+
+    private final HybridClock clock = new HybridClock(1, wallClock::get);
+
+    @Test
+    public void testLogicalPartWithinMillisecond() {
+        Timestamp ts1 = clock.now();
+        Timestamp ts2 = clock.now();
+
+        assertEquals(1_000L << HybridClock.LOGICAL_BITS, ts1.getTimestamp());
+        assertEquals(ts1.getTimestamp() + 1, ts2.getTimestamp());
+
+        wallClock.addAndGet(1);
+
+        assertEquals(1_001L << HybridClock.LOGICAL_BITS, clock.now().getTimestamp());
+    }
+
+    @Test
+    public void testWallClockGoesBackward() {
+        Timestamp ts1 = clock.now();
+
+        wallClock.addAndGet(-100);
+
+        assertTrue(clock.now().compareTo(ts1) > 0);
+    }
+
+    @Test
+    public void testUpdate() {
+        Timestamp received = new Timestamp(5_000L << HybridClock.LOGICAL_BITS, 2);
+
+        clock.update(received);
+
+        assertTrue(clock.now().compareTo(received) > 0);
+
+        // An older timestamp doesn't move the clock back.
+        clock.update(new Timestamp(0, 2));
+
+        assertEquals((5_000L << HybridClock.LOGICAL_BITS) + 2, clock.now().getTimestamp());
+    }
+
+    @Test
+    public void testReserve() {
+        Timestamp before = clock.now();
+
+        Timestamp[] reserved = clock.reserve(10);
+
+        assertEquals(10, reserved.length);
+        assertTrue(reserved[0].compareTo(before) > 0);
+
+        for (int i = 1; i < reserved.length; i++) {
+            assertEquals(reserved[i - 1].getTimestamp() + 1, reserved[i].getTimestamp());
+        }
+
+        assertTrue(clock.now().compareTo(reserved[reserved.length - 1]) > 0);
+    }
+
+    @Test
+    public void testConcurrentTimestampsAreUnique() throws Exception {
+        HybridClock clock = new HybridClock(1);
+
+        Set<Timestamp> timestamps = ConcurrentHashMap.newKeySet();
+
+        IgniteTestUtils.runMultiThreadedAsync(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                timestamps.add(clock.now());
+            }
+        }, 8, "hlc-test").get();
+
+        assertEquals(80_000, timestamps.size());
+    }
+
+    @Test
+    public void testClocksOfNodesInSameJvmAreUnique() {
+        Set<Timestamp> timestamps = new HashSet<>();
+
+        // The nodes of a test are started in the same JVM at the same time, their clocks read the same wall clock.
+        List<HybridClock> clocks = List.of(
+                new HybridClock("node0"),
+                new HybridClock("node1"),
+                new HybridClock("node0"),
+                new HybridClock(),
+                new HybridClock()
+        );
+
+        for (int i = 0; i < 1_000; i++) {
+            for (HybridClock clock : clocks) {
+                assertTrue(timestamps.add(clock.now()));
+            }
+        }
+    }
+}
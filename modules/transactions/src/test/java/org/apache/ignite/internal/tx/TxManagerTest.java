@@ -19,17 +19,32 @@ package org.apache.ignite.internal.tx;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.apache.ignite.internal.tx.impl.TxManagerImpl.DFLT_STATE_RETENTION;
+import static org.apache.ignite.internal.tx.impl.TxManagerImpl.MAX_FINISH_REQUESTS_IN_FLIGHT;
 import static org.mockito.Answers.RETURNS_DEEP_STUBS;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.apache.ignite.internal.testframework.IgniteAbstractTest;
 import org.apache.ignite.internal.tx.impl.HeapLockManager;
 import org.apache.ignite.internal.tx.impl.TxManagerImpl;
+import org.apache.ignite.internal.tx.message.TxFinishRequest;
+import org.apache.ignite.internal.tx.message.TxMessagesFactory;
+import org.apache.ignite.lang.IgniteUuid;
 import org.apache.ignite.network.ClusterService;
 import org.apache.ignite.network.NetworkAddress;
+import org.apache.ignite.network.NetworkMessage;
 import org.apache.ignite.raft.client.service.RaftGroupService;
 import org.apache.ignite.tx.TransactionException;
 import org.junit.jupiter.api.BeforeEach;
@@ -124,6 +139,156 @@ public class TxManagerTest extends IgniteAbstractTest {
         assertTrue(tx.enlisted().contains(svc));
     }
 
+    @Test
+    public void testFinishesCoalescedPerNode() {
+        NetworkAddress remote = new NetworkAddress("127.0.0.1", 2005);
+
+        List<TxFinishRequest> requests = new ArrayList<>();
+        List<CompletableFuture<NetworkMessage>> responses = new ArrayList<>();
+
+        Mockito.when(clusterService.messagingService().invoke(Mockito.eq(remote), Mockito.any(NetworkMessage.class), Mockito.anyLong()))
+                .thenAnswer(invocation -> {
+                    requests.add(invocation.getArgument(1));
+
+                    CompletableFuture<NetworkMessage> resp = new CompletableFuture<>();
+
+                    responses.add(resp);
+
+                    return resp;
+                });
+
+        List<Timestamp> sent = new ArrayList<>();
+        List<CompletableFuture<Void>> sentFuts = new ArrayList<>();
+
+        // Up to the limit, every finish is sent right away by a request of its own.
+        for (int i = 0; i < MAX_FINISH_REQUESTS_IN_FLIGHT; i++) {
+            Timestamp ts = Timestamp.nextVersion();
+
+            sent.add(ts);
+            sentFuts.add(txManager.finishRemote(remote, ts, Timestamp.nextVersion(), Set.of("grp1")));
+        }
+
+        assertEquals(MAX_FINISH_REQUESTS_IN_FLIGHT, requests.size());
+
+        for (int i = 0; i < MAX_FINISH_REQUESTS_IN_FLIGHT; i++) {
+            assertEquals(List.of(sent.get(i)), requests.get(i).timestamps());
+        }
+
+        Timestamp ts1 = Timestamp.nextVersion();
+        Timestamp ts2 = Timestamp.nextVersion();
+
+        // The finishes submitted while the limit is reached are sent by a single request.
+        CompletableFuture<Void> fut1 = txManager.finishRemote(remote, ts1, null, Set.of("grp1", "grp2"));
+        CompletableFuture<Void> fut2 = txManager.finishRemote(remote, ts2, Timestamp.nextVersion(), Set.of("grp2"));
+
+        assertEquals(MAX_FINISH_REQUESTS_IN_FLIGHT, requests.size());
+
+        TxMessagesFactory factory = new TxMessagesFactory();
+
+        // Any completed request frees a slot, the first one doesn't hold back the next ones.
+        responses.get(MAX_FINISH_REQUESTS_IN_FLIGHT - 1).complete(factory.txFinishResponse().errors(Map.of()).build());
+
+        sentFuts.get(MAX_FINISH_REQUESTS_IN_FLIGHT - 1).join();
+
+        assertFalse(sentFuts.get(0).isDone());
+
+        assertEquals(MAX_FINISH_REQUESTS_IN_FLIGHT + 1, requests.size());
+
+        TxFinishRequest req = requests.get(MAX_FINISH_REQUESTS_IN_FLIGHT);
+
+        assertEquals(List.of(ts1, ts2), req.timestamps());
+        assertNull(req.commitTimestamps().get(0));
+        assertNotNull(req.commitTimestamps().get(1));
+        assertEquals(List.of(Set.of("grp1", "grp2"), Set.of("grp2")), req.groups());
+
+        responses.get(MAX_FINISH_REQUESTS_IN_FLIGHT).complete(factory.txFinishResponse().errors(Map.of(ts1, "Failed")).build());
+
+        assertThrows(CompletionException.class, fut1::join);
+
+        fut2.join();
+    }
+
+    @Test
+    public void testFinishesBatchedPerGroup() {
+        List<String> finishedGroups = new ArrayList<>();
+        List<List<Timestamp>> finishedTimestamps = new ArrayList<>();
+
+        TxManagerImpl txManager = new TxManagerImpl(clusterService, new HeapLockManager()) {
+            @Override
+            protected CompletableFuture<?> finish(String groupId, List<Timestamp> timestamps, List<Timestamp> commitTimestamps) {
+                finishedGroups.add(groupId);
+                finishedTimestamps.add(timestamps);
+
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+
+        Timestamp ts1 = txManager.begin().timestamp();
+        Timestamp ts2 = txManager.begin().timestamp();
+
+        // A null commit timestamp stands for a rollback.
+        List<Timestamp> commitTimestamps = new ArrayList<>();
+
+        commitTimestamps.add(Timestamp.nextVersion());
+        commitTimestamps.add(null);
+
+        TxFinishRequest req = new TxMessagesFactory().txFinishRequest()
+                .timestamps(List.of(ts1, ts2))
+                .commitTimestamps(commitTimestamps)
+                .groups(List.of(Set.of("grp"), Set.of("grp")))
+                .build();
+
+        txManager.onReceived(req, ADDR, 1L);
+
+        // Both transactions are finished on the group by a single call.
+        assertEquals(List.of("grp"), finishedGroups);
+        assertEquals(List.of(List.of(ts1, ts2)), finishedTimestamps);
+
+        assertEquals(TxState.COMMITED, txManager.state(ts1));
+        assertEquals(TxState.ABORTED, txManager.state(ts2));
+    }
+
+    @Test
+    public void testLockEscalation() {
+        LockManager lockManager = new HeapLockManager();
+
+        TxManager txManager = new TxManagerImpl(clusterService, lockManager, Timestamp.defaultClock(), DFLT_STATE_RETENTION, 2);
+
+        IgniteUuid tableId = new IgniteUuid(UUID.randomUUID(), 0);
+
+        Timestamp ts1 = txManager.begin().timestamp();
+        Timestamp ts2 = txManager.begin().timestamp();
+
+        txManager.writeLock(tableId, 0, key(1), ts1).join();
+        txManager.writeLock(tableId, 0, key(2), ts1).join();
+
+        assertEquals(LockMode.IX, lockManager.hierarchicalMode(tableId, ts1));
+
+        // The third key is locked along with the whole partition, which implies the read locks too.
+        txManager.writeLock(tableId, 0, key(3), ts1).join();
+
+        assertTrue(txManager.readLock(tableId, 0, key(4), ts1).isDone());
+
+        // The younger transaction waits for the partition, the other partitions are not affected.
+        CompletableFuture<Void> fut = txManager.writeLock(tableId, 0, key(5), ts2);
+
+        assertFalse(fut.isDone());
+
+        txManager.writeLock(tableId, 1, key(6), ts2).join();
+
+        txManager.commitAsync(ts1).join();
+
+        fut.join();
+
+        txManager.commitAsync(ts2).join();
+
+        assertTrue(lockManager.isEmpty());
+    }
+
+    private static ByteBuffer key(int key) {
+        return ByteBuffer.wrap(new byte[] {(byte) key});
+    }
+
     @Test
     public void testTimestamp() throws InterruptedException {
         Timestamp ts1 = Timestamp.nextVersion();
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.internal.tx.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ignite.internal.testframework.IgniteTestUtils;
+import org.apache.ignite.internal.tx.Timestamp;
+import org.apache.ignite.internal.tx.TxState;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link TxStateTable}.
+ */
+public class TxStateTableTest {
+    private final TxStateTable states = new TxStateTable(2);
+
+    @Test
+    public void testUpdates() {
+        Timestamp ts = new Timestamp(1, 1);
+
+        assertNull(states.get(ts));
+
+        assertNull(states.putIfAbsent(ts, TxState.PENDING));
+        assertEquals(TxState.PENDING, states.putIfAbsent(ts, TxState.ABORTED));
+
+        assertFalse(states.replace(ts, TxState.ABORTED, TxState.COMMITED));
+        assertFalse(states.replace(ts, null, TxState.COMMITED));
+        assertTrue(states.replace(ts, TxState.PENDING, TxState.COMMITED));
+        assertEquals(TxState.COMMITED, states.get(ts));
+
+        // The timestamps differing in the node id only are different keys.
+        assertNull(states.get(new Timestamp(1, 2)));
+
+        states.remove(ts);
+
+        assertNull(states.get(ts));
+        assertEquals(0, states.size());
+
+        assertTrue(states.replace(ts, null, TxState.ABORTED));
+        assertEquals(TxState.ABORTED, states.get(ts));
+    }
+
+    @Test
+    public void testManyStates() {
+        int cnt = 10_000;
+
+        for (int i = 0; i < cnt; i++) {
+            states.put(new Timestamp(i, i % 3), TxState.values()[i % 3]);
+        }
+
+        assertEquals(cnt, states.size());
+
+        // Removals must keep the probe sequences of the other states intact.
+        for (int i = 0; i < cnt; i += 2) {
+            states.remove(new Timestamp(i, i % 3));
+        }
+
+        assertEquals(cnt / 2, states.size());
+
+        for (int i = 0; i < cnt; i++) {
+            Timestamp ts = new Timestamp(i, i % 3);
+
+            if (i % 2 == 0) {
+                assertNull(states.get(ts));
+            } else {
+                assertEquals(TxState.values()[i % 3], states.get(ts));
+            }
+        }
+    }
+
+    @Test
+    public void testSweep() {
+        Timestamp pending = new Timestamp(1, 1);
+        Timestamp committed = new Timestamp(2, 1);
+        Timestamp aborted = new Timestamp(3, 1);
+
+        states.put(pending, TxState.PENDING);
+        states.put(committed, TxState.COMMITED);
+        states.put(aborted, TxState.PENDING);
+
+        // The finished states are only marked by the first sweep.
+        assertEquals(0, states.sweep());
+        assertEquals(TxState.COMMITED, states.get(committed));
+
+        assertTrue(states.replace(aborted, TxState.PENDING, TxState.ABORTED));
+
+        assertEquals(1, states.sweep());
+        assertNull(states.get(committed));
+        assertEquals(TxState.ABORTED, states.get(aborted));
+
+        assertEquals(1, states.sweep());
+        assertNull(states.get(aborted));
+
+        // The pending states are never removed.
+        assertEquals(0, states.sweep());
+        assertEquals(TxState.PENDING, states.get(pending));
+        assertEquals(1, states.size());
+    }
+
+    @Test
+    public void testSweepShrinksTable() {
+        int cnt = 10_000;
+
+        for (int i = 0; i < cnt; i++) {
+            states.put(new Timestamp(i, 1), i < 10 ? TxState.PENDING : TxState.COMMITED);
+        }
+
+        states.sweep();
+
+        assertEquals(cnt - 10, states.sweep());
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(TxState.PENDING, states.get(new Timestamp(i, 1)));
+        }
+
+        assertEquals(10, states.size());
+    }
+
+    @Test
+    public void testConcurrentReadsAndUpdates() throws Exception {
+        int cnt = 1_000;
+
+        for (int i = 0; i < cnt; i++) {
+            states.put(new Timestamp(i, 0), TxState.COMMITED);
+        }
+
+        AtomicInteger threadIdx = new AtomicInteger();
+
+        IgniteTestUtils.runMultiThreadedAsync(() -> {
+            int idx = threadIdx.getAndIncrement();
+
+            for (int i = 0; i < 10 * cnt; i++) {
+                if (idx % 2 == 0) {
+                    // The updates resize the tables and shift the probe sequences.
+                    Timestamp ts = new Timestamp(i, idx + 1);
+
+                    states.put(ts, TxState.PENDING);
+                    states.remove(ts);
+                } else {
+                    assertEquals(TxState.COMMITED, states.get(new Timestamp(i % cnt, 0)));
+                }
+            }
+        }, 8, "tx-state-test").get();
+
+        assertEquals(cnt, states.size());
+    }
+}